@@ -0,0 +1,13 @@
+package com.library.bench;
+
+/**
+ * Jedna mierzona operacja. Wynik {@link Op#run()} trafia do "czarnej dziury" runnera,
+ * więc JIT nie może wyciąć liczonej pracy.
+ */
+public record Benchmark(String name, Op op) {
+
+    @FunctionalInterface
+    public interface Op {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,121 @@
+package com.library.bench;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parametry uruchomienia w postaci {@code --klucz=wartość}. Rozmiary danych syntetycznych są
+ * konfigurowalne, ziarno losowania stałe – dwa przebiegi na różnych commitach mierzą te same dane.
+ */
+public final class BenchmarkOptions {
+
+    static final String USAGE = """
+            Użycie: BenchmarkRunner [--opcja=wartość ...]
+              --groups=mapping,security      grupy do uruchomienia (mapping, security, queries)
+              --filter=<regex>               tylko benchmarki, których pełna nazwa pasuje
+              --warmup=5 --iterations=10     liczba iteracji rozgrzewki / pomiaru
+              --time=PT1S                    czas jednej iteracji (ISO-8601)
+              --out=target/bench/results.json
+              --baseline=<plik.json>         porównanie z wcześniejszym wynikiem
+              --max-regression=10            próg (%) – powyżej kod wyjścia 2
+              --label=<np. skrót commita>    zapisywany w params każdego wyniku
+              --seed=42 --users=10000 --books=1000 --page-size=200 --authors-per-book=2
+              --db-url=jdbc:mysql://...      włącza grupę queries (baza z danymi)
+              --db-user=library --db-password=library
+            """;
+
+    private static final Map<String, String> DATASET_DEFAULTS = Map.of(
+            "seed", "42", "users", "10000", "books", "1000", "page-size", "200", "authors-per-book", "2");
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private BenchmarkOptions() {
+    }
+
+    public static BenchmarkOptions parse(String[] args) {
+        BenchmarkOptions o = new BenchmarkOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Nieznany argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                o.values.put(arg.substring(2), "true");
+            } else {
+                o.values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return o;
+    }
+
+    public boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    public String get(String key, String def) {
+        return values.getOrDefault(key, def);
+    }
+
+    public int getInt(String key, int def) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : def;
+    }
+
+    public long seed() {
+        return Long.parseLong(get("seed", DATASET_DEFAULTS.get("seed")));
+    }
+
+    public int users() {
+        return Integer.parseInt(get("users", DATASET_DEFAULTS.get("users")));
+    }
+
+    public int books() {
+        return Integer.parseInt(get("books", DATASET_DEFAULTS.get("books")));
+    }
+
+    public int pageSize() {
+        return Integer.parseInt(get("page-size", DATASET_DEFAULTS.get("page-size")));
+    }
+
+    public int authorsPerBook() {
+        return Integer.parseInt(get("authors-per-book", DATASET_DEFAULTS.get("authors-per-book")));
+    }
+
+    public int warmupIterations() {
+        return getInt("warmup", 5);
+    }
+
+    public int iterations() {
+        return getInt("iterations", 10);
+    }
+
+    public Duration iterationTime() {
+        return Duration.parse(get("time", "PT1S"));
+    }
+
+    public Pattern filter() {
+        return Pattern.compile(get("filter", ".*"));
+    }
+
+    public List<String> groups() {
+        String def = has("db-url") ? "mapping,security,queries" : "mapping,security";
+        return List.of(get("groups", def).split(","));
+    }
+
+    public Path out() {
+        return Path.of(get("out", "target/bench/results.json"));
+    }
+
+    /** Parametry zapisywane przy każdym wyniku – porównywać można tylko przebiegi z tymi samymi. */
+    public Map<String, String> params() {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (has("label")) params.put("label", get("label", null));
+        for (String key : List.of("seed", "users", "books", "page-size", "authors-per-book")) {
+            params.put(key, get(key, DATASET_DEFAULTS.get(key)));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,227 @@
+package com.library.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Prosty harness w stylu JMH (tryb avgt, ns/op): rozgrzewka, iteracje o stałym czasie,
+ * średnia z przedziałem ufności 99,9% (rozkład t-Studenta). Wynik zapisywany w formacie JSON
+ * zgodnym z {@code -rf json} JMH, więc pliki z dwóch commitów da się porównać tymi samymi
+ * narzędziami albo opcją {@code --baseline}.
+ * <p>
+ * Jeden wątek, jeden proces (brak forków) – porównywać wyniki z tej samej maszyny i tego samego JDK.
+ */
+public final class BenchmarkRunner {
+
+    private static final String PREFIX = "com.library.bench.";
+    // docelowy czas jednej paczki wywołań między odczytami zegara
+    private static final long BATCH_TARGET_NANOS = 20_000;
+
+    // "czarna dziura": porównanie z polem volatile, którego JIT nie może przewidzieć
+    private static volatile Object marker = new Object();
+    private static int sunk;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        if (options.has("help")) {
+            System.out.println(BenchmarkOptions.USAGE);
+            return;
+        }
+
+        Pattern filter = options.filter();
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String group : options.groups()) {
+            try (BenchmarkSuite suite = createSuite(group.trim(), options)) {
+                for (Benchmark b : suite.benchmarks()) {
+                    String fullName = PREFIX + suite.group() + "." + b.name();
+                    if (!filter.matcher(fullName).find()) continue;
+                    results.add(run(fullName, b, options));
+                }
+            }
+        }
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path out = options.out();
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        mapper.writeValue(out.toFile(), results);
+        System.out.println("Wyniki: " + out.toAbsolutePath());
+
+        if (options.has("baseline")) {
+            List<Map<String, Object>> baseline = mapper.readValue(Path.of(options.get("baseline", null)).toFile(),
+                    new TypeReference<>() {
+                    });
+            double maxRegression = Double.parseDouble(options.get("max-regression", "10"));
+            if (compare(baseline, results, maxRegression)) {
+                System.exit(2);
+            }
+        }
+        // kontekst Springa (grupa queries) może zostawić wątki niedemoniczne
+        System.exit(0);
+    }
+
+    private static BenchmarkSuite createSuite(String group, BenchmarkOptions options) throws Exception {
+        return switch (group) {
+            case "mapping" -> new MappingBenchmarks(options);
+            case "security" -> new SecurityBenchmarks(options);
+            case "queries" -> new QueryBenchmarks(options);
+            default -> throw new IllegalArgumentException("Nieznana grupa: " + group + " (mapping, security, queries)");
+        };
+    }
+
+    private static Map<String, Object> run(String name, Benchmark b, BenchmarkOptions options) throws Exception {
+        long iterationNanos = options.iterationTime().toNanos();
+
+        System.out.printf(Locale.ROOT, "%n# %s%n", name);
+        for (int i = 0; i < options.warmupIterations(); i++) {
+            double nsPerOp = iteration(b, 1, iterationNanos);
+            System.out.printf(Locale.ROOT, "  rozgrzewka %2d: %,.1f ns/op%n", i + 1, nsPerOp);
+        }
+        // paczkę dobieramy po rozgrzewce – zimny pierwszy przebieg zaniżyłby ją do 1
+        int batch = calibrate(b);
+        System.out.printf(Locale.ROOT, "  paczka: %d wywołań między odczytami zegara%n", batch);
+        double[] samples = new double[options.iterations()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = iteration(b, batch, iterationNanos);
+            System.out.printf(Locale.ROOT, "  iteracja   %2d: %,.1f ns/op%n", i + 1, samples[i]);
+        }
+
+        double mean = 0;
+        for (double s : samples) mean += s;
+        mean /= samples.length;
+        double error = Double.NaN;
+        if (samples.length > 1) {
+            double var = 0;
+            for (double s : samples) var += (s - mean) * (s - mean);
+            var /= samples.length - 1;
+            error = tQuantile999(samples.length - 1) * Math.sqrt(var / samples.length);
+        }
+        System.out.printf(Locale.ROOT, "  wynik: %,.1f ± %,.1f ns/op%n", mean, error);
+
+        List<Double> raw = new ArrayList<>(samples.length);
+        for (double s : samples) raw.add(s);
+        Map<String, Object> metric = new LinkedHashMap<>();
+        metric.put("score", mean);
+        metric.put("scoreError", error);
+        metric.put("scoreConfidence", List.of(mean - error, mean + error));
+        metric.put("scoreUnit", "ns/op");
+        metric.put("rawData", List.of(raw));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", name);
+        result.put("mode", "avgt");
+        result.put("threads", 1);
+        result.put("forks", 0);
+        result.put("jvm", System.getProperty("java.home"));
+        result.put("jdkVersion", System.getProperty("java.version"));
+        result.put("vmName", System.getProperty("java.vm.name"));
+        result.put("warmupIterations", options.warmupIterations());
+        result.put("warmupTime", format(options.iterationTime()));
+        result.put("measurementIterations", options.iterations());
+        result.put("measurementTime", format(options.iterationTime()));
+        result.put("params", options.params());
+        result.put("primaryMetric", metric);
+        return result;
+    }
+
+    // ile wywołań mieści się w ~20 µs – żeby koszt System.nanoTime() nie zawyżał szybkich operacji
+    private static int calibrate(Benchmark b) throws Exception {
+        int batch = 1;
+        while (batch < (1 << 20)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) consume(b.op().run());
+            if (System.nanoTime() - start >= BATCH_TARGET_NANOS) break;
+            batch <<= 1;
+        }
+        return batch;
+    }
+
+    private static double iteration(Benchmark b, int batch, long iterationNanos) throws Exception {
+        Benchmark.Op op = b.op();
+        long ops = 0;
+        long start = System.nanoTime();
+        long deadline = start + iterationNanos;
+        long now;
+        do {
+            for (int i = 0; i < batch; i++) consume(op.run());
+            ops += batch;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return (double) (now - start) / ops;
+    }
+
+    private static void consume(Object result) {
+        if (result == marker) sunk++;
+    }
+
+    /** @return true, jeśli któryś benchmark zwolnił ponad próg i poza łącznym błędem pomiaru */
+    @SuppressWarnings("unchecked")
+    private static boolean compare(List<Map<String, Object>> baseline, List<Map<String, Object>> current,
+                                   double maxRegressionPercent) {
+        Map<String, Map<String, Object>> before = new LinkedHashMap<>();
+        for (Map<String, Object> r : baseline) {
+            before.put((String) r.get("benchmark"), (Map<String, Object>) r.get("primaryMetric"));
+        }
+
+        boolean regression = false;
+        System.out.printf(Locale.ROOT, "%n%-60s %14s %14s %9s%n", "benchmark", "przed ns/op", "po ns/op", "zmiana");
+        for (Map<String, Object> r : current) {
+            String name = (String) r.get("benchmark");
+            Map<String, Object> now = (Map<String, Object>) r.get("primaryMetric");
+            Map<String, Object> old = before.get(name);
+            if (old == null) {
+                System.out.printf(Locale.ROOT, "%-60s %14s %,14.1f %9s%n", name, "-", score(now), "nowy");
+                continue;
+            }
+            double delta = (score(now) - score(old)) / score(old) * 100;
+            boolean significant = Math.abs(score(now) - score(old)) > error(now) + error(old);
+            String verdict = "";
+            if (significant && delta > maxRegressionPercent) {
+                verdict = "  REGRESJA";
+                regression = true;
+            } else if (significant && delta < -maxRegressionPercent) {
+                verdict = "  poprawa";
+            }
+            System.out.printf(Locale.ROOT, "%-60s %,14.1f %,14.1f %+8.1f%%%s%n",
+                    name, score(old), score(now), delta, verdict);
+        }
+        return regression;
+    }
+
+    private static double score(Map<String, Object> metric) {
+        return ((Number) metric.get("score")).doubleValue();
+    }
+
+    private static double error(Map<String, Object> metric) {
+        Object e = metric.get("scoreError");
+        return e instanceof Number n && !Double.isNaN(n.doubleValue()) ? n.doubleValue() : 0;
+    }
+
+    private static String format(Duration d) {
+        return d.toMillis() % 1000 == 0 ? d.toSeconds() + " s" : d.toMillis() + " ms";
+    }
+
+    // kwantyl 0,9995 rozkładu t (dwustronny 99,9%) – jak w raportach JMH
+    private static final double[] T_999 = {
+            636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+            4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+            3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646
+    };
+
+    private static double tQuantile999(int degreesOfFreedom) {
+        return degreesOfFreedom <= T_999.length ? T_999[degreesOfFreedom - 1] : 3.291;
+    }
+
+    private BenchmarkRunner() {
+    }
+}
@@ -0,0 +1,17 @@
+package com.library.bench;
+
+import java.util.List;
+
+/**
+ * Grupa benchmarków ze wspólnym przygotowaniem danych (fixture budowany raz, przed pomiarem).
+ */
+public interface BenchmarkSuite extends AutoCloseable {
+
+    String group();
+
+    List<Benchmark> benchmarks();
+
+    @Override
+    default void close() throws Exception {
+    }
+}
@@ -0,0 +1,190 @@
+package com.library.bench;
+
+import com.library.cache.CatalogCache;
+import com.library.dto.BookDto;
+import com.library.dto.LoanDto;
+import com.library.dto.admin.AdminUserRowDto;
+import com.library.model.entity.AppUser;
+import com.library.model.entity.Book;
+import com.library.model.entity.Category;
+import com.library.model.entity.Loan;
+import com.library.repository.AuthorRepository;
+import com.library.repository.CategoryRepository;
+import com.library.repository.LoanRepository;
+import com.library.service.BookService;
+import com.library.service.LoanDtoAssembler;
+import com.library.service.LoanService;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Mapowanie encji/wierszy na DTO – ścieżki wywoływane raz na element każdej strony listy.
+ * <ul>
+ *   <li>{@code bookToDto}, {@code loanToDto} – prywatne {@code toDto} serwisów (przez MethodHandle),</li>
+ *   <li>{@code loanRowsToDtos} – LoanDtoAssembler dla strony płaskich wierszy,</li>
+ *   <li>{@code users*} – lista admina dla {@code --users} użytkowników: dawne mapowanie refleksją
+ *   na {@code Map} (UserService.toAdminUserMap sprzed projekcji), ręczna mapa i projekcja DTO.</li>
+ * </ul>
+ */
+final class MappingBenchmarks implements BenchmarkSuite {
+
+    private final SyntheticData data;
+    private final BookService bookService;
+    private final LoanService loanService;
+    private final LoanDtoAssembler loanDtoAssembler;
+    private final MethodHandle bookToDto;
+    private final MethodHandle loanToDto;
+    private final List<LoanRepository.LoanRow> loanRows;
+
+    private int bookIndex;
+    private int loanIndex;
+
+    MappingBenchmarks(BenchmarkOptions options) {
+        this.data = new SyntheticData(options);
+
+        Map<Long, Category> categories = new LinkedHashMap<>();
+        data.categories.forEach(c -> categories.put(c.getId(), c));
+        CategoryRepository categoryRepository = Reflect.stub(CategoryRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("findById")) return Optional.ofNullable(categories.get((Long) args[0]));
+            throw new UnsupportedOperationException(method.getName());
+        });
+        // kategorie trafiają w cache jak w działającej aplikacji
+        CatalogCache catalogCache = new CatalogCache(categoryRepository, 10_000, Duration.ofMinutes(10),
+                1_000, Duration.ofHours(1));
+        this.bookService = Reflect.construct(BookService.class, catalogCache);
+        this.bookToDto = Reflect.privateMethod(BookService.class, "toDto", BookDto.class, Book.class);
+
+        this.loanService = Reflect.construct(LoanService.class);
+        this.loanToDto = Reflect.privateMethod(LoanService.class, "toDto", LoanDto.class, Loan.class);
+
+        List<AuthorRepository.BookAuthorRow> authorRows = data.authorRows();
+        AuthorRepository authorRepository = Reflect.stub(AuthorRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("findAuthorRowsByBookIdIn")) return authorRows;
+            throw new UnsupportedOperationException(method.getName());
+        });
+        this.loanDtoAssembler = Reflect.construct(LoanDtoAssembler.class, authorRepository);
+        this.loanRows = data.loanRows();
+    }
+
+    @Override
+    public String group() {
+        return "mapping";
+    }
+
+    @Override
+    public List<Benchmark> benchmarks() {
+        return List.of(
+                new Benchmark("bookToDto", this::bookToDto),
+                new Benchmark("loanToDto", this::loanToDto),
+                new Benchmark("loanRowsToDtos", () -> loanDtoAssembler.toDtos(loanRows)),
+                new Benchmark("usersReflectiveMap", () -> mapUsers(LegacyUserMapping::toAdminUserMap)),
+                new Benchmark("usersExplicitMap", () -> mapUsers(MappingBenchmarks::toExplicitMap)),
+                new Benchmark("usersProjectionDto", () -> mapUsers(MappingBenchmarks::toRowDto))
+        );
+    }
+
+    private Object bookToDto() {
+        Book book = data.books.get(bookIndex);
+        bookIndex = bookIndex + 1 == data.books.size() ? 0 : bookIndex + 1;
+        try {
+            return (BookDto) bookToDto.invokeExact(bookService, book);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private Object loanToDto() {
+        Loan loan = data.loans.get(loanIndex);
+        loanIndex = loanIndex + 1 == data.loans.size() ? 0 : loanIndex + 1;
+        try {
+            return (LoanDto) loanToDto.invokeExact(loanService, loan);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private <T> List<T> mapUsers(Function<AppUser, T> mapper) {
+        List<T> out = new ArrayList<>(data.users.size());
+        for (AppUser u : data.users) out.add(mapper.apply(u));
+        return out;
+    }
+
+    private static Map<String, Object> toExplicitMap(AppUser u) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", u.getId());
+        m.put("email", u.getEmail());
+        m.put("firstName", u.getFirstName());
+        m.put("lastName", u.getLastName());
+        m.put("role", u.getRole() == null ? null : u.getRole().name());
+        m.put("status", u.getStatus() == null ? null : u.getStatus().name());
+        m.put("blockedReason", u.getBlockedReason());
+        m.put("blockedUntil", u.getBlockedUntil() == null ? null : u.getBlockedUntil().toString());
+        m.put("createdAt", u.getCreatedAt() == null ? null : u.getCreatedAt().toString());
+        return m;
+    }
+
+    // to, co JPQL "select new" buduje z kolumn wiersza
+    private static AdminUserRowDto toRowDto(AppUser u) {
+        return new AdminUserRowDto(u.getId(), u.getEmail(), u.getFirstName(), u.getLastName(),
+                u.getRole(), u.getStatus(), u.getBlockedReason(), u.getBlockedUntil(), u.getCreatedAt());
+    }
+
+    /** Punkt odniesienia: mapowanie z UserService sprzed przejścia na projekcje (pole po polu refleksją). */
+    private static final class LegacyUserMapping {
+
+        static Map<String, Object> toAdminUserMap(AppUser u) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", u.getId());
+            m.put("email", getFieldValue(u, "email"));
+            m.put("firstName", getFieldValue(u, "firstName"));
+            m.put("lastName", getFieldValue(u, "lastName"));
+            m.put("role", enumName(getFieldValue(u, "role")));
+            m.put("status", enumName(getFieldValue(u, "status")));
+            m.put("blockedReason", getFieldValue(u, "blockedReason"));
+            m.put("blockedUntil", stringifyDate(getFieldValue(u, "blockedUntil")));
+            m.put("createdAt", stringifyDate(getFieldValue(u, "createdAt")));
+            return m;
+        }
+
+        private static String stringifyDate(Object v) {
+            return v == null ? null : String.valueOf(v);
+        }
+
+        private static String enumName(Object v) {
+            if (v == null) return null;
+            if (v instanceof Enum<?> e) return e.name();
+            return String.valueOf(v);
+        }
+
+        private static Object getFieldValue(Object target, String fieldName) {
+            try {
+                Field f = findField(target.getClass(), fieldName);
+                if (f == null) return null;
+                f.setAccessible(true);
+                return f.get(target);
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+
+        private static Field findField(Class<?> cls, String name) {
+            Class<?> c = cls;
+            while (c != null && c != Object.class) {
+                try {
+                    return c.getDeclaredField(name);
+                } catch (NoSuchFieldException ignored) {
+                    c = c.getSuperclass();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.library.bench;
+
+import com.library.LibraryApplication;
+import com.library.repository.AppUserRepository;
+import com.library.service.BookService;
+import com.library.service.UserService;
+import com.library.service.admin.AdminLoanService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Zapytania listowe przez prawdziwe serwisy i repozytoria (kontekst Springa bez warstwy web)
+ * na bazie wskazanej przez {@code --db-url}. Baza musi być już zasilona danymi – wynik zależy
+ * od jej rozmiaru, więc porównywać tylko przebiegi na tym samym zestawie.
+ */
+final class QueryBenchmarks implements BenchmarkSuite {
+
+    private final ConfigurableApplicationContext context;
+    private final BookService bookService;
+    private final AdminLoanService adminLoanService;
+    private final UserService userService;
+    private final AppUserRepository appUserRepository;
+    private final int pageSize;
+
+    QueryBenchmarks(BenchmarkOptions options) {
+        if (!options.has("db-url")) {
+            throw new IllegalArgumentException("Grupa queries wymaga --db-url");
+        }
+        this.context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + options.get("db-url", null),
+                        "spring.datasource.username=" + options.get("db-user", "library"),
+                        "spring.datasource.password=" + options.get("db-password", "library"),
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        this.bookService = context.getBean(BookService.class);
+        this.adminLoanService = context.getBean(AdminLoanService.class);
+        this.userService = context.getBean(UserService.class);
+        this.appUserRepository = context.getBean(AppUserRepository.class);
+        this.pageSize = Math.min(options.pageSize(), 200);
+    }
+
+    @Override
+    public String group() {
+        return "queries";
+    }
+
+    @Override
+    public List<Benchmark> benchmarks() {
+        return List.of(
+                new Benchmark("booksFirstPage", () -> bookService.getBooks(null, null, null, null, null,
+                        false, true, PageRequest.of(0, 20, Sort.by("title")))),
+                new Benchmark("booksTitleSearch", () -> bookService.getBooks("pan", null, null, null, null,
+                        false, true, PageRequest.of(0, 20, Sort.by("title")))),
+                new Benchmark("adminLoansFirstPage", () -> adminLoanService.list(
+                        PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "loanDate")))),
+                new Benchmark("adminUserRows", () -> userService.list(0, pageSize)),
+                new Benchmark("userPickerRows", () -> appUserRepository.findPickerRowsAfter(0L,
+                        PageRequest.of(0, 1_000)))
+        );
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,92 @@
+package com.library.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Dostęp do prywatnych metod mapujących i składanie serwisów bez kontekstu Springa.
+ * Tylko w przygotowaniu benchmarków – w samej pętli pomiarowej używa się gotowych uchwytów.
+ */
+final class Reflect {
+
+    /**
+     * Tworzy obiekt przez jedyny konstruktor (styl @RequiredArgsConstructor): parametry dobierane
+     * po typie z {@code provided}, brakujące zależności dostają null – benchmark nie może ich dotykać.
+     */
+    static <T> T construct(Class<T> type, Object... provided) {
+        Constructor<?>[] ctors = type.getDeclaredConstructors();
+        if (ctors.length != 1) {
+            throw new IllegalStateException(type.getSimpleName() + " ma " + ctors.length + " konstruktorów");
+        }
+        Constructor<?> ctor = ctors[0];
+        Class<?>[] params = ctor.getParameterTypes();
+        Object[] args = new Object[params.length];
+        for (int i = 0; i < params.length; i++) {
+            for (Object p : provided) {
+                if (params[i].isInstance(p)) {
+                    args[i] = p;
+                    break;
+                }
+            }
+        }
+        try {
+            ctor.setAccessible(true);
+            return type.cast(ctor.newInstance(args));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Nie można utworzyć " + type.getSimpleName(), e);
+        }
+    }
+
+    /** Uchwyt do prywatnej metody instancji, np. {@code BookService.toDto(Book)}. */
+    static MethodHandle privateMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup())
+                    .findVirtual(owner, name, MethodType.methodType(returnType, params));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Brak metody " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(name);
+            f.setAccessible(true);
+            f.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Brak pola " + name, e);
+        }
+    }
+
+    static Object invoke(Object target, String name) {
+        try {
+            Method m = target.getClass().getDeclaredMethod(name);
+            m.setAccessible(true);
+            return m.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Nie można wywołać " + name, e);
+        }
+    }
+
+    /** Zaślepka repozytorium: obsługuje wskazane metody, pozostałe rzucają wyjątek. */
+    static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            return handler.invoke(proxy, method, args);
+        }));
+    }
+
+    private Reflect() {
+    }
+}
@@ -0,0 +1,75 @@
+package com.library.bench;
+
+import com.library.model.entity.AppUser;
+import com.library.security.BoundedPasswordEncoder;
+import com.library.security.JwtTokenProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Koszt uwierzytelnienia: weryfikacja JWT na każdym żądaniu (bez cache i z cache skrótów)
+ * oraz BCrypt przy logowaniu – bezpośrednio i przez ograniczoną pulę {@link BoundedPasswordEncoder}.
+ */
+final class SecurityBenchmarks implements BenchmarkSuite {
+
+    private static final String SECRET = "benchmarkSecretKeyForJwtVerification0123456789abcdef";
+    private static final String PASSWORD = "Haslo!Czytelnika123";
+
+    private final JwtTokenProvider uncached;
+    private final JwtTokenProvider cached;
+    private final List<String> tokens = new ArrayList<>();
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+    private final BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(bcrypt, 1, 16, 10_000);
+    private final String hash;
+
+    private int tokenIndex;
+
+    SecurityBenchmarks(BenchmarkOptions options) {
+        this.uncached = provider(0);
+        this.cached = provider(10_000);
+        SyntheticData data = new SyntheticData(options);
+        // różne tokeny, żeby cache pracował jak przy wielu zalogowanych użytkownikach
+        for (AppUser u : data.users.subList(0, Math.min(1_000, data.users.size()))) {
+            tokens.add(uncached.generateToken(u));
+        }
+        this.hash = bcrypt.encode(PASSWORD);
+    }
+
+    private static JwtTokenProvider provider(int cacheSize) {
+        JwtTokenProvider p = new JwtTokenProvider();
+        Reflect.setField(p, "jwtSecret", SECRET);
+        Reflect.setField(p, "accessTtl", Duration.ofHours(1));
+        Reflect.setField(p, "verifiedCacheSize", cacheSize);
+        Reflect.invoke(p, "init");
+        return p;
+    }
+
+    @Override
+    public String group() {
+        return "security";
+    }
+
+    @Override
+    public List<Benchmark> benchmarks() {
+        return List.of(
+                new Benchmark("jwtVerify", () -> uncached.verify(nextToken()).orElseThrow()),
+                new Benchmark("jwtVerifyCached", () -> cached.verify(nextToken()).orElseThrow()),
+                new Benchmark("bcryptMatches", () -> bcrypt.matches(PASSWORD, hash)),
+                new Benchmark("bcryptMatchesBounded", () -> bounded.matches(PASSWORD, hash))
+        );
+    }
+
+    private String nextToken() {
+        String token = tokens.get(tokenIndex);
+        tokenIndex = tokenIndex + 1 == tokens.size() ? 0 : tokenIndex + 1;
+        return token;
+    }
+
+    @Override
+    public void close() {
+        bounded.shutdown();
+    }
+}
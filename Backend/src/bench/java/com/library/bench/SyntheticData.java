@@ -0,0 +1,165 @@
+package com.library.bench;
+
+import com.library.model.entity.AppUser;
+import com.library.model.entity.Author;
+import com.library.model.entity.Book;
+import com.library.model.entity.BookCopy;
+import com.library.model.entity.Category;
+import com.library.model.entity.Loan;
+import com.library.model.enums.BookCopyStatus;
+import com.library.model.enums.LoanStatus;
+import com.library.model.enums.UserRole;
+import com.library.model.enums.UserStatus;
+import com.library.repository.AuthorRepository;
+import com.library.repository.LoanRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministyczny zestaw encji w pamięci (stałe ziarno) – kształt jak w bazie po imporcie:
+ * kategorie, autorzy, książki z autorami, czytelnicy i strona wypożyczeń z pełnymi relacjami.
+ */
+final class SyntheticData {
+
+    private static final String[] FIRST = {"Anna", "Piotr", "Katarzyna", "Tomasz", "Magdalena", "Jan",
+            "Agnieszka", "Paweł", "Zofia", "Michał", "Ewa", "Krzysztof", "Maria", "Andrzej", "Joanna"};
+    private static final String[] LAST = {"Nowak", "Kowalski", "Wiśniewska", "Wójcik", "Kowalczyk",
+            "Kamiński", "Lewandowska", "Zieliński", "Szymańska", "Woźniak", "Dąbrowski", "Kozłowska"};
+    private static final String[] WORDS = {"Pan", "Tadeusz", "Lalka", "Wiedźmin", "Solaris", "Ferdydurke",
+            "Quo", "Vadis", "Chłopi", "Noce", "Dni", "Przedwiośnie", "Krzyżacy", "Potop", "Dziady", "Cyberiada"};
+
+    final List<Category> categories = new ArrayList<>();
+    final List<Author> authors = new ArrayList<>();
+    final List<Book> books = new ArrayList<>();
+    final List<AppUser> users = new ArrayList<>();
+    final List<Loan> loans = new ArrayList<>();
+
+    SyntheticData(BenchmarkOptions options) {
+        Random rnd = new Random(options.seed());
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+        for (long id = 1; id <= 20; id++) {
+            Category c = new Category();
+            c.setId(id);
+            c.setName("Kategoria " + id);
+            categories.add(c);
+        }
+
+        int authorCount = Math.max(10, options.books() / 2);
+        for (long id = 1; id <= authorCount; id++) {
+            Author a = new Author();
+            a.setId(id);
+            a.setFirstName(pick(rnd, FIRST));
+            a.setLastName(pick(rnd, LAST));
+            authors.add(a);
+        }
+
+        for (long id = 1; id <= options.books(); id++) {
+            Book b = new Book();
+            b.setId(id);
+            b.setTitle(pick(rnd, WORDS) + " " + pick(rnd, WORDS) + " " + id);
+            b.setDescription("Opis książki " + id);
+            b.setPublicationYear((short) (1900 + rnd.nextInt(125)));
+            b.setIsbn(String.format("978%010d", id));
+            b.setCategoryId(1 + (long) rnd.nextInt(categories.size()));
+            b.setIsActive(true);
+            int copies = 1 + rnd.nextInt(5);
+            b.setTotalCopies(copies);
+            b.setAvailableCopies(rnd.nextInt(copies + 1));
+            List<Author> bookAuthors = new ArrayList<>();
+            for (int i = 0; i < options.authorsPerBook(); i++) {
+                bookAuthors.add(authors.get(rnd.nextInt(authors.size())));
+            }
+            b.setAuthors(bookAuthors);
+            books.add(b);
+        }
+
+        for (long id = 1; id <= options.users(); id++) {
+            AppUser u = new AppUser();
+            u.setId(id);
+            u.setFirstName(pick(rnd, FIRST));
+            u.setLastName(pick(rnd, LAST));
+            u.setEmail("czytelnik" + id + "@example.com");
+            u.setRole(id % 50 == 0 ? UserRole.ADMIN : UserRole.READER);
+            u.setStatus(id % 97 == 0 ? UserStatus.BLOCKED : UserStatus.ACTIVE);
+            if (u.getStatus() == UserStatus.BLOCKED) {
+                u.setBlockedReason("Nieoddane egzemplarze");
+                u.setBlockedUntil(base.plusDays(30));
+            }
+            u.setCreatedAt(base.minusDays(rnd.nextInt(1000)));
+            users.add(u);
+        }
+
+        LoanStatus[] statuses = LoanStatus.values();
+        for (long id = 1; id <= options.pageSize(); id++) {
+            Book book = books.get(rnd.nextInt(books.size()));
+            BookCopy copy = new BookCopy();
+            copy.setId(id);
+            copy.setBookId(book.getId());
+            copy.setBook(book);
+            copy.setInventoryCode(String.format("INV%08d", id));
+            copy.setStatus(BookCopyStatus.BORROWED);
+
+            AppUser user = users.get(rnd.nextInt(users.size()));
+            Loan l = new Loan();
+            l.setId(id);
+            l.setUserId(user.getId());
+            l.setUser(user);
+            l.setBookCopyId(copy.getId());
+            l.setBookCopy(copy);
+            l.setLoanDate(base.plusHours(id));
+            l.setDueDate(base.plusHours(id).plusDays(21));
+            l.setStatus(statuses[rnd.nextInt(statuses.length)]);
+            if (l.getStatus() == LoanStatus.RETURNED) l.setReturnDate(base.plusHours(id).plusDays(7));
+            l.setExtensionsCount((short) rnd.nextInt(3));
+            loans.add(l);
+        }
+    }
+
+    /** Strona wypożyczeń jako płaskie wiersze – to, co zwraca LoanRepository.findAllRows. */
+    List<LoanRepository.LoanRow> loanRows() {
+        return loans.stream().<LoanRepository.LoanRow>map(LoanRowView::new).toList();
+    }
+
+    /** Autorzy książek ze strony – to, co zwraca AuthorRepository.findAuthorRowsByBookIdIn. */
+    List<AuthorRepository.BookAuthorRow> authorRows() {
+        List<AuthorRepository.BookAuthorRow> rows = new ArrayList<>();
+        for (Loan l : loans) {
+            Book b = l.getBookCopy().getBook();
+            for (Author a : b.getAuthors()) {
+                rows.add(new BookAuthorRowView(b.getId(), a));
+            }
+        }
+        return rows;
+    }
+
+    private static String pick(Random rnd, String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+
+    private record LoanRowView(Loan loan) implements LoanRepository.LoanRow {
+        public Long getId() { return loan.getId(); }
+        public Long getUserId() { return loan.getUserId(); }
+        public String getUserFirstName() { return loan.getUser().getFirstName(); }
+        public String getUserLastName() { return loan.getUser().getLastName(); }
+        public Long getCopyId() { return loan.getBookCopyId(); }
+        public String getInventoryCode() { return loan.getBookCopy().getInventoryCode(); }
+        public Long getBookId() { return loan.getBookCopy().getBookId(); }
+        public String getBookTitle() { return loan.getBookCopy().getBook().getTitle(); }
+        public LocalDateTime getLoanDate() { return loan.getLoanDate(); }
+        public LocalDateTime getDueDate() { return loan.getDueDate(); }
+        public LocalDateTime getReturnDate() { return loan.getReturnDate(); }
+        public LoanStatus getStatus() { return loan.getStatus(); }
+        public Short getExtensionsCount() { return loan.getExtensionsCount(); }
+    }
+
+    private record BookAuthorRowView(Long bookId, Author author) implements AuthorRepository.BookAuthorRow {
+        public Long getBookId() { return bookId; }
+        public Long getAuthorId() { return author.getId(); }
+        public String getFirstName() { return author.getFirstName(); }
+        public String getLastName() { return author.getLastName(); }
+    }
+}
@@ -0,0 +1,287 @@
+package com.library.bench.budget;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.LibraryApplication;
+import com.library.bench.BenchmarkOptions;
+import com.library.metrics.StatementBudgetGuard;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Regresje liczby zapytań SQL (N+1) na endpointach REST. Dwa etapy:
+ * <ol>
+ *   <li>pokrycie – każda metoda {@code @RestController} z mapowaniem musi mieć {@code @StatementBudget}
+ *       (na metodzie albo klasie); działa bez bazy ({@code --coverage-only}),</li>
+ *   <li>pomiar – aplikacja z serwerem HTTP na losowym porcie i bazą {@code --db-url}; każdy endpoint GET
+ *       wołany dwa razy (rozgrzewka cache, potem pomiar) ze stroną 50 wierszy i porównany z limitem.</li>
+ * </ol>
+ * Endpointy zmieniające dane nie są wołane – ich limity pilnuje StatementBudgetGuard w działającej
+ * aplikacji. Kod wyjścia 1 przy braku limitu, przekroczeniu albo odpowiedzi innej niż 2xx.
+ */
+public final class StatementBudgetCheck {
+
+    static final String USAGE = """
+            Użycie: StatementBudgetCheck [--opcja=wartość ...]
+              --coverage-only                tylko sprawdzenie, czy każdy endpoint ma @StatementBudget
+              --db-url=jdbc:mysql://...      baza z danymi (np. z DatasetGenerator)
+              --db-user=library --db-password=library
+              --admin-email=admin1@dataset.local --reader-email=reader1@dataset.local
+              --password=Dataset!2345        hasło obu kont (albo --admin-password / --reader-password)
+              --page-size=50                 rozmiar strony list – N+1 rośnie z nim, limit nie
+            """;
+
+    private static final String PACKAGE = "com.library";
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        if (options.has("help")) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        List<String> missing = missingBudgets();
+        missing.forEach(m -> System.out.println("BRAK LIMITU  " + m));
+        System.out.printf("Pokrycie: %s%n", missing.isEmpty() ? "każdy endpoint ma @StatementBudget"
+                : missing.size() + " endpointów bez @StatementBudget");
+        boolean failed = !missing.isEmpty();
+
+        if (!options.has("coverage-only")) {
+            if (!options.has("db-url")) {
+                throw new IllegalArgumentException("Pomiar wymaga --db-url (albo --coverage-only)");
+            }
+            failed |= measure(options);
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static List<String> missingBudgets() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        List<String> missing = new ArrayList<>();
+        for (BeanDefinition bd : scanner.findCandidateComponents(PACKAGE)) {
+            Class<?> controller = Class.forName(bd.getBeanClassName());
+            for (Method method : controller.getDeclaredMethods()) {
+                if (AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)
+                        && StatementBudgetGuard.budgetOf(controller, method) == StatementBudgetGuard.NO_BUDGET) {
+                    missing.add(controller.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        missing.sort(null);
+        return missing;
+    }
+
+    private static boolean measure(BenchmarkOptions options) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApplication.class)
+                .properties(
+                        "spring.datasource.url=" + options.get("db-url", null),
+                        "spring.datasource.username=" + options.get("db-user", "library"),
+                        "spring.datasource.password=" + options.get("db-password", "library"),
+                        "server.port=0",
+                        "app.access-log.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Client client = new Client("http://localhost:" + port);
+            String password = options.get("password", "Dataset!2345");
+            String adminToken = client.login(options.get("admin-email", "admin1@dataset.local"),
+                    options.get("admin-password", password));
+            String readerToken = client.login(options.get("reader-email", "reader1@dataset.local"),
+                    options.get("reader-password", password));
+
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            // null (pusta tabela) = endpoint pominięty
+            Map<String, Long> pathIds = new HashMap<>();
+            pathIds.put("/api/books/{id}", jdbc.queryForObject("select min(id) from book where is_active = 1", Long.class));
+            pathIds.put("/api/admin/loans/{id}", jdbc.queryForObject("select max(id) from loan", Long.class));
+            Map<String, String> params = defaultParams(options.getInt("page-size", 50));
+
+            List<Call> calls = new ArrayList<>();
+            RequestMappingHandlerMapping mapping =
+                    context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+            for (Map.Entry<RequestMappingInfo, HandlerMethod> e : mapping.getHandlerMethods().entrySet()) {
+                RequestMappingInfo info = e.getKey();
+                HandlerMethod handler = e.getValue();
+                if (!handler.getBeanType().getName().startsWith(PACKAGE)
+                        || !info.getMethodsCondition().getMethods().contains(RequestMethod.GET)) {
+                    continue;
+                }
+                String pattern = info.getPatternValues().iterator().next();
+                String name = "GET " + pattern + describeParams(info);
+                String path = pattern;
+                if (pattern.contains("{")) {
+                    Long id = pathIds.get(pattern);
+                    if (id == null) {
+                        System.out.println("POMINIĘTY    " + name + " (brak wartości zmiennej ścieżki)");
+                        continue;
+                    }
+                    path = pattern.replaceAll("\\{[^}]+}", id.toString());
+                }
+                String query = query(handler, info, params);
+                if (query == null) {
+                    System.out.println("POMINIĘTY    " + name + " (wymagany parametr bez wartości domyślnej)");
+                    continue;
+                }
+                String token = pattern.startsWith("/api/admin/") ? adminToken
+                        : pattern.startsWith("/api/me/") || pattern.equals("/api/auth/me") ? readerToken : null;
+                String handlerName = handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+                calls.add(new Call(name, handlerName, path + query, token));
+            }
+            calls.sort((a, b) -> a.name.compareTo(b.name));
+
+            StatementBudgetGuard guard = context.getBean(StatementBudgetGuard.class);
+            Map<String, Integer> statuses = new LinkedHashMap<>();
+            for (int round = 0; round < 2; round++) {
+                // pierwsza runda wypełnia cache (kategorie, szczegóły książek) – liczy się druga
+                if (round == 1) guard.reset();
+                for (Call call : calls) {
+                    statuses.put(call.name, client.get(call.pathAndQuery, call.token));
+                }
+            }
+
+            Map<String, StatementBudgetGuard.Observation> observations = new LinkedHashMap<>();
+            for (StatementBudgetGuard.Observation o : guard.observations()) {
+                observations.put(o.handler(), o);
+            }
+            boolean failed = false;
+            System.out.printf("%-60s %6s %6s%n", "endpoint", "limit", "SQL");
+            for (Call call : calls) {
+                int status = statuses.get(call.name);
+                StatementBudgetGuard.Observation o = observations.get(call.handler);
+                String verdict;
+                if (status < 200 || status >= 300) {
+                    verdict = "BŁĄD HTTP " + status;
+                    failed = true;
+                } else if (o == null) {
+                    verdict = "brak pomiaru";
+                    failed = true;
+                } else if (o.maxStatements() > o.budget()) {
+                    verdict = "PRZEKROCZONY (" + call.handler + ")";
+                    failed = true;
+                } else {
+                    verdict = "ok";
+                }
+                System.out.printf("%-60s %6s %6s  %s%n", call.name,
+                        o != null ? o.budget() : "-", o != null ? o.maxStatements() : "-", verdict);
+            }
+            return failed;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Map<String, String> defaultParams(int pageSize) {
+        LocalDate today = LocalDate.now();
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("page", "0");
+        params.put("size", Integer.toString(pageSize));
+        params.put("limit", Integer.toString(pageSize));
+        params.put("after", "");
+        params.put("q", "a");
+        params.put("from", today.minusDays(30).toString());
+        params.put("to", today.toString());
+        params.put("format", "csv");
+        return params;
+    }
+
+    private static String describeParams(RequestMappingInfo info) {
+        return info.getParamsCondition().getExpressions().isEmpty() ? ""
+                : " " + info.getParamsCondition().getExpressions();
+    }
+
+    // null, gdy metoda wymaga parametru, dla którego nie mamy wartości
+    private static String query(HandlerMethod handler, RequestMappingInfo info, Map<String, String> params) {
+        Map<String, String> query = new LinkedHashMap<>();
+        for (MethodParameter p : handler.getMethodParameters()) {
+            if (Pageable.class.isAssignableFrom(p.getParameterType())) {
+                query.put("page", params.get("page"));
+                query.put("size", params.get("size"));
+                continue;
+            }
+            RequestParam rp = p.getParameterAnnotation(RequestParam.class);
+            if (rp == null) continue;
+            String name = !rp.name().isEmpty() ? rp.name() : !rp.value().isEmpty() ? rp.value() : p.getParameterName();
+            if (params.containsKey(name)) {
+                query.put(name, params.get(name));
+            } else if (rp.required() && rp.defaultValue().equals(ValueConstants.DEFAULT_NONE)) {
+                return null;
+            }
+        }
+        info.getParamsCondition().getExpressions().forEach(e -> query.putIfAbsent(e.getName(), ""));
+        if (query.isEmpty()) return "";
+        StringJoiner sj = new StringJoiner("&", "?", "");
+        query.forEach((k, v) -> sj.add(k + "=" + URLEncoder.encode(v, StandardCharsets.UTF_8)));
+        return sj.toString();
+    }
+
+    private record Call(String name, String handler, String pathAndQuery, String token) {
+    }
+
+    private static final class Client {
+
+        private final String base;
+        private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        Client(String base) {
+            this.base = base;
+        }
+
+        String login(String email, String password) throws Exception {
+            String body = mapper.writeValueAsString(Map.of("email", email, "password", password));
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Logowanie " + email + " nieudane: HTTP " + response.statusCode());
+            }
+            return mapper.readTree(response.body()).path("token").asText();
+        }
+
+        int get(String pathAndQuery, String token) throws Exception {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + pathAndQuery))
+                    .timeout(Duration.ofSeconds(120))
+                    .GET();
+            if (token != null) request.header("Authorization", "Bearer " + token);
+            return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+
+    private StatementBudgetCheck() {
+    }
+}
@@ -0,0 +1,217 @@
+package com.library.bench.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.LibraryApplication;
+import com.library.bench.BenchmarkOptions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache drugiego poziomu (autorzy, kategorie, Book.authors, cache zapytań) – porównanie z wyłączonym.
+ * Aplikacja startuje dwa razy na tej samej bazie: z {@code use_second_level_cache=false} i z domyślną
+ * konfiguracją. W każdym przebiegu te same żądania: kolejne strony {@code /api/books} oraz
+ * {@code /api/me/loans} i {@code /api/me/loans/history} kilku czytelników; po rundzie rozgrzewki
+ * liczone są zapytania SQL na żądanie (Statistics Hibernate) i czasy odpowiedzi po stronie klienta.
+ * Klient jest jednowątkowy, zadania cykliczne przesunięte poza czas pomiaru – licznik zapytań
+ * obejmuje tylko mierzone żądania.
+ */
+public final class SecondLevelCacheBench {
+
+    static final String USAGE = """
+            Użycie: SecondLevelCacheBench [--opcja=wartość ...]
+              --db-url=jdbc:mysql://...      baza z danymi (np. z DatasetGenerator)
+              --db-user=library --db-password=library
+              --readers=10                   czytelnicy reader1..N@dataset.local
+              --password=Dataset!2345
+              --pages=20                     liczba różnych stron katalogu
+              --page-size=50
+              --rounds=5                     rundy mierzone (po jednej rozgrzewkowej)
+            """;
+
+    private static final String[] ENDPOINTS = {"/api/books", "/api/me/loans", "/api/me/loans/history"};
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        if (options.has("help") || !options.has("db-url")) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Map<String, Result> off = run(options, false);
+        Map<String, Result> on = run(options, true);
+
+        System.out.printf("%n%-24s %-4s %8s %9s %9s %9s %9s%n",
+                "endpoint", "L2", "żądania", "SQL/żąd.", "śr. ms", "p50 ms", "p95 ms");
+        for (String endpoint : ENDPOINTS) {
+            print(endpoint, "nie", off.get(endpoint));
+            print(endpoint, "tak", on.get(endpoint));
+            Result a = off.get(endpoint);
+            Result b = on.get(endpoint);
+            System.out.printf("%-24s      zapytania %+.0f%%, średni czas %+.0f%%%n", "",
+                    change(a.statementsPerRequest(), b.statementsPerRequest()), change(a.mean(), b.mean()));
+        }
+    }
+
+    private static Map<String, Result> run(BenchmarkOptions options, boolean cache) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApplication.class)
+                .properties(
+                        "spring.datasource.url=" + options.get("db-url", null),
+                        "spring.datasource.username=" + options.get("db-user", "library"),
+                        "spring.datasource.password=" + options.get("db-password", "library"),
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=" + cache,
+                        "app.loans.overdue-sweep.initial-delay=PT24H",
+                        "app.catalog.counter-repair.initial-delay=PT24H",
+                        "app.stats.rollup.check-initial-delay=PT24H",
+                        "server.port=0",
+                        "app.access-log.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Client client = new Client("http://localhost:" + port);
+            Statistics stats = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+            String password = options.get("password", "Dataset!2345");
+            List<String> tokens = new ArrayList<>();
+            for (int i = 1; i <= options.getInt("readers", 10); i++) {
+                tokens.add(client.login("reader" + i + "@dataset.local", password));
+            }
+            int pages = options.getInt("pages", 20);
+            int size = options.getInt("page-size", 50);
+            int rounds = options.getInt("rounds", 5);
+
+            Map<String, Result> results = new LinkedHashMap<>();
+            for (String endpoint : ENDPOINTS) {
+                results.put(endpoint, new Result());
+            }
+            for (int round = 0; round <= rounds; round++) {
+                // runda 0 = rozgrzewka (JIT, pula połączeń, wypełnienie regionów cache)
+                boolean measured = round > 0;
+                for (int page = 0; page < pages; page++) {
+                    call(client, stats, results.get("/api/books"), measured,
+                            "/api/books?page=" + page + "&size=" + size, null);
+                }
+                for (String token : tokens) {
+                    call(client, stats, results.get("/api/me/loans"), measured,
+                            "/api/me/loans?page=0&size=" + size, token);
+                    call(client, stats, results.get("/api/me/loans/history"), measured,
+                            "/api/me/loans/history?page=0&size=" + size, token);
+                }
+            }
+            System.out.printf("L2 %s: trafienia %d, chybienia %d, zapisy %d; cache zapytań: trafienia %d, chybienia %d%n",
+                    cache ? "włączony" : "wyłączony",
+                    stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount(),
+                    stats.getSecondLevelCachePutCount(), stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount());
+            return results;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void call(Client client, Statistics stats, Result result, boolean measured,
+                             String pathAndQuery, String token) throws Exception {
+        long statementsBefore = stats.getPrepareStatementCount();
+        long start = System.nanoTime();
+        int status = client.get(pathAndQuery, token);
+        long nanos = System.nanoTime() - start;
+        if (status != 200) {
+            throw new IllegalStateException("GET " + pathAndQuery + ": HTTP " + status);
+        }
+        if (measured) {
+            result.add(nanos, stats.getPrepareStatementCount() - statementsBefore);
+        }
+    }
+
+    private static void print(String endpoint, String cache, Result r) {
+        System.out.printf("%-24s %-4s %8d %9.2f %9.2f %9.2f %9.2f%n", endpoint, cache, r.requests(),
+                r.statementsPerRequest(), r.mean(), r.percentile(0.50), r.percentile(0.95));
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static final class Result {
+
+        private long[] nanos = new long[256];
+        private int count;
+        private long statements;
+
+        void add(long requestNanos, long requestStatements) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = requestNanos;
+            statements += requestStatements;
+        }
+
+        int requests() {
+            return count;
+        }
+
+        double statementsPerRequest() {
+            return count == 0 ? 0 : (double) statements / count;
+        }
+
+        double mean() {
+            long sum = 0;
+            for (int i = 0; i < count; i++) sum += nanos[i];
+            return count == 0 ? 0 : sum / 1e6 / count;
+        }
+
+        double percentile(double p) {
+            if (count == 0) return 0;
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(count - 1, Math.ceil(p * count) - 1)] / 1e6;
+        }
+    }
+
+    private static final class Client {
+
+        private final String base;
+        private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        Client(String base) {
+            this.base = base;
+        }
+
+        String login(String email, String password) throws Exception {
+            String body = mapper.writeValueAsString(Map.of("email", email, "password", password));
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Logowanie " + email + " nieudane: HTTP " + response.statusCode());
+            }
+            return mapper.readTree(response.body()).path("token").asText();
+        }
+
+        int get(String pathAndQuery, String token) throws Exception {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + pathAndQuery))
+                    .timeout(Duration.ofSeconds(120))
+                    .GET();
+            if (token != null) request.header("Authorization", "Bearer " + token);
+            return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+
+    private SecondLevelCacheBench() {
+    }
+}
@@ -0,0 +1,221 @@
+package com.library.bench.dataset;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Katalog: drzewo kategorii, autorzy, książki z popularnością wg Zipfa i egzemplarze.
+ * Liczba egzemplarzy rośnie z popularnością (biblioteka dokupuje bestsellery). Stan egzemplarzy
+ * (zajęty do, zagubiony) zmienia symulacja wypożyczeń; książki i egzemplarze zapisywane są po niej,
+ * razem z licznikami {@code total_copies}/{@code available_copies}.
+ */
+final class Catalog {
+
+    static final byte COPY_AVAILABLE = 0;
+    static final byte COPY_BORROWED = 1;
+    static final byte COPY_LOST = 2;
+    /** Egzemplarz zajęty bezterminowo (otwarte wypożyczenie albo zagubiony). */
+    static final long FOREVER = Long.MAX_VALUE;
+
+    private static final String[][] CATEGORIES = {
+            {"Literatura piękna", "Powieść", "Poezja", "Dramat", "Fantastyka", "Kryminał", "Reportaż"},
+            {"Literatura dziecięca", "Bajki", "Literatura młodzieżowa", "Komiksy"},
+            {"Nauki ścisłe", "Matematyka", "Fizyka", "Chemia", "Informatyka", "Astronomia"},
+            {"Nauki przyrodnicze", "Biologia", "Geografia", "Ekologia"},
+            {"Nauki humanistyczne", "Historia", "Filozofia", "Językoznawstwo", "Psychologia", "Socjologia"},
+            {"Ekonomia i prawo", "Ekonomia", "Prawo", "Zarządzanie", "Finanse"},
+            {"Sztuka", "Muzyka", "Malarstwo", "Architektura", "Film"},
+            {"Poradniki", "Kuchnia", "Zdrowie", "Podróże", "Hobby"}
+    };
+
+    private final long seed;
+    final int books;
+    final int authors;
+    /** rank -> indeks książki (0 = najpopularniejsza) */
+    final int[] bookByRank;
+    final ZipfSampler popularity;
+    /** egzemplarze książki b: [copyStart[b], copyStart[b + 1]) */
+    final int[] copyStart;
+    final long[] busyUntil;
+    final byte[] copyState;
+
+    private final int[] bookCategory;
+    private final long[] bookCreated;
+    private final List<long[]> categoryRows = new ArrayList<>(); // {id, parentId}
+    private final List<String> categoryNames = new ArrayList<>();
+
+    Catalog(DatasetOptions options, long periodStart, SplittableRandom rnd) {
+        this.seed = options.seed();
+        this.books = options.books();
+        this.authors = options.authors();
+
+        List<Integer> leaves = new ArrayList<>();
+        for (String[] group : CATEGORIES) {
+            long parentId = categoryRows.size() + 1;
+            categoryRows.add(new long[]{parentId, 0});
+            categoryNames.add(group[0]);
+            for (int i = 1; i < group.length; i++) {
+                categoryRows.add(new long[]{categoryRows.size() + 1, parentId});
+                categoryNames.add(group[i]);
+                leaves.add(categoryRows.size());
+            }
+        }
+        int[] leafOrder = ZipfSampler.permutation(leaves.size(), rnd);
+        ZipfSampler categorySkew = new ZipfSampler(leaves.size(), 0.7);
+
+        this.bookByRank = ZipfSampler.permutation(books, rnd);
+        this.popularity = new ZipfSampler(books, options.bookSkew());
+        int[] rankOf = new int[books];
+        for (int r = 0; r < books; r++) rankOf[bookByRank[r]] = r;
+
+        this.bookCategory = new int[books];
+        this.bookCreated = new long[books];
+        this.copyStart = new int[books + 1];
+        long catalogAge = 10L * 365 * 86_400;
+        for (int b = 0; b < books; b++) {
+            bookCategory[b] = leaves.get(leafOrder[categorySkew.sample(rnd)]);
+            bookCreated[b] = periodStart - 31L * 86_400 - (long) (rnd.nextDouble() * catalogAge);
+            copyStart[b + 1] = copyStart[b] + copies(rankOf[b], rnd);
+        }
+        int copies = copyStart[books];
+        this.busyUntil = new long[copies];
+        this.copyState = new byte[copies];
+    }
+
+    // 1 + rozkład geometryczny (średnio ~1,8) plus dokupione egzemplarze dla górnych 10% / 1% rankingu
+    private int copies(int rank, SplittableRandom rnd) {
+        int n = 1;
+        while (n < 6 && rnd.nextDouble() < 0.45) n++;
+        if (rank < books / 100) n += 4 + rnd.nextInt(7);
+        else if (rank < books / 10) n += 1 + rnd.nextInt(3);
+        return n;
+    }
+
+    int copies() {
+        return copyStart[books];
+    }
+
+    /** Pierwszy egzemplarz książki wolny w chwili {@code t} albo -1. */
+    int freeCopy(int book, long t) {
+        for (int c = copyStart[book]; c < copyStart[book + 1]; c++) {
+            if (busyUntil[c] <= t) return c;
+        }
+        return -1;
+    }
+
+    long bookCreated(int book) {
+        return bookCreated[book];
+    }
+
+    static String inventoryCode(int copy) {
+        return String.format("INV%08d", copy + 1);
+    }
+
+    List<TsvWriter> writeCategoriesAndAuthors(Path dir, long createdAt) throws IOException {
+        TsvWriter categories = new TsvWriter(dir, "category", "id", "name", "parent_id", "created_at");
+        try (TsvWriter w = categories) {
+            for (int i = 0; i < categoryRows.size(); i++) {
+                long[] row = categoryRows.get(i);
+                w.col(row[0]).col(categoryNames.get(i)).nullableId(row[1]).time(createdAt).end();
+            }
+        }
+        TsvWriter authorFile = new TsvWriter(dir, "author", "id", "first_name", "last_name", "created_at");
+        try (TsvWriter w = authorFile) {
+            for (int a = 0; a < authors; a++) {
+                SplittableRandom r = Vocabulary.rowRandom(seed, 2, a);
+                w.col(a + 1)
+                        .col(r.nextInt(25) == 0 ? null : Vocabulary.pick(r, Vocabulary.FIRST_NAMES))
+                        .col(Vocabulary.pick(r, Vocabulary.LAST_NAMES))
+                        .time(createdAt).end();
+            }
+        }
+        return List.of(categories, authorFile);
+    }
+
+    /** Powiązania książka–autor: 80% jeden autor, reszta 2–3; płodni autorzy wg Zipfa. */
+    TsvWriter writeBookAuthors(Path dir, SplittableRandom rnd) throws IOException {
+        int[] authorByRank = ZipfSampler.permutation(authors, rnd);
+        ZipfSampler prolific = new ZipfSampler(authors, 0.6);
+        try (TsvWriter w = new TsvWriter(dir, "book_author", "book_id", "author_id")) {
+            for (int b = 0; b < books; b++) {
+                double u = rnd.nextDouble();
+                int n = Math.min(authors, u < 0.8 ? 1 : u < 0.95 ? 2 : 3);
+                int[] picked = new int[n];
+                for (int i = 0; i < n; i++) {
+                    int a;
+                    do {
+                        a = authorByRank[prolific.sample(rnd)];
+                    } while (contains(picked, i, a));
+                    picked[i] = a;
+                    w.col(b + 1).col(a + 1).end();
+                }
+            }
+            return w;
+        }
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Książki i egzemplarze po symulacji. Egzemplarze nieobjęte wypożyczeniem: 0,5% uszkodzonych,
+     * 0,5% wycofanych; licznik {@code available_copies} liczy tylko AVAILABLE (jak recountCopyCounters).
+     */
+    List<TsvWriter> writeBooksAndCopies(Path dir, long updatedAt) throws IOException {
+        try (TsvWriter bw = new TsvWriter(dir, "book", "id", "title", "description", "publication_year", "isbn",
+                "category_id", "is_active", "total_copies", "available_copies", "created_at", "updated_at");
+             TsvWriter cw = new TsvWriter(dir, "book_copy", "id", "book_id", "inventory_code", "status",
+                     "shelf_location", "created_at", "updated_at")) {
+            for (int b = 0; b < books; b++) {
+                SplittableRandom r = Vocabulary.rowRandom(seed, 3, b);
+                int available = 0;
+                String shelfPrefix = (char) ('A' + bookCategory[b] % 26) + "-" + (1 + r.nextInt(40));
+                for (int c = copyStart[b]; c < copyStart[b + 1]; c++) {
+                    String status = switch (copyState[c]) {
+                        case COPY_BORROWED -> "BORROWED";
+                        case COPY_LOST -> "LOST";
+                        default -> {
+                            int roll = r.nextInt(200);
+                            yield roll == 0 ? "DAMAGED" : roll == 1 ? "WITHDRAWN" : "AVAILABLE";
+                        }
+                    };
+                    if (status.equals("AVAILABLE")) available++;
+                    long copyCreated = bookCreated[b] + r.nextInt(30 * 86_400);
+                    cw.col(c + 1).col(b + 1).col(inventoryCode(c)).col(status)
+                            .col(shelfPrefix + "-" + (1 + r.nextInt(6)))
+                            .time(copyCreated).time(copyState[c] == COPY_AVAILABLE ? copyCreated : updatedAt).end();
+                }
+
+                String title = Vocabulary.title(r);
+                int year = Math.max(1850, 2025 - (int) (-Math.log(1 - r.nextDouble()) * 15));
+                bw.col(b + 1).col(title)
+                        .col(r.nextInt(10) < 3 ? null : Vocabulary.description(r, title))
+                        .col(year)
+                        .col(isbn(b + 1))
+                        .col(bookCategory[b])
+                        .col(r.nextInt(50) == 0 ? 0 : 1)
+                        .col(copyStart[b + 1] - copyStart[b])
+                        .col(available)
+                        .time(bookCreated[b]).time(bookCreated[b]).end();
+            }
+            return List.of(bw, cw);
+        }
+    }
+
+    // ISBN-13 z prefiksem 978-83 (Polska) i poprawną cyfrą kontrolną; unikalny dla id < 10^7
+    static String isbn(long id) {
+        String body = String.format("97883%07d", id);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+}
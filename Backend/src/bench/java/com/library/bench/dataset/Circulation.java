@@ -0,0 +1,292 @@
+package com.library.bench.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Symulacja obiegu w porządku chronologicznym: dzień po dniu, zdarzenia w godzinach otwarcia.
+ * Czytelnik (Zipf aktywności) chce książkę (Zipf popularności); gdy jest wolny egzemplarz – wypożycza,
+ * gdy nie – z pewnym prawdopodobieństwem rezerwuje, a rezerwacja zamienia się w wypożyczenie, gdy
+ * egzemplarz wróci. Dzięki temu wypożyczenia nigdy nie nachodzą na siebie na jednym egzemplarzu,
+ * a rezerwacje skupiają się na popularnych tytułach.
+ * <p>
+ * Okres wypożyczenia i przedłużenia jak w LoanService (30 dni, +7 dni, maks. 2 przedłużenia).
+ * Kara za przetrzymanie: 0,50 zł za dzień; za zagubienie 40–120 zł.
+ */
+final class Circulation implements Closeable {
+
+    private static final long DAY = 86_400;
+    private static final long LOAN_DAYS = 30;
+    private static final long EXTENSION_DAYS = 7;
+    private static final BigDecimal FINE_PER_DAY = new BigDecimal("0.50");
+
+    private final DatasetOptions options;
+    private final Catalog catalog;
+    private final Patrons patrons;
+    private final long periodEnd;
+    private final SplittableRandom rnd;
+
+    private final TsvWriter loans;
+    private final TsvWriter reservations;
+    private final TsvWriter penalties;
+
+    private final PriorityQueue<Pickup> pickups = new PriorityQueue<>();
+    // egzemplarz odłożony dla rezerwującego – nie może go przejąć kolejna rezerwacja
+    private final boolean[] held;
+    private final Set<Long> activeReservations = new HashSet<>();
+    private long pickupSequence;
+
+    // raport
+    long unserved;
+    long lateReturns;
+    long overdueOpen;
+    long openLoans;
+    long lost;
+    long topBookLoans;
+
+    private record Pickup(long time, long sequence, int reader, int copy)
+            implements Comparable<Pickup> {
+        @Override
+        public int compareTo(Pickup o) {
+            int c = Long.compare(time, o.time);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+
+    Circulation(DatasetOptions options, Catalog catalog, Patrons patrons, long periodEnd,
+                SplittableRandom rnd, Path dir) throws IOException {
+        this.options = options;
+        this.catalog = catalog;
+        this.patrons = patrons;
+        this.periodEnd = periodEnd;
+        this.rnd = rnd;
+        this.held = new boolean[catalog.copies()];
+        this.loans = new TsvWriter(dir, "loan", "id", "user_id", "book_copy_id", "loan_date", "due_date",
+                "return_date", "status", "extensions_count", "created_by", "created_at");
+        this.reservations = new TsvWriter(dir, "reservation", "id", "user_id", "book_id", "created_at", "status",
+                "cancelled_at", "fulfilled_at", "expires_at");
+        this.penalties = new TsvWriter(dir, "penalty", "id", "user_id", "loan_id", "amount", "reason", "status",
+                "created_at", "resolved_at");
+    }
+
+    void run(SeasonalCalendar calendar) throws IOException {
+        long target = options.loans();
+        double carry = 0;
+        int topBooks = Math.max(1, catalog.books / 100);
+        for (int d = 0; d < calendar.days(); d++) {
+            carry += calendar.expected(d, target);
+            int count = (int) carry;
+            carry -= count;
+            for (long t : calendar.times(d, count, rnd)) {
+                drainPickups(t);
+                demand(t, topBooks);
+            }
+        }
+        drainPickups(periodEnd);
+    }
+
+    long loans() {
+        return loans.rows();
+    }
+
+    long reservations() {
+        return reservations.rows();
+    }
+
+    long penalties() {
+        return penalties.rows();
+    }
+
+    private void drainPickups(long until) throws IOException {
+        while (!pickups.isEmpty() && pickups.peek().time <= until) {
+            Pickup p = pickups.poll();
+            held[p.copy] = false;
+            loan(p.reader, p.copy, p.time);
+        }
+    }
+
+    // jedno „zapotrzebowanie”: wymarzona książka wg popularności; gdy zajęta – ewentualna rezerwacja
+    // albo do 4 prób wzięcia czegoś innego z półki (dowolny tytuł, nie tylko bestseller)
+    private void demand(long t, int topBooks) throws IOException {
+        int reader = patrons.pick(t, rnd);
+        if (reader < 0) {
+            unserved++;
+            return;
+        }
+        for (int attempt = 0; attempt < 5; attempt++) {
+            int rank = attempt == 0 ? catalog.popularity.sample(rnd) : rnd.nextInt(catalog.books);
+            int book = catalog.bookByRank[rank];
+            int copy = catalog.freeCopy(book, t);
+            if (copy >= 0) {
+                if (rank < topBooks) topBookLoans++;
+                loan(reader, copy, t);
+                return;
+            }
+            if (attempt == 0 && rnd.nextDouble() < options.reservationRate()) {
+                reserve(reader, book, t);
+                return;
+            }
+        }
+        unserved++;
+    }
+
+    private void loan(int reader, int copy, long t) throws IOException {
+        long id = loans.rows() + 1;
+        int extensions = rnd.nextInt(100) < 80 ? 0 : rnd.nextInt(100) < 70 ? 1 : 2;
+        long due = t + (LOAN_DAYS + EXTENSION_DAYS * extensions) * DAY;
+        long createdBy = rnd.nextInt(100) < 15 ? patrons.adminId(rnd.nextInt(Math.max(1, patrons.admins))) : 0;
+        long userId = patrons.readerId(reader);
+
+        double u = rnd.nextDouble();
+        if (u < options.lostRate()) {
+            long lostAt = due + (14 + rnd.nextInt(46)) * DAY;
+            if (lostAt <= periodEnd) {
+                catalog.busyUntil[copy] = Catalog.FOREVER;
+                catalog.copyState[copy] = Catalog.COPY_LOST;
+                patrons.borrow(reader, t, lostAt);
+                lost++;
+                writeLoan(id, userId, copy, t, due, TsvWriter.NONE, "LOST", extensions, createdBy);
+                BigDecimal amount = BigDecimal.valueOf(40 + rnd.nextInt(81)).setScale(2);
+                penalty(userId, id, amount, "Zagubienie egzemplarza " + Catalog.inventoryCode(copy), lostAt);
+                return;
+            }
+        }
+
+        long returned;
+        boolean late = u < options.lostRate() + options.overdueRate();
+        if (late) {
+            // spóźnienie: rozkład wykładniczy, średnio ~9 dni
+            returned = due + DAY + (long) (-Math.log(1 - rnd.nextDouble()) * 8 * DAY);
+        } else {
+            // zwrot w terminie, częściej w drugiej połowie okresu
+            long span = Math.max(DAY, due - t - DAY);
+            returned = t + DAY + (long) (Math.sqrt(rnd.nextDouble()) * span);
+        }
+
+        if (returned > periodEnd) {
+            // wypożyczenie wciąż otwarte na koniec okresu
+            catalog.busyUntil[copy] = Catalog.FOREVER;
+            catalog.copyState[copy] = Catalog.COPY_BORROWED;
+            patrons.borrow(reader, t, Catalog.FOREVER);
+            openLoans++;
+            String status;
+            if (due < periodEnd) {
+                status = "OVERDUE";
+                overdueOpen++;
+            } else {
+                status = rnd.nextInt(100) < 3 ? "RETURN_REQUESTED" : "ACTIVE";
+            }
+            writeLoan(id, userId, copy, t, due, TsvWriter.NONE, status, extensions, createdBy);
+            return;
+        }
+
+        catalog.busyUntil[copy] = returned;
+        patrons.borrow(reader, t, returned);
+        writeLoan(id, userId, copy, t, due, returned, "RETURNED", extensions, createdBy);
+        if (late) {
+            lateReturns++;
+            long daysLate = Math.max(1, (returned - due + DAY - 1) / DAY);
+            penalty(userId, id, FINE_PER_DAY.multiply(BigDecimal.valueOf(daysLate)),
+                    "Przetrzymanie egzemplarza " + Catalog.inventoryCode(copy) + " o " + daysLate + " dni", returned);
+        }
+    }
+
+    private void writeLoan(long id, long userId, int copy, long t, long due, long returned, String status,
+                           int extensions, long createdBy) throws IOException {
+        loans.col(id).col(userId).col(copy + 1).time(t).time(due).time(returned).col(status).col(extensions)
+                .nullableId(createdBy).time(t).end();
+    }
+
+    // 85% opłaconych w ciągu miesiąca, 5% anulowanych, reszta otwarta
+    private void penalty(long userId, long loanId, BigDecimal amount, String reason, long created) throws IOException {
+        int roll = rnd.nextInt(100);
+        long resolved = created + (1 + rnd.nextInt(30)) * DAY;
+        String status = roll < 85 ? "PAID" : roll < 90 ? "CANCELLED" : "OPEN";
+        if (resolved > periodEnd) status = "OPEN";
+        penalties.col(penalties.rows() + 1).col(userId).col(loanId).col(amount.toPlainString()).col(reason)
+                .col(status).time(created).time(status.equals("OPEN") ? TsvWriter.NONE : resolved).end();
+    }
+
+    /**
+     * Rezerwacja, gdy wszystkie egzemplarze są zajęte. Wynik ustalany od razu: anulowana, odebrana
+     * (egzemplarz trzymany dla rezerwującego do odbioru, potem wypożyczenie), nieodebrana (wygasa
+     * 3 dni po zwrocie egzemplarza) albo wciąż aktywna na koniec okresu.
+     */
+    private void reserve(int reader, int book, long t) throws IOException {
+        long key = (long) reader * catalog.books + book;
+        if (activeReservations.contains(key)) return;
+        long id = reservations.rows() + 1;
+        long userId = patrons.readerId(reader);
+
+        if (rnd.nextInt(100) < 15) {
+            long cancelled = t + DAY / 24 + rnd.nextInt(5 * (int) DAY);
+            if (cancelled <= periodEnd) {
+                writeReservation(id, userId, book, t, "CANCELLED", cancelled, TsvWriter.NONE, TsvWriter.NONE);
+                return;
+            }
+        }
+
+        int copy = soonestCopy(book);
+        long free = copy < 0 ? Catalog.FOREVER : catalog.busyUntil[copy];
+        if (free != Catalog.FOREVER) {
+            if (rnd.nextInt(100) < 20) {
+                long expires = free + 3 * DAY;
+                if (expires <= periodEnd) {
+                    catalog.busyUntil[copy] = expires;
+                    writeReservation(id, userId, book, t, "EXPIRED", TsvWriter.NONE, TsvWriter.NONE, expires);
+                    return;
+                }
+            } else {
+                long pickup = free + DAY / 12 + rnd.nextInt(3 * (int) DAY);
+                if (pickup <= periodEnd) {
+                    catalog.busyUntil[copy] = pickup;
+                    held[copy] = true;
+                    pickups.add(new Pickup(pickup, pickupSequence++, reader, copy));
+                    writeReservation(id, userId, book, t, "FULFILLED", TsvWriter.NONE, pickup, TsvWriter.NONE);
+                    return;
+                }
+            }
+        }
+
+        // brak zwrotu do końca okresu: stare rezerwacje wygasają po 30 dniach, świeże są aktywne
+        long expires = t + 30 * DAY;
+        if (expires <= periodEnd) {
+            writeReservation(id, userId, book, t, "EXPIRED", TsvWriter.NONE, TsvWriter.NONE, expires);
+        } else {
+            activeReservations.add(key);
+            writeReservation(id, userId, book, t, "ACTIVE", TsvWriter.NONE, TsvWriter.NONE, TsvWriter.NONE);
+        }
+    }
+
+    // egzemplarz, który zwolni się najwcześniej, z pominięciem odłożonych; -1 gdy brak
+    private int soonestCopy(int book) {
+        int best = -1;
+        for (int c = catalog.copyStart[book]; c < catalog.copyStart[book + 1]; c++) {
+            if (!held[c] && (best < 0 || catalog.busyUntil[c] < catalog.busyUntil[best])) best = c;
+        }
+        return best;
+    }
+
+    private void writeReservation(long id, long userId, int book, long created, String status,
+                                  long cancelled, long fulfilled, long expires) throws IOException {
+        reservations.col(id).col(userId).col(book + 1).time(created).col(status)
+                .time(cancelled).time(fulfilled).time(expires).end();
+    }
+
+    @Override
+    public void close() throws IOException {
+        loans.close();
+        reservations.close();
+        penalties.close();
+    }
+
+    TsvWriter[] writers() {
+        return new TsvWriter[]{loans, reservations, penalties};
+    }
+}
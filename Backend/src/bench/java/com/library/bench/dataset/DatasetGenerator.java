@@ -0,0 +1,109 @@
+package com.library.bench.dataset;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generator dużego, powtarzalnego zestawu danych do testów wydajności: miliony użytkowników,
+ * wypożyczeń, rezerwacji i kar z realistyczną skośnością (Zipf popularności książek i aktywności
+ * czytelników, sezonowość, odsetek przeterminowanych). Najpierw zapisuje pliki TSV, potem ładuje
+ * je do MySQL przez {@code LOAD DATA LOCAL INFILE} albo wsady INSERT.
+ * <p>
+ * Cała symulacja idzie z jednego generatora o stałym ziarnie, w stałej kolejności – ten sam
+ * {@code --seed}, {@code --until} i rozmiary dają identyczne pliki.
+ */
+public final class DatasetGenerator {
+
+    public static void main(String[] args) throws Exception {
+        DatasetOptions options = DatasetOptions.parse(args);
+        if (options.has("help")) {
+            System.out.println(DatasetOptions.USAGE);
+            return;
+        }
+        String load = options.load();
+        if (!List.of("local-infile", "insert", "none").contains(load)) {
+            throw new IllegalArgumentException("--load: local-infile, insert albo none");
+        }
+        if (!load.equals("none") && !options.has("db-url")) {
+            throw new IllegalArgumentException("Ładowanie wymaga --db-url (albo --load=none)");
+        }
+        if (options.books() >= 10_000_000) {
+            throw new IllegalArgumentException("--books musi być mniejsze niż 10 000 000 (unikalne ISBN)");
+        }
+
+        LocalDate until = options.until();
+        LocalDate first = until.minusYears(options.years());
+        long periodStart = first.toEpochSecond(LocalTime.MIDNIGHT, ZoneOffset.UTC);
+        long periodEnd = until.toEpochSecond(LocalTime.MIDNIGHT, ZoneOffset.UTC);
+        Path dir = options.outDir();
+        Files.createDirectories(dir);
+        System.out.printf(Locale.ROOT, "Zestaw: --seed=%d --until=%s --years=%d --users=%d --books=%d --loans=%d%n",
+                options.seed(), until, options.years(), options.users(), options.books(), options.loans());
+
+        long start = System.nanoTime();
+        SplittableRandom rnd = new SplittableRandom(options.seed());
+        Catalog catalog = new Catalog(options, periodStart, rnd);
+        Patrons patrons = new Patrons(options, periodStart, periodEnd, rnd);
+
+        List<TsvWriter> files = new ArrayList<>();
+        String hash = Patrons.passwordHash(options.password(), options.seed());
+        files.add(patrons.write(dir, hash, periodStart, periodEnd));
+        files.addAll(catalog.writeCategoriesAndAuthors(dir, periodStart - 11L * 365 * 86_400));
+        files.add(catalog.writeBookAuthors(dir, rnd));
+
+        Circulation circulation;
+        try (Circulation c = new Circulation(options, catalog, patrons, periodEnd, rnd, dir)) {
+            c.run(new SeasonalCalendar(first, until));
+            circulation = c;
+        }
+        files.addAll(List.of(circulation.writers()));
+        // książki i egzemplarze na końcu – liczniki i statusy zależą od symulacji
+        files.addAll(catalog.writeBooksAndCopies(dir, periodEnd));
+        System.out.printf(Locale.ROOT, "Wygenerowano w %.1f s (%s)%n", (System.nanoTime() - start) / 1e9,
+                dir.toAbsolutePath());
+        report(catalog, patrons, circulation);
+
+        if (load.equals("none")) return;
+
+        System.out.println("Ładowanie (" + load + "):");
+        start = System.nanoTime();
+        try (DatasetLoader loader = new DatasetLoader(options)) {
+            loader.prepare(options.has("truncate"));
+            loader.load(files);
+            loader.finish(catalog.copies());
+        }
+        System.out.printf(Locale.ROOT, "Załadowano w %.1f s%n", (System.nanoTime() - start) / 1e9);
+
+        if (!options.has("keep-files")) {
+            for (TsvWriter f : files) Files.deleteIfExists(f.file);
+        }
+    }
+
+    private static void report(Catalog catalog, Patrons patrons, Circulation c) {
+        long loans = c.loans();
+        System.out.printf(Locale.ROOT, """
+                        użytkownicy      %,12d (%d adminów)
+                        książki          %,12d
+                        egzemplarze      %,12d
+                        wypożyczenia     %,12d (otwarte %,d, w tym przeterminowane %,d; zagubione %,d)
+                        rezerwacje       %,12d
+                        kary             %,12d
+                        zwroty po terminie %.1f%%, udział 1%% najpopularniejszych książek %.1f%%,
+                        niezaspokojony popyt %,d
+                        """,
+                patrons.admins + patrons.readers, patrons.admins, catalog.books, catalog.copies(),
+                loans, c.openLoans, c.overdueOpen, c.lost, c.reservations(), c.penalties(),
+                loans == 0 ? 0 : 100.0 * (c.lateReturns + c.overdueOpen) / loans,
+                loans == 0 ? 0 : 100.0 * c.topBookLoans / loans, c.unserved);
+    }
+
+    private DatasetGenerator() {
+    }
+}
@@ -0,0 +1,174 @@
+package com.library.bench.dataset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Ładowanie plików TSV do MySQL: {@code LOAD DATA LOCAL INFILE} (najszybsze, wymaga
+ * {@code local_infile=ON} na serwerze) albo wsady {@code INSERT} przepisywane przez sterownik
+ * na wielowierszowe ({@code rewriteBatchedStatements}). Na czas ładowania wyłączone są kontrole
+ * kluczy obcych i unikalności – pliki są spójne z konstrukcji.
+ */
+final class DatasetLoader implements AutoCloseable {
+
+    private static final int INSERT_BATCH = 5_000;
+    // kolejność czyszczenia (dzieci przed rodzicami, choć przy FOREIGN_KEY_CHECKS=0 to tylko porządek)
+    private static final List<String> TABLES = List.of("refresh_token", "loan_daily_stats", "penalty",
+            "reservation", "loan", "book_copy", "book_author", "book", "author", "category", "app_user");
+
+    private final Connection connection;
+    private final boolean localInfile;
+
+    DatasetLoader(DatasetOptions options) throws SQLException {
+        this.localInfile = options.load().equals("local-infile");
+        Properties props = new Properties();
+        props.setProperty("user", options.get("db-user", "library"));
+        props.setProperty("password", options.get("db-password", "library"));
+        props.setProperty("rewriteBatchedStatements", "true");
+        if (localInfile) props.setProperty("allowLoadLocalInfile", "true");
+        this.connection = DriverManager.getConnection(options.get("db-url", null), props);
+    }
+
+    /** Baza musi być pusta albo czyszczona jawnie ({@code --truncate}). */
+    void prepare(boolean truncate) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            if (truncate) {
+                st.execute("SET FOREIGN_KEY_CHECKS = 0");
+                for (String table : TABLES) {
+                    st.execute("TRUNCATE TABLE " + table);
+                }
+                st.execute("SET FOREIGN_KEY_CHECKS = 1");
+                return;
+            }
+            for (String table : List.of("app_user", "book", "loan")) {
+                try (ResultSet rs = st.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        throw new IllegalStateException("Tabela " + table
+                                + " nie jest pusta – użyj --truncate albo pustej bazy");
+                    }
+                }
+            }
+        }
+    }
+
+    void load(List<TsvWriter> files) throws SQLException, IOException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("SET FOREIGN_KEY_CHECKS = 0");
+            st.execute("SET UNIQUE_CHECKS = 0");
+            for (TsvWriter file : files) {
+                long start = System.nanoTime();
+                long rows = localInfile ? loadInfile(st, file) : insertBatches(file);
+                System.out.printf("  %-18s %,12d wierszy  %6.1f s%n", file.table, rows,
+                        (System.nanoTime() - start) / 1e9);
+            }
+            st.execute("SET UNIQUE_CHECKS = 1");
+            st.execute("SET FOREIGN_KEY_CHECKS = 1");
+        }
+    }
+
+    private long loadInfile(Statement st, TsvWriter file) throws SQLException {
+        String path = file.file.toAbsolutePath().toString().replace("\\", "/").replace("'", "\\'");
+        return st.executeLargeUpdate("LOAD DATA LOCAL INFILE '" + path + "' INTO TABLE " + file.table
+                + " CHARACTER SET utf8mb4 (" + String.join(", ", file.columns) + ")");
+    }
+
+    private long insertBatches(TsvWriter file) throws SQLException, IOException {
+        String sql = "INSERT INTO " + file.table + " (" + String.join(", ", file.columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(file.columns.size(), "?")) + ")";
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long rows = 0;
+        try (BufferedReader in = Files.newBufferedReader(file.file, StandardCharsets.UTF_8);
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] values = line.split("\t", -1);
+                for (int i = 0; i < values.length; i++) {
+                    String v = unescape(values[i]);
+                    if (v == null) ps.setNull(i + 1, Types.VARCHAR);
+                    else ps.setString(i + 1, v);
+                }
+                ps.addBatch();
+                if (++rows % INSERT_BATCH == 0) {
+                    ps.executeBatch();
+                    connection.commit();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return rows;
+    }
+
+    private static String unescape(String v) {
+        if (v.equals("\\N")) return null;
+        if (v.indexOf('\\') < 0) return v;
+        StringBuilder sb = new StringBuilder(v.length());
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == '\\' && i + 1 < v.length()) {
+                char n = v.charAt(++i);
+                sb.append(n == 't' ? '\t' : n == 'n' ? '\n' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Po załadowaniu: agregat dzienny (te same zapytania co backfill w LoanDailyStatRepository),
+     * sekwencja kodów inwentarzowych za ostatnim egzemplarzem i świeże statystyki optymalizatora.
+     */
+    void finish(int copies) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            long start = System.nanoTime();
+            st.executeUpdate("""
+                    insert into loan_daily_stats (day, book_id, loans_count, returns_count)
+                    select date(l.loan_date), bc.book_id, count(*), 0
+                    from loan l
+                      join book_copy bc on bc.id = l.book_copy_id
+                    group by date(l.loan_date), bc.book_id
+                    """);
+            st.executeUpdate("""
+                    insert into loan_daily_stats (day, book_id, loans_count, returns_count)
+                    select date(l.return_date), bc.book_id, 0, count(*)
+                    from loan l
+                      join book_copy bc on bc.id = l.book_copy_id
+                    where l.status = 'RETURNED'
+                    group by date(l.return_date), bc.book_id
+                    on duplicate key update returns_count = values(returns_count)
+                    """);
+            System.out.printf("  %-18s %19s  %6.1f s%n", "loan_daily_stats", "", (System.nanoTime() - start) / 1e9);
+            try (PreparedStatement ps = connection.prepareStatement("""
+                    insert into inventory_sequence (name, next_value) values ('book_copy', ?)
+                    on duplicate key update next_value = values(next_value)
+                    """)) {
+                ps.setLong(1, copies + 1L);
+                ps.executeUpdate();
+            }
+            st.execute("ANALYZE TABLE app_user, category, author, book, book_author, book_copy, loan,"
+                    + " reservation, penalty, loan_daily_stats");
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,134 @@
+package com.library.bench.dataset;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parametry generatora w postaci {@code --klucz=wartość}. Ten sam {@code --seed} i {@code --until}
+ * (oraz rozmiary) dają identyczny zestaw danych.
+ */
+final class DatasetOptions {
+
+    static final String USAGE = """
+            Użycie: DatasetGenerator [--opcja=wartość ...]
+              --db-url=jdbc:mysql://...      baza docelowa (schemat z BataBase/DBSchema.sql)
+              --db-user=library --db-password=library
+              --load=local-infile            local-infile (LOAD DATA), insert (wsady JDBC), none (tylko pliki)
+              --truncate                     wyczyść tabele przed ładowaniem (bez tego baza musi być pusta)
+              --out-dir=target/dataset       katalog na pliki TSV
+              --keep-files                   nie usuwaj plików po załadowaniu
+              --seed=42
+              --until=<dzisiaj>              koniec okresu historii (RRRR-MM-DD)
+              --years=3                      długość historii wypożyczeń
+              --users=1000000 --admins=20 --books=200000 --authors=<books/3>
+              --loans=5000000                docelowa liczba wypożyczeń (część popytu zamienia się w rezerwacje)
+              --book-skew=1.0 --user-skew=0.8   wykładniki rozkładu Zipfa popularności książek / aktywności czytelników
+              --overdue-rate=0.08            odsetek wypożyczeń oddanych po terminie
+              --lost-rate=0.002              odsetek zagubionych egzemplarzy
+              --reservation-rate=0.25        prawdopodobieństwo rezerwacji, gdy brak wolnego egzemplarza
+              --password=Dataset!2345        hasło wszystkich wygenerowanych kont
+            """;
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private DatasetOptions() {
+    }
+
+    static DatasetOptions parse(String[] args) {
+        DatasetOptions o = new DatasetOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Nieznany argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                o.values.put(arg.substring(2), "true");
+            } else {
+                o.values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return o;
+    }
+
+    boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    String get(String key, String def) {
+        return values.getOrDefault(key, def);
+    }
+
+    private int getInt(String key, int def) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : def;
+    }
+
+    private double getDouble(String key, double def) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : def;
+    }
+
+    long seed() {
+        return Long.parseLong(get("seed", "42"));
+    }
+
+    LocalDate until() {
+        return has("until") ? LocalDate.parse(get("until", null)) : LocalDate.now();
+    }
+
+    int years() {
+        return getInt("years", 3);
+    }
+
+    int users() {
+        return getInt("users", 1_000_000);
+    }
+
+    int admins() {
+        return getInt("admins", 20);
+    }
+
+    int books() {
+        return getInt("books", 200_000);
+    }
+
+    int authors() {
+        return getInt("authors", Math.max(10, books() / 3));
+    }
+
+    int loans() {
+        return getInt("loans", 5_000_000);
+    }
+
+    double bookSkew() {
+        return getDouble("book-skew", 1.0);
+    }
+
+    double userSkew() {
+        return getDouble("user-skew", 0.8);
+    }
+
+    double overdueRate() {
+        return getDouble("overdue-rate", 0.08);
+    }
+
+    double lostRate() {
+        return getDouble("lost-rate", 0.002);
+    }
+
+    double reservationRate() {
+        return getDouble("reservation-rate", 0.25);
+    }
+
+    String password() {
+        return get("password", "Dataset!2345");
+    }
+
+    String load() {
+        return get("load", "local-infile");
+    }
+
+    Path outDir() {
+        return Path.of(get("out-dir", "target/dataset"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.library.bench.dataset;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Użytkownicy: najpierw administratorzy, potem czytelnicy w kolejności rejestracji (id rośnie z datą
+ * założenia konta). 60% kont istnieje przed początkiem okresu, reszta dochodzi w jego trakcie.
+ * Aktywność czytelników ma rozkład Zipfa – nieliczni wypożyczają bardzo dużo, większość rzadko –
+ * ograniczona limitem {@value #MAX_OPEN_LOANS} jednocześnie wypożyczonych egzemplarzy.
+ */
+final class Patrons {
+
+    static final int MAX_OPEN_LOANS = 5;
+
+    private final long seed;
+    final int admins;
+    final int readers;
+    /** czas rejestracji czytelnika (indeks 0..readers-1), rosnąco */
+    private final long[] readerCreated;
+    private final int[] readerByRank;
+    private final ZipfSampler activity;
+    /** chwile zwrotu wypożyczeń czytelnika: MAX_OPEN_LOANS miejsc na czytelnika */
+    private final long[] slots;
+
+    Patrons(DatasetOptions options, long periodStart, long periodEnd, SplittableRandom rnd) {
+        this.seed = options.seed();
+        this.admins = options.admins();
+        this.readers = options.users() - admins;
+        if (readers <= 0) {
+            throw new IllegalArgumentException("--users musi być większe niż --admins");
+        }
+        this.readerCreated = new long[readers];
+        long history = 5L * 365 * 86_400;
+        for (int i = 0; i < readers; i++) {
+            readerCreated[i] = rnd.nextDouble() < 0.6
+                    ? periodStart - (long) (rnd.nextDouble() * history)
+                    : periodStart + (long) (rnd.nextDouble() * (periodEnd - periodStart));
+        }
+        Arrays.sort(readerCreated);
+        this.readerByRank = ZipfSampler.permutation(readers, rnd);
+        this.activity = new ZipfSampler(readers, options.userSkew());
+        this.slots = new long[readers * MAX_OPEN_LOANS];
+    }
+
+    long readerId(int reader) {
+        return admins + reader + 1L;
+    }
+
+    long adminId(int admin) {
+        return admin + 1L;
+    }
+
+    /** Czytelnik wg aktywności, zarejestrowany przed {@code t} i poniżej limitu wypożyczeń; -1 gdy brak. */
+    int pick(long t, SplittableRandom rnd) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            int r = readerByRank[activity.sample(rnd)];
+            if (readerCreated[r] <= t && freeSlot(r, t) >= 0) return r;
+        }
+        int registered = upperBound(t);
+        for (int attempt = 0; attempt < 8 && registered > 0; attempt++) {
+            int r = rnd.nextInt(registered);
+            if (freeSlot(r, t) >= 0) return r;
+        }
+        return -1;
+    }
+
+    /** Zajmuje miejsce czytelnika do chwili zwrotu (Catalog.FOREVER dla otwartych wypożyczeń). */
+    void borrow(int reader, long t, long until) {
+        int slot = freeSlot(reader, t);
+        // wypożyczenie z rezerwacji może przekroczyć limit – wtedy zajmuje miejsce zwalniane najwcześniej
+        if (slot < 0) {
+            slot = reader * MAX_OPEN_LOANS;
+            for (int i = slot + 1; i < (reader + 1) * MAX_OPEN_LOANS; i++) {
+                if (slots[i] < slots[slot]) slot = i;
+            }
+        }
+        slots[slot] = until;
+    }
+
+    private int freeSlot(int reader, long t) {
+        for (int i = reader * MAX_OPEN_LOANS; i < (reader + 1) * MAX_OPEN_LOANS; i++) {
+            if (slots[i] <= t) return i;
+        }
+        return -1;
+    }
+
+    private int upperBound(long t) {
+        int lo = 0;
+        int hi = readers;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (readerCreated[mid] <= t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Jedno hasło dla wszystkich kont; sól BCrypt z generatora o stałym ziarnie, więc skrót
+     * (i cały plik) jest powtarzalny.
+     */
+    static String passwordHash(String password, long seed) {
+        try {
+            SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+            random.setSeed(seed);
+            return BCrypt.hashpw(password, BCrypt.gensalt(10, random));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Zablokowani: 0,5% czytelników (nieopłacone kary), blokada do końca okresu + do 60 dni. */
+    TsvWriter write(Path dir, String passwordHash, long periodStart, long periodEnd) throws IOException {
+        try (TsvWriter w = new TsvWriter(dir, "app_user", "id", "email", "password_hash", "first_name",
+                "last_name", "role", "status", "blocked_reason", "blocked_until", "created_at", "updated_at")) {
+            for (int a = 0; a < admins; a++) {
+                SplittableRandom r = Vocabulary.rowRandom(seed, 1, adminId(a));
+                long created = periodStart - 6L * 365 * 86_400 + r.nextInt(365 * 86_400);
+                w.col(adminId(a)).col("admin" + (a + 1) + "@dataset.local").col(passwordHash)
+                        .col(Vocabulary.pick(r, Vocabulary.FIRST_NAMES)).col(Vocabulary.pick(r, Vocabulary.LAST_NAMES))
+                        .col("ADMIN").col("ACTIVE").col(null).time(TsvWriter.NONE)
+                        .time(created).time(created).end();
+            }
+            for (int i = 0; i < readers; i++) {
+                long id = readerId(i);
+                SplittableRandom r = Vocabulary.rowRandom(seed, 1, id);
+                boolean blocked = r.nextInt(200) == 0;
+                long updated = blocked ? periodEnd - r.nextInt(90 * 86_400) : readerCreated[i];
+                w.col(id).col("reader" + (i + 1) + "@dataset.local").col(passwordHash)
+                        .col(Vocabulary.pick(r, Vocabulary.FIRST_NAMES)).col(Vocabulary.pick(r, Vocabulary.LAST_NAMES))
+                        .col("READER").col(blocked ? "BLOCKED" : "ACTIVE")
+                        .col(blocked ? "Nieopłacone kary" : null)
+                        .time(blocked ? periodEnd + r.nextInt(60 * 86_400) : TsvWriter.NONE)
+                        .time(readerCreated[i]).time(Math.max(updated, readerCreated[i])).end();
+            }
+            return w;
+        }
+    }
+}
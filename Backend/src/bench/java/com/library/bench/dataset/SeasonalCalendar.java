@@ -0,0 +1,82 @@
+package com.library.bench.dataset;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Rozkład wypożyczeń w czasie: sezon roku akademickiego (szczyt październik–styczeń i przed sesją
+ * letnią, dołek w wakacje), dni tygodnia (sobota słabsza, niedziela prawie zero), godziny otwarcia
+ * 8–20 ze szczytem w południe i po zajęciach oraz łagodny wzrost ruchu w całym okresie.
+ */
+final class SeasonalCalendar {
+
+    //                                        sty   lut  mar  kwi  maj  cze  lip  sie  wrz  paź  lis  gru
+    private static final double[] MONTH = {1.2, 0.9, 1.1, 1.0, 1.1, 1.0, 0.5, 0.45, 0.9, 1.3, 1.3, 0.85};
+    //                                          pn   wt   śr   cz   pt   sb   nd
+    private static final double[] WEEKDAY = {1.15, 1.1, 1.05, 1.0, 0.9, 0.45, 0.05};
+    private static final int OPENING_HOUR = 8;
+    //                                       8    9    10   11   12   13   14   15   16   17   18   19
+    private static final double[] HOUR = {0.5, 0.8, 1.0, 1.1, 1.25, 1.2, 1.05, 1.1, 1.25, 1.15, 0.85, 0.5};
+    // wzrost ruchu od początku do końca okresu
+    private static final double GROWTH = 0.3;
+
+    private final LocalDate first;
+    private final double[] dayWeights;
+    private final double weightSum;
+    private final double[] hourCdf;
+
+    SeasonalCalendar(LocalDate first, LocalDate lastExclusive) {
+        this.first = first;
+        int days = (int) (lastExclusive.toEpochDay() - first.toEpochDay());
+        this.dayWeights = new double[days];
+        double sum = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate day = first.plusDays(d);
+            double w = MONTH[day.getMonthValue() - 1] * WEEKDAY[day.getDayOfWeek().getValue() - 1]
+                    * (1 + GROWTH * d / days);
+            // przerwa świąteczna
+            if ((day.getMonthValue() == 12 && day.getDayOfMonth() >= 24) || (day.getMonthValue() == 1 && day.getDayOfMonth() == 1)) {
+                w *= 0.1;
+            }
+            dayWeights[d] = w;
+            sum += w;
+        }
+        this.weightSum = sum;
+        this.hourCdf = new double[HOUR.length];
+        double h = 0;
+        for (int i = 0; i < HOUR.length; i++) {
+            h += HOUR[i];
+            hourCdf[i] = h;
+        }
+        for (int i = 0; i < HOUR.length; i++) hourCdf[i] /= h;
+    }
+
+    int days() {
+        return dayWeights.length;
+    }
+
+    LocalDate day(int index) {
+        return first.plusDays(index);
+    }
+
+    /** Oczekiwana liczba zdarzeń danego dnia przy {@code total} w całym okresie. */
+    double expected(int dayIndex, long total) {
+        return total * dayWeights[dayIndex] / weightSum;
+    }
+
+    /** Posortowane chwile (sekundy epoki) {@code count} zdarzeń w godzinach otwarcia danego dnia. */
+    long[] times(int dayIndex, int count, SplittableRandom rnd) {
+        long midnight = first.plusDays(dayIndex).toEpochSecond(LocalTime.MIDNIGHT, ZoneOffset.UTC);
+        long[] t = new long[count];
+        for (int i = 0; i < count; i++) {
+            int slot = Arrays.binarySearch(hourCdf, rnd.nextDouble());
+            int hour = OPENING_HOUR + (slot >= 0 ? slot : Math.min(-slot - 1, HOUR.length - 1));
+            t[i] = midnight + hour * 3600L + rnd.nextInt(3600);
+        }
+        Arrays.sort(t);
+        return t;
+    }
+}
@@ -0,0 +1,113 @@
+package com.library.bench.dataset;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Plik jednej tabeli w formacie domyślnym {@code LOAD DATA}: tabulatory, {@code \N} jako NULL,
+ * ukośnik jako znak ucieczki. Wiersz budowany kolumna po kolumnie, bez tworzenia obiektów
+ * na każdą wartość (miliony wierszy).
+ */
+final class TsvWriter implements Closeable {
+
+    /** Znacznik braku wartości dla kolumn czasu. */
+    static final long NONE = Long.MIN_VALUE;
+
+    final String table;
+    final List<String> columns;
+    final Path file;
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+    private int column;
+    private long rows;
+
+    TsvWriter(Path dir, String table, String... columns) throws IOException {
+        this.table = table;
+        this.columns = List.of(columns);
+        this.file = dir.resolve(table + ".tsv");
+        this.out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    TsvWriter col(long value) {
+        sep().append(value);
+        return this;
+    }
+
+    TsvWriter col(String value) {
+        sep();
+        if (value == null) {
+            line.append("\\N");
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                default -> line.append(c);
+            }
+        }
+        return this;
+    }
+
+    TsvWriter nullableId(long id) {
+        if (id <= 0) {
+            sep().append("\\N");
+            return this;
+        }
+        return col(id);
+    }
+
+    /** Czas w sekundach epoki (UTC jako czas lokalny, jak DATETIME). */
+    TsvWriter time(long epochSecond) {
+        sep();
+        if (epochSecond == NONE) {
+            line.append("\\N");
+            return this;
+        }
+        LocalDateTime t = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        line.append(t.getYear()).append('-');
+        pad2(t.getMonthValue()).append('-');
+        pad2(t.getDayOfMonth()).append(' ');
+        pad2(t.getHour()).append(':');
+        pad2(t.getMinute()).append(':');
+        pad2(t.getSecond());
+        return this;
+    }
+
+    void end() throws IOException {
+        line.append('\n');
+        out.append(line);
+        line.setLength(0);
+        column = 0;
+        rows++;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private StringBuilder sep() {
+        if (column++ > 0) line.append('\t');
+        return line;
+    }
+
+    private StringBuilder pad2(int v) {
+        if (v < 10) line.append('0');
+        return line.append(v);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
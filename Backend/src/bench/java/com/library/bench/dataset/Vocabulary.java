@@ -0,0 +1,60 @@
+package com.library.bench.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Słowniki do tekstów (imiona, nazwiska, tytuły) i losowość per wiersz: pola tekstowe liczone są
+ * z generatora zależnego tylko od ziarna, tabeli i id, więc nie przesuwają sekwencji symulacji.
+ */
+final class Vocabulary {
+
+    static final String[] FIRST_NAMES = {"Anna", "Piotr", "Katarzyna", "Tomasz", "Magdalena", "Jan", "Agnieszka",
+            "Paweł", "Zofia", "Michał", "Ewa", "Krzysztof", "Maria", "Andrzej", "Joanna", "Marek", "Aleksandra",
+            "Jakub", "Natalia", "Łukasz", "Julia", "Mateusz", "Karolina", "Bartosz", "Monika", "Wojciech",
+            "Barbara", "Kamil", "Weronika", "Grzegorz", "Małgorzata", "Szymon", "Dorota", "Adam", "Alicja", "Filip"};
+    static final String[] LAST_NAMES = {"Nowak", "Kowalski", "Wiśniewska", "Wójcik", "Kowalczyk", "Kamiński",
+            "Lewandowska", "Zieliński", "Szymańska", "Woźniak", "Dąbrowski", "Kozłowska", "Jankowski", "Mazur",
+            "Kwiatkowska", "Krawczyk", "Piotrowski", "Grabowska", "Nowakowski", "Pawłowska", "Michalski",
+            "Nowicka", "Adamczyk", "Dudek", "Zając", "Wieczorek", "Jabłoński", "Król", "Majewska", "Olszewski",
+            "Jaworska", "Wróbel", "Malinowski", "Pawlak", "Witkowska", "Walczak", "Stępień", "Górski", "Rutkowska"};
+    private static final String[] TITLE_WORDS = {"cień", "miasto", "wiatr", "dom", "ogród", "rzeka", "noc",
+            "światło", "pamięć", "droga", "wyspa", "zima", "lato", "morze", "las", "czas", "list", "sen", "kamień",
+            "ogień", "granica", "tajemnica", "historia", "podróż", "wojna", "miłość", "człowiek", "gwiazda",
+            "zegar", "most", "brzeg", "głos", "milczenie", "powrót", "ucieczka", "labirynt", "kronika", "mapa",
+            "algorytm", "struktura", "teoria", "wprowadzenie", "podstawy", "analiza", "metoda", "system", "zarys"};
+    private static final String[] DESCRIPTION_OPENERS = {"opowieść o", "studium", "przewodnik po", "esej o",
+            "kronika", "rozważania o"};
+    private static final String[] TITLE_LINKS = {"i", "w", "nad", "pod", "za", "przez", "bez", "o", "dla", "po"};
+
+    private Vocabulary() {
+    }
+
+    static SplittableRandom rowRandom(long seed, int table, long id) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + table * 0xBF58476D1CE4E5B9L + id);
+    }
+
+    static String pick(SplittableRandom rnd, String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+
+    static String title(SplittableRandom rnd) {
+        StringBuilder sb = new StringBuilder(capitalize(pick(rnd, TITLE_WORDS)));
+        int words = 1 + rnd.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            sb.append(' ');
+            if (i % 2 == 0 && rnd.nextInt(3) == 0) sb.append(pick(rnd, TITLE_LINKS)).append(' ');
+            sb.append(pick(rnd, TITLE_WORDS));
+        }
+        if (rnd.nextInt(20) == 0) sb.append(". Tom ").append(2 + rnd.nextInt(4));
+        return sb.toString();
+    }
+
+    static String description(SplittableRandom rnd, String title) {
+        return "„" + title + "” – " + pick(rnd, DESCRIPTION_OPENERS) + " "
+                + pick(rnd, TITLE_WORDS) + " i " + pick(rnd, TITLE_WORDS) + ".";
+    }
+
+    static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.library.bench.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Losowanie rangi {@code 0..n-1} z rozkładu Zipfa (P(k) ~ 1 / (k+1)^s) przez wyszukiwanie binarne
+ * w tablicy dystrybuanty. Rangę na identyfikator przekłada permutacja po stronie wywołującego,
+ * żeby popularne rekordy nie były po prostu tymi o najniższych id.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Rozkład Zipfa wymaga n > 0");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+    }
+
+    int sample(SplittableRandom rnd) {
+        int i = Arrays.binarySearch(cdf, rnd.nextDouble());
+        return i >= 0 ? i : Math.min(-i - 1, cdf.length - 1);
+    }
+
+    /** Udział {@code k} najpopularniejszych rang w całości – do raportu skośności. */
+    double share(int k) {
+        return k <= 0 ? 0 : cdf[Math.min(k, cdf.length) - 1];
+    }
+
+    static int[] permutation(int n, SplittableRandom rnd) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) p[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        return p;
+    }
+}
@@ -1,10 +1,18 @@
 package com.library;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Narzędzie deweloperskie: generuje hashe haseł do danych startowych.
+ * Włączane jawnie ({@code app.dev.print-password-hashes=true}); hasła jawne nie trafiają do logu.
+ */
+@Slf4j
 @Component
+@ConditionalOnProperty(name = "app.dev.print-password-hashes", havingValue = "true")
 public class PasswordPrintRunner implements CommandLineRunner {
 
   private final PasswordEncoder passwordEncoder;
@@ -19,15 +27,8 @@ public class PasswordPrintRunner implements CommandLineRunner {
     String adminPlain = "admin123"; // <-- użyj tego w danych startowych DB
     String readerPlain = "reader123"; // <-- i dla czytelnika
 
-    String adminHash = passwordEncoder.encode(adminPlain);
-    String readerHash = passwordEncoder.encode(readerPlain);
-
     // WSTAW adminHash/readerHash do kolumny app_user.password_hash w bazie
-    System.out.println("=== GENERATED PASSWORD HASHES ===");
-    System.out.println("ADMIN PLAIN : " + adminPlain);
-    System.out.println("ADMIN HASH  : " + adminHash);
-    System.out.println("READER PLAIN: " + readerPlain);
-    System.out.println("READER HASH : " + readerHash);
-    System.out.println("=================================");
+    log.info("ADMIN HASH  : {}", passwordEncoder.encode(adminPlain));
+    log.info("READER HASH : {}", passwordEncoder.encode(readerPlain));
   }
 }
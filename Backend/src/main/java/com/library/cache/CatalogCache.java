@@ -0,0 +1,99 @@
+package com.library.cache;
+
+import com.library.dto.BookDto;
+import com.library.dto.CategoryDto;
+import com.library.event.BookChangedEvent;
+import com.library.model.entity.Category;
+import com.library.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache odczytów katalogu: szczegóły książki (BookDto) i kategorie.
+ * Szczegóły są unieważniane po commicie każdego {@link BookChangedEvent} – publikują go zmiany
+ * książek, autorów i przejścia wypożyczeń, które ruszają liczniki egzemplarzy.
+ * Kategorie nie mają ścieżki zapisu w aplikacji, więc wygasają tylko po TTL.
+ * Zwracane DTO są współdzielone – nie należy ich modyfikować.
+ */
+@Component
+public class CatalogCache {
+
+    private final CategoryRepository categoryRepository;
+    private final ReadThroughCache<Long, BookDto> bookDetails;
+    private final ReadThroughCache<Long, CategoryDto> categories;
+
+    public CatalogCache(CategoryRepository categoryRepository,
+                        @Value("${app.cache.book-detail.max-size:10000}") int bookMaxSize,
+                        @Value("${app.cache.book-detail.ttl:PT10M}") Duration bookTtl,
+                        @Value("${app.cache.category.max-size:1000}") int categoryMaxSize,
+                        @Value("${app.cache.category.ttl:PT1H}") Duration categoryTtl) {
+        this.categoryRepository = categoryRepository;
+        this.bookDetails = new ReadThroughCache<>("bookDetail", bookMaxSize, bookTtl);
+        this.categories = new ReadThroughCache<>("category", categoryMaxSize, categoryTtl);
+    }
+
+    public BookDto bookDetail(Long bookId, Function<Long, BookDto> loader) {
+        return bookDetails.get(bookId, loader);
+    }
+
+    public CategoryDto category(Long categoryId) {
+        if (categoryId == null) return null;
+        return categories.get(categoryId, id -> categoryRepository.findById(id)
+                .map(c -> new CategoryDto(c.getId(), c.getName(), c.getParentId(), null))
+                .orElse(null));
+    }
+
+    /**
+     * Ładuje do cache brakujące kategorie jednym zapytaniem – przed mapowaniem strony książek,
+     * żeby {@link #category(Long)} nie pytał bazy osobno o każdą kategorię przy zimnym cache.
+     */
+    public void preloadCategories(Collection<Long> categoryIds) {
+        categories.getAll(categoryIds, ids -> categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Category::getId,
+                        c -> new CategoryDto(c.getId(), c.getName(), c.getParentId(), null))));
+    }
+
+    /**
+     * Czyści szczegóły wszystkich książek; w transakcji – dopiero po jej commicie.
+     */
+    public void invalidateAllBooks() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bookDetails.invalidateAll();
+                }
+            });
+        } else {
+            bookDetails.invalidateAll();
+        }
+    }
+
+    /** Czyści kategorie – po ręcznych zmianach w bazie (aplikacja ich nie zapisuje) i w testach zimnego cache. */
+    public void invalidateAllCategories() {
+        categories.invalidateAll();
+    }
+
+    /** Czyści szczegóły wskazanych książek od razu – wołać po commicie zmian. */
+    public void invalidateBooks(Collection<Long> bookIds) {
+        bookIds.forEach(bookDetails::invalidate);
+    }
+
+    public List<ReadThroughCache.Stats> stats() {
+        return List.of(bookDetails.stats(), categories.stats());
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        bookDetails.invalidate(event.bookId());
+    }
+}
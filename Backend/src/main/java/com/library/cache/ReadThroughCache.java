@@ -0,0 +1,223 @@
+package com.library.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Ograniczony cache w pamięci (przybliżone LRU + TTL) z ładowaniem przy chybieniu.
+ * Równoległe chybienia na tym samym kluczu czekają na jedno ładowanie z bazy.
+ * Trafienie nie bierze żadnej blokady – wpis trzyma tylko czas ostatniego odczytu; przy
+ * przekroczeniu limitu jeden wątek usuwa wygasłe i najdawniej czytane wpisy (z zapasem 10%,
+ * żeby nie sortować przy każdym zapisie).
+ * Unieważnienie klucza podbija jego wersję – wynik ładowania tego klucza rozpoczętego wcześniej
+ * nie trafia już do cache, więc stara wartość nie "wraca" po zapisie. Ładowania innych kluczy
+ * zostają. {@link #invalidateAll()} podbija wersję wspólną dla wszystkich kluczy.
+ * Wartości null nie są cache'owane.
+ */
+public class ReadThroughCache<K, V> {
+
+    public record Stats(String name, int size, int maxSize, long hits, long misses,
+                        long loads, long evictions, double hitRate) {
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        volatile long lastAccess;
+
+        Entry(V value, long now, long ttlNanos) {
+            this.value = value;
+            this.expiresAt = now + ttlNanos;
+            this.lastAccess = now;
+        }
+    }
+
+    // wersja klucza i wersja globalna z chwili rozpoczęcia ładowania
+    private record Version(long key, long global) {
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    // rośnie najwyżej do liczby kiedykolwiek unieważnionych kluczy (id książek / kategorii);
+    // bez czyszczenia – wyzerowana wersja mogłaby się zrównać z tą sprzed unieważnienia
+    private final ConcurrentHashMap<K, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ReadThroughCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        Version started = version(key);
+        try {
+            loads.incrementAndGet();
+            V value = loader.apply(key);
+            store(key, value, started);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * Wartości wielu kluczy naraz; wszystkie chybienia ładuje jedno wywołanie {@code bulkLoader}
+     * (np. jedno zapytanie IN zamiast zapytania na klucz). Klucze, których loader nie zwrócił,
+     * nie trafiają do wyniku. Bez czekania na równoległe ładowania tych samych kluczy przez get().
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys,
+                            Function<? super Set<K>, ? extends Map<K, ? extends V>> bulkLoader) {
+        Map<K, V> result = new HashMap<>();
+        Map<K, Version> missing = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (key == null || result.containsKey(key) || missing.containsKey(key)) continue;
+            V cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                result.put(key, cached);
+            } else {
+                misses.incrementAndGet();
+                missing.put(key, version(key));
+            }
+        }
+        if (!missing.isEmpty()) {
+            loads.incrementAndGet();
+            bulkLoader.apply(missing.keySet()).forEach((key, value) -> {
+                Version started = missing.get(key);
+                if (started != null) store(key, value, started);
+                result.put(key, value);
+            });
+        }
+        return result;
+    }
+
+    public void invalidate(K key) {
+        // najpierw wersja, potem usunięcie – store() sprawdza wersję już po zapisie
+        versions.merge(key, 1L, Long::sum);
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        entries.clear();
+    }
+
+    public Stats stats() {
+        long h = hits.get();
+        long m = misses.get();
+        return new Stats(name, entries.size(), maxSize, h, m, loads.get(), evictions.get(),
+                h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    // ----------------- helpers -----------------
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return null;
+        long now = System.nanoTime();
+        if (entry.expiresAt - now <= 0) {
+            if (entries.remove(key, entry)) evictions.incrementAndGet();
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    private Version version(K key) {
+        return new Version(versions.getOrDefault(key, 0L), globalVersion.get());
+    }
+
+    private void store(K key, V value, Version started) {
+        if (value == null || !version(key).equals(started)) return;
+        Entry<V> entry = new Entry<>(value, System.nanoTime(), ttlNanos);
+        entries.put(key, entry);
+        // unieważnienie mogło wejść między sprawdzeniem a zapisem – wtedy wycofujemy własny wpis
+        if (!version(key).equals(started)) {
+            entries.remove(key, entry);
+            return;
+        }
+        if (entries.size() > maxSize) evict();
+    }
+
+    private void evict() {
+        // jeden sprzątający naraz; pozostali zapisują dalej, limit chwilowo może być przekroczony
+        if (!evictionLock.tryLock()) return;
+        try {
+            long now = System.nanoTime();
+            List<Map.Entry<K, Entry<V>>> candidates = new ArrayList<>(entries.entrySet());
+            int target = maxSize - Math.max(1, maxSize / 10);
+            int size = candidates.size();
+            for (Map.Entry<K, Entry<V>> e : candidates) {
+                if (e.getValue().expiresAt - now <= 0 && entries.remove(e.getKey(), e.getValue())) {
+                    evictions.incrementAndGet();
+                    size--;
+                }
+            }
+            if (size <= maxSize) return;
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            Iterator<Map.Entry<K, Entry<V>>> it = candidates.iterator();
+            while (size > target && it.hasNext()) {
+                Map.Entry<K, Entry<V>> e = it.next();
+                if (entries.remove(e.getKey(), e.getValue())) {
+                    evictions.incrementAndGet();
+                    size--;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // ten sam wyjątek co u wątku, który ładował (np. ResourceNotFoundException -> 404)
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.library.catalogimport;
+
+import com.library.dto.admin.CatalogImportErrorDto;
+import com.library.dto.admin.CatalogImportJobDto;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stan jednego importu. Liczniki są aktualizowane przez wątek importu, czytane przez endpoint postępu.
+ */
+public class CatalogImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final ImportFormat format;
+    private final Path file;
+    private final int maxReportRows;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile long resumeFrom;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String message;
+    private volatile long runStartedNanos;
+    private volatile long runEndedNanos;
+    private volatile long runStartRecord;
+
+    final AtomicLong recordsRead = new AtomicLong();
+    final AtomicLong recordsCommitted = new AtomicLong();
+    final AtomicLong imported = new AtomicLong();
+    final AtomicLong skipped = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+    final AtomicLong authorsCreated = new AtomicLong();
+    final AtomicLong copiesCreated = new AtomicLong();
+
+    private final List<CatalogImportErrorDto> report = new ArrayList<>();
+
+    CatalogImportJob(String id, ImportFormat format, Path file, long skip, int maxReportRows) {
+        this.id = id;
+        this.format = format;
+        this.file = file;
+        this.maxReportRows = maxReportRows;
+        this.resumeFrom = skip;
+        this.recordsRead.set(skip);
+        this.recordsCommitted.set(skip);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    ImportFormat format() {
+        return format;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long resumeFrom() {
+        return resumeFrom;
+    }
+
+    boolean cancelRequested() {
+        return cancelRequested;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    void prepareResume() {
+        resumeFrom = recordsCommitted.get();
+        recordsRead.set(resumeFrom);
+        cancelRequested = false;
+        message = null;
+        finishedAt = null;
+        status = Status.QUEUED;
+    }
+
+    void markRunning() {
+        if (startedAt == null) startedAt = LocalDateTime.now();
+        runStartedNanos = System.nanoTime();
+        runEndedNanos = 0;
+        runStartRecord = resumeFrom;
+        status = Status.RUNNING;
+    }
+
+    void finish(Status finalStatus, String finalMessage) {
+        message = finalMessage;
+        runEndedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    void report(ImportRecord record, String level, String text) {
+        synchronized (report) {
+            if (report.size() < maxReportRows) {
+                report.add(new CatalogImportErrorDto(record.number(), record.line(), level,
+                        record.isbn(), record.title(), text));
+            }
+        }
+    }
+
+    public List<CatalogImportErrorDto> report(int offset, int limit) {
+        synchronized (report) {
+            int from = Math.min(Math.max(offset, 0), report.size());
+            int to = Math.min(from + Math.max(limit, 0), report.size());
+            return new ArrayList<>(report.subList(from, to));
+        }
+    }
+
+    public CatalogImportJobDto toDto() {
+        // tempo bieżącego (albo ostatniego) przebiegu – po wznowieniu liczone od nowa
+        double rate = 0;
+        if (runStartedNanos != 0) {
+            long end = runEndedNanos != 0 ? runEndedNanos : System.nanoTime();
+            double seconds = Math.max(Duration.ofNanos(end - runStartedNanos).toMillis() / 1000.0, 0.001);
+            rate = (recordsCommitted.get() - runStartRecord) / seconds;
+        }
+        return new CatalogImportJobDto(id, format.name(), status.name(),
+                recordsRead.get(), recordsCommitted.get(), imported.get(), skipped.get(), failed.get(),
+                authorsCreated.get(), copiesCreated.get(), Math.round(rate * 10) / 10.0,
+                startedAt, finishedAt, message);
+    }
+}
@@ -0,0 +1,213 @@
+package com.library.catalogimport;
+
+import com.library.dto.admin.CatalogImportErrorDto;
+import com.library.dto.admin.CatalogImportJobDto;
+import com.library.exception.ResourceNotFoundException;
+import com.library.search.CatalogIndexSynchronizer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Hurtowy import katalogu. Plik jest najpierw strumieniowo zapisywany na dysk (żądanie HTTP nie
+ * czeka na import), potem jeden wątek czyta rekordy, paczki są walidowane równolegle na osobnej
+ * puli, a zapisywane po kolei – każda paczka w swojej transakcji.
+ * Po każdej zatwierdzonej paczce przesuwa się {@code recordsCommitted}; przerwany import
+ * (błąd bazy, anulowanie) można wznowić od tego miejsca, a po restarcie aplikacji – wysłać plik
+ * ponownie z {@code skip = recordsCommitted}.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    private static final int KEEP_FINISHED_JOBS = 20;
+
+    private final CatalogImportWriter writer;
+    private final CatalogIndexSynchronizer catalogIndexSynchronizer;
+    private final Path workDir;
+    private final int batchSize;
+    private final int maxReportRows;
+    private final int parseThreads;
+
+    private final Map<String, CatalogImportJob> jobs = new ConcurrentHashMap<>();
+    // importy jeden po drugim – równoległe pisanie do tych samych tabel tylko by się blokowało
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-import");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ForkJoinPool parsePool;
+
+    public CatalogImportService(CatalogImportWriter writer,
+                                CatalogIndexSynchronizer catalogIndexSynchronizer,
+                                @Value("${app.catalog.import.dir:${java.io.tmpdir}/library-import}") Path workDir,
+                                @Value("${app.catalog.import.batch-size:1000}") int batchSize,
+                                @Value("${app.catalog.import.parse-threads:0}") int parseThreads,
+                                @Value("${app.catalog.import.max-report-rows:10000}") int maxReportRows) {
+        this.writer = writer;
+        this.catalogIndexSynchronizer = catalogIndexSynchronizer;
+        this.workDir = workDir;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportRows = maxReportRows;
+        this.parseThreads = parseThreads > 0 ? parseThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.parsePool = new ForkJoinPool(this.parseThreads);
+    }
+
+    public CatalogImportJobDto start(InputStream body, ImportFormat format, long skip) {
+        Path file;
+        try {
+            Files.createDirectories(workDir);
+            file = Files.createTempFile(workDir, "import-", "." + format.name().toLowerCase());
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Nie udało się zapisać pliku importu", e);
+        }
+
+        evictFinishedJobs();
+        CatalogImportJob job = new CatalogImportJob(UUID.randomUUID().toString(), format, file,
+                Math.max(skip, 0), maxReportRows);
+        jobs.put(job.id(), job);
+        runner.submit(() -> run(job));
+        return job.toDto();
+    }
+
+    public CatalogImportJobDto status(String jobId) {
+        return job(jobId).toDto();
+    }
+
+    public List<CatalogImportJobDto> list() {
+        return jobs.values().stream().map(CatalogImportJob::toDto)
+                .sorted(Comparator.comparing(CatalogImportJobDto::getStartedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder())).reversed())
+                .toList();
+    }
+
+    public List<CatalogImportErrorDto> report(String jobId, int offset, int limit) {
+        return job(jobId).report(offset, limit);
+    }
+
+    public CatalogImportJobDto cancel(String jobId) {
+        CatalogImportJob job = job(jobId);
+        job.requestCancel();
+        return job.toDto();
+    }
+
+    public synchronized CatalogImportJobDto resume(String jobId) {
+        CatalogImportJob job = job(jobId);
+        if (job.status() != CatalogImportJob.Status.FAILED && job.status() != CatalogImportJob.Status.CANCELLED) {
+            throw new IllegalStateException("Wznowić można tylko import przerwany (FAILED / CANCELLED)");
+        }
+        if (!Files.exists(job.file())) {
+            throw new IllegalStateException("Plik importu już nie istnieje – wyślij go ponownie z parametrem skip");
+        }
+        job.prepareResume();
+        runner.submit(() -> run(job));
+        return job.toDto();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(CatalogImportJob::requestCancel);
+        runner.shutdown();
+        parsePool.shutdown();
+    }
+
+    // ----------------- pipeline -----------------
+
+    private void run(CatalogImportJob job) {
+        job.markRunning();
+        log.info("Import {} ({}) od rekordu {}", job.id(), job.format(), job.resumeFrom() + 1);
+        try (CatalogRecordReader reader = new CatalogRecordReader(
+                Files.newBufferedReader(job.file(), StandardCharsets.UTF_8), job.format())) {
+            CatalogRecordParser parser = new CatalogRecordParser(job.format(), reader.header());
+            CatalogImportWriter.Context ctx = writer.loadContext();
+
+            // walidacja kilku paczek do przodu, zapis w kolejności pliku
+            Deque<CompletableFuture<List<ImportRecord>>> inFlight = new ArrayDeque<>();
+            List<RawRecord> chunk = new ArrayList<>(batchSize);
+            RawRecord raw;
+            while (!job.cancelRequested() && (raw = reader.next()) != null) {
+                if (raw.number() <= job.resumeFrom()) continue;
+                job.recordsRead.set(raw.number());
+                chunk.add(raw);
+                if (chunk.size() == batchSize) {
+                    inFlight.add(parse(parser, chunk));
+                    chunk = new ArrayList<>(batchSize);
+                    if (inFlight.size() > parseThreads) writeNext(inFlight, ctx, job);
+                }
+            }
+            if (!chunk.isEmpty() && !job.cancelRequested()) inFlight.add(parse(parser, chunk));
+            while (!inFlight.isEmpty() && !job.cancelRequested()) writeNext(inFlight, ctx, job);
+
+            if (job.cancelRequested()) {
+                job.finish(CatalogImportJob.Status.CANCELLED, "Anulowano – można wznowić");
+            } else {
+                job.finish(CatalogImportJob.Status.COMPLETED, null);
+                Files.deleteIfExists(job.file());
+            }
+        } catch (Exception e) {
+            log.error("Import {} przerwany po rekordzie {}", job.id(), job.toDto().getRecordsCommitted(), e);
+            job.finish(CatalogImportJob.Status.FAILED, e.getMessage());
+        }
+        CatalogImportJobDto dto = job.toDto();
+        log.info("Import {} {}: {} dodanych, {} pominiętych, {} błędnych ({} rek./s)", job.id(), dto.getStatus(),
+                dto.getImported(), dto.getSkipped(), dto.getFailed(), dto.getRecordsPerSecond());
+    }
+
+    private CompletableFuture<List<ImportRecord>> parse(CatalogRecordParser parser, List<RawRecord> chunk) {
+        return CompletableFuture.supplyAsync(() -> chunk.stream().map(parser::parse).toList(), parsePool);
+    }
+
+    private void writeNext(Deque<CompletableFuture<List<ImportRecord>>> inFlight,
+                           CatalogImportWriter.Context ctx, CatalogImportJob job) {
+        List<ImportRecord> records = inFlight.poll().join();
+        CatalogImportWriter.BatchResult result = writer.write(records, ctx, job);
+        job.recordsCommitted.set(records.get(records.size() - 1).number());
+        if (!result.bookIds().isEmpty() || !result.authorIds().isEmpty()) {
+            catalogIndexSynchronizer.indexImported(result.bookIds(), result.authorIds());
+        }
+    }
+
+    private CatalogImportJob job(String jobId) {
+        CatalogImportJob job = jobs.get(jobId);
+        if (job == null) throw new ResourceNotFoundException("Import not found: " + jobId);
+        return job;
+    }
+
+    private void evictFinishedJobs() {
+        List<CatalogImportJob> finished = jobs.values().stream()
+                .filter(CatalogImportJob::isFinished)
+                .sorted(Comparator.comparing(j -> j.toDto().getFinishedAt()))
+                .toList();
+        for (int i = 0; i < finished.size() - KEEP_FINISHED_JOBS; i++) {
+            CatalogImportJob old = finished.get(i);
+            jobs.remove(old.id());
+            try {
+                Files.deleteIfExists(old.file());
+            } catch (IOException e) {
+                log.warn("Nie udało się usunąć pliku importu {}", old.file());
+            }
+        }
+    }
+}
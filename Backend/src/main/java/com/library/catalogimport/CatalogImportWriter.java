@@ -0,0 +1,234 @@
+package com.library.catalogimport;
+
+import com.library.search.TextNormalizer;
+import com.library.service.InventoryCodeAllocator;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zapis paczek importu czystym JDBC: każda paczka to jedna transakcja i po jednym wsadowym
+ * INSERT na tabelę (author, book, book_author, book_copy). Id nowych autorów i książek wracają
+ * z {@code getGeneratedKeys()} wsadu. Deduplikacja autorów i ISBN idzie po indeksach w pamięci
+ * wczytanych raz na początku importu.
+ */
+@Component
+public class CatalogImportWriter {
+
+    private static final String INSERT_AUTHOR = "INSERT INTO author (first_name, last_name) VALUES (?, ?)";
+    private static final String INSERT_BOOK = "INSERT INTO book (title, description, publication_year, isbn, " +
+            "category_id, is_active, total_copies, available_copies) VALUES (?, ?, ?, ?, ?, 1, ?, ?)";
+    private static final String INSERT_BOOK_AUTHOR = "INSERT INTO book_author (book_id, author_id) VALUES (?, ?)";
+    private static final String INSERT_COPY = "INSERT INTO book_copy (book_id, inventory_code, status) VALUES (?, ?, 'AVAILABLE')";
+
+    /** Indeksy deduplikacji – aktualizowane dopiero po commicie paczki. */
+    public static final class Context {
+        private final Map<String, Long> authorIds = new ConcurrentHashMap<>();
+        private final Set<String> isbns = ConcurrentHashMap.newKeySet();
+        private final Map<String, Long> categoryIds = new HashMap<>();
+    }
+
+    public record BatchResult(List<Long> bookIds, List<Long> authorIds) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryCodeAllocator inventoryCodeAllocator;
+
+    public CatalogImportWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               InventoryCodeAllocator inventoryCodeAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inventoryCodeAllocator = inventoryCodeAllocator;
+    }
+
+    public Context loadContext() {
+        Context ctx = new Context();
+        jdbcTemplate.query("SELECT id, first_name, last_name FROM author ORDER BY id", rs -> {
+            ctx.authorIds.putIfAbsent(authorKey(rs.getString(2), rs.getString(3)), rs.getLong(1));
+        });
+        jdbcTemplate.query("SELECT isbn FROM book WHERE isbn IS NOT NULL", rs -> {
+            ctx.isbns.add(TextNormalizer.compactIsbn(rs.getString(1)));
+        });
+        jdbcTemplate.query("SELECT id, name FROM category", rs -> {
+            ctx.categoryIds.put(TextNormalizer.fold(rs.getString(2)), rs.getLong(1));
+        });
+        return ctx;
+    }
+
+    /**
+     * Zapisuje paczkę w jednej transakcji. Rekord odrzucają tylko walidacja i deduplikacja; błąd
+     * zapisu (baza, klucze) wycofuje całą paczkę i leci dalej – import kończy się FAILED,
+     * {@code recordsCommitted} zostaje przed paczką, a liczniki i raport jej nie obejmują,
+     * więc wznowienie zaczyna od tej paczki bez podwójnego liczenia.
+     */
+    public BatchResult write(List<ImportRecord> records, Context ctx, CatalogImportJob job) {
+        // 1. odrzucenia i duplikaty – bez bazy; do joba trafiają dopiero po commicie
+        List<ImportRecord> accepted = new ArrayList<>(records.size());
+        List<Long> categoryOf = new ArrayList<>(records.size());
+        List<Rejection> rejections = new ArrayList<>();
+        Map<String, Long> isbnInBatch = new HashMap<>();
+        for (ImportRecord r : records) {
+            if (r.error() != null) {
+                rejections.add(new Rejection(r, "ERROR", r.error()));
+                continue;
+            }
+            if (r.isbnKey() != null) {
+                if (ctx.isbns.contains(r.isbnKey())) {
+                    rejections.add(new Rejection(r, "SKIPPED", "ISBN już jest w katalogu"));
+                    continue;
+                }
+                Long earlier = isbnInBatch.putIfAbsent(r.isbnKey(), r.number());
+                if (earlier != null) {
+                    rejections.add(new Rejection(r, "SKIPPED", "Powtórzony ISBN (rekord " + earlier + ")"));
+                    continue;
+                }
+            }
+            Long categoryId = null;
+            if (r.categoryName() != null) {
+                categoryId = ctx.categoryIds.get(TextNormalizer.fold(r.categoryName()));
+                if (categoryId == null) {
+                    rejections.add(new Rejection(r, "ERROR", "Nieznana kategoria: " + r.categoryName()));
+                    continue;
+                }
+            }
+            accepted.add(r);
+            categoryOf.add(categoryId);
+        }
+        if (accepted.isEmpty()) {
+            reject(rejections, job);
+            return new BatchResult(List.of(), List.of());
+        }
+
+        // 2. kody egzemplarzy przed transakcją (InventoryCodeAllocator), potem zapis w jednej transakcji
+        int copyCount = accepted.stream().mapToInt(ImportRecord::copies).sum();
+        List<String> codes = inventoryCodeAllocator.allocate(copyCount);
+        Map<String, Long> newAuthors = new LinkedHashMap<>();
+        BatchResult result;
+        try {
+            result = transactionTemplate.execute(status -> insert(accepted, categoryOf, codes, ctx, newAuthors));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Zapis paczki rekordów " + records.get(0).number() + "–"
+                    + records.get(records.size() - 1).number() + " nie powiódł się: " + rootMessage(e), e);
+        }
+
+        // 3. po commicie – indeksy deduplikacji, liczniki i raport
+        ctx.authorIds.putAll(newAuthors);
+        ctx.isbns.addAll(isbnInBatch.keySet());
+        reject(rejections, job);
+        job.imported.addAndGet(accepted.size());
+        job.authorsCreated.addAndGet(newAuthors.size());
+        job.copiesCreated.addAndGet(accepted.stream().mapToLong(ImportRecord::copies).sum());
+        return result;
+    }
+
+    // ----------------- helpers -----------------
+
+    private record Rejection(ImportRecord record, String level, String text) {
+    }
+
+    private static void reject(List<Rejection> rejections, CatalogImportJob job) {
+        for (Rejection r : rejections) {
+            (r.level().equals("SKIPPED") ? job.skipped : job.failed).incrementAndGet();
+            job.report(r.record(), r.level(), r.text());
+        }
+    }
+
+    private BatchResult insert(List<ImportRecord> accepted, List<Long> categoryOf, List<String> copyCodes,
+                               Context ctx, Map<String, Long> newAuthors) {
+        newAuthors.clear();
+
+        // autorzy, których jeszcze nie ma
+        Map<String, ImportRecord.AuthorName> missing = new LinkedHashMap<>();
+        for (ImportRecord r : accepted) {
+            for (ImportRecord.AuthorName a : r.authors()) {
+                String key = authorKey(a.firstName(), a.lastName());
+                if (!ctx.authorIds.containsKey(key)) missing.putIfAbsent(key, a);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(missing.size());
+            missing.values().forEach(a -> rows.add(new Object[]{a.firstName(), a.lastName()}));
+            List<Long> ids = insertReturningKeys(INSERT_AUTHOR, rows);
+            int i = 0;
+            for (String key : missing.keySet()) newAuthors.put(key, ids.get(i++));
+        }
+
+        List<Object[]> bookRows = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            ImportRecord r = accepted.get(i);
+            bookRows.add(new Object[]{r.title(), r.description(), r.publicationYear(), r.isbn(),
+                    categoryOf.get(i), r.copies(), r.copies()});
+        }
+        List<Long> bookIds = insertReturningKeys(INSERT_BOOK, bookRows);
+
+        Iterator<String> codes = copyCodes.iterator();
+        List<Object[]> links = new ArrayList<>();
+        List<Object[]> copies = new ArrayList<>(copyCodes.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            ImportRecord r = accepted.get(i);
+            Long bookId = bookIds.get(i);
+            Set<Long> authorIds = new LinkedHashSet<>();
+            for (ImportRecord.AuthorName a : r.authors()) {
+                String key = authorKey(a.firstName(), a.lastName());
+                Long authorId = newAuthors.containsKey(key) ? newAuthors.get(key) : ctx.authorIds.get(key);
+                authorIds.add(authorId);
+            }
+            authorIds.forEach(authorId -> links.add(new Object[]{bookId, authorId}));
+            // jeden blok kodów na całą paczkę
+            for (int n = 0; n < r.copies(); n++) {
+                copies.add(new Object[]{bookId, codes.next()});
+            }
+        }
+        if (!links.isEmpty()) jdbcTemplate.batchUpdate(INSERT_BOOK_AUTHOR, links);
+        if (!copies.isEmpty()) jdbcTemplate.batchUpdate(INSERT_COPY, copies);
+
+        return new BatchResult(bookIds, new ArrayList<>(newAuthors.values()));
+    }
+
+    private List<Long> insertReturningKeys(String sql, List<Object[]> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) ps.setObject(i + 1, row[i]);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> ids = new ArrayList<>(rows.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) ids.add(keys.getLong(1));
+                }
+                if (ids.size() != rows.size()) {
+                    throw new IllegalStateException("Baza zwróciła " + ids.size() + " kluczy dla " + rows.size() + " wierszy");
+                }
+                return ids;
+            }
+        });
+    }
+
+    private static String authorKey(String firstName, String lastName) {
+        return TextNormalizer.fold(lastName == null ? "" : lastName.trim()) + "|"
+                + TextNormalizer.fold(firstName == null ? "" : firstName.trim());
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e;
+        while (t.getCause() != null && t.getCause() != t) t = t.getCause();
+        return t.getMessage() == null ? t.getClass().getSimpleName() : t.getMessage();
+    }
+}
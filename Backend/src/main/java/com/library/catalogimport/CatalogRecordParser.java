@@ -0,0 +1,230 @@
+package com.library.catalogimport;
+
+import com.library.search.TextNormalizer;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Walidacja i konwersja surowych rekordów. Bezstanowy – wywoływany równolegle dla paczek rekordów.
+ */
+public class CatalogRecordParser {
+
+    private static final int MAX_COPIES = 1000;
+    private static final Pattern YEAR = Pattern.compile("(\\d{4})");
+
+    private final ImportFormat format;
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    public CatalogRecordParser(ImportFormat format, List<String> csvHeader) {
+        this.format = format;
+        if (format == ImportFormat.CSV) {
+            for (int i = 0; i < csvHeader.size(); i++) {
+                columns.put(csvHeader.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new IllegalArgumentException("Nagłówek CSV musi zawierać kolumnę 'title'");
+            }
+        }
+    }
+
+    public ImportRecord parse(RawRecord raw) {
+        return format == ImportFormat.CSV ? parseCsv(raw) : parseMarc(raw);
+    }
+
+    // ----------------- CSV -----------------
+
+    private ImportRecord parseCsv(RawRecord raw) {
+        List<String> v = raw.values();
+        List<ImportRecord.AuthorName> authors = new ArrayList<>();
+        String authorsField = column(v, "authors");
+        if (authorsField != null) {
+            for (String a : authorsField.split(";")) {
+                ImportRecord.AuthorName name = authorName(a);
+                if (name != null) authors.add(name);
+            }
+        }
+        return build(raw,
+                column(v, "title"),
+                column(v, "isbn"),
+                column(v, "publicationyear", "year"),
+                column(v, "description"),
+                column(v, "category"),
+                authors,
+                column(v, "copies"));
+    }
+
+    private String column(List<String> values, String... names) {
+        for (String name : names) {
+            Integer i = columns.get(name);
+            if (i != null && i < values.size()) {
+                String s = values.get(i).trim();
+                return s.isEmpty() ? null : s;
+            }
+        }
+        return null;
+    }
+
+    // ----------------- MARC -----------------
+
+    private ImportRecord parseMarc(RawRecord raw) {
+        String title = null, isbn = null, year = null, description = null, category = null, copies = null;
+        List<ImportRecord.AuthorName> authors = new ArrayList<>();
+
+        for (String l : raw.values()) {
+            String s = l.startsWith("=") ? l.substring(1) : l;
+            if (s.length() < 3) continue;
+            String tag = s.substring(0, 3);
+            Map<Character, String> sub = subfields(s.substring(3));
+            switch (tag) {
+                case "020" -> isbn = isbn == null ? firstWord(sub.get('a')) : isbn;
+                case "100", "700" -> {
+                    ImportRecord.AuthorName name = authorName(sub.get('a'));
+                    if (name != null) authors.add(name);
+                }
+                case "245" -> title = join(sub.get('a'), sub.get('b'));
+                case "260", "264" -> year = year == null ? sub.get('c') : year;
+                case "520" -> description = sub.get('a');
+                case "650" -> category = category == null ? sub.get('a') : category;
+                case "852" -> copies = sub.get('t');
+                default -> { }
+            }
+        }
+        if (year != null) {
+            Matcher m = YEAR.matcher(year);
+            year = m.find() ? m.group(1) : year;
+        }
+        return build(raw, title, isbn, year, description, category, authors, copies);
+    }
+
+    /** "  10$aTytuł :$bpodtytuł /" -> {a=Tytuł, b=podtytuł}; bez '$' całość to $a. */
+    private static Map<Character, String> subfields(String rest) {
+        Map<Character, String> result = new HashMap<>();
+        int first = rest.indexOf('$');
+        if (first < 0) {
+            result.put('a', trimPunctuation(rest));
+            return result;
+        }
+        for (String part : rest.substring(first + 1).split("\\$")) {
+            if (part.isEmpty()) continue;
+            result.putIfAbsent(part.charAt(0), trimPunctuation(part.substring(1)));
+        }
+        return result;
+    }
+
+    // ----------------- wspólne -----------------
+
+    private static ImportRecord build(RawRecord raw, String title, String isbn, String year,
+                                      String description, String category,
+                                      List<ImportRecord.AuthorName> authors, String copies) {
+        if (title == null || title.isBlank()) {
+            return ImportRecord.invalid(raw, title, isbn, "Brak tytułu");
+        }
+        if (title.length() > 255) {
+            return ImportRecord.invalid(raw, title, isbn, "Tytuł dłuższy niż 255 znaków");
+        }
+
+        String isbnKey = null;
+        if (isbn != null) {
+            isbnKey = TextNormalizer.compactIsbn(isbn);
+            if (isbn.length() > 20 || !validIsbn(isbnKey)) {
+                return ImportRecord.invalid(raw, title, isbn, "Niepoprawny ISBN: " + isbn);
+            }
+        }
+
+        Short publicationYear = null;
+        if (year != null) {
+            try {
+                int y = Integer.parseInt(year.trim());
+                if (y < 0 || y > Year.now().getValue() + 1) throw new NumberFormatException();
+                publicationYear = (short) y;
+            } catch (NumberFormatException e) {
+                return ImportRecord.invalid(raw, title, isbn, "Niepoprawny rok wydania: " + year);
+            }
+        }
+
+        int copyCount = 1;
+        if (copies != null) {
+            try {
+                copyCount = Integer.parseInt(copies.trim());
+                if (copyCount < 0 || copyCount > MAX_COPIES) throw new NumberFormatException();
+            } catch (NumberFormatException e) {
+                return ImportRecord.invalid(raw, title, isbn,
+                        "Liczba egzemplarzy musi być z zakresu 0-" + MAX_COPIES + ": " + copies);
+            }
+        }
+
+        for (ImportRecord.AuthorName a : authors) {
+            if (a.lastName().length() > 100 || (a.firstName() != null && a.firstName().length() > 100)) {
+                return ImportRecord.invalid(raw, title, isbn, "Imię / nazwisko autora dłuższe niż 100 znaków");
+            }
+        }
+
+        return new ImportRecord(raw.number(), raw.line(), title.trim(), isbn, isbnKey, publicationYear,
+                description, category, List.copyOf(authors), copyCount, null);
+    }
+
+    /** "Sapkowski, Andrzej" albo "Andrzej Sapkowski". */
+    private static ImportRecord.AuthorName authorName(String text) {
+        if (text == null) return null;
+        String s = text.trim();
+        if (s.isEmpty()) return null;
+        int comma = s.indexOf(',');
+        if (comma >= 0) {
+            String first = s.substring(comma + 1).trim();
+            return new ImportRecord.AuthorName(first.isEmpty() ? null : first, s.substring(0, comma).trim());
+        }
+        int space = s.lastIndexOf(' ');
+        if (space < 0) return new ImportRecord.AuthorName(null, s);
+        return new ImportRecord.AuthorName(s.substring(0, space).trim(), s.substring(space + 1).trim());
+    }
+
+    static boolean validIsbn(String isbn) {
+        if (isbn.length() == 10) {
+            int sum = 0;
+            for (int i = 0; i < 10; i++) {
+                char c = isbn.charAt(i);
+                int d = (i == 9 && (c == 'x' || c == 'X')) ? 10 : Character.digit(c, 10);
+                if (d < 0) return false;
+                sum += d * (10 - i);
+            }
+            return sum % 11 == 0;
+        }
+        if (isbn.length() == 13) {
+            int sum = 0;
+            for (int i = 0; i < 13; i++) {
+                int d = Character.digit(isbn.charAt(i), 10);
+                if (d < 0) return false;
+                sum += d * (i % 2 == 0 ? 1 : 3);
+            }
+            return sum % 10 == 0;
+        }
+        return false;
+    }
+
+    private static String join(String a, String b) {
+        if (a == null) return b;
+        return b == null ? a : a + ": " + b;
+    }
+
+    private static String firstWord(String s) {
+        if (s == null) return null;
+        int space = s.indexOf(' ');
+        return space < 0 ? s : s.substring(0, space);
+    }
+
+    // interpunkcja kończąca pola MARC (" /", " :", ".", ",")
+    private static String trimPunctuation(String s) {
+        String t = s.trim();
+        while (!t.isEmpty() && " /:;,.".indexOf(t.charAt(t.length() - 1)) >= 0) {
+            t = t.substring(0, t.length() - 1).trim();
+        }
+        return t;
+    }
+}
@@ -0,0 +1,119 @@
+package com.library.catalogimport;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strumieniowy odczyt rekordów – w pamięci jest zawsze tylko bieżący rekord.
+ * Dzieli plik na rekordy (tu też obsługa cudzysłowów i nowych linii wewnątrz pól CSV);
+ * interpretacja pól jest w {@link CatalogRecordParser} i idzie równolegle.
+ */
+public class CatalogRecordReader implements Closeable {
+
+    private final BufferedReader in;
+    private final ImportFormat format;
+    private long line = 1;
+    private long number;
+    private List<String> header;
+
+    public CatalogRecordReader(BufferedReader in, ImportFormat format) throws IOException {
+        this.in = in;
+        this.format = format;
+        if (format == ImportFormat.CSV) {
+            header = readCsvRecord();
+            if (header == null) throw new IllegalArgumentException("Pusty plik – brak nagłówka CSV");
+            // BOM z Excela
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+        }
+    }
+
+    /** Nagłówek CSV (dla MARC – null). */
+    public List<String> header() {
+        return header;
+    }
+
+    /** Następny rekord albo null na końcu pliku. */
+    public RawRecord next() throws IOException {
+        long startLine;
+        List<String> values;
+        if (format == ImportFormat.CSV) {
+            do {
+                startLine = line;
+                values = readCsvRecord();
+                if (values == null) return null;
+            } while (values.size() == 1 && values.get(0).isBlank());
+        } else {
+            values = new ArrayList<>();
+            String l;
+            startLine = line;
+            while ((l = in.readLine()) != null) {
+                line++;
+                if (l.isBlank()) {
+                    if (values.isEmpty()) {
+                        startLine = line;
+                        continue;
+                    }
+                    break;
+                }
+                values.add(l);
+            }
+            if (values.isEmpty()) return null;
+        }
+        return new RawRecord(++number, startLine, values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ----------------- helpers -----------------
+
+    private List<String> readCsvRecord() throws IOException {
+        int c = in.read();
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int n = in.read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (n != -1) in.reset();
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') in.reset();
+                }
+                line++;
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,16 @@
+package com.library.catalogimport;
+
+/**
+ * Obsługiwane formaty importu katalogu.
+ * <ul>
+ *   <li>{@code CSV} – RFC 4180, pierwszy wiersz to nagłówek (title, isbn, authors, publicationYear,
+ *   category, description, copies); autorzy rozdzieleni średnikiem, każdy jako "Nazwisko, Imię".</li>
+ *   <li>{@code MARC} – uproszczony zapis tekstowy w stylu MARC (mnemoniczny): linia na pole
+ *   ({@code =245  10$aWiedźmin}), rekordy rozdzielone pustą linią. Pola: 020 ISBN, 100/700 autor,
+ *   245 tytuł, 260/264 rok, 520 opis, 650 kategoria, 852 $t liczba egzemplarzy.</li>
+ * </ul>
+ */
+public enum ImportFormat {
+    CSV,
+    MARC
+}
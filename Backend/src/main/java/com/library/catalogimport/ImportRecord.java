@@ -0,0 +1,22 @@
+package com.library.catalogimport;
+
+import java.util.List;
+
+/**
+ * Zwalidowany rekord importu. Gdy {@code error != null}, rekord trafia tylko do raportu błędów.
+ *
+ * @param isbnKey ISBN bez myślników/spacji – klucz deduplikacji (null, gdy brak ISBN)
+ */
+public record ImportRecord(long number, long line,
+                           String title, String isbn, String isbnKey, Short publicationYear,
+                           String description, String categoryName, List<AuthorName> authors,
+                           int copies, String error) {
+
+    public record AuthorName(String firstName, String lastName) {
+    }
+
+    static ImportRecord invalid(RawRecord raw, String title, String isbn, String error) {
+        return new ImportRecord(raw.number(), raw.line(), title, isbn, null, null, null, null,
+                List.of(), 0, error);
+    }
+}
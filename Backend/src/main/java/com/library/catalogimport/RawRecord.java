@@ -0,0 +1,12 @@
+package com.library.catalogimport;
+
+import java.util.List;
+
+/**
+ * Surowy rekord odczytany z pliku, przed walidacją: pola CSV albo linie rekordu MARC.
+ *
+ * @param number numer rekordu danych (od 1, bez nagłówka CSV)
+ * @param line   numer linii pliku, w której rekord się zaczyna
+ */
+public record RawRecord(long number, long line, List<String> values) {
+}
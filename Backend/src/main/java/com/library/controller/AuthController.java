@@ -3,9 +3,11 @@ package com.library.controller;
 import com.library.dto.AuthResponse;
 import com.library.dto.UserDto;
 import com.library.dto.request.*;
+import com.library.metrics.StatementBudget;
 import com.library.service.AuthService;
 import com.library.service.UserService;
 import com.library.security.CurrentUser;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
+@StatementBudget(6)
 public class AuthController {
     private final AuthService authService;
     private final UserService userService;
@@ -26,12 +29,24 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        System.out.println(">>> LOGIN REQUEST RECEIVED: " + request.getEmail());
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    @StatementBudget(2)
     @GetMapping("/me")
     public ResponseEntity<UserDto> getCurrentUser(@CurrentUser Long userId) {
         UserDto user = authService.getCurrentUser(userId);
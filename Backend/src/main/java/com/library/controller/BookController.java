@@ -1,6 +1,11 @@
 package com.library.controller;
 
 import com.library.dto.BookDto;
+import com.library.dto.BookSearchResultDto;
+import com.library.dto.CursorSliceDto;
+import com.library.dto.SuggestionDto;
+import com.library.metrics.StatementBudget;
+import com.library.search.CatalogSuggester;
 import com.library.service.BookService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -8,14 +13,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
+@StatementBudget(4)
 public class BookController {
     private final BookService bookService;
+    private final CatalogSuggester catalogSuggester;
 
+    // search= idzie do indeksu pełnotekstowego (ranking, literówki) zamiast LIKE po title/author
     @GetMapping
     public ResponseEntity<Page<BookDto>> getBooks(
+            @RequestParam(required = false) String search,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) Long categoryId,
@@ -24,12 +35,54 @@ public class BookController {
             @RequestParam(required = false) Boolean availableOnly,
             @RequestParam(required = false) Boolean activeOnly,
             Pageable pageable) {
-        
+
+        if (search != null && !search.isBlank()) {
+            return ResponseEntity.ok(bookService.searchBooksPage(search, categoryId,
+                    publicationYearFrom, publicationYearTo, availableOnly, activeOnly, pageable));
+        }
         Page<BookDto> books = bookService.getBooks(title, author, categoryId, 
                 publicationYearFrom, publicationYearTo, availableOnly, activeOnly, pageable);
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping(params = {"after", "!search"})
+    public ResponseEntity<CursorSliceDto<BookDto>> getBooksAfter(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Short publicationYearFrom,
+            @RequestParam(required = false) Short publicationYearTo,
+            @RequestParam(required = false) Boolean availableOnly,
+            @RequestParam(required = false) Boolean activeOnly,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(bookService.getBooksAfter(title, author, categoryId,
+                publicationYearFrom, publicationYearTo, availableOnly, activeOnly, after, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<BookSearchResultDto> searchBooks(
+            @RequestParam String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Short publicationYearFrom,
+            @RequestParam(required = false) Short publicationYearTo,
+            @RequestParam(required = false) Boolean availableOnly,
+            @RequestParam(required = false) Boolean activeOnly,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(bookService.searchBooks(q, categoryId,
+                publicationYearFrom, publicationYearTo, availableOnly, activeOnly, pageable));
+    }
+
+    @StatementBudget(1)
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(catalogSuggester.suggest(q, Math.min(limit, 50)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookDto> getBook(@PathVariable Long id) {
         BookDto book = bookService.getBookById(id);
@@ -1,10 +1,12 @@
 package com.library.controller;
 
+import com.library.metrics.StatementBudget;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@StatementBudget(0)
 public class HealthController {
 
   @GetMapping("/health")
@@ -1,8 +1,10 @@
 package com.library.controller;
 
+import com.library.dto.CursorSliceDto;
 import com.library.dto.LoanDto;
 import com.library.dto.request.CreateLoanRequest;
 import com.library.dto.request.ExtendLoanRequest;
+import com.library.metrics.StatementBudget;
 import com.library.model.enums.LoanStatus;
 import com.library.security.CurrentUser;
 import com.library.service.LoanService;
@@ -21,6 +23,7 @@ import java.util.List;
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
+@StatementBudget(5)
 public class LoanController {
     private final LoanService loanService;
     private Long getUserId(Authentication auth) {
@@ -51,6 +54,20 @@ public class LoanController {
         return ResponseEntity.ok(loans);
     }
 
+    @GetMapping(value = "/me/loans", params = "after")
+    public ResponseEntity<CursorSliceDto<LoanDto>> getCurrentUserLoansAfter(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) LoanStatus status,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        List<LoanStatus> statuses = status != null
+                ? Arrays.asList(status)
+                : Arrays.asList(LoanStatus.values());
+
+        return ResponseEntity.ok(loanService.getUserLoansAfter(userId, statuses, after, size));
+    }
+
     @GetMapping("/me/loans/history")
     public ResponseEntity<Page<LoanDto>> getCurrentUserLoanHistory(
             @CurrentUser Long userId,
@@ -61,6 +78,17 @@ public class LoanController {
         return ResponseEntity.ok(loans);
     }
 
+    @GetMapping(value = "/me/loans/history", params = "after")
+    public ResponseEntity<CursorSliceDto<LoanDto>> getCurrentUserLoanHistoryAfter(
+            @CurrentUser Long userId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        List<LoanStatus> statuses = Arrays.asList(LoanStatus.RETURNED, LoanStatus.LOST);
+        return ResponseEntity.ok(loanService.getUserLoansAfter(userId, statuses, after, size));
+    }
+
+    @StatementBudget(14)
     @PostMapping("/loans")
     public ResponseEntity<LoanDto> createLoan(
             @CurrentUser Long userId,
@@ -70,6 +98,7 @@ public class LoanController {
         return ResponseEntity.status(HttpStatus.CREATED).body(loan);
     }
 
+    @StatementBudget(8)
     @PostMapping("/loans/{loanId}/extend")
     public ResponseEntity<LoanDto> extendLoan(
             @PathVariable Long loanId,
@@ -82,6 +111,7 @@ public class LoanController {
     }
 
 
+    @StatementBudget(8)
     @PostMapping("/loans/{loanId}/return")
     public ResponseEntity<LoanDto> returnLoan(@PathVariable Long loanId, Authentication auth) {
         Long userId = getUserId(auth);
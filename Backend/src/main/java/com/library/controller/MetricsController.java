@@ -0,0 +1,56 @@
+package com.library.controller;
+
+import com.library.metrics.MetricsRegistry;
+import com.library.metrics.StatementBudget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Endpoint scrapowania metryk w formacie tekstowym Prometheusa. Wymaga nagłówka
+ * {@code Authorization: Bearer <token>} z {@code app.metrics.scrape-token} (w Prometheusie:
+ * {@code authorization.credentials} w konfiguracji scrape). Bez ustawionego tokenu endpoint
+ * jest zamknięty (403) – metryki zdradzają ruch, liczby użytkowników i trasy API.
+ */
+@Slf4j
+@RestController
+@StatementBudget(0)
+public class MetricsController {
+
+  public static final String PATH = "/metrics";
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final MetricsRegistry registry;
+  private final byte[] scrapeToken;
+
+  public MetricsController(MetricsRegistry registry,
+                           @Value("${app.metrics.scrape-token:}") String scrapeToken) {
+    this.registry = registry;
+    this.scrapeToken = scrapeToken.isBlank() ? null : scrapeToken.getBytes(StandardCharsets.UTF_8);
+    if (this.scrapeToken == null) {
+      log.warn("Brak app.metrics.scrape-token (METRICS_SCRAPE_TOKEN) – {} odpowiada 403", PATH);
+    }
+  }
+
+  @GetMapping(value = PATH, produces = CONTENT_TYPE)
+  public ResponseEntity<String> scrape(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String auth) {
+    if (scrapeToken == null) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    byte[] given = auth != null && auth.startsWith("Bearer ")
+            ? auth.substring(7).getBytes(StandardCharsets.UTF_8) : new byte[0];
+    if (!MessageDigest.isEqual(scrapeToken, given)) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+    return ResponseEntity.ok(registry.scrape());
+  }
+}
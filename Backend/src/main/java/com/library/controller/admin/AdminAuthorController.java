@@ -2,6 +2,7 @@ package com.library.controller.admin;
 
 import com.library.dto.AuthorDto;
 import com.library.dto.admin.AdminAuthorRequest;
+import com.library.metrics.StatementBudget;
 import com.library.repository.AuthorRepository;
 import com.library.service.admin.AdminAuthorService;
 import jakarta.validation.Valid;
@@ -19,11 +20,13 @@ import java.util.List;
 @RequestMapping("/api/admin/authors")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
+@StatementBudget(6)
 public class AdminAuthorController {
 
     private final AdminAuthorService adminAuthorService;
     private final AuthorRepository authorRepository;
 
+    @StatementBudget(3)
     @GetMapping
     public Page<AuthorDto> list(@PageableDefault(size = 20) Pageable pageable) {
         return adminAuthorService.list(pageable);
@@ -3,7 +3,9 @@ package com.library.controller.admin;
 import com.library.dto.BookDto;
 import com.library.dto.admin.AdminCreateBookRequest;
 import com.library.dto.admin.AdminUpdateBookRequest;
+import com.library.metrics.StatementBudget;
 import com.library.service.admin.AdminBookService;
+import com.library.service.admin.BookCounterRepairJob;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -13,24 +15,32 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin/books")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
+@StatementBudget(6)
 public class AdminBookController {
 
     private final AdminBookService adminBookService;
+    private final BookCounterRepairJob bookCounterRepairJob;
 
+    @StatementBudget(4)
     @GetMapping
     public Page<BookDto> list(@PageableDefault(size = 20) Pageable pageable) {
         return adminBookService.list(pageable);
     }
 
+    // osobny INSERT na każdy egzemplarz z initialCopies – limit zakłada do ~30 egzemplarzy
+    @StatementBudget(40)
     @PostMapping
     public ResponseEntity<BookDto> create(@Valid @RequestBody AdminCreateBookRequest req) {
         return ResponseEntity.ok(adminBookService.create(req));
     }
 
+    @StatementBudget(12)
     @PutMapping("/{id}")
     public ResponseEntity<BookDto> update(@PathVariable Long id, @Valid @RequestBody AdminUpdateBookRequest req) {
         return ResponseEntity.ok(adminBookService.update(id, req));
@@ -41,4 +51,11 @@ public class AdminBookController {
         adminBookService.deactivate(id);
         return ResponseEntity.noContent().build();
     }
+
+    // bez dryfu jedno zapytanie; przy dryfie UPDATE i przeindeksowanie poprawionych (paczka do 1000)
+    @StatementBudget(3)
+    @PostMapping("/counters/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildCounters() {
+        return ResponseEntity.ok(Map.of("fixedBooks", bookCounterRepairJob.rebuild()));
+    }
 }
@@ -0,0 +1,69 @@
+package com.library.controller.admin;
+
+import com.library.catalogimport.CatalogImportService;
+import com.library.catalogimport.ImportFormat;
+import com.library.dto.admin.CatalogImportErrorDto;
+import com.library.dto.admin.CatalogImportJobDto;
+import com.library.metrics.StatementBudget;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/admin/books/import")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@StatementBudget(1)
+public class AdminCatalogImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    // plik w treści żądania (nie multipart) – zapisywany na dysk strumieniowo, bez limitu rozmiaru uploadu
+    @PostMapping
+    public ResponseEntity<CatalogImportJobDto> start(@RequestParam(defaultValue = "csv") String format,
+                                                     @RequestParam(defaultValue = "0") long skip,
+                                                     HttpServletRequest request) throws IOException {
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nieznany format importu: " + format + " (csv, marc)");
+        }
+        CatalogImportJobDto job = catalogImportService.start(request.getInputStream(), importFormat, skip);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping
+    public List<CatalogImportJobDto> list() {
+        return catalogImportService.list();
+    }
+
+    @GetMapping("/{jobId}")
+    public CatalogImportJobDto status(@PathVariable String jobId) {
+        return catalogImportService.status(jobId);
+    }
+
+    @GetMapping("/{jobId}/errors")
+    public List<CatalogImportErrorDto> errors(@PathVariable String jobId,
+                                              @RequestParam(defaultValue = "0") int offset,
+                                              @RequestParam(defaultValue = "500") int limit) {
+        return catalogImportService.report(jobId, offset, Math.min(limit, 5000));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public CatalogImportJobDto cancel(@PathVariable String jobId) {
+        return catalogImportService.cancel(jobId);
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public CatalogImportJobDto resume(@PathVariable String jobId) {
+        return catalogImportService.resume(jobId);
+    }
+}
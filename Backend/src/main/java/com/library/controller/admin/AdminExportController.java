@@ -0,0 +1,50 @@
+package com.library.controller.admin;
+
+import com.library.export.CatalogExportService;
+import com.library.export.ExportFormat;
+import com.library.metrics.StatementBudget;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+// eksport pisze bezpośrednio do strumienia odpowiedzi – bez stronicowania i bez COUNT
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@StatementBudget(2)
+public class AdminExportController {
+
+    private final CatalogExportService catalogExportService;
+
+    @GetMapping("/books/export")
+    public void exportBooks(@RequestParam(defaultValue = "csv") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        prepare(response, exportFormat, "books");
+        catalogExportService.exportBooks(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/loans/export")
+    public void exportLoans(@RequestParam(defaultValue = "csv") String format,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        prepare(response, exportFormat, "loans");
+        catalogExportService.exportLoans(exportFormat, from, to, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "-" + LocalDate.now() + "." + format.extension() + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+    }
+}
@@ -1,6 +1,8 @@
 package com.library.controller.admin;
 
+import com.library.dto.CursorSliceDto;
 import com.library.dto.LoanDto;
+import com.library.metrics.StatementBudget;
 import com.library.model.enums.LoanStatus;
 import com.library.service.admin.AdminLoanService;
 import lombok.RequiredArgsConstructor;
@@ -17,20 +19,30 @@ import java.time.LocalDateTime;
 @RequestMapping("/api/admin/loans")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
+@StatementBudget(6)
 public class AdminLoanController {
 
     private final AdminLoanService adminLoanService;
 
+    @StatementBudget(4)
     @GetMapping
     public Page<LoanDto> list(Pageable pageable) {
         return adminLoanService.list(pageable);
     }
 
+    @StatementBudget(4)
+    @GetMapping(params = "after")
+    public CursorSliceDto<LoanDto> listAfter(@RequestParam String after,
+                                             @RequestParam(defaultValue = "20") int size) {
+        return adminLoanService.listAfter(after, size);
+    }
+
     @GetMapping("/{id}")
     public LoanDto get(@PathVariable Long id) {
         return adminLoanService.get(id);
     }
 
+    @StatementBudget(14)
     @PostMapping
     public ResponseEntity<LoanDto> create(@RequestParam Long userId,
                                        @RequestParam Long bookCopyId,
@@ -39,6 +51,7 @@ public class AdminLoanController {
                 .body(adminLoanService.create(userId, bookCopyId, dueDate));
     }
 
+    @StatementBudget(12)
     @PutMapping("/{id}")
     public LoanDto update(@PathVariable Long id,
                        @RequestParam(required = false) LoanStatus status,
@@ -47,16 +60,19 @@ public class AdminLoanController {
         return adminLoanService.update(id, status, dueDate, returnDate);
     }
 
+    @StatementBudget(12)
     @PostMapping("/{id}/return/accept")
     public LoanDto acceptReturn(@PathVariable Long id) {
         return adminLoanService.acceptReturn(id);
     }
 
+    @StatementBudget(8)
     @PostMapping("/{id}/return/reject")
     public LoanDto rejectReturn(@PathVariable Long id) {
         return adminLoanService.rejectReturn(id);
     }
 
+    @StatementBudget(10)
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
         adminLoanService.delete(id);
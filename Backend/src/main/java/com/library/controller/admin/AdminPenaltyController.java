@@ -1,7 +1,9 @@
 package com.library.controller.admin;
 
+import com.library.dto.CursorSliceDto;
 import com.library.dto.PenaltyDto;
 import com.library.dto.request.AdminCreatePenaltyRequest;
+import com.library.metrics.StatementBudget;
 import com.library.model.enums.PenaltyStatus;
 import com.library.service.PenaltyService;
 import jakarta.validation.Valid;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/admin/penalties")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
+@StatementBudget(4)
 public class AdminPenaltyController {
 
     private final PenaltyService penaltyService;
@@ -29,6 +32,16 @@ public class AdminPenaltyController {
         return ResponseEntity.ok(penaltyService.getPenalties(status, userId, pageable));
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorSliceDto<PenaltyDto>> listAfter(
+            @RequestParam(required = false) PenaltyStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(penaltyService.getPenaltiesAfter(status, userId, after, size));
+    }
+
     @PostMapping
     public ResponseEntity<PenaltyDto> create(@Valid @RequestBody AdminCreatePenaltyRequest req) {
         return ResponseEntity.ok(penaltyService.createPenalty(req));
@@ -1,22 +1,37 @@
 package com.library.controller;
 
+import com.library.cache.CatalogCache;
+import com.library.cache.ReadThroughCache;
 import com.library.dto.admin.AdminLoansPerDayDto;
 import com.library.dto.admin.AdminSummaryDto;
+import com.library.metrics.StatementBudget;
+import com.library.repository.LoanDailyStatRepository;
+import com.library.security.BoundedPasswordEncoder;
 import com.library.service.AdminStatsService;
+import com.library.service.LoanStatsRollup;
+import com.library.service.admin.OverdueLoanSweeper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/admin/stats")
+@StatementBudget(2)
 public class AdminStatsController {
 
     private final AdminStatsService adminStatsService;
+    private final CatalogCache catalogCache;
+    private final OverdueLoanSweeper overdueLoanSweeper;
+    private final LoanStatsRollup loanStatsRollup;
+    private final BoundedPasswordEncoder passwordEncoder;
 
+    @StatementBudget(6)
     @GetMapping("/summary")
     public AdminSummaryDto summary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
@@ -32,4 +47,40 @@ public class AdminStatsController {
     ) {
         return adminStatsService.getLoansPerDay(from, to);
     }
+
+    // 3 zapytania na miesiąc kalendarzowy zakresu – limit odpowiada zakresowi w obrębie dwóch miesięcy
+    @StatementBudget(6)
+    @PostMapping("/rollup/rebuild")
+    public Map<String, Integer> rebuildRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return Map.of("rowsWritten", loanStatsRollup.rebuild(from, to.plusDays(1)));
+    }
+
+    @GetMapping("/rollup/check")
+    public List<LoanDailyStatRepository.MismatchRow> checkRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return loanStatsRollup.check(from, to.plusDays(1));
+    }
+
+    @GetMapping("/password-hashing")
+    public BoundedPasswordEncoder.Stats passwordHashing() {
+        return passwordEncoder.stats();
+    }
+
+    @GetMapping("/caches")
+    public List<ReadThroughCache.Stats> caches() {
+        return catalogCache.stats();
+    }
+
+    @GetMapping("/overdue-sweeper")
+    public Map<String, Object> overdueSweeper() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("lastRun", overdueLoanSweeper.lastRun());
+        body.put("totalRowsTouched", overdueLoanSweeper.totalRowsTouched());
+        return body;
+    }
 }
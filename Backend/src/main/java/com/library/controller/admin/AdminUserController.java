@@ -1,8 +1,11 @@
 package com.library.controller.admin;
 
 import com.library.dto.UserDto;
+import com.library.dto.admin.AdminUserRowDto;
+import com.library.dto.admin.UserPickerDto;
 import com.library.dto.request.AdminSetPasswordRequest;
 import com.library.dto.request.UpdateUserRequest;
+import com.library.metrics.StatementBudget;
 import com.library.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,27 +14,32 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/users")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
+@StatementBudget(6)
 public class AdminUserController {
 
     private final UserService userService;
 
+    @StatementBudget(2)
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> list(
+    public ResponseEntity<List<AdminUserRowDto>> list(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "200") int size
     ) {
         return ResponseEntity.ok(userService.list(page, size));
     }
 
+    @StatementBudget(1)
     @GetMapping("/picker")
-    public ResponseEntity<List<Map<String, Object>>> picker() {
-        return ResponseEntity.ok(userService.picker());
+    public ResponseEntity<List<UserPickerDto>> picker(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(userService.picker(q, limit));
     }
 
     @PutMapping("/{id}")
@@ -9,5 +9,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    private String refreshToken;
+    // ważność access tokenu w sekundach
+    private long expiresIn;
     private UserDto user;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchResultDto {
+    private List<BookDto> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    // category / publicationYear / availability
+    private Map<String, List<FacetBucketDto>> facets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetBucketDto {
+        private String key;
+        private String label;
+        private long count;
+    }
+}
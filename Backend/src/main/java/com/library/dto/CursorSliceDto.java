@@ -0,0 +1,20 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Wycinek listy w trybie kursorowym (?after=) – bez totalElements / COUNT(*).
+ * Kolejną stronę pobiera się z {@code ?after=<nextCursor>}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceDto<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
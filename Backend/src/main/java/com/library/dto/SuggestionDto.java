@@ -0,0 +1,14 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    private String type;   // TITLE / AUTHOR
+    private Long id;       // bookId albo authorId
+    private String label;
+}
@@ -0,0 +1,27 @@
+package com.library.dto.admin;
+
+import com.library.model.enums.UserRole;
+import com.library.model.enums.UserStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Wiersz listy użytkowników w panelu admina – projekcja JPQL, bez ładowania encji.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserRowDto {
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private UserRole role;
+    private UserStatus status;
+    private String blockedReason;
+    private LocalDateTime blockedUntil;
+    private LocalDateTime createdAt;
+}
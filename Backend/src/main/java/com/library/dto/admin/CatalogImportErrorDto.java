@@ -0,0 +1,20 @@
+package com.library.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Wiersz raportu importu: rekord odrzucony (ERROR) albo pominięty jako duplikat (SKIPPED).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportErrorDto {
+    private long record;
+    private long line;
+    private String level;
+    private String isbn;
+    private String title;
+    private String message;
+}
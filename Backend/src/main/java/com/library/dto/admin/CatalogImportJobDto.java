@@ -0,0 +1,28 @@
+package com.library.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportJobDto {
+    private String id;
+    private String format;
+    private String status;
+    // numer ostatniego odczytanego / zatwierdzonego rekordu – od tego miejsca działa wznowienie
+    private long recordsRead;
+    private long recordsCommitted;
+    private long imported;
+    private long skipped;
+    private long failed;
+    private long authorsCreated;
+    private long copiesCreated;
+    private double recordsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.library.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pozycja listy wyboru użytkownika (select / autocomplete): id + etykieta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPickerDto {
+    private Long id;
+    private String label;
+    private String email;
+
+    // konstruktor dla projekcji JPQL – etykieta "Imię Nazwisko", a gdy pusta: e-mail
+    public UserPickerDto(Long id, String firstName, String lastName, String email) {
+        String fn = firstName == null ? "" : firstName;
+        String ln = lastName == null ? "" : lastName;
+        String label = (fn + " " + ln).trim();
+        this.id = id;
+        this.label = label.isBlank() ? email : label;
+        this.email = email == null ? "" : email;
+    }
+}
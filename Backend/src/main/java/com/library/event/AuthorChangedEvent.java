@@ -0,0 +1,7 @@
+package com.library.event;
+
+/**
+ * Publikowany po dodaniu, zmianie lub usunięciu autora.
+ */
+public record AuthorChangedEvent(Long authorId) {
+}
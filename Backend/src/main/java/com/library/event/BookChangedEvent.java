@@ -0,0 +1,8 @@
+package com.library.event;
+
+/**
+ * Publikowany przez serwisy po każdej zmianie książki widocznej w katalogu
+ * (dane, autorzy, liczba / dostępność egzemplarzy). Nasłuchujący reagują po commicie.
+ */
+public record BookChangedEvent(Long bookId) {
+}
@@ -0,0 +1,9 @@
+package com.library.event;
+
+/**
+ * Publikowany, gdy wydane wcześniej tokeny użytkownika przestają być ważne: blokada konta,
+ * zmiana / reset hasła, usunięcie. Refresh tokeny są unieważniane w tej samej transakcji,
+ * access tokeny – po commicie (TokenRevocationList).
+ */
+public record UserAccessRevokedEvent(Long userId) {
+}
@@ -0,0 +1,7 @@
+package com.library.event;
+
+/**
+ * Publikowany po rejestracji, edycji i usunięciu użytkownika. Nasłuchujący reagują po commicie.
+ */
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,79 @@
+package com.library.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.repository.BookRepository;
+import com.library.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Eksport katalogu i wypożyczeń do audytu. Wiersze idą z bazy strumieniem (projekcje, nie encje –
+ * kontekst utrwalania nie rośnie) i od razu trafiają do strumienia odpowiedzi, więc pamięć nie
+ * zależy od liczby eksportowanych wierszy. Jedna transakcja tylko do odczytu na cały eksport.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+
+    private static final List<String> BOOK_COLUMNS = List.of("id", "title", "isbn", "publicationYear",
+            "category", "authors", "active", "totalCopies", "availableCopies");
+    private static final List<String> LOAN_COLUMNS = List.of("id", "userId", "userFirstName", "userLastName",
+            "copyId", "inventoryCode", "bookId", "bookTitle", "loanDate", "dueDate", "returnDate", "status",
+            "extensionsCount");
+
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportBooks(ExportFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<BookRepository.BookExportRow> rows = bookRepository.streamExportRows();
+             RowWriter writer = RowWriter.open(format, out, objectMapper, BOOK_COLUMNS)) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                var r = it.next();
+                writer.row(r.getId(), r.getTitle(), r.getIsbn(), r.getPublicationYear(), r.getCategory(),
+                        r.getAuthors(), r.getActive(), r.getTotalCopies(), r.getAvailableCopies());
+                count++;
+            }
+        }
+        log.info("Eksport katalogu ({}): {} wierszy", format, count);
+        return count;
+    }
+
+    /**
+     * @param from pierwszy dzień (włącznie) po dacie wypożyczenia, null = bez ograniczenia
+     * @param to   ostatni dzień (włącznie), null = bez ograniczenia
+     */
+    @Transactional(readOnly = true)
+    public long exportLoans(ExportFormat format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        LocalDateTime fromDate = from == null ? null : from.atStartOfDay();
+        LocalDateTime toDate = to == null ? null : to.plusDays(1).atStartOfDay();
+        long count = 0;
+        try (Stream<LoanRepository.LoanRow> rows = loanRepository.streamAllRows(fromDate, toDate);
+             RowWriter writer = RowWriter.open(format, out, objectMapper, LOAN_COLUMNS)) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                var r = it.next();
+                writer.row(r.getId(), r.getUserId(), r.getUserFirstName(), r.getUserLastName(),
+                        r.getCopyId(), r.getInventoryCode(), r.getBookId(), r.getBookTitle(),
+                        r.getLoanDate(), r.getDueDate(), r.getReturnDate(), r.getStatus(),
+                        r.getExtensionsCount());
+                count++;
+            }
+        }
+        log.info("Eksport wypożyczeń ({}): {} wierszy", format, count);
+        return count;
+    }
+}
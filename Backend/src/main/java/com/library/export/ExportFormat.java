@@ -0,0 +1,35 @@
+package com.library.export;
+
+import java.util.Locale;
+
+/**
+ * Formaty eksportu strumieniowego: CSV (RFC 4180, z nagłówkiem) i NDJSON (obiekt JSON na linię).
+ */
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nieznany format eksportu: " + value + " (csv, ndjson)");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.library.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+
+/**
+ * Zapis wierszy eksportu prosto do strumienia odpowiedzi. Nic nie jest buforowane poza
+ * buforem zapisu, więc zużycie pamięci nie zależy od liczby wierszy.
+ */
+public abstract class RowWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final List<String> columns;
+
+    private RowWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public static RowWriter open(ExportFormat format, OutputStream out, ObjectMapper objectMapper,
+                                 List<String> columns) {
+        try {
+            return switch (format) {
+                case CSV -> new Csv(out, columns);
+                case NDJSON -> new Ndjson(out, objectMapper, columns);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Wartości w kolejności kolumn z nagłówka. */
+    public final void row(Object... values) {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Oczekiwano " + columns.size() + " wartości, jest " + values.length);
+        }
+        try {
+            write(values);
+        } catch (IOException e) {
+            // zwykle klient przerwał pobieranie – przerywa to też odczyt z bazy
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void write(Object[] values) throws IOException;
+
+    private static final class Csv extends RowWriter {
+        private final Writer writer;
+
+        private Csv(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            write(columns.toArray());
+        }
+
+        @Override
+        protected void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                writeField(values[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(Object value) throws IOException {
+            if (value == null) return;
+            String s = value instanceof Enum<?> e ? e.name() : value.toString();
+            boolean quote = false;
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(s);
+                return;
+            }
+            writer.write('"');
+            writer.write(s.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class Ndjson extends RowWriter {
+        private final JsonGenerator generator;
+
+        private Ndjson(OutputStream out, ObjectMapper objectMapper, List<String> columns) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory()
+                    .createGenerator(new BufferedOutputStream(out, BUFFER_SIZE));
+            // strumień odpowiedzi zamyka kontener, nie my
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // separatorem obiektów ma być sam '\n', bez domyślnej spacji
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        protected void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                generator.writeFieldName(columns.get(i));
+                if (value instanceof TemporalAccessor) {
+                    generator.writeString(value.toString());
+                } else {
+                    generator.writeObject(value);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
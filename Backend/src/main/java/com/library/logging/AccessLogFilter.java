@@ -0,0 +1,94 @@
+package com.library.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log dostępu w formacie JSON lines (logger "access", appender asynchroniczny z logback-spring.xml,
+ * więc wątek żądania tylko wkłada gotową linię do kolejki).
+ * Logujemy metodę, ścieżkę bez query stringa, status, czas, id użytkownika i wynik weryfikacji JWT –
+ * nigdy nagłówków ani parametrów. Poprawne żądania są próbkowane ({@code app.access-log.sample-rate}),
+ * błędy (status >= 400) i odrzucone tokeny zawsze trafiają do logu.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    /** Atrybuty żądania ustawiane przez JwtAuthenticationFilter (kontekst security jest czyszczony przed nami). */
+    public static final String ATTR_USER_ID = AccessLogFilter.class.getName() + ".userId";
+    public static final String ATTR_AUTH = AccessLogFilter.class.getName() + ".auth";
+
+    public static final String AUTH_NONE = "none";
+    public static final String AUTH_VALID = "valid";
+    public static final String AUTH_INVALID = "invalid";
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("access");
+
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public AccessLogFilter(@Value("${app.access-log.enabled:true}") boolean enabled,
+                           @Value("${app.access-log.sample-rate:1.0}") double sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled || !ACCESS.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int status = response.getStatus();
+            Object auth = request.getAttribute(ATTR_AUTH);
+            boolean always = status >= 400 || AUTH_INVALID.equals(auth);
+            if (always || sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                ACCESS.info(toJson(request, status, (System.nanoTime() - started) / 1_000, auth));
+            }
+        }
+    }
+
+    private static String toJson(HttpServletRequest request, int status, long micros, Object auth) {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"ts\":").append(System.currentTimeMillis());
+        sb.append(",\"method\":\"").append(request.getMethod()).append('"');
+        sb.append(",\"path\":");
+        appendString(sb, request.getRequestURI());
+        sb.append(",\"status\":").append(status);
+        sb.append(",\"latencyUs\":").append(micros);
+        Object userId = request.getAttribute(ATTR_USER_ID);
+        if (userId != null) sb.append(",\"userId\":").append(userId);
+        sb.append(",\"auth\":\"").append(auth != null ? auth : AUTH_NONE).append('"');
+        return sb.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        sb.append('"');
+    }
+}
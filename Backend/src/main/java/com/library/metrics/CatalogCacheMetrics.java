@@ -0,0 +1,44 @@
+package com.library.metrics;
+
+import com.library.cache.CatalogCache;
+import com.library.cache.ReadThroughCache;
+import org.springframework.stereotype.Component;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Cache katalogu w pamięci ({@link CatalogCache}: szczegóły książek, kategorie) w /metrics – te same
+ * liczby co {@code GET /api/admin/stats/caches}, ale z historią w Prometheusie. Spadek trafień
+ * przy stałym ruchu = za mały limit albo zbyt częste unieważnienia.
+ */
+@Component
+public class CatalogCacheMetrics {
+
+    public CatalogCacheMetrics(CatalogCache catalogCache, MetricsRegistry registry) {
+        for (ReadThroughCache.Stats initial : catalogCache.stats()) {
+            String cache = initial.name();
+            registry.functionCounter("catalog_cache_requests_total", "Odczyty cache katalogu",
+                    stat(catalogCache, cache, ReadThroughCache.Stats::hits), "cache", cache, "result", "hit");
+            registry.functionCounter("catalog_cache_requests_total", "Odczyty cache katalogu",
+                    stat(catalogCache, cache, ReadThroughCache.Stats::misses), "cache", cache, "result", "miss");
+            registry.functionCounter("catalog_cache_loads_total", "Wartości załadowane do cache katalogu",
+                    stat(catalogCache, cache, ReadThroughCache.Stats::loads), "cache", cache);
+            registry.functionCounter("catalog_cache_evictions_total", "Wpisy usunięte z cache katalogu przez limit",
+                    stat(catalogCache, cache, ReadThroughCache.Stats::evictions), "cache", cache);
+            registry.gauge("catalog_cache_entries", "Wpisy w cache katalogu",
+                    stat(catalogCache, cache, ReadThroughCache.Stats::size), "cache", cache);
+            registry.gauge("catalog_cache_max_entries", "Limit wpisów cache katalogu",
+                    stat(catalogCache, cache, ReadThroughCache.Stats::maxSize), "cache", cache);
+        }
+    }
+
+    private static DoubleSupplier stat(CatalogCache catalogCache, String cache,
+                                       ToDoubleFunction<ReadThroughCache.Stats> value) {
+        return () -> catalogCache.stats().stream()
+                .filter(s -> s.name().equals(cache))
+                .mapToDouble(value)
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+}
@@ -0,0 +1,99 @@
+package com.library.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * Liczniki z {@link Statistics} Hibernate: ładowania encji i kolekcji, zapisy, zapytania,
+ * cache drugiego poziomu (łącznie i per region), cache wyników i planów zapytań. Wymaga
+ * {@code spring.jpa.properties.hibernate.generate_statistics=true} – bez tego wszystkie są zerowe.
+ */
+@Component
+public class HibernateMetrics {
+
+    public HibernateMetrics(EntityManagerFactory entityManagerFactory, MetricsRegistry registry) {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        registry.functionCounter("hibernate_entities_total", "Operacje na encjach",
+                stats::getEntityLoadCount, "operation", "load");
+        registry.functionCounter("hibernate_entities_total", "Operacje na encjach",
+                stats::getEntityFetchCount, "operation", "fetch");
+        registry.functionCounter("hibernate_entities_total", "Operacje na encjach",
+                stats::getEntityInsertCount, "operation", "insert");
+        registry.functionCounter("hibernate_entities_total", "Operacje na encjach",
+                stats::getEntityUpdateCount, "operation", "update");
+        registry.functionCounter("hibernate_entities_total", "Operacje na encjach",
+                stats::getEntityDeleteCount, "operation", "delete");
+
+        registry.functionCounter("hibernate_collections_total", "Operacje na kolekcjach",
+                stats::getCollectionLoadCount, "operation", "load");
+        registry.functionCounter("hibernate_collections_total", "Operacje na kolekcjach",
+                stats::getCollectionFetchCount, "operation", "fetch");
+
+        registry.functionCounter("hibernate_query_executions_total", "Wykonane zapytania HQL/SQL",
+                stats::getQueryExecutionCount);
+        registry.functionCounter("hibernate_statements_total", "Przygotowane i zamknięte instrukcje JDBC",
+                stats::getPrepareStatementCount, "status", "prepared");
+        registry.functionCounter("hibernate_statements_total", "Przygotowane i zamknięte instrukcje JDBC",
+                stats::getCloseStatementCount, "status", "closed");
+        registry.functionCounter("hibernate_flushes_total", "Flushe sesji", stats::getFlushCount);
+        registry.functionCounter("hibernate_sessions_open_total", "Otwarte sesje", stats::getSessionOpenCount);
+        registry.functionCounter("hibernate_optimistic_failures_total", "Konflikty blokad optymistycznych",
+                stats::getOptimisticFailureCount);
+
+        registry.functionCounter("hibernate_second_level_cache_requests_total",
+                "Odczyty cache drugiego poziomu", stats::getSecondLevelCacheHitCount, "result", "hit");
+        registry.functionCounter("hibernate_second_level_cache_requests_total",
+                "Odczyty cache drugiego poziomu", stats::getSecondLevelCacheMissCount, "result", "miss");
+        registry.functionCounter("hibernate_second_level_cache_puts_total",
+                "Zapisy do cache drugiego poziomu", stats::getSecondLevelCachePutCount);
+        // regiony z ehcache.xml utworzone przy starcie (author, category, book-authors); nazwane regiony
+        // zapytań powstają leniwie – ich odczyty są łącznie w hibernate_query_cache_requests_total
+        for (String region : stats.getSecondLevelCacheRegionNames()) {
+            registry.functionCounter("hibernate_cache_region_requests_total", "Odczyty regionu cache drugiego poziomu",
+                    () -> stats.getCacheRegionStatistics(region).getHitCount(), "region", region, "result", "hit");
+            registry.functionCounter("hibernate_cache_region_requests_total", "Odczyty regionu cache drugiego poziomu",
+                    () -> stats.getCacheRegionStatistics(region).getMissCount(), "region", region, "result", "miss");
+            registry.functionCounter("hibernate_cache_region_puts_total", "Zapisy do regionu cache drugiego poziomu",
+                    () -> stats.getCacheRegionStatistics(region).getPutCount(), "region", region);
+            registry.functionCounter("hibernate_cache_region_evictions_total",
+                    "Wpisy usunięte z regionu przez limit rozmiaru", () -> jcacheEvictions(region), "region", region);
+        }
+        registry.functionCounter("hibernate_query_cache_requests_total",
+                "Odczyty cache wyników zapytań", stats::getQueryCacheHitCount, "result", "hit");
+        registry.functionCounter("hibernate_query_cache_requests_total",
+                "Odczyty cache wyników zapytań", stats::getQueryCacheMissCount, "result", "miss");
+        registry.functionCounter("hibernate_query_cache_puts_total",
+                "Zapisy do cache wyników zapytań", stats::getQueryCachePutCount);
+
+        registry.functionCounter("hibernate_query_plan_cache_requests_total",
+                "Odczyty cache planów zapytań", stats::getQueryPlanCacheHitCount, "result", "hit");
+        registry.functionCounter("hibernate_query_plan_cache_requests_total",
+                "Odczyty cache planów zapytań", stats::getQueryPlanCacheMissCount, "result", "miss");
+    }
+
+    // Hibernate nie liczy usunięć z regionu – bierzemy je ze statystyk JCache (enable-statistics w ehcache.xml)
+    private static double jcacheEvictions(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            if (names.isEmpty()) return Double.NaN;
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += (Long) server.getAttribute(name, "CacheEvictions");
+            }
+            return evictions;
+        } catch (JMException e) {
+            return Double.NaN;
+        }
+    }
+}
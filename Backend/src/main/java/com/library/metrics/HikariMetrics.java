@@ -0,0 +1,64 @@
+package com.library.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Metryki puli HikariCP: czas oczekiwania na połączenie, czas jego trzymania, timeouty
+ * i stan puli (aktywne / bezczynne / oczekujące wątki). Nasycenie puli widać jako
+ * {@code active == max} przy rosnącym {@code pending} i czasie pozyskania.
+ */
+class HikariMetrics implements MetricsTrackerFactory {
+
+    private final MetricsRegistry registry;
+
+    HikariMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats stats) {
+        registry.gauge("hikaricp_connections_active", "Połączenia wydane z puli",
+                stats::getActiveConnections, "pool", poolName);
+        registry.gauge("hikaricp_connections_idle", "Bezczynne połączenia w puli",
+                stats::getIdleConnections, "pool", poolName);
+        registry.gauge("hikaricp_connections_pending", "Wątki czekające na połączenie",
+                stats::getPendingThreads, "pool", poolName);
+        registry.gauge("hikaricp_connections", "Wszystkie połączenia puli",
+                stats::getTotalConnections, "pool", poolName);
+        registry.gauge("hikaricp_connections_max", "Maksymalny rozmiar puli",
+                stats::getMaxConnections, "pool", poolName);
+
+        MetricsRegistry.Histogram acquire = registry.timer("hikaricp_connections_acquire_seconds",
+                "Czas oczekiwania na połączenie z puli", "pool").series(poolName);
+        MetricsRegistry.Histogram usage = registry.timer("hikaricp_connections_usage_seconds",
+                "Czas od wydania połączenia do jego zwrotu", "pool").series(poolName);
+        MetricsRegistry.Histogram creation = registry.timer("hikaricp_connections_creation_seconds",
+                "Czas zestawienia nowego połączenia", "pool").series(poolName);
+        MetricsRegistry.Counter timeouts = registry.counter("hikaricp_connections_timeout_total",
+                "Żądania połączenia zakończone timeoutem", "pool").series(poolName);
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.observeNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.observe(elapsedBorrowedMillis / 1e3);
+            }
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creation.observe(connectionCreatedMillis / 1e3);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
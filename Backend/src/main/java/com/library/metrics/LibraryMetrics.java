@@ -0,0 +1,73 @@
+package com.library.metrics;
+
+import com.library.search.CatalogSuggester;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Liczniki biznesowe. Zdarzenia z transakcji liczą się dopiero po commicie –
+ * wycofane wypożyczenie (np. konflikt o ostatni egzemplarz) nie podbija licznika.
+ */
+@Component
+public class LibraryMetrics {
+
+    public static final String CHANNEL_READER = "reader";
+    public static final String CHANNEL_ADMIN = "admin";
+
+    private final MetricsRegistry.Family<MetricsRegistry.Counter> loansCreated;
+    private final MetricsRegistry.Counter returnsAccepted;
+    private final MetricsRegistry.Counter overdueSweeps;
+    private final MetricsRegistry.Counter overdueMarked;
+    private final MetricsRegistry.Histogram overdueSweepTime;
+
+    public LibraryMetrics(MetricsRegistry registry, CatalogSuggester catalogSuggester) {
+        this.loansCreated = registry.counter("library_loans_created_total",
+                "Utworzone wypożyczenia (reader = przez czytelnika, admin = przez panel)", "channel");
+        this.returnsAccepted = registry.counter("library_returns_accepted_total",
+                "Zwroty potwierdzone przez administratora").series();
+        this.overdueSweeps = registry.counter("library_overdue_sweeps_total",
+                "Przebiegi oznaczania przeterminowanych wypożyczeń").series();
+        this.overdueMarked = registry.counter("library_overdue_loans_marked_total",
+                "Wypożyczenia oznaczone jako OVERDUE").series();
+        this.overdueSweepTime = registry.timer("library_overdue_sweep_seconds",
+                "Czas przebiegu oznaczania przeterminowanych wypożyczeń").series();
+        // serie widoczne od startu, zanim padnie pierwsze wypożyczenie
+        loansCreated.series(CHANNEL_READER);
+        loansCreated.series(CHANNEL_ADMIN);
+
+        // rozmiar podpowiedzi rośnie z katalogiem (klucz na każde słowo tytułu) – pilnujemy pamięci
+        registry.gauge("library_catalog_suggest_entries", "Klucze w indeksie podpowiedzi katalogu",
+                catalogSuggester::size);
+        registry.gauge("library_catalog_suggest_bytes", "Szacunkowa pamięć indeksu podpowiedzi katalogu",
+                catalogSuggester::estimatedBytes);
+    }
+
+    public void loanCreated(String channel) {
+        MetricsRegistry.Counter counter = loansCreated.series(channel);
+        afterCommit(counter::increment);
+    }
+
+    public void returnAccepted() {
+        afterCommit(returnsAccepted::increment);
+    }
+
+    public void overdueSweep(int rowsTouched, long durationNanos) {
+        overdueSweeps.increment();
+        overdueMarked.add(rowsTouched);
+        overdueSweepTime.observeNanos(durationNanos);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
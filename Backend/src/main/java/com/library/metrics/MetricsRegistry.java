@@ -0,0 +1,254 @@
+package com.library.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Rejestr metryk w pamięci z wyjściem w formacie tekstowym Prometheusa (0.0.4).
+ * Rodzina metryk = nazwa + typ + nazwy etykiet; serie w rodzinie rozróżniają wartości etykiet.
+ * Liczniki i histogramy są bezblokadowe (LongAdder), gauge i liczniki funkcyjne czytają wartość
+ * ze źródła (statystyki Hibernate, pula Hikari) dopiero przy scrapowaniu.
+ */
+@Component
+public class MetricsRegistry {
+
+    /** Przedziały czasów w sekundach – od 1 ms (pojedyncze zapytanie) do 10 s (timeout puli). */
+    public static final double[] SECONDS_BUCKETS =
+            {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private final Map<String, Family<?>> families = new ConcurrentSkipListMap<>();
+
+    public Family<Counter> counter(String name, String help, String... labelNames) {
+        return family(name, help, Type.COUNTER, labelNames, v -> new Counter());
+    }
+
+    public Family<Histogram> histogram(String name, String help, double[] buckets, String... labelNames) {
+        return family(name, help, Type.HISTOGRAM, labelNames, v -> new Histogram(buckets));
+    }
+
+    /** Timer = histogram w sekundach. */
+    public Family<Histogram> timer(String name, String help, String... labelNames) {
+        return histogram(name, help, SECONDS_BUCKETS, labelNames);
+    }
+
+    /**
+     * Gauge odczytywany przy scrapowaniu. {@code labels} to pary nazwa, wartość; ponowna rejestracja
+     * tej samej serii podmienia źródło (np. pula połączeń utworzona od nowa).
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, Type.GAUGE, value, labels);
+    }
+
+    /** Licznik, którego wartość prowadzi ktoś inny (np. Statistics Hibernate) – tylko odczyt przy scrapowaniu. */
+    public void functionCounter(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, Type.COUNTER, value, labels);
+    }
+
+    private void register(String name, String help, Type type, DoubleSupplier value, String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Etykiety podaje się parami nazwa, wartość: " + name);
+        }
+        String[] labelNames = new String[labels.length / 2];
+        String[] labelValues = new String[labels.length / 2];
+        for (int i = 0; i < labelNames.length; i++) {
+            labelNames[i] = labels[2 * i];
+            labelValues[i] = labels[2 * i + 1];
+        }
+        family(name, help, type, labelNames, v -> new Supplied()).series(labelValues).source = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M> Family<M> family(String name, String help, Type type, String[] labelNames,
+                                 Function<List<String>, M> factory) {
+        Family<?> family = families.computeIfAbsent(name,
+                n -> new Family<>(n, help, type, List.of(labelNames), factory));
+        if (family.type != type || !family.labelNames.equals(List.of(labelNames))) {
+            throw new IllegalStateException("Metryka " + name + " zarejestrowana z innym typem lub etykietami");
+        }
+        return (Family<M>) family;
+    }
+
+    /** Wszystkie serie w formacie tekstowym Prometheusa. */
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(16_384);
+        for (Family<?> family : families.values()) {
+            family.write(sb);
+        }
+        return sb.toString();
+    }
+
+    public static final class Family<M> {
+
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final List<String> labelNames;
+        private final Function<List<String>, M> factory;
+        private final Map<List<String>, M> series = new ConcurrentHashMap<>();
+
+        private Family(String name, String help, Type type, List<String> labelNames,
+                       Function<List<String>, M> factory) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labelNames = labelNames;
+            this.factory = factory;
+        }
+
+        public M series(String... labelValues) {
+            if (labelValues.length != labelNames.size()) {
+                throw new IllegalArgumentException("Metryka " + name + " wymaga etykiet " + labelNames);
+            }
+            // szybka ścieżka bez alokacji lambdy – serie powstają raz, potem tylko odczyt
+            List<String> key = Arrays.asList(labelValues);
+            M existing = series.get(key);
+            return existing != null ? existing : series.computeIfAbsent(List.of(labelValues), factory);
+        }
+
+        private void write(StringBuilder sb) {
+            if (series.isEmpty()) return;
+            sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            sb.append("# TYPE ").append(name).append(' ').append(type.name().toLowerCase()).append('\n');
+            series.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(MetricsRegistry::compareLabels))
+                    .forEach(e -> {
+                        Object m = e.getValue();
+                        if (m instanceof Histogram h) {
+                            h.write(sb, name, labelNames, e.getKey());
+                        } else {
+                            double value = m instanceof Counter c ? c.value() : ((Supplied) m).value();
+                            line(sb, name, labelNames, e.getKey(), null, value);
+                        }
+                    });
+        }
+    }
+
+    public static final class Counter {
+
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        private double value() {
+            return value.sum();
+        }
+    }
+
+    public static final class Histogram {
+
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            // zliczamy tylko w pierwszym pasującym przedziale, kumulacja przy zapisie
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(value);
+        }
+
+        public void observeNanos(long nanos) {
+            observe(nanos / 1e9);
+        }
+
+        private void write(StringBuilder sb, String name, List<String> labelNames, List<String> labelValues) {
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets[i].sum();
+                line(sb, name + "_bucket", labelNames, labelValues, format(bounds[i]), cumulative);
+            }
+            long total = count.sum();
+            line(sb, name + "_bucket", labelNames, labelValues, "+Inf", total);
+            line(sb, name + "_sum", labelNames, labelValues, null, sum.sum());
+            line(sb, name + "_count", labelNames, labelValues, null, total);
+        }
+    }
+
+    private static final class Supplied {
+
+        private volatile DoubleSupplier source;
+
+        private double value() {
+            try {
+                return source.getAsDouble();
+            } catch (RuntimeException e) {
+                // źródło niedostępne (np. zamknięta pula) – seria bez wartości zamiast błędu scrapowania
+                return Double.NaN;
+            }
+        }
+    }
+
+    private static void line(StringBuilder sb, String name, List<String> labelNames, List<String> labelValues,
+                             String le, double value) {
+        sb.append(name);
+        if (!labelNames.isEmpty() || le != null) {
+            sb.append('{');
+            for (int i = 0; i < labelNames.size(); i++) {
+                if (i > 0) sb.append(',');
+                sb.append(labelNames.get(i)).append("=\"");
+                escape(sb, labelValues.get(i));
+                sb.append('"');
+            }
+            if (le != null) {
+                if (!labelNames.isEmpty()) sb.append(',');
+                sb.append("le=\"").append(le).append('"');
+            }
+            sb.append('}');
+        }
+        sb.append(' ').append(format(value)).append('\n');
+    }
+
+    private static int compareLabels(List<String> a, List<String> b) {
+        for (int i = 0; i < a.size(); i++) {
+            int c = a.get(i).compareTo(b.get(i));
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (value == (long) value) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    private static void escape(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') sb.append('\\').append(c);
+            else if (c == '\n') sb.append("\\n");
+            else sb.append(c);
+        }
+    }
+}
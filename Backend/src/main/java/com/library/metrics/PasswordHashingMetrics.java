@@ -0,0 +1,43 @@
+package com.library.metrics;
+
+import com.library.security.BoundedPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metryki puli hashowania haseł ({@link BoundedPasswordEncoder}): zajęte wątki, długość kolejki,
+ * czas czekania w kolejce i samego hasha, odrzucenia (429). Rosnąca kolejka i czas czekania
+ * przy stałym czasie hasha = za mało wątków na falę logowań.
+ */
+@Component
+public class PasswordHashingMetrics {
+
+    public PasswordHashingMetrics(BoundedPasswordEncoder passwordEncoder, MetricsRegistry registry) {
+        registry.gauge("auth_password_hash_threads_active", "Wątki puli hashowania haseł w trakcie hasha",
+                passwordEncoder::active);
+        registry.gauge("auth_password_hash_queue_depth", "Hashe czekające w kolejce puli",
+                passwordEncoder::queued);
+        registry.gauge("auth_password_hash_threads", "Rozmiar puli hashowania haseł", passwordEncoder::threads);
+        registry.gauge("auth_password_hash_queue_capacity", "Pojemność kolejki puli hashowania haseł",
+                passwordEncoder::queueCapacity);
+
+        MetricsRegistry.Family<MetricsRegistry.Histogram> time = registry.timer("auth_password_hash_seconds",
+                "Czas hashowania hasła: queue = czekanie na wątek puli, hash = BCrypt", "phase");
+        MetricsRegistry.Histogram queued = time.series("queue");
+        MetricsRegistry.Histogram hashed = time.series("hash");
+        MetricsRegistry.Counter rejected = registry.counter("auth_password_hash_rejected_total",
+                "Hashe odrzucone przez pełną kolejkę albo timeout (odpowiedź 429)").series();
+
+        passwordEncoder.setListener(new BoundedPasswordEncoder.Listener() {
+            @Override
+            public void hashed(long queuedNanos, long hashNanos) {
+                queued.observeNanos(queuedNanos);
+                hashed.observeNanos(hashNanos);
+            }
+
+            @Override
+            public void rejected() {
+                rejected.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.library.metrics;
+
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Czas każdej metody repozytoriów Spring Data (łącznie z zapytaniami pochodnymi i {@code @Query}),
+ * z podziałem na wynik: SUCCESS, ERROR, CANCELED.
+ */
+class RepositoryMetrics implements RepositoryMethodInvocationListener {
+
+    private final MetricsRegistry.Family<MetricsRegistry.Histogram> invocations;
+
+    RepositoryMetrics(MetricsRegistry registry) {
+        this.invocations = registry.timer("spring_data_repository_invocations_seconds",
+                "Czas wywołań metod repozytoriów", "repository", "method", "state");
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        invocations.series(invocation.getRepositoryInterface().getSimpleName(),
+                        invocation.getMethod().getName(),
+                        invocation.getResult().getState().name())
+                .observeNanos(invocation.getDuration(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,59 @@
+package com.library.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Czas obsługi żądań i liczba zapytań SQL na żądanie. Ścieżka w etykiecie to wzorzec
+ * z mapowania kontrolera ({@code /api/books/{id}}), nie surowe URI – inaczej każde id
+ * tworzyłoby osobną serię. Liczba zapytań trafia też do StatementBudgetGuard.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final double[] STATEMENT_BUCKETS = {0, 1, 2, 3, 5, 10, 20, 50, 100, 200, 500};
+
+    private final MetricsRegistry.Family<MetricsRegistry.Histogram> requests;
+    private final MetricsRegistry.Family<MetricsRegistry.Histogram> statements;
+    private final StatementBudgetGuard budgetGuard;
+
+    public RequestMetricsFilter(MetricsRegistry registry, StatementBudgetGuard budgetGuard) {
+        this.budgetGuard = budgetGuard;
+        this.requests = registry.timer("http_server_requests_seconds",
+                "Czas obsługi żądań HTTP", "method", "uri", "status");
+        this.statements = registry.histogram("db_statements_per_request",
+                "Zapytania SQL wysłane przez Hibernate w trakcie jednego żądania", STATEMENT_BUCKETS,
+                "method", "uri");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        StatementCounter.begin();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            int count = StatementCounter.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNMATCHED";
+            String status = failed ? "500" : Integer.toString(response.getStatus());
+            requests.series(request.getMethod(), uri, status).observeNanos(System.nanoTime() - started);
+            statements.series(request.getMethod(), uri).observe(count);
+            budgetGuard.record(request, uri, count);
+        }
+    }
+}
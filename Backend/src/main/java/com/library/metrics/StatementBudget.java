@@ -0,0 +1,22 @@
+package com.library.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Górny limit zapytań SQL (wysłanych przez Hibernate) na jedno żądanie do endpointu.
+ * Limit nie zależy od rozmiaru strony – leniwe ładowanie relacji w pętli (N+1) przekracza go
+ * już przy kilkunastu wierszach. Na klasie: limit domyślny dla metod kontrolera, na metodzie
+ * go nadpisuje. Przekroczenia liczy StatementBudgetGuard, pokrycie i limity sprawdza
+ * {@code StatementBudgetCheck} (profil benchmarks).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,96 @@
+package com.library.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Porównuje liczbę zapytań SQL w żądaniu z {@link StatementBudget} obsługującej je metody
+ * kontrolera. Przekroczenie to ostrzeżenie w logu i licznik {@code db_statement_budget_exceeded_total}
+ * – odpowiedź jest już wysłana, więc żądanie nie jest przerywane.
+ */
+@Slf4j
+@Component
+public class StatementBudgetGuard {
+
+    public static final int NO_BUDGET = -1;
+
+    public record Observation(String handler, String uri, int budget, int maxStatements,
+                              long requests, long exceeded) {
+    }
+
+    private static final class Handler {
+        final String name;
+        final int budget;
+        volatile String uri;
+        final AtomicInteger max = new AtomicInteger();
+        final LongAdder requests = new LongAdder();
+        final LongAdder exceeded = new LongAdder();
+
+        Handler(String name, int budget) {
+            this.name = name;
+            this.budget = budget;
+        }
+    }
+
+    private final Map<Method, Handler> handlers = new ConcurrentHashMap<>();
+    private final MetricsRegistry.Family<MetricsRegistry.Counter> exceededCounter;
+
+    public StatementBudgetGuard(MetricsRegistry registry) {
+        this.exceededCounter = registry.counter("db_statement_budget_exceeded_total",
+                "Żądania, w których liczba zapytań SQL przekroczyła @StatementBudget endpointu",
+                "method", "uri");
+    }
+
+    /** Limit metody kontrolera: adnotacja na metodzie, potem na klasie; {@link #NO_BUDGET}, gdy brak. */
+    public static int budgetOf(Class<?> controller, Method method) {
+        StatementBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, StatementBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(controller, StatementBudget.class);
+        }
+        return budget != null ? budget.value() : NO_BUDGET;
+    }
+
+    void record(HttpServletRequest request, String uri, int statements) {
+        if (statements < 0
+                || !(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod hm)) {
+            return;
+        }
+        Handler handler = handlers.computeIfAbsent(hm.getMethod(), m -> new Handler(
+                hm.getBeanType().getSimpleName() + "." + m.getName(), budgetOf(hm.getBeanType(), m)));
+        handler.uri = request.getMethod() + " " + uri;
+        handler.requests.increment();
+        handler.max.accumulateAndGet(statements, Math::max);
+        if (handler.budget != NO_BUDGET && statements > handler.budget) {
+            handler.exceeded.increment();
+            exceededCounter.series(request.getMethod(), uri).increment();
+            log.warn("{} {}: {} zapytań SQL przy limicie {} ({})",
+                    request.getMethod(), uri, statements, handler.budget, handler.name);
+        }
+    }
+
+    /** Obserwacje per metoda kontrolera od startu (albo od {@link #reset()}). */
+    public List<Observation> observations() {
+        return handlers.values().stream()
+                .map(h -> new Observation(h.name, h.uri, h.budget, h.max.get(),
+                        h.requests.sum(), h.exceeded.sum()))
+                .sorted(Comparator.comparing(Observation::uri))
+                .toList();
+    }
+
+    /** Zapomina obserwacje (np. po rozgrzewce cache w StatementBudgetCheck); licznik w /metrics zostaje. */
+    public void reset() {
+        handlers.clear();
+    }
+}
@@ -0,0 +1,76 @@
+package com.library.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liczy zapytania SQL przygotowywane przez Hibernate w bieżącym wątku między {@link #begin()}
+ * a {@link #end()} – RequestMetricsFilter obejmuje tak całe żądanie HTTP. Poza tym oknem
+ * (zadania w tle) nic nie liczy. Zapytania wysyłane z pominięciem Hibernate (JdbcTemplate
+ * w imporcie katalogu i alokatorze kodów) nie są widoczne.
+ * <p>
+ * Okna można zagnieżdżać (test otwiera własne wokół żądania, które otwiera filtr) – zapytanie
+ * liczy się w każdym otwartym oknie wątku.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final class Window {
+        final Window outer;
+        final List<String> statements;
+        int count;
+
+        Window(Window outer, List<String> statements) {
+            this.outer = outer;
+            this.statements = statements;
+        }
+    }
+
+    private static final ThreadLocal<Window> CURRENT = new ThreadLocal<>();
+
+    public static void begin() {
+        CURRENT.set(new Window(CURRENT.get(), null));
+    }
+
+    /** Jak {@link #begin()}, ale okno zapamiętuje też treść zapytań (komunikaty testów budżetów). */
+    public static void beginRecording() {
+        CURRENT.set(new Window(CURRENT.get(), new ArrayList<>()));
+    }
+
+    /** Liczba zapytań od odpowiadającego {@link #begin()}; -1, gdy okno nie było otwarte. */
+    public static int end() {
+        Window window = close();
+        return window != null ? window.count : -1;
+    }
+
+    /** Zapytania od {@link #beginRecording()}; pusta lista, gdy okno nie było otwarte. */
+    public static List<String> endRecording() {
+        Window window = close();
+        return window != null && window.statements != null ? window.statements : List.of();
+    }
+
+    private static Window close() {
+        Window window = CURRENT.get();
+        if (window == null) {
+            return null;
+        }
+        if (window.outer != null) {
+            CURRENT.set(window.outer);
+        } else {
+            CURRENT.remove();
+        }
+        return window;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Window window = CURRENT.get(); window != null; window = window.outer) {
+            window.count++;
+            if (window.statements != null) {
+                window.statements.add(sql);
+            }
+        }
+        return sql;
+    }
+}
@@ -4,13 +4,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
+// Autorzy zmieniają się rzadko, a czytane są przy każdej liście książek i wypożyczeń
 @Entity
 @Table(name = "author")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
+@BatchSize(size = 50)
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
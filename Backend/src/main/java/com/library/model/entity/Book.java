@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -43,7 +46,18 @@ public class Book {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    // Liczniki zmieniane wyłącznie atomowymi UPDATE-ami z BookRepository, żeby zapis encji ich nie nadpisał
+    @Column(name = "total_copies", nullable = false, insertable = false, updatable = false)
+    private Integer totalCopies = 0;
+
+    @Column(name = "available_copies", nullable = false, insertable = false, updatable = false)
+    private Integer availableCopies = 0;
+
+    // Sama encja nie jest w L2 (liczniki zmienia każde wypożyczenie), lista autorów tak – klucz to id książki.
+    // Brakujące kolekcje strony ładują się paczkami, z pominięciem tych, które są już w cache.
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-authors")
+    @BatchSize(size = 100)
     @JoinTable(
         name = "book_author",
         joinColumns = @JoinColumn(name = "book_id"),
@@ -0,0 +1,41 @@
+package com.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Dzienny agregat wypożyczeń / zwrotów per książka (tabela loan_daily_stats).
+ * Zapisywany wyłącznie zapytaniami natywnymi z LoanDailyStatRepository.
+ */
+@Entity
+@Table(name = "loan_daily_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanDailyStat {
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "loans_count", nullable = false)
+    private Integer loansCount;
+
+    @Column(name = "returns_count", nullable = false)
+    private Integer returnsCount;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "day", nullable = false)
+        private LocalDate day;
+
+        @Column(name = "book_id", nullable = false)
+        private Long bookId;
+    }
+}
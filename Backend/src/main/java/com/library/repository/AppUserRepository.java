@@ -1,5 +1,6 @@
 package com.library.repository;
 
+import com.library.dto.admin.AdminUserRowDto;
 import com.library.model.entity.AppUser;
 import com.library.model.enums.UserRole;
 import com.library.model.enums.UserStatus;
@@ -10,9 +11,18 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+
+    interface PickerRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+    }
+
     Optional<AppUser> findByEmail(String email);
     boolean existsByEmail(String email);
 
@@ -33,5 +43,19 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
     @Query("select count(u) from AppUser u where u.status = com.library.model.enums.UserStatus.ACTIVE")
     long countActiveUsers();
 
+    // projekcje dla panelu admina – tylko potrzebne kolumny, bez encji w kontekście
+    @Query("SELECT new com.library.dto.admin.AdminUserRowDto(u.id, u.email, u.firstName, u.lastName, " +
+           "u.role, u.status, u.blockedReason, u.blockedUntil, u.createdAt) FROM AppUser u ORDER BY u.id DESC")
+    List<AdminUserRowDto> findAdminRows(Pageable pageable);
+
+    // źródło dla UserPickerIndex – keyset po id, bez usuniętych kont
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName, u.email AS email " +
+           "FROM AppUser u WHERE u.id > :afterId " +
+           "AND u.status <> com.library.model.enums.UserStatus.DELETED ORDER BY u.id")
+    List<PickerRow> findPickerRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName, u.email AS email " +
+           "FROM AppUser u WHERE u.id = :id AND u.status <> com.library.model.enums.UserStatus.DELETED")
+    Optional<PickerRow> findPickerRowById(@Param("id") Long id);
 
 }
\ No newline at end of file
@@ -1,15 +1,42 @@
 package com.library.repository;
 
 import com.library.model.entity.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface AuthorRepository extends JpaRepository<Author, Long> {
     @Query("SELECT a FROM Author a WHERE " +
            "(:search IS NULL OR LOWER(a.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(a.lastName) LIKE LOWER(CONCAT('%', :search, '%')))")
     Page<Author> findAuthorsWithSearch(@Param("search") String search, Pageable pageable);
+
+    interface BookAuthorRow {
+        Long getBookId();
+        Long getAuthorId();
+        String getFirstName();
+        String getLastName();
+    }
+
+    // Autorzy wielu książek naraz (np. dla strony wypożyczeń) – jedno zapytanie zamiast jednego na książkę.
+    // W cache zapytań; natywnie, bo wersja HQL przez encję Book zależy od tabeli book, a tę zmienia
+    // licznikami każde wypożyczenie – wynik byłby unieważniany cały czas. Tu: tylko author i book_author.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-author-rows"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "author"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_author")
+    })
+    @Query(value = "select ba.book_id as bookId, a.id as authorId, a.first_name as firstName, a.last_name as lastName " +
+                   "from book_author ba join author a on a.id = ba.author_id where ba.book_id in (:bookIds)",
+           nativeQuery = true)
+    List<BookAuthorRow> findAuthorRowsByBookIdIn(@Param("bookIds") Collection<Long> bookIds);
 }
\ No newline at end of file
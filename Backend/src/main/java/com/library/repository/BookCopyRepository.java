@@ -4,7 +4,9 @@ import com.library.model.entity.BookCopy;
 import com.library.model.enums.BookCopyStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -18,11 +20,20 @@ public interface BookCopyRepository extends JpaRepository<BookCopy, Long> {
                                              @Param("status") BookCopyStatus status,
                                              Pageable pageable);
 
-    @Query("SELECT bc FROM BookCopy bc WHERE bc.bookId = :bookId AND bc.status = :status")
-    Optional<BookCopy> findFirstByBookIdAndStatus(@Param("bookId") Long bookId, @Param("status") BookCopyStatus status);
+    /**
+     * Rezerwuje (blokuje do końca transakcji) jeden wolny egzemplarz książki.
+     * SKIP LOCKED: egzemplarze zablokowane przez równoległe wypożyczenia są pomijane,
+     * więc każda transakcja dostaje inny egzemplarz bez czekania na pozostałe.
+     */
+    @Query(value = "SELECT * FROM book_copy WHERE book_id = :bookId AND status = 'AVAILABLE' " +
+                   "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<BookCopy> claimAvailableCopy(@Param("bookId") Long bookId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT bc FROM BookCopy bc WHERE bc.id = :id")
+    Optional<BookCopy> findByIdForUpdate(@Param("id") Long id);
 
     int countByBookIdAndStatus(Long bookId, BookCopyStatus status);
-    int countByBookId(Long bookId);
 
     boolean existsByInventoryCode(String inventoryCode);
 }
\ No newline at end of file
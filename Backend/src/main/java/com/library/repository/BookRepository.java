@@ -4,10 +4,32 @@ import com.library.model.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    /** Płaski wiersz eksportu katalogu – autorzy sklejeni w bazie, bez dociągania kolekcji. */
+    interface BookExportRow {
+        Long getId();
+        String getTitle();
+        String getIsbn();
+        Integer getPublicationYear();
+        String getCategory();
+        String getAuthors();
+        Boolean getActive();
+        Integer getTotalCopies();
+        Integer getAvailableCopies();
+    }
     
     @Query("SELECT DISTINCT b FROM Book b " +
            "LEFT JOIN b.authors a " +
@@ -17,14 +39,121 @@ public interface BookRepository extends JpaRepository<Book, Long> {
            "AND (:categoryId IS NULL OR b.categoryId = :categoryId) " +
            "AND (:yearFrom IS NULL OR b.publicationYear >= :yearFrom) " +
            "AND (:yearTo IS NULL OR b.publicationYear <= :yearTo) " +
-           "AND (:activeOnly = false OR b.isActive = true)")
+           "AND (:activeOnly = false OR b.isActive = true) " +
+           "AND (:availableOnly = false OR b.availableCopies > 0)")
     Page<Book> findBooksWithFilters(@Param("title") String title,
                                     @Param("author") String author,
                                     @Param("categoryId") Long categoryId,
                                     @Param("yearFrom") Short publicationYearFrom,
                                     @Param("yearTo") Short publicationYearTo,
                                     @Param("activeOnly") boolean activeOnly,
+                                    @Param("availableOnly") boolean availableOnly,
                                     Pageable pageable);
 
+    // Keyset po (title, id) – te same filtry co wyżej, bez OFFSET i bez COUNT
+    @Query("SELECT DISTINCT b FROM Book b " +
+           "LEFT JOIN b.authors a " +
+           "WHERE (:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
+           "AND (:author IS NULL OR LOWER(a.firstName) LIKE LOWER(CONCAT('%', :author, '%')) OR " +
+           "     LOWER(a.lastName) LIKE LOWER(CONCAT('%', :author, '%'))) " +
+           "AND (:categoryId IS NULL OR b.categoryId = :categoryId) " +
+           "AND (:yearFrom IS NULL OR b.publicationYear >= :yearFrom) " +
+           "AND (:yearTo IS NULL OR b.publicationYear <= :yearTo) " +
+           "AND (:activeOnly = false OR b.isActive = true) " +
+           "AND (:availableOnly = false OR b.availableCopies > 0) " +
+           "AND (b.title > :afterTitle OR (b.title = :afterTitle AND b.id > :afterId)) " +
+           "ORDER BY b.title, b.id")
+    List<Book> findBooksWithFiltersAfter(@Param("title") String title,
+                                         @Param("author") String author,
+                                         @Param("categoryId") Long categoryId,
+                                         @Param("yearFrom") Short publicationYearFrom,
+                                         @Param("yearTo") Short publicationYearTo,
+                                         @Param("activeOnly") boolean activeOnly,
+                                         @Param("availableOnly") boolean availableOnly,
+                                         @Param("afterTitle") String afterTitle,
+                                         @Param("afterId") Long afterId,
+                                         Pageable limit);
+
     boolean existsByIsbn(String isbn);
-}
\ No newline at end of file
+
+    @Query("SELECT b.id FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT b FROM Book b " +
+           "LEFT JOIN FETCH b.authors " +
+           "LEFT JOIN FETCH b.category " +
+           "WHERE b.id IN :ids")
+    List<Book> findAllWithRelationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Autorzy dla strony książek wczytanej bez fetch join (fetch join kolekcji ze stronicowaniem
+     * = stronicowanie w pamięci). Listy autorów są w L2 (region book-authors), więc przy ciepłym
+     * cache strona nie kosztuje żadnego zapytania; brakujące dociąga @BatchSize – jedno zapytanie
+     * na paczkę, tylko o książki spoza cache. Kategorii DTO nie bierze z encji (CatalogCache).
+     */
+    default void fetchRelations(List<Book> books) {
+        books.forEach(b -> Hibernate.initialize(b.getAuthors()));
+    }
+
+    @Query("SELECT b.id FROM Book b JOIN b.authors a WHERE a.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    // Natywnie i z przestrzenią book_copy zamiast book: UPDATE na encji Book (HQL albo natywny z "book")
+    // czyści w L2 cały region book-authors. Liczniki odzwierciedlają stan book_copy i nie są w żadnym cache.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_copy"))
+    @Query(value = "update book set total_copies = total_copies + :totalDelta, " +
+                   "available_copies = available_copies + :availableDelta where id = :bookId", nativeQuery = true)
+    int adjustCopyCounters(@Param("bookId") Long bookId,
+                           @Param("totalDelta") int totalDelta,
+                           @Param("availableDelta") int availableDelta);
+
+    // Książki, których liczniki nie zgadzają się z book_copy (dryf po ręcznych zmianach w bazie).
+    @Query(value = """
+            select b.id
+            from book b
+            left join (
+                select book_id,
+                       count(*) as total,
+                       sum(case when status = 'AVAILABLE' then 1 else 0 end) as available
+                from book_copy
+                group by book_id
+            ) c on c.book_id = b.id
+            where b.total_copies <> coalesce(c.total, 0)
+               or b.available_copies <> coalesce(c.available, 0)
+            """, nativeQuery = true)
+    List<Long> findIdsWithCounterDrift();
+
+    // Przelicza liczniki wskazanych książek ze stanu book_copy – zwraca liczbę poprawionych wierszy.
+    // Przestrzeń jak w adjustCopyCounters; natywny UPDATE bez niej czyści cały cache drugiego poziomu.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_copy"))
+    @Query(value = """
+            update book
+            set total_copies = (select count(*) from book_copy c where c.book_id = book.id),
+                available_copies = (select count(*) from book_copy c
+                                    where c.book_id = book.id and c.status = 'AVAILABLE')
+            where id in (:ids)
+            """, nativeQuery = true)
+    int recountCopyCounters(@Param("ids") Collection<Long> ids);
+
+    // eksport: strumień wierszy (Connector/J w trybie strumieniowym), bez encji w kontekście
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+            select b.id as id, b.title as title, b.isbn as isbn, b.publication_year as publicationYear,
+                   c.name as category,
+                   group_concat(concat(a.first_name, ' ', a.last_name)
+                                order by a.last_name, a.first_name separator '; ') as authors,
+                   b.is_active as active, b.total_copies as totalCopies, b.available_copies as availableCopies
+            from book b
+            left join category c on c.id = b.category_id
+            left join book_author ba on ba.book_id = b.id
+            left join author a on a.id = ba.author_id
+            group by b.id, c.name
+            order by b.id
+            """, nativeQuery = true)
+    Stream<BookExportRow> streamExportRows();
+}
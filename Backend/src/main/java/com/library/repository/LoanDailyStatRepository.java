@@ -0,0 +1,129 @@
+package com.library.repository;
+
+import com.library.dto.admin.AdminSummaryDto;
+import com.library.model.entity.LoanDailyStat;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LoanDailyStatRepository extends JpaRepository<LoanDailyStat, LoanDailyStat.Key> {
+
+    interface MismatchRow {
+        java.sql.Date getDay();
+        Long getBookId();
+        Long getRawLoans();
+        Long getRollupLoans();
+        Long getRawReturns();
+        Long getRollupReturns();
+    }
+
+    // Przyrost (także ujemny) dla jednego dnia i książki. Natywne zapisy deklarują swoją tabelę – bez tego
+    // Hibernate po każdym z nich czyściłby cały cache drugiego poziomu (autorzy, kategorie, listy autorów).
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan_daily_stats"))
+    @Query(value = """
+    insert into loan_daily_stats (day, book_id, loans_count, returns_count)
+    values (:day, :bookId, :loans, :returns)
+    on duplicate key update loans_count = loans_count + values(loans_count),
+                            returns_count = returns_count + values(returns_count)
+""", nativeQuery = true)
+    int increment(@Param("day") LocalDate day, @Param("bookId") Long bookId,
+                  @Param("loans") int loans, @Param("returns") int returns);
+
+    @Query("""
+   select coalesce(sum(s.loansCount), 0)
+   from LoanDailyStat s
+   where s.id.day >= :from and s.id.day < :to
+""")
+    long sumLoansBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(value = """
+    select s.day as day, sum(s.loans_count) as loansCount
+    from loan_daily_stats s
+    where s.day >= :from and s.day < :to
+    group by s.day
+    having sum(s.loans_count) > 0
+    order by day
+""", nativeQuery = true)
+    List<LoanRepository.LoansPerDayRow> findLoansPerDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+   select new com.library.dto.admin.AdminSummaryDto$MostPopularBookDto(
+      b.id, b.title, sum(s.loansCount)
+   )
+   from LoanDailyStat s
+     join Book b on b.id = s.id.bookId
+   where s.id.day >= :from and s.id.day < :to
+   group by b.id, b.title
+   having sum(s.loansCount) > 0
+   order by sum(s.loansCount) desc
+""")
+    List<AdminSummaryDto.MostPopularBookDto> findMostPopularBooks(@Param("from") LocalDate from,
+                                                                  @Param("to") LocalDate to);
+
+    // ----------------- backfill / kontrola spójności -----------------
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan_daily_stats"))
+    @Query(value = "delete from loan_daily_stats where day >= :from and day < :to", nativeQuery = true)
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan_daily_stats"))
+    @Query(value = """
+    insert into loan_daily_stats (day, book_id, loans_count, returns_count)
+    select date(l.loan_date), bc.book_id, count(*), 0
+    from loan l
+      join book_copy bc on bc.id = l.book_copy_id
+    where l.loan_date >= :from and l.loan_date < :to
+    group by date(l.loan_date), bc.book_id
+""", nativeQuery = true)
+    int backfillLoans(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan_daily_stats"))
+    @Query(value = """
+    insert into loan_daily_stats (day, book_id, loans_count, returns_count)
+    select date(l.return_date), bc.book_id, 0, count(*)
+    from loan l
+      join book_copy bc on bc.id = l.book_copy_id
+    where l.status = 'RETURNED' and l.return_date >= :from and l.return_date < :to
+    group by date(l.return_date), bc.book_id
+    on duplicate key update returns_count = values(returns_count)
+""", nativeQuery = true)
+    int backfillReturns(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(value = """
+    select d.day as day, d.book_id as bookId,
+           sum(d.raw_loans) as rawLoans, sum(d.rollup_loans) as rollupLoans,
+           sum(d.raw_returns) as rawReturns, sum(d.rollup_returns) as rollupReturns
+    from (
+        select date(l.loan_date) as day, bc.book_id, count(*) as raw_loans, 0 as raw_returns,
+               0 as rollup_loans, 0 as rollup_returns
+        from loan l join book_copy bc on bc.id = l.book_copy_id
+        where l.loan_date >= :from and l.loan_date < :to
+        group by date(l.loan_date), bc.book_id
+        union all
+        select date(l.return_date), bc.book_id, 0, count(*), 0, 0
+        from loan l join book_copy bc on bc.id = l.book_copy_id
+        where l.status = 'RETURNED' and l.return_date >= :from and l.return_date < :to
+        group by date(l.return_date), bc.book_id
+        union all
+        select s.day, s.book_id, 0, 0, s.loans_count, s.returns_count
+        from loan_daily_stats s
+        where s.day >= date(:from) and s.day < date(:to)
+    ) d
+    group by d.day, d.book_id
+    having sum(d.raw_loans) <> sum(d.rollup_loans) or sum(d.raw_returns) <> sum(d.rollup_returns)
+    order by d.day, d.book_id
+""", nativeQuery = true)
+    List<MismatchRow> findMismatches(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
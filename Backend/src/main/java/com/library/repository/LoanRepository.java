@@ -5,11 +5,17 @@ import com.library.model.enums.LoanStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 import com.library.dto.admin.AdminLoansPerDayDto;
 import com.library.dto.admin.AdminSummaryDto;
 import org.springframework.data.jpa.repository.Query;
@@ -23,18 +29,84 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
         java.sql.Date getDay();
         Long getLoansCount();
     }
-    @Query("SELECT l FROM Loan l WHERE l.userId = :userId AND l.status IN :statuses")
-    Page<Loan> findByUserIdAndStatusIn(@Param("userId") Long userId, 
-                                       @Param("statuses") List<LoanStatus> statuses, 
-                                       Pageable pageable);
-
-    @Query("SELECT l FROM Loan l WHERE " +
-           "(:status IS NULL OR l.status = :status) AND " +
-           "(:userId IS NULL OR l.userId = :userId) AND " +
-           "(:bookId IS NULL OR l.bookCopy.bookId = :bookId) AND " +
-           "(:fromDate IS NULL OR l.loanDate >= :fromDate) AND " +
-           "(:toDate IS NULL OR l.loanDate <= :toDate)")
-    Page<Loan> findLoansWithFilters(@Param("status") LoanStatus status,
+    /**
+     * Płaski wiersz listy wypożyczeń: wypożyczenie + czytelnik + egzemplarz + książka w jednym SELECT.
+     * Autorów dociąga się jednym zapytaniem dla całej strony (AuthorRepository.findAuthorRowsByBookIdIn).
+     */
+    interface LoanRow {
+        Long getId();
+        Long getUserId();
+        String getUserFirstName();
+        String getUserLastName();
+        Long getCopyId();
+        String getInventoryCode();
+        Long getBookId();
+        String getBookTitle();
+        LocalDateTime getLoanDate();
+        LocalDateTime getDueDate();
+        LocalDateTime getReturnDate();
+        LoanStatus getStatus();
+        Short getExtensionsCount();
+    }
+
+    String LOAN_ROW_SELECT = "SELECT l.id AS id, u.id AS userId, u.firstName AS userFirstName, " +
+            "u.lastName AS userLastName, bc.id AS copyId, bc.inventoryCode AS inventoryCode, " +
+            "b.id AS bookId, b.title AS bookTitle, l.loanDate AS loanDate, l.dueDate AS dueDate, " +
+            "l.returnDate AS returnDate, l.status AS status, l.extensionsCount AS extensionsCount " +
+            "FROM Loan l JOIN l.user u JOIN l.bookCopy bc JOIN bc.book b ";
+
+    @Query(value = LOAN_ROW_SELECT + "WHERE l.userId = :userId AND l.status IN :statuses",
+           countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.userId = :userId AND l.status IN :statuses")
+    Page<LoanRow> findRowsByUserIdAndStatusIn(@Param("userId") Long userId,
+                                              @Param("statuses") List<LoanStatus> statuses,
+                                              Pageable pageable);
+
+    // Keyset (najnowsze najpierw) po (loanDate, id)
+    @Query(LOAN_ROW_SELECT + "WHERE l.userId = :userId AND l.status IN :statuses " +
+           "AND (l.loanDate < :afterDate OR (l.loanDate = :afterDate AND l.id < :afterId)) " +
+           "ORDER BY l.loanDate DESC, l.id DESC")
+    List<LoanRow> findRowsByUserIdAndStatusInAfter(@Param("userId") Long userId,
+                                                   @Param("statuses") List<LoanStatus> statuses,
+                                                   @Param("afterDate") LocalDateTime afterDate,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable limit);
+
+    @Query(value = LOAN_ROW_SELECT,
+           countQuery = "SELECT COUNT(l) FROM Loan l")
+    Page<LoanRow> findAllRows(Pageable pageable);
+
+    @Query(LOAN_ROW_SELECT +
+           "WHERE l.loanDate < :afterDate OR (l.loanDate = :afterDate AND l.id < :afterId) " +
+           "ORDER BY l.loanDate DESC, l.id DESC")
+    List<LoanRow> findAllRowsAfter(@Param("afterDate") LocalDateTime afterDate,
+                                   @Param("afterId") Long afterId,
+                                   Pageable limit);
+
+    /**
+     * Eksport: cała tabela jako strumień wierszy – bez COUNT i OFFSET. Fetch size Integer.MIN_VALUE
+     * przełącza Connector/J w tryb strumieniowy (wiersz po wierszu zamiast całego wyniku w pamięci).
+     * Wymaga otwartej transakcji tylko do odczytu, strumień trzeba zamknąć.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LOAN_ROW_SELECT +
+           "WHERE (:fromDate IS NULL OR l.loanDate >= :fromDate) AND " +
+           "(:toDate IS NULL OR l.loanDate < :toDate) " +
+           "ORDER BY l.id")
+    Stream<LoanRow> streamAllRows(@Param("fromDate") LocalDateTime fromDate,
+                                  @Param("toDate") LocalDateTime toDate);
+
+    String LOAN_FILTERS = "(:status IS NULL OR l.status = :status) AND " +
+            "(:userId IS NULL OR l.userId = :userId) AND " +
+            "(:bookId IS NULL OR l.bookCopy.bookId = :bookId) AND " +
+            "(:fromDate IS NULL OR l.loanDate >= :fromDate) AND " +
+            "(:toDate IS NULL OR l.loanDate <= :toDate)";
+
+    @Query(value = LOAN_ROW_SELECT + "WHERE " + LOAN_FILTERS,
+           countQuery = "SELECT COUNT(l) FROM Loan l WHERE " + LOAN_FILTERS)
+    Page<LoanRow> findRowsWithFilters(@Param("status") LoanStatus status,
                                     @Param("userId") Long userId,
                                     @Param("bookId") Long bookId,
                                     @Param("fromDate") LocalDateTime fromDate,
@@ -45,6 +117,16 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
     @Query("SELECT l FROM Loan l WHERE l.status = 'ACTIVE' AND l.dueDate < :now")
     List<Loan> findOverdueLoans(@Param("now") LocalDateTime now);
+
+    // Jedna porcja ACTIVE -> OVERDUE we własnej, krótkiej transakcji (indeks status, due_date).
+    // Przestrzeń loan: bez niej natywny UPDATE czyści cały cache drugiego poziomu
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan"))
+    @Query(value = "UPDATE loan SET status = 'OVERDUE' " +
+                   "WHERE status = 'ACTIVE' AND due_date < :now " +
+                   "ORDER BY due_date LIMIT :limit", nativeQuery = true)
+    int markOverdueChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
     @Query("""
    select count(l)
    from Loan l
@@ -8,17 +8,38 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface PenaltyRepository extends JpaRepository<Penalty, Long> {
-    @Query("SELECT p FROM Penalty p WHERE p.userId = :userId AND " +
+    // użytkownik pobierany od razu (JOIN FETCH) – PenaltyDto zawiera jego imię i nazwisko
+    @Query(value = "SELECT p FROM Penalty p JOIN FETCH p.user WHERE p.userId = :userId AND " +
+           "(:status IS NULL OR p.status = :status)",
+           countQuery = "SELECT COUNT(p) FROM Penalty p WHERE p.userId = :userId AND " +
            "(:status IS NULL OR p.status = :status)")
     Page<Penalty> findByUserIdAndStatus(@Param("userId") Long userId, 
                                         @Param("status") PenaltyStatus status, 
                                         Pageable pageable);
 
-    @Query("SELECT p FROM Penalty p WHERE " +
+    @Query(value = "SELECT p FROM Penalty p JOIN FETCH p.user WHERE " +
+           "(:status IS NULL OR p.status = :status) AND " +
+           "(:userId IS NULL OR p.userId = :userId)",
+           countQuery = "SELECT COUNT(p) FROM Penalty p WHERE " +
            "(:status IS NULL OR p.status = :status) AND " +
            "(:userId IS NULL OR p.userId = :userId)")
     Page<Penalty> findPenaltiesWithFilters(@Param("status") PenaltyStatus status,
                                            @Param("userId") Long userId,
                                            Pageable pageable);
+
+    // Keyset (najnowsze najpierw) po (createdAt, id)
+    @Query("SELECT p FROM Penalty p JOIN FETCH p.user WHERE " +
+           "(:status IS NULL OR p.status = :status) AND " +
+           "(:userId IS NULL OR p.userId = :userId) AND " +
+           "(p.createdAt < :afterDate OR (p.createdAt = :afterDate AND p.id < :afterId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Penalty> findPenaltiesWithFiltersAfter(@Param("status") PenaltyStatus status,
+                                                @Param("userId") Long userId,
+                                                @Param("afterDate") LocalDateTime afterDate,
+                                                @Param("afterId") Long afterId,
+                                                Pageable limit);
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.library.search;
+
+import com.library.event.AuthorChangedEvent;
+import com.library.event.BookChangedEvent;
+import com.library.model.entity.Author;
+import com.library.model.entity.Book;
+import com.library.repository.AuthorRepository;
+import com.library.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ładuje indeks katalogu i podpowiedzi przy starcie, a potem aktualizuje je po commicie
+ * każdej zmiany książki / autora.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogIndexSynchronizer {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final CatalogSuggester catalogSuggester;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = bookRepository.findIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) break;
+            for (Book book : bookRepository.findAllWithRelationsByIdIn(ids)) {
+                catalogSearchIndex.put(book);
+                catalogSuggester.putBook(book);
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        Page<Author> authors;
+        int page = 0;
+        do {
+            authors = authorRepository.findAll(PageRequest.of(page++, BATCH_SIZE, Sort.by("id")));
+            authors.forEach(catalogSuggester::putAuthor);
+        } while (authors.hasNext());
+
+        log.info("Indeks katalogu zbudowany: {} książek, {} podpowiedzi (~{} KB) w {} ms",
+                catalogSearchIndex.size(), catalogSuggester.size(),
+                catalogSuggester.estimatedBytes() / 1024, System.currentTimeMillis() - started);
+    }
+
+    /** Dopisuje do indeksu książki i autorów dodanych hurtowo (import katalogu). */
+    @Transactional(readOnly = true)
+    public void indexImported(Collection<Long> bookIds, Collection<Long> authorIds) {
+        if (!authorIds.isEmpty()) {
+            authorRepository.findAllById(authorIds).forEach(catalogSuggester::putAuthor);
+        }
+        reindexBooks(bookIds);
+    }
+
+    /** Odświeża w indeksie wskazane książki, paczkami po {@value #BATCH_SIZE}. */
+    @Transactional(readOnly = true)
+    public void reindexBooks(Collection<Long> bookIds) {
+        List<Long> ids = List.copyOf(bookIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            for (Book book : bookRepository.findAllWithRelationsByIdIn(batch)) {
+                catalogSearchIndex.put(book);
+                catalogSuggester.putBook(book);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onBookChanged(BookChangedEvent event) {
+        List<Book> books = bookRepository.findAllWithRelationsByIdIn(List.of(event.bookId()));
+        if (books.isEmpty()) {
+            catalogSearchIndex.remove(event.bookId());
+            catalogSuggester.removeBook(event.bookId());
+        } else {
+            catalogSearchIndex.put(books.get(0));
+            catalogSuggester.putBook(books.get(0));
+        }
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        authorRepository.findById(event.authorId())
+                .ifPresentOrElse(catalogSuggester::putAuthor,
+                        () -> catalogSuggester.removeAuthor(event.authorId()));
+    }
+}
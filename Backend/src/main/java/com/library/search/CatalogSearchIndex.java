@@ -0,0 +1,332 @@
+package com.library.search;
+
+import com.library.dto.BookSearchResultDto;
+import com.library.model.entity.Author;
+import com.library.model.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Odwrócony indeks katalogu trzymany w pamięci: tytuł, opis, ISBN, autorzy, kategoria.
+ * Ranking tf-idf z wagami pól, tolerancja literówek (odległość edycyjna) i prefiks
+ * dla ostatniego słowa, fasety liczone w tym samym przebiegu co wyniki.
+ * <p>
+ * Literówki to ścieżka awaryjna – tylko dla słowa bez dokładnego (ani prefiksowego) trafienia.
+ * Kandydatów daje indeks bigramów słownika: słowo w odległości k od zapytania dzieli z nim co
+ * najmniej (liczba bigramów zapytania − 3k) bigramów, więc odległość edycyjną liczymy dla
+ * garstki słów zamiast dla całego słownika.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.0f;
+    private static final float ISBN_WEIGHT = 5.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.5f;
+
+    private static final float PREFIX_FACTOR = 0.7f;
+    private static final float FUZZY_FACTOR = 0.5f;
+    private static final int MAX_EXPANSIONS = 64;
+
+    public record Filter(Long categoryId, Short yearFrom, Short yearTo, boolean availableOnly, boolean activeOnly) {
+    }
+
+    public record Result(List<Long> bookIds, Map<String, List<BookSearchResultDto.FacetBucketDto>> facets) {
+    }
+
+    private record Doc(long id, Long categoryId, String categoryName, Short year,
+                       boolean active, int availableCopies, Map<String, Float> terms) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // bigram (z ^ i $ na brzegach) -> słowa słownika, które go zawierają
+    private final Map<String, Set<String>> bigrams = new HashMap<>();
+
+    public void put(Book book) {
+        Doc doc = toDoc(book);
+        lock.writeLock().lock();
+        try {
+            removeInternal(doc.id());
+            docs.put(doc.id(), doc);
+            doc.terms().forEach((term, weight) -> postings.computeIfAbsent(term, t -> {
+                for (String gram : bigrams(t)) bigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(t);
+                return new HashMap<>();
+            }).put(doc.id(), weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Result search(String query, Filter filter) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextNormalizer.tokenize(query)));
+        String isbn = TextNormalizer.compactIsbn(query);
+
+        lock.readLock().lock();
+        try {
+            boolean isbnQuery = isbn.length() >= 10 && postings.containsKey(isbn);
+            if (isbnQuery) {
+                terms = List.of(isbn);
+            }
+            if (terms.isEmpty()) {
+                return new Result(List.of(), emptyFacets());
+            }
+
+            // każde słowo zapytania musi pasować (dokładnie, prefiksem albo z literówką)
+            Map<Long, Float> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Float> termScores = scoreTerm(terms.get(i), !isbnQuery && i == terms.size() - 1);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Float> merged = new HashMap<>();
+                    for (Map.Entry<Long, Float> e : scores.entrySet()) {
+                        Float s = termScores.get(e.getKey());
+                        if (s != null) merged.put(e.getKey(), e.getValue() + s);
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) break;
+            }
+
+            Map<Long, Long> categoryCounts = new HashMap<>();
+            Map<Long, String> categoryNames = new HashMap<>();
+            Map<Integer, Long> decadeCounts = new TreeMap<>();
+            long available = 0;
+            long unavailable = 0;
+
+            List<Map.Entry<Long, Float>> hits = new ArrayList<>();
+            for (Map.Entry<Long, Float> e : scores.entrySet()) {
+                Doc doc = docs.get(e.getKey());
+                if (doc == null || !matches(doc, filter)) continue;
+                hits.add(e);
+
+                if (doc.categoryId() != null) {
+                    categoryCounts.merge(doc.categoryId(), 1L, Long::sum);
+                    categoryNames.putIfAbsent(doc.categoryId(), doc.categoryName());
+                }
+                if (doc.year() != null) {
+                    decadeCounts.merge(doc.year() / 10 * 10, 1L, Long::sum);
+                }
+                if (doc.availableCopies() > 0) available++;
+                else unavailable++;
+            }
+
+            hits.sort(Map.Entry.<Long, Float>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            Map<String, List<BookSearchResultDto.FacetBucketDto>> facets = new HashMap<>();
+            facets.put("category", categoryCounts.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                    .map(e -> new BookSearchResultDto.FacetBucketDto(
+                            String.valueOf(e.getKey()), categoryNames.get(e.getKey()), e.getValue()))
+                    .toList());
+            facets.put("publicationYear", decadeCounts.entrySet().stream()
+                    .map(e -> new BookSearchResultDto.FacetBucketDto(
+                            String.valueOf(e.getKey()), e.getKey() + "-" + (e.getKey() + 9), e.getValue()))
+                    .toList());
+            facets.put("availability", List.of(
+                    new BookSearchResultDto.FacetBucketDto("available", "Dostępne", available),
+                    new BookSearchResultDto.FacetBucketDto("unavailable", "Niedostępne", unavailable)));
+
+            return new Result(hits.stream().map(Map.Entry::getKey).toList(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ----------------- helpers -----------------
+
+    private Map<Long, Float> scoreTerm(String term, boolean last) {
+        Map<String, Float> variants = new HashMap<>();
+        if (postings.containsKey(term)) {
+            variants.put(term, 1.0f);
+        }
+        if (last && term.length() >= 2) {
+            int n = 0;
+            for (String t : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                if (n++ >= MAX_EXPANSIONS) break;
+                variants.putIfAbsent(t, PREFIX_FACTOR);
+            }
+        }
+        // literówki tylko bez innego trafienia; liczby (rok, ISBN) tylko dokładnie / prefiksem
+        int maxEdits = term.chars().allMatch(Character::isDigit) ? 0
+                : term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (variants.isEmpty() && maxEdits > 0) {
+            int n = 0;
+            for (String t : fuzzyCandidates(term, maxEdits)) {
+                if (n >= MAX_EXPANSIONS) break;
+                if (withinEditDistance(term, t, maxEdits)) {
+                    variants.put(t, FUZZY_FACTOR);
+                    n++;
+                }
+            }
+        }
+
+        int total = Math.max(docs.size(), 1);
+        Map<Long, Float> scores = new HashMap<>();
+        variants.forEach((variant, factor) -> {
+            Map<Long, Float> posting = postings.get(variant);
+            float idf = (float) Math.log(1 + (total - posting.size() + 0.5) / (posting.size() + 0.5));
+            posting.forEach((bookId, weight) -> scores.merge(bookId, idf * weight * factor, Math::max));
+        });
+        return scores;
+    }
+
+    /**
+     * Słowa o długości w granicach {@code maxEdits}, które dzielą z {@code term} dość bigramów, żeby
+     * zmieścić się w odległości – najbardziej podobne pierwsze. Jedna edycja psuje najwyżej trzy
+     * bigramy (przestawienie sąsiednich liter), stąd próg {@code bigramy − 3 * maxEdits}.
+     */
+    private List<String> fuzzyCandidates(String term, int maxEdits) {
+        Set<String> grams = bigrams(term);
+        int required = grams.size() - 3 * maxEdits;
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> words = bigrams.get(gram);
+            if (words == null) continue;
+            for (String word : words) {
+                if (Math.abs(word.length() - term.length()) <= maxEdits) shared.merge(word, 1, Integer::sum);
+            }
+        }
+        List<String> candidates = new ArrayList<>();
+        shared.forEach((word, count) -> {
+            if (count >= required) candidates.add(word);
+        });
+        candidates.sort(Comparator.<String>comparingInt(shared::get).reversed().thenComparing(Comparator.naturalOrder()));
+        return candidates;
+    }
+
+    static Set<String> bigrams(String term) {
+        String padded = "^" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) grams.add(padded.substring(i, i + 2));
+        return grams;
+    }
+
+    private static boolean matches(Doc doc, Filter filter) {
+        if (filter.activeOnly() && !doc.active()) return false;
+        if (filter.availableOnly() && doc.availableCopies() <= 0) return false;
+        if (filter.categoryId() != null && !filter.categoryId().equals(doc.categoryId())) return false;
+        if (filter.yearFrom() != null && (doc.year() == null || doc.year() < filter.yearFrom())) return false;
+        if (filter.yearTo() != null && (doc.year() == null || doc.year() > filter.yearTo())) return false;
+        return true;
+    }
+
+    /**
+     * Odległość Damerau-Levenshteina (przestawienie sąsiednich liter = 1 edycja, "tolkein" -> "tolkien")
+     * z odcięciem – przerywa, gdy cały wiersz przekroczy limit.
+     */
+    static boolean withinEditDistance(String a, String b, int max) {
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    curr[j] = Math.min(curr[j], prevPrev[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            if (rowMin > max) return false;
+            int[] tmp = prevPrev;
+            prevPrev = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[b.length()] <= max;
+    }
+
+    private void removeInternal(Long bookId) {
+        Doc old = docs.remove(bookId);
+        if (old == null) return;
+        for (String term : old.terms().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(bookId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String gram : bigrams(term)) {
+                    Set<String> words = bigrams.get(gram);
+                    if (words != null && words.remove(term) && words.isEmpty()) bigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Doc toDoc(Book book) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, book.getTitle(), TITLE_WEIGHT);
+        addField(terms, book.getDescription(), DESCRIPTION_WEIGHT);
+        if (book.getAuthors() != null) {
+            for (Author a : book.getAuthors()) {
+                if (a == null) continue;
+                addField(terms, a.getFirstName(), AUTHOR_WEIGHT);
+                addField(terms, a.getLastName(), AUTHOR_WEIGHT);
+            }
+        }
+        String categoryName = book.getCategory() != null ? book.getCategory().getName() : null;
+        addField(terms, categoryName, CATEGORY_WEIGHT);
+        String isbn = TextNormalizer.compactIsbn(book.getIsbn());
+        if (!isbn.isEmpty()) {
+            terms.merge(isbn, ISBN_WEIGHT, Float::sum);
+        }
+
+        return new Doc(
+                book.getId(),
+                book.getCategoryId(),
+                categoryName,
+                book.getPublicationYear(),
+                Boolean.TRUE.equals(book.getIsActive()),
+                book.getAvailableCopies() == null ? 0 : book.getAvailableCopies(),
+                terms
+        );
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static Map<String, List<BookSearchResultDto.FacetBucketDto>> emptyFacets() {
+        return Map.of("category", List.of(), "publicationYear", List.of(), "availability", List.of());
+    }
+}
@@ -0,0 +1,144 @@
+package com.library.search;
+
+import com.library.dto.SuggestionDto;
+import com.library.model.entity.Author;
+import com.library.model.entity.Book;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Podpowiedzi (typeahead) dla tytułów i autorów: posortowana mapa kluczy znormalizowanych
+ * tekstów, zapytanie to jeden zakres [prefiks, prefiks + U+FFFF].
+ * Tytuły są indeksowane od początku każdego słowa ("pierscieni" znajdzie "Władca Pierścieni"),
+ * klucze są przycinane do {@code maxKeyLength}, a liczba wpisów ograniczona {@code maxEntries}
+ * – po przekroczeniu limitu dodajemy już tylko pełne tytuły / nazwiska.
+ */
+@Component
+public class CatalogSuggester {
+
+    private static final char SEPARATOR = '\u0001';
+    // narzut węzła skip listy + rekordu, szacunkowo
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    public enum Type { TITLE, AUTHOR }
+
+    private record Entry(Type type, Long id, String label) {
+    }
+
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, List<String>> keysByOwner = new ConcurrentHashMap<>();
+    // ConcurrentSkipListMap.size() jest O(n), więc liczymy sami
+    private final AtomicInteger entryCount = new AtomicInteger();
+    private final AtomicLong keyBytes = new AtomicLong();
+
+    private final int maxKeyLength;
+    private final int maxEntries;
+
+    public CatalogSuggester(@Value("${app.catalog.suggest.max-key-length:40}") int maxKeyLength,
+                            @Value("${app.catalog.suggest.max-entries:2000000}") int maxEntries) {
+        this.maxKeyLength = maxKeyLength;
+        this.maxEntries = maxEntries;
+    }
+
+    public void putBook(Book book) {
+        String owner = owner(Type.TITLE, book.getId());
+        if (!Boolean.TRUE.equals(book.getIsActive()) || book.getTitle() == null) {
+            removeOwner(owner);
+            return;
+        }
+        Entry entry = new Entry(Type.TITLE, book.getId(), book.getTitle());
+        List<String> tokens = TextNormalizer.tokenize(book.getTitle());
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            texts.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        replaceOwner(owner, entry, texts);
+    }
+
+    public void removeBook(Long bookId) {
+        removeOwner(owner(Type.TITLE, bookId));
+    }
+
+    public void putAuthor(Author author) {
+        String first = author.getFirstName() == null ? "" : author.getFirstName().trim();
+        String last = author.getLastName() == null ? "" : author.getLastName().trim();
+        Entry entry = new Entry(Type.AUTHOR, author.getId(), (first + " " + last).trim());
+        replaceOwner(owner(Type.AUTHOR, author.getId()), entry, List.of(
+                String.join(" ", TextNormalizer.tokenize(last + " " + first)),
+                String.join(" ", TextNormalizer.tokenize(first + " " + last))
+        ));
+    }
+
+    public void removeAuthor(Long authorId) {
+        removeOwner(owner(Type.AUTHOR, authorId));
+    }
+
+    public List<SuggestionDto> suggest(String query, int limit) {
+        String prefix = String.join(" ", TextNormalizer.tokenize(query));
+        if (prefix.isEmpty() || limit <= 0) return List.of();
+        if (prefix.length() > maxKeyLength) prefix = prefix.substring(0, maxKeyLength);
+
+        ConcurrentNavigableMap<String, Entry> range = entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        Map<String, SuggestionDto> result = new LinkedHashMap<>();
+        for (Entry e : range.values()) {
+            result.putIfAbsent(owner(e.type(), e.id()), new SuggestionDto(e.type().name(), e.id(), e.label()));
+            if (result.size() >= limit) break;
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    public int size() {
+        return entryCount.get();
+    }
+
+    /** Szacunkowa pamięć zajęta przez strukturę (klucze + narzut wpisów). */
+    public long estimatedBytes() {
+        return keyBytes.get() + (long) entryCount.get() * ENTRY_OVERHEAD_BYTES;
+    }
+
+    // ----------------- helpers -----------------
+
+    private void replaceOwner(String owner, Entry entry, List<String> texts) {
+        removeOwner(owner);
+        List<String> keys = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text.isEmpty()) continue;
+            // pierwszy tekst (pełny tytuł / "nazwisko imię") zawsze, reszta tylko w limicie
+            if (i > 0 && entryCount.get() >= maxEntries) break;
+            if (text.length() > maxKeyLength) text = text.substring(0, maxKeyLength);
+            String key = text + SEPARATOR + owner;
+            if (entries.put(key, entry) == null) {
+                entryCount.incrementAndGet();
+                keyBytes.addAndGet(key.length());
+            }
+            keys.add(key);
+        }
+        keysByOwner.put(owner, keys);
+    }
+
+    private void removeOwner(String owner) {
+        List<String> keys = keysByOwner.remove(owner);
+        if (keys == null) return;
+        for (String key : keys) {
+            if (entries.remove(key) != null) {
+                entryCount.decrementAndGet();
+                keyBytes.addAndGet(-key.length());
+            }
+        }
+    }
+
+    private static String owner(Type type, Long id) {
+        return type.name().charAt(0) + String.valueOf(id);
+    }
+}
@@ -0,0 +1,41 @@
+package com.library.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizacja tekstu pod wyszukiwanie: małe litery, bez polskich znaków
+ * ("Żółć" -> "zolc", "Łódź" -> "lodz") i podział na tokeny.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private TextNormalizer() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) return "";
+        // ł/Ł nie rozkładają się w NFD, więc trzeba je zamienić ręcznie
+        String lower = text.toLowerCase(Locale.ROOT).replace('ł', 'l');
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String t : NON_WORD.split(fold(text))) {
+            if (!t.isEmpty()) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    /** ISBN bez myślników/spacji, np. "978-83-246-1234-5" -> "9788324612345". */
+    public static String compactIsbn(String isbn) {
+        if (isbn == null) return "";
+        return isbn.replaceAll("[^0-9Xx]", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,56 @@
+package com.library.search;
+
+import com.library.event.UserChangedEvent;
+import com.library.repository.AppUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Buduje {@link UserPickerIndex} przy starcie (paczkami po id) i aktualizuje go po commicie
+ * każdej zmiany użytkownika.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIndexSynchronizer {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final AppUserRepository appUserRepository;
+    private final UserPickerIndex userPickerIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        while (true) {
+            List<AppUserRepository.PickerRow> rows =
+                    appUserRepository.findPickerRowsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (rows.isEmpty()) break;
+            rows.forEach(this::put);
+            afterId = rows.get(rows.size() - 1).getId();
+        }
+        log.info("Indeks użytkowników zbudowany: {} użytkowników w {} ms",
+                userPickerIndex.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onUserChanged(UserChangedEvent event) {
+        appUserRepository.findPickerRowById(event.userId())
+                .ifPresentOrElse(this::put, () -> userPickerIndex.remove(event.userId()));
+    }
+
+    private void put(AppUserRepository.PickerRow row) {
+        userPickerIndex.put(row.getId(), row.getFirstName(), row.getLastName(), row.getEmail());
+    }
+}
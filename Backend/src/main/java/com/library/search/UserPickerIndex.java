@@ -0,0 +1,82 @@
+package com.library.search;
+
+import com.library.dto.admin.UserPickerDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Wyszukiwarka prefiksowa użytkowników dla pola wyboru w panelu admina.
+ * Każdy użytkownik ma trzy klucze w posortowanej mapie: "nazwisko imię", "imię nazwisko" i e-mail
+ * (znormalizowane jak w katalogu), zapytanie to zakres [prefiks, prefiks + U+FFFF].
+ */
+@Component
+public class UserPickerIndex {
+
+    private static final char SEPARATOR = '\u0001';
+
+    private final ConcurrentSkipListMap<String, UserPickerDto> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> keysByUser = new ConcurrentHashMap<>();
+
+    public void put(Long id, String firstName, String lastName, String email) {
+        String first = firstName == null ? "" : firstName;
+        String last = lastName == null ? "" : lastName;
+        UserPickerDto dto = new UserPickerDto(id, firstName, lastName, email);
+
+        List<String> keys = new ArrayList<>(3);
+        for (String text : List.of(
+                String.join(" ", TextNormalizer.tokenize(last + " " + first)),
+                String.join(" ", TextNormalizer.tokenize(first + " " + last)),
+                TextNormalizer.fold(email))) {
+            if (text.isEmpty()) continue;
+            keys.add(text + SEPARATOR + id);
+        }
+
+        // podmiana kluczy w compute – zapisy tego samego użytkownika idą po kolei, bez osieroconych kluczy
+        keysByUser.compute(id, (userId, previous) -> {
+            if (previous != null) previous.forEach(entries::remove);
+            keys.forEach(key -> entries.put(key, dto));
+            return keys;
+        });
+    }
+
+    public void remove(Long userId) {
+        keysByUser.computeIfPresent(userId, (id, keys) -> {
+            keys.forEach(entries::remove);
+            return null;
+        });
+    }
+
+    /** Pusta fraza zwraca pierwszych {@code limit} użytkowników w kolejności nazwisk. */
+    public List<UserPickerDto> search(String query, int limit) {
+        if (limit <= 0) return List.of();
+
+        // "kowalski jan" dopasuje nazwisko + imię, "jan.kow" – adres e-mail
+        Set<String> prefixes = new LinkedHashSet<>();
+        prefixes.add(String.join(" ", TextNormalizer.tokenize(query)));
+        prefixes.add(TextNormalizer.fold(query == null ? "" : query.trim()));
+
+        Map<Long, UserPickerDto> result = new LinkedHashMap<>();
+        for (String prefix : prefixes) {
+            Iterable<UserPickerDto> range = prefix.isEmpty()
+                    ? entries.values()
+                    : entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+            for (UserPickerDto u : range) {
+                result.putIfAbsent(u.getId(), u);
+                if (result.size() >= limit) return new ArrayList<>(result.values());
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    public int size() {
+        return keysByUser.size();
+    }
+}
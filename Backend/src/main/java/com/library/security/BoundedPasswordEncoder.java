@@ -0,0 +1,154 @@
+package com.library.security;
+
+import com.library.exception.TooManyRequestsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PasswordEncoder liczący hashe (BCrypt, ~100 ms CPU) na osobnej, ograniczonej puli wątków.
+ * Fala logowań zajmuje najwyżej {@code threads} rdzeni; gdy kolejka jest pełna, żądanie dostaje
+ * od razu 429 zamiast blokować kolejny wątek Tomcata.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    public record Stats(int threads, int active, int queued, int queueCapacity,
+                        long completed, long rejected, double avgHashMs, double maxHashMs) {
+    }
+
+    /** Obserwator każdego hasha (metryki); wołany z wątku puli albo, przy odrzuceniu, z wątku żądania. */
+    public interface Listener {
+        void hashed(long queuedNanos, long hashNanos);
+
+        void rejected();
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+        @Override
+        public void hashed(long queuedNanos, long hashNanos) {
+        }
+
+        @Override
+        public void rejected() {
+        }
+    };
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong hashCount = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private volatile Listener listener = NO_LISTENER;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs) {
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Stats stats() {
+        long n = hashCount.get();
+        return new Stats(executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                queueCapacity, executor.getCompletedTaskCount(), rejected.get(),
+                n == 0 ? 0.0 : hashNanos.get() / 1e6 / n, maxHashNanos.get() / 1e6);
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    public int active() {
+        return executor.getActiveCount();
+    }
+
+    public int threads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        long submitted = System.nanoTime();
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long took = System.nanoTime() - started;
+                    hashCount.incrementAndGet();
+                    hashNanos.addAndGet(took);
+                    maxHashNanos.accumulateAndGet(took, Math::max);
+                    listener.hashed(started - submitted, took);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            listener.rejected();
+            throw new TooManyRequestsException("Serwer jest przeciążony logowaniami, spróbuj ponownie za chwilę", 1);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            listener.rejected();
+            throw new TooManyRequestsException("Serwer jest przeciążony logowaniami, spróbuj ponownie za chwilę", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Przerwano weryfikację hasła", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.library.security;
 
+import com.library.controller.MetricsController;
+import com.library.logging.AccessLogFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,10 +19,12 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationList revocationList;
 
     // >>> RĘCZNY KONSTRUKTOR – to załatwia błąd <<<
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, TokenRevocationList revocationList) {
         this.tokenProvider = tokenProvider;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -29,34 +33,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String token = getTokenFromRequest(request);
-        String path = request.getRequestURI();
 
-        if (token != null && tokenProvider.validateToken(token)) {
-            String userId = tokenProvider.getUserIdFromToken(token);
-            String role = tokenProvider.getRoleFromToken(token);
-
-            // Spring Security requires "ROLE_" prefix
-            String authority = role != null && !role.startsWith("ROLE_")
-                    ? "ROLE_" + role
-                    : (role != null ? role : "ROLE_USER");
-
-            System.out.println(">>> JWT FILTER [" + path + "]: userId=" + userId + ", role=" + role + ", authority=" + authority);
+        JwtPrincipal principal = token != null ? tokenProvider.verify(token).orElse(null) : null;
+        // podpis mógł być zweryfikowany z cache – unieważnienie sprawdzamy przy każdym żądaniu
+        if (principal != null && revocationList.isRevoked(principal.userId(), principal.issuedAt())) {
+            principal = null;
+        }
+        if (token != null) {
+            request.setAttribute(AccessLogFilter.ATTR_AUTH,
+                    principal != null ? AccessLogFilter.AUTH_VALID : AccessLogFilter.AUTH_INVALID);
+        }
+        if (principal != null) {
+            String authority = principal.authority();
+            request.setAttribute(AccessLogFilter.ATTR_USER_ID, principal.userId());
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
-                            Long.parseLong(userId),
+                            principal.userId(),
                             null,
                             Collections.singletonList(new SimpleGrantedAuthority(authority))
                     );
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-        } else if (path.startsWith("/api/loans") || path.startsWith("/api/me")) {
-            System.out.println(">>> JWT FILTER [" + path + "]: No valid token found!");
         }
 
         filterChain.doFilter(request, response);
     }
 
+    // token scrapowania metryk to nie JWT – bez tego każdy scrape trafiałby do logu jako odrzucony token
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return MetricsController.PATH.equals(request.getServletPath());
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         // Try both "Authorization" and "authorization" (case-insensitive)
         String bearerToken = request.getHeader("Authorization");
@@ -64,8 +73,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             bearerToken = request.getHeader("authorization");
         }
 
-        System.out.println(">>> JWT FILTER: Authorization header = " + bearerToken);
-
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
@@ -0,0 +1,19 @@
+package com.library.security;
+
+import java.time.Instant;
+
+/**
+ * Zweryfikowane claimy access tokenu – wynik jednego sprawdzenia podpisu.
+ */
+public record JwtPrincipal(Long userId, String email, String role, Instant issuedAt, Instant expiresAt) {
+
+  /** Rola w formacie Spring Security (z prefiksem ROLE_). */
+  public String authority() {
+    if (role == null) return "ROLE_USER";
+    return role.startsWith("ROLE_") ? role : "ROLE_" + role;
+  }
+
+  public boolean isExpired(Instant now) {
+    return !expiresAt.isAfter(now);
+  }
+}
@@ -2,37 +2,73 @@ package com.library.security;
 
 import com.library.model.entity.AppUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import java.security.Key;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.SecretKey;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 public class JwtTokenProvider {
 
   @Value("${app.jwt.secret:mySecretKey}")
   private String jwtSecret;
 
-  @Value("${app.jwt.expiration:86400}")
-  private int jwtExpirationInMs;
+  // krótko żyjący access token; dłuższą sesję daje refresh token (RefreshTokenService)
+  @Value("${app.jwt.access-ttl:PT15M}")
+  private Duration accessTtl;
 
-  private javax.crypto.SecretKey getSigningKey() {
-    return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+  // ile ostatnio zweryfikowanych tokenów trzymać (0 = bez cache)
+  @Value("${app.jwt.verified-cache-size:10000}")
+  private int verifiedCacheSize;
+
+  // klucz i parser są bezstanowe i thread-safe – budujemy je raz
+  private SecretKey signingKey;
+  private JwtParser parser;
+
+  // skrót tokenu -> zweryfikowane claimy; odczyt bez blokad (każde żądanie przechodzi tędy)
+  private final ConcurrentHashMap<String, JwtPrincipal> verified = new ConcurrentHashMap<>();
+  // pełny cache czyścimy z wygasłych najwyżej raz na sekundę
+  private final AtomicLong lastPurgeNanos = new AtomicLong(System.nanoTime());
+  private static final long PURGE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    parser = Jwts.parser().verifyWith(signingKey).build();
   }
 
-  private JwtParser getParser() {
-    return Jwts.parser()
-            .verifyWith((javax.crypto.SecretKey) getSigningKey())
-            .build();
+  public Duration getAccessTtl() {
+    return accessTtl;
   }
 
   public String generateToken(AppUser user) {
     Date expiryDate = new Date(
-      System.currentTimeMillis() + jwtExpirationInMs * 1000L
+      System.currentTimeMillis() + accessTtl.toMillis()
     );
 
     return Jwts
@@ -42,28 +78,67 @@ public class JwtTokenProvider {
       .claim("role", user.getRole().toString())
       .setIssuedAt(new Date())
       .setExpiration(expiryDate)
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
       .compact();
   }
 
-  public String getUserIdFromToken(String token) {
-    Claims claims = getParser().parseClaimsJws(token).getBody();
+  /**
+   * Jedno sprawdzenie podpisu i ważności na żądanie. Wynik jest zapamiętywany (po skrócie SHA-256
+   * tokenu) do chwili wygaśnięcia tokenu, więc kolejne żądania z tym samym tokenem nie parsują
+   * go ponownie. Pełny cache najpierw gubi wygasłe tokeny; gdy to nie wystarczy, nowe tokeny są
+   * weryfikowane bez zapamiętywania aż do kolejnego czyszczenia (bez LRU – ta wymaga blokady przy
+   * każdym odczycie). Unieważnienie (TokenRevocationList) sprawdza filtr, nie ten cache.
+   */
+  public Optional<JwtPrincipal> verify(String token) {
+    if (token == null || token.isBlank()) return Optional.empty();
 
-    return claims.getSubject();
-  }
+    Instant now = Instant.now();
+    String key = verifiedCacheSize > 0 ? digest(token) : null;
+    if (key != null) {
+      JwtPrincipal cached = verified.get(key);
+      if (cached != null) {
+        if (!cached.isExpired(now)) return Optional.of(cached);
+        verified.remove(key, cached);
+      }
+    }
 
-  public String getRoleFromToken(String token) {
-    Claims claims = getParser().parseClaimsJws(token).getBody();
-    return claims.get("role", String.class);
+    JwtPrincipal principal;
+    try {
+      Claims claims = parser.parseSignedClaims(token).getPayload();
+      if (claims.getSubject() == null || claims.getExpiration() == null || claims.getIssuedAt() == null) {
+        return Optional.empty();
+      }
+      principal = new JwtPrincipal(
+        Long.valueOf(claims.getSubject()),
+        claims.get("email", String.class),
+        claims.get("role", String.class),
+        claims.getIssuedAt().toInstant(),
+        claims.getExpiration().toInstant()
+      );
+    } catch (JwtException | IllegalArgumentException e) {
+      // bez treści tokenu i komunikatu parsera (może cytować claimy)
+      log.debug("JWT odrzucony: {}", e.getClass().getSimpleName());
+      return Optional.empty();
+    }
+
+    if (key != null && hasRoom(now)) {
+      verified.put(key, principal);
+    }
+    return Optional.of(principal);
   }
 
-  public boolean validateToken(String token) {
-    try {
-      getParser().parseClaimsJws(token);
-      return true;
-    } catch (Exception e) {
-      System.out.println(">>> JWT VALIDATION FAILED: " + e.getClass().getSimpleName() + " - " + e.getMessage());
-      return false;
+  private boolean hasRoom(Instant now) {
+    if (verified.size() < verifiedCacheSize) return true;
+    long last = lastPurgeNanos.get();
+    long nanos = System.nanoTime();
+    if (nanos - last >= PURGE_INTERVAL_NANOS && lastPurgeNanos.compareAndSet(last, nanos)) {
+      verified.values().removeIf(p -> p.isExpired(now));
     }
+    return verified.size() < verifiedCacheSize;
+  }
+
+  private static String digest(String token) {
+    byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+    return Base64.getEncoder().encodeToString(hash);
   }
 }
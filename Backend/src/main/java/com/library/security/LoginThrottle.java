@@ -0,0 +1,93 @@
+package com.library.security;
+
+import com.library.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ograniczanie prób logowania: kubełek tokenów per e-mail i per adres IP klienta.
+ * Sprawdzane przed wyszukaniem użytkownika i BCryptem, więc odrzucona próba nic nie kosztuje.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double capacity, double refillPerSecond, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1e9;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /** Zwraca 0, gdy pobrano token, albo liczbę sekund do następnego tokenu. */
+        synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1.0 - tokens) / refillPerNano / 1e9));
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+
+    private final Map<String, TokenBucket> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> byIp = new ConcurrentHashMap<>();
+
+    private final int emailCapacity;
+    private final double emailRefillPerSecond;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+
+    public LoginThrottle(@Value("${app.auth.throttle.email.capacity:5}") int emailCapacity,
+                         @Value("${app.auth.throttle.email.per-minute:5}") double emailPerMinute,
+                         @Value("${app.auth.throttle.ip.capacity:30}") int ipCapacity,
+                         @Value("${app.auth.throttle.ip.per-minute:30}") double ipPerMinute) {
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerSecond = emailPerMinute / 60.0;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipPerMinute / 60.0;
+    }
+
+    public void check(String email, String clientIp) {
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            long wait = byIp.computeIfAbsent(clientIp, k -> new TokenBucket(ipCapacity, ipRefillPerSecond, now))
+                    .tryConsume(now);
+            if (wait > 0) throw new TooManyRequestsException("Zbyt wiele prób logowania z tego adresu", wait);
+        }
+        if (email != null) {
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            long wait = byEmail.computeIfAbsent(key, k -> new TokenBucket(emailCapacity, emailRefillPerSecond, now))
+                    .tryConsume(now);
+            if (wait > 0) throw new TooManyRequestsException("Zbyt wiele prób logowania na to konto", wait);
+        }
+    }
+
+    // pełne kubełki niczego nie ograniczają – usuwamy je, żeby mapy nie rosły bez końca
+    @Scheduled(fixedDelayString = "${app.auth.throttle.cleanup-interval:PT5M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        byEmail.values().removeIf(b -> b.isFull(now));
+        byIp.values().removeIf(b -> b.isFull(now));
+    }
+}
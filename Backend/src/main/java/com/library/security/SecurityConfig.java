@@ -1,16 +1,19 @@
 package com.library.security;
 
+import com.library.controller.MetricsController;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -36,13 +39,16 @@ public class SecurityConfig {
             )
             .formLogin(form -> form.disable())
             .httpBasic(basic -> basic.disable())
+            // brak / wygasły token -> 401 (klient odświeża), brak roli -> 403
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(auth ->
                     auth
                             // ✅ allow preflight requests everywhere
                             .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
                             // ✅ auth endpoints
-                            .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                            .requestMatchers("/api/auth/register", "/api/auth/login",
+                                    "/api/auth/refresh", "/api/auth/logout").permitAll()
 
                             // (optional) if your frontend still calls /auth/login, allow it too
                             .requestMatchers("/auth/login", "/auth/register").permitAll()
@@ -50,6 +56,9 @@ public class SecurityConfig {
                             // health and error
                             .requestMatchers("/health", "/actuator/health", "/error").permitAll()
 
+                            // metryki – własny token (app.metrics.scrape-token) sprawdza MetricsController, bez niego 403
+                            .requestMatchers(HttpMethod.GET, MetricsController.PATH).permitAll()
+
                             // public catalog endpoints - allow GET for everyone
                             .requestMatchers(HttpMethod.GET,
                                     "/api/books/**",
@@ -98,8 +107,13 @@ public class SecurityConfig {
     return source;
   }
 
-  @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  // BCrypt na osobnej, ograniczonej puli – patrz BoundedPasswordEncoder
+  @Bean(destroyMethod = "shutdown")
+  public BoundedPasswordEncoder passwordEncoder(
+          @Value("${app.auth.hashing.threads:0}") int threads,
+          @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+          @Value("${app.auth.hashing.timeout-ms:5000}") long timeoutMs) {
+    int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, timeoutMs);
   }
 }
@@ -0,0 +1,102 @@
+package com.library.security;
+
+import com.library.event.UserAccessRevokedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Unieważnione access tokeny bez zaglądania do app_user na każdym żądaniu.
+ * Trzymamy "odcięcie" per użytkownik: tokeny wydane przed nim są odrzucane. Wpis żyje tylko
+ * tyle, ile access token ({@code app.jwt.access-ttl}) – potem wszystkie starsze tokeny i tak wygasły.
+ * Przed mapą stoi filtr Blooma, więc dla zdecydowanej większości żądań sprawdzenie to kilka
+ * odczytów tablicy bez żadnego lookupu w mapie. Filtr jest przebudowywany przy sprzątaniu.
+ * Stan jest lokalny dla instancji – przy kilku węzłach zdarzenie trzeba rozgłosić.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int HASHES = 3;
+
+    private final Map<Long, Long> cutoffByUser = new ConcurrentHashMap<>();
+    private final long ttlSeconds;
+    private final int bloomBits;
+    private volatile AtomicLongArray bloom;
+
+    public TokenRevocationList(@Value("${app.jwt.access-ttl:PT15M}") Duration accessTtl,
+                               @Value("${app.jwt.revocation.bloom-bits:65536}") int bloomBits) {
+        this.ttlSeconds = accessTtl.toSeconds();
+        this.bloomBits = Math.max(64, bloomBits);
+        this.bloom = new AtomicLongArray(this.bloomBits / 64);
+    }
+
+    /** Czy token użytkownika wydany w chwili {@code issuedAt} został unieważniony. */
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+        if (userId == null || !mightContain(bloom, userId)) return false;
+        Long cutoff = cutoffByUser.get(userId);
+        return cutoff != null && issuedAt.getEpochSecond() < cutoff;
+    }
+
+    public synchronized void revoke(Long userId) {
+        // iat w JWT ma dokładność sekundy – odrzucamy też tokeny z bieżącej sekundy
+        long cutoff = Instant.now().getEpochSecond() + 1;
+        cutoffByUser.merge(userId, cutoff, Math::max);
+        add(bloom, userId);
+    }
+
+    public int size() {
+        return cutoffByUser.size();
+    }
+
+    @TransactionalEventListener
+    public void onUserAccessRevoked(UserAccessRevokedEvent event) {
+        revoke(event.userId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval:PT1M}")
+    public synchronized void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        if (!cutoffByUser.values().removeIf(cutoff -> cutoff + ttlSeconds < now)) return;
+
+        AtomicLongArray rebuilt = new AtomicLongArray(bloomBits / 64);
+        cutoffByUser.keySet().forEach(userId -> add(rebuilt, userId));
+        bloom = rebuilt;
+    }
+
+    // ----------------- helpers -----------------
+
+    private static void add(AtomicLongArray bits, long userId) {
+        long h = mix(userId);
+        int size = bits.length() * 64;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) Long.remainderUnsigned(h + i * (h >>> 32 | 1), size);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            bits.getAndUpdate(word, w -> w | mask);
+        }
+    }
+
+    private static boolean mightContain(AtomicLongArray bits, long userId) {
+        long h = mix(userId);
+        int size = bits.length() * 64;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) Long.remainderUnsigned(h + i * (h >>> 32 | 1), size);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // finalizer SplitMix64 – kolejne id użytkowników rozrzuca po całej tablicy
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
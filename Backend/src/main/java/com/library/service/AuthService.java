@@ -4,16 +4,21 @@ import com.library.dto.AuthResponse;
 import com.library.dto.UserDto;
 import com.library.dto.request.LoginRequest;
 import com.library.dto.request.RegisterRequest;
+import com.library.event.UserChangedEvent;
 import com.library.model.entity.AppUser;
 import com.library.model.enums.UserRole;
 import com.library.model.enums.UserStatus;
 import com.library.repository.AppUserRepository;
 import com.library.security.JwtTokenProvider;
+import com.library.security.LoginThrottle;
 import com.library.exception.AuthenticationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 
@@ -24,16 +29,25 @@ public class AuthService {
     private final AppUserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final LoginThrottle loginThrottle;
+    private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    // hash przed transakcją: czekanie w kolejce BCrypt nie trzyma połączenia z puli
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("Email already exists");
         }
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        return transactionTemplate.execute(status -> insertReader(request, passwordHash));
+    }
 
+    private UserDto insertReader(RegisterRequest request, String passwordHash) {
         AppUser user = new AppUser();
         user.setEmail(request.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setRole(UserRole.READER);
@@ -41,11 +55,17 @@ public class AuthService {
         user.setCreatedAt(LocalDateTime.now());
 
         AppUser savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId()));
         return toUserDto(savedUser);
     }
 
-    public AuthResponse login(LoginRequest request) {
+    // bez transakcji: BCrypt nie trzyma połączenia z puli, refresh token zapisuje się we własnej
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginThrottle.check(request.getEmail(), clientIp);
+
         AppUser user = userRepository.findByEmail(request.getEmail())
+                .filter(u -> u.getStatus() != UserStatus.DELETED)
                 .orElseThrow(() -> new AuthenticationException("Invalid credentials"));
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
@@ -56,8 +76,25 @@ public class AuthService {
             throw new AuthenticationException("Account is blocked");
         }
 
-        String token = tokenProvider.generateToken(user);
-        return new AuthResponse(token, toUserDto(user));
+        return issueTokens(user, refreshTokenService.issue(user.getId()));
+    }
+
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotated rotated = refreshTokenService.rotate(refreshToken);
+
+        AppUser user = userRepository.findById(rotated.userId())
+                .filter(u -> u.getStatus() != UserStatus.DELETED)
+                .orElseThrow(() -> new AuthenticationException("User not found"));
+        if (user.getStatus() == UserStatus.BLOCKED) {
+            throw new AuthenticationException("Account is blocked");
+        }
+        return issueTokens(user, rotated.refreshToken());
+    }
+
+    @Transactional
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
     public UserDto getCurrentUser(Long userId) {
@@ -67,6 +104,15 @@ public class AuthService {
         return toUserDto(user);
     }
 
+    private AuthResponse issueTokens(AppUser user, String refreshToken) {
+        return new AuthResponse(
+                tokenProvider.generateToken(user),
+                refreshToken,
+                tokenProvider.getAccessTtl().toSeconds(),
+                toUserDto(user)
+        );
+    }
+
     private UserDto toUserDto(AppUser user) {
         return new UserDto(
                 user.getId(),
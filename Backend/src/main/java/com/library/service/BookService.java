@@ -1,26 +1,38 @@
 package com.library.service;
 
+import com.library.cache.CatalogCache;
 import com.library.dto.AuthorDto;
 import com.library.dto.BookDto;
-import com.library.dto.CategoryDto;
+import com.library.dto.BookSearchResultDto;
+import com.library.dto.CursorSliceDto;
 import com.library.dto.request.CreateBookRequest;
 import com.library.model.entity.Author;
 import com.library.model.entity.Book;
 import com.library.model.entity.BookCopy;
-import com.library.model.entity.Category;
 import com.library.model.enums.BookCopyStatus;
 import com.library.repository.AuthorRepository;
 import com.library.repository.BookCopyRepository;
 import com.library.repository.BookRepository;
-import com.library.repository.CategoryRepository;
+import com.library.event.BookChangedEvent;
 import com.library.exception.ResourceNotFoundException;
+import com.library.search.CatalogSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,34 +40,117 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class BookService {
     private final BookRepository bookRepository;
-    private final CategoryRepository categoryRepository;
     private final AuthorRepository authorRepository;
     private final BookCopyRepository bookCopyRepository;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCache catalogCache;
+    private final InventoryCodeAllocator inventoryCodeAllocator;
+    private final TransactionTemplate transactionTemplate;
 
     public Page<BookDto> getBooks(String title, String author, Long categoryId, 
                                   Short publicationYearFrom, Short publicationYearTo, 
                                   Boolean availableOnly, Boolean activeOnly, 
                                   Pageable pageable) {
-        Page<Book> books = bookRepository.findBooksWithFilters(title, author, categoryId, 
-                publicationYearFrom, publicationYearTo, activeOnly != null ? activeOnly : true, pageable);
-        
-        return books.map(book -> {
-            BookDto dto = toDto(book);
-            if (availableOnly != null && availableOnly && dto.getAvailableCopies() == 0) {
-                return null;
-            }
-            return dto;
-        }).map(dto -> dto);  // Filter nulls would be handled by Spring Data
+        Page<Book> books = bookRepository.findBooksWithFilters(title, author, categoryId,
+                publicationYearFrom, publicationYearTo,
+                activeOnly != null ? activeOnly : true,
+                availableOnly != null && availableOnly,
+                pageable);
+        bookRepository.fetchRelations(books.getContent());
+        preloadCategories(books.getContent());
+
+        return books.map(this::toDto);
+    }
+
+    /**
+     * Tryb kursorowy katalogu: sortowanie po (title, id), bez COUNT(*).
+     */
+    public CursorSliceDto<BookDto> getBooksAfter(String title, String author, Long categoryId,
+                                                 Short publicationYearFrom, Short publicationYearTo,
+                                                 Boolean availableOnly, Boolean activeOnly,
+                                                 String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+
+        List<Book> rows = bookRepository.findBooksWithFiltersAfter(title, author, categoryId,
+                publicationYearFrom, publicationYearTo,
+                activeOnly != null ? activeOnly : true,
+                availableOnly != null && availableOnly,
+                cursor == null ? "" : cursor.key(),
+                cursor == null ? 0L : cursor.id(),
+                PageRequest.of(0, limit + 1));
+        bookRepository.fetchRelations(rows);
+        preloadCategories(rows);
+
+        return KeysetCursor.slice(rows, limit, this::toDto, b -> KeysetCursor.of(b.getTitle(), b.getId()));
+    }
+
+    /**
+     * Wyszukiwanie pełnotekstowe z rankingiem i fasetami (indeks w pamięci, bez LIKE w bazie).
+     */
+    public BookSearchResultDto searchBooks(String query, Long categoryId,
+                                           Short publicationYearFrom, Short publicationYearTo,
+                                           Boolean availableOnly, Boolean activeOnly,
+                                           Pageable pageable) {
+        CatalogSearchIndex.Result result = search(query, categoryId, publicationYearFrom, publicationYearTo,
+                availableOnly, activeOnly);
+        return new BookSearchResultDto(loadPage(result.bookIds(), pageable), pageable.getPageNumber(),
+                pageable.getPageSize(), result.bookIds().size(), result.facets());
+    }
+
+    /**
+     * {@code GET /api/books?search=} – te same trafienia co {@link #searchBooks}, w kolejności rankingu,
+     * jako zwykła strona katalogu (bez faset). Sortowanie z {@code pageable} nie ma tu zastosowania.
+     */
+    public Page<BookDto> searchBooksPage(String query, Long categoryId,
+                                         Short publicationYearFrom, Short publicationYearTo,
+                                         Boolean availableOnly, Boolean activeOnly,
+                                         Pageable pageable) {
+        List<Long> ids = search(query, categoryId, publicationYearFrom, publicationYearTo,
+                availableOnly, activeOnly).bookIds();
+        return new PageImpl<>(loadPage(ids, pageable), pageable, ids.size());
+    }
+
+    private CatalogSearchIndex.Result search(String query, Long categoryId,
+                                             Short publicationYearFrom, Short publicationYearTo,
+                                             Boolean availableOnly, Boolean activeOnly) {
+        return catalogSearchIndex.search(query, new CatalogSearchIndex.Filter(
+                categoryId, publicationYearFrom, publicationYearTo,
+                availableOnly != null && availableOnly,
+                activeOnly == null || activeOnly));
+    }
+
+    // jedna strona trafień z indeksu: książki z relacjami jednym zapytaniem, kolejność rankingu
+    private List<BookDto> loadPage(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+
+        Map<Long, Book> books = bookRepository.findAllWithRelationsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        preloadCategories(books.values());
+        return pageIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
+                .toList();
     }
 
     public BookDto getBookById(Long id) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
-        return toDto(book);
+        return catalogCache.bookDetail(id, bookId -> bookRepository.findById(bookId)
+                .map(this::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found")));
     }
 
-    @Transactional
+    // kody egzemplarzy przed transakcją, jak w AdminBookService.create
+    @Transactional(propagation = Propagation.NEVER)
     public BookDto createBook(CreateBookRequest request) {
+        List<String> codes = inventoryCodeAllocator.allocate(request.getInitialCopies());
+        return transactionTemplate.execute(status -> insertBook(request, codes));
+    }
+
+    private BookDto insertBook(CreateBookRequest request, List<String> codes) {
         if (request.getIsbn() != null && bookRepository.existsByIsbn(request.getIsbn())) {
             throw new IllegalArgumentException("Book with this ISBN already exists");
         }
@@ -78,46 +173,46 @@ public class BookService {
         Book savedBook = bookRepository.save(book);
 
         // Create initial copies
-        for (int i = 0; i < request.getInitialCopies(); i++) {
+        int copies = codes.size();
+        List<BookCopy> newCopies = new ArrayList<>(copies);
+        for (String code : codes) {
             BookCopy copy = new BookCopy();
             copy.setBookId(savedBook.getId());
-            copy.setInventoryCode("INV-" + savedBook.getId() + "-" + (i + 1));
+            copy.setInventoryCode(code);
             copy.setStatus(BookCopyStatus.AVAILABLE);
-            bookCopyRepository.save(copy);
+            newCopies.add(copy);
         }
+        bookCopyRepository.saveAll(newCopies);
+
+        bookRepository.adjustCopyCounters(savedBook.getId(), copies, copies);
+        savedBook.setTotalCopies(copies);
+        savedBook.setAvailableCopies(copies);
+        eventPublisher.publishEvent(new BookChangedEvent(savedBook.getId()));
 
         return toDto(savedBook);
     }
 
-    private BookDto toDto(Book book) {
-        CategoryDto categoryDto = null;
-        if (book.getCategory() != null) {
-            categoryDto = new CategoryDto(
-                    book.getCategory().getId(),
-                    book.getCategory().getName(),
-                    book.getCategory().getParentId(),
-                    null
-            );
-        }
+    // kategorie strony jednym zapytaniem zamiast osobnego przy każdej książce (zimny CatalogCache)
+    private void preloadCategories(Collection<Book> books) {
+        catalogCache.preloadCategories(books.stream().map(Book::getCategoryId).toList());
+    }
 
+    private BookDto toDto(Book book) {
         List<AuthorDto> authorDtos = book.getAuthors().stream()
                 .map(author -> new AuthorDto(author.getId(), author.getFirstName(), author.getLastName()))
                 .collect(Collectors.toList());
 
-        int totalCopies = bookCopyRepository.countByBookId(book.getId());
-        int availableCopies = bookCopyRepository.countByBookIdAndStatus(book.getId(), BookCopyStatus.AVAILABLE);
-
         return new BookDto(
                 book.getId(),
                 book.getTitle(),
                 book.getDescription(),
                 book.getPublicationYear(),
                 book.getIsbn(),
-                categoryDto,
+                catalogCache.category(book.getCategoryId()),
                 authorDtos,
                 book.getIsActive(),
-                totalCopies,
-                availableCopies
+                book.getTotalCopies(),
+                book.getAvailableCopies()
         );
     }
 }
\ No newline at end of file
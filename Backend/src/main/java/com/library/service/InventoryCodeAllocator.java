@@ -0,0 +1,127 @@
+package com.library.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jedyne źródło kodów inwentarzowych egzemplarzy ("INV" + 8 cyfr, np. INV00001234).
+ * Numery pochodzą z globalnej sekwencji w tabeli {@code inventory_sequence}: jeden UPDATE rezerwuje
+ * cały blok numerów, kolejne egzemplarze dostają je z pamięci bez zapytań do bazy.
+ * Rezerwacja idzie w osobnej, krótkiej transakcji, więc blokada wiersza sekwencji nie czeka
+ * na commit tworzenia książki. Niewykorzystana reszta bloku przepada przy restarcie – kody
+ * mają dziury, ale nigdy się nie powtarzają.
+ * <p>
+ * {@link #allocate(int)} wołamy przed otwarciem własnej transakcji: rezerwacja bierze połączenie
+ * z puli pod monitorem alokatora, więc wywołujący, który już trzyma połączenie, potrzebowałby
+ * drugiego – przy pełnej puli wątki czekające na monitor blokowałyby ją do timeoutu.
+ * Wywołanie w aktywnej transakcji kończy się wyjątkiem.
+ */
+@Component
+public class InventoryCodeAllocator {
+
+    private static final String SEQUENCE = "book_copy";
+    private static final String CODE_FORMAT = "INV%08d";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+
+    // [next, limit) – numery już zarezerwowane w bazie
+    private long next;
+    private long limit;
+
+    public InventoryCodeAllocator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.catalog.inventory-codes.block-size:100}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public String next() {
+        return allocate(1).get(0);
+    }
+
+    /**
+     * Zwraca {@code count} unikalnych kodów; najwyżej jedna rezerwacja w bazie na wywołanie.
+     *
+     * @throws IllegalStateException gdy wątek jest w aktywnej transakcji
+     */
+    public synchronized List<String> allocate(int count) {
+        if (count <= 0) return List.of();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Kody inwentarzowe rezerwuje się przed otwarciem transakcji");
+        }
+
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count && next < limit) {
+            codes.add(format(next++));
+        }
+        int missing = count - codes.size();
+        if (missing > 0) {
+            long size = Math.max(blockSize, missing);
+            long end = reserve(size);
+            next = end - size;
+            limit = end;
+            while (codes.size() < count) {
+                codes.add(format(next++));
+            }
+        }
+        return codes;
+    }
+
+    private static String format(long value) {
+        return String.format(CODE_FORMAT, value);
+    }
+
+    /**
+     * Przesuwa sekwencję o {@code size} i zwraca jej nową wartość (koniec bloku, wyłącznie).
+     * Odczyt po UPDATE w tej samej transakcji widzi własny zapis, a blokada wiersza trzyma
+     * inne rezerwacje do commitu – bez SELECT ... FOR UPDATE i bez składni zależnej od bazy.
+     */
+    private long reserve(long size) {
+        Long end = requiresNew.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try (PreparedStatement update = con.prepareStatement(
+                    "UPDATE inventory_sequence SET next_value = next_value + ? WHERE name = ?")) {
+                update.setLong(1, size);
+                update.setString(2, SEQUENCE);
+                if (update.executeUpdate() == 0) {
+                    // brak wiersza (baza sprzed migracji 009) – zakładamy go za najwyższym istniejącym
+                    // kodem i próbujemy ponownie; start od 1 powtórzyłby kody już nadane
+                    try (PreparedStatement insert = con.prepareStatement(
+                            "INSERT IGNORE INTO inventory_sequence (name, next_value) " +
+                            "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(inventory_code, 4) AS DECIMAL(20, 0))), 0) + 1 " +
+                            "FROM book_copy WHERE REGEXP_LIKE(inventory_code, '^INV[0-9]+$')")) {
+                        insert.setString(1, SEQUENCE);
+                        insert.executeUpdate();
+                    }
+                    update.executeUpdate();
+                }
+            }
+            try (PreparedStatement select = con.prepareStatement(
+                    "SELECT next_value FROM inventory_sequence WHERE name = ?")) {
+                select.setString(1, SEQUENCE);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        }));
+        if (end == null || end <= 0) {
+            throw new IllegalStateException("Nie udało się zarezerwować kodów inwentarzowych");
+        }
+        return end;
+    }
+}
@@ -0,0 +1,68 @@
+package com.library.service;
+
+import com.library.dto.CursorSliceDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Nieprzezroczysty kursor stronicowania keyset: (wartość klucza sortowania, id).
+ * Zapytania szukają od tej pary zamiast OFFSET, więc głęboka strona kosztuje tyle co pierwsza.
+ */
+public record KeysetCursor(String key, long id) {
+
+    public static final int MAX_SIZE = 100;
+
+    // Granice "przed pierwszym wierszem" dla sortowań malejących po dacie
+    public static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final char SEPARATOR = '\u0000';
+
+    /** Pusty / brak kursora = pierwsza strona; wtedy zwraca {@code null}. */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Nieprawidłowy kursor");
+        }
+    }
+
+    public static KeysetCursor of(Object key, Long id) {
+        return new KeysetCursor(String.valueOf(key), id);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Nieprawidłowy kursor");
+        }
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Zapytanie pobiera {@code size + 1} wierszy – nadmiarowy wiersz mówi tylko, że jest następna strona.
+     */
+    public static <E, D> CursorSliceDto<D> slice(List<E> rows, int size,
+                                                 Function<E, D> mapper,
+                                                 Function<E, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorSliceDto<>(page.stream().map(mapper).toList(), next, hasNext);
+    }
+}
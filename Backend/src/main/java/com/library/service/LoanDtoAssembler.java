@@ -0,0 +1,57 @@
+package com.library.service;
+
+import com.library.dto.AuthorDto;
+import com.library.dto.LoanDto;
+import com.library.repository.AuthorRepository;
+import com.library.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Składa LoanDto z płaskich wierszy listy wypożyczeń. Strona kosztuje stałą liczbę zapytań:
+ * wiersze (+ COUNT dla Page) i jedno zapytanie o autorów wszystkich książek ze strony.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanDtoAssembler {
+
+    private final AuthorRepository authorRepository;
+
+    public List<LoanDto> toDtos(List<LoanRepository.LoanRow> rows) {
+        if (rows.isEmpty()) return List.of();
+
+        Set<Long> bookIds = rows.stream()
+                .map(LoanRepository.LoanRow::getBookId)
+                .collect(Collectors.toSet());
+        Map<Long, List<AuthorDto>> authorsByBook = new HashMap<>();
+        for (AuthorRepository.BookAuthorRow a : authorRepository.findAuthorRowsByBookIdIn(bookIds)) {
+            authorsByBook.computeIfAbsent(a.getBookId(), id -> new ArrayList<>())
+                    .add(new AuthorDto(a.getAuthorId(), a.getFirstName(), a.getLastName()));
+        }
+
+        return rows.stream()
+                .map(r -> toDto(r, authorsByBook.getOrDefault(r.getBookId(), List.of())))
+                .toList();
+    }
+
+    private static LoanDto toDto(LoanRepository.LoanRow r, List<AuthorDto> authors) {
+        return new LoanDto(
+                r.getId(),
+                new LoanDto.UserSummaryDto(r.getUserId(), r.getUserFirstName(), r.getUserLastName()),
+                new LoanDto.BookCopySummaryDto(r.getCopyId(), r.getInventoryCode(),
+                        new LoanDto.BookSummaryDto(r.getBookId(), r.getBookTitle(), authors)),
+                r.getLoanDate(),
+                r.getDueDate(),
+                r.getReturnDate(),
+                r.getStatus(),
+                r.getExtensionsCount()
+        );
+    }
+}
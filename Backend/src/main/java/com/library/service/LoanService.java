@@ -1,8 +1,11 @@
 package com.library.service;
 
 import com.library.dto.AuthorDto;
+import com.library.dto.CursorSliceDto;
 import com.library.dto.LoanDto;
+import com.library.event.BookChangedEvent;
 import com.library.exception.ResourceNotFoundException;
+import com.library.metrics.LibraryMetrics;
 import com.library.model.entity.AppUser;
 import com.library.model.entity.Author;
 import com.library.model.entity.BookCopy;
@@ -12,10 +15,14 @@ import com.library.model.enums.LoanStatus;
 import com.library.model.enums.ReservationStatus;
 import com.library.repository.AppUserRepository;
 import com.library.repository.BookCopyRepository;
+import com.library.repository.BookRepository;
 import com.library.repository.LoanRepository;
 import com.library.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -25,6 +32,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,22 +41,44 @@ import java.util.stream.Collectors;
 public class LoanService {
     private final LoanRepository loanRepository;
     private final BookCopyRepository bookCopyRepository;
+    private final BookRepository bookRepository;
     private final ReservationRepository reservationRepository;
     private final AppUserRepository appUserRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanDtoAssembler loanDtoAssembler;
+    private final LoanStatsRollup loanStatsRollup;
+    private final LibraryMetrics libraryMetrics;
 
     public Page<LoanDto> getUserLoans(Long userId, List<LoanStatus> statuses, Pageable pageable) {
         if (userId == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Brak JWT / niezalogowany użytkownik");
         }
-        return loanRepository.findByUserIdAndStatusIn(userId, statuses, pageable)
-                .map(this::toDto);
+        Page<LoanRepository.LoanRow> rows = loanRepository.findRowsByUserIdAndStatusIn(userId, statuses, pageable);
+        return new PageImpl<>(loanDtoAssembler.toDtos(rows.getContent()), pageable, rows.getTotalElements());
+    }
+
+    public CursorSliceDto<LoanDto> getUserLoansAfter(Long userId, List<LoanStatus> statuses, String after, int size) {
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Brak JWT / niezalogowany użytkownik");
+        }
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+
+        List<LoanRepository.LoanRow> rows = loanRepository.findRowsByUserIdAndStatusInAfter(userId, statuses,
+                cursor == null ? KeysetCursor.MAX_DATE : cursor.keyAsDateTime(),
+                cursor == null ? Long.MAX_VALUE : cursor.id(),
+                PageRequest.of(0, limit + 1));
+
+        return KeysetCursor.slice(loanDtoAssembler.toDtos(rows), limit, Function.identity(),
+                l -> KeysetCursor.of(l.getLoanDate(), l.getId()));
     }
 
     public Page<LoanDto> getLoans(LoanStatus status, Long userId, Long bookId,
                                   LocalDateTime fromDate, LocalDateTime toDate,
                                   Pageable pageable) {
-        return loanRepository.findLoansWithFilters(status, userId, bookId, fromDate, toDate, pageable)
-                .map(this::toDto);
+        Page<LoanRepository.LoanRow> rows =
+                loanRepository.findRowsWithFilters(status, userId, bookId, fromDate, toDate, pageable);
+        return new PageImpl<>(loanDtoAssembler.toDtos(rows.getContent()), pageable, rows.getTotalElements());
     }
 
     @Transactional
@@ -60,9 +90,10 @@ public class LoanService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bookId jest wymagane");
         }
 
-        BookCopy availableCopy = bookCopyRepository
-                .findFirstByBookIdAndStatus(bookId, BookCopyStatus.AVAILABLE)
+        BookCopy availableCopy = bookCopyRepository.claimAvailableCopy(bookId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Brak dostępnych egzemplarzy"));
+        availableCopy.setStatus(BookCopyStatus.BORROWED);
+        bookCopyRepository.save(availableCopy);
 
         AppUser userRef = appUserRepository.getReferenceById(userId);
 
@@ -80,9 +111,6 @@ public class LoanService {
 
         Loan savedLoan = loanRepository.save(loan);
 
-        availableCopy.setStatus(BookCopyStatus.BORROWED);
-        bookCopyRepository.save(availableCopy);
-
         reservationRepository.findByUserIdAndBookIdAndStatus(userId, bookId, ReservationStatus.ACTIVE)
                 .ifPresent(reservation -> {
                     reservation.setStatus(ReservationStatus.FULFILLED);
@@ -90,6 +118,13 @@ public class LoanService {
                     reservationRepository.save(reservation);
                 });
 
+        // wiersz book to jedyny wspólny punkt równoległych wypożyczeń – blokujemy go na końcu,
+        // żeby trzymać blokadę możliwie krótko
+        bookRepository.adjustCopyCounters(bookId, 0, -1);
+        loanStatsRollup.recordLoan(savedLoan.getLoanDate(), bookId, 1);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
+        libraryMetrics.loanCreated(LibraryMetrics.CHANNEL_READER);
+
         savedLoan.setUser(userRef);
         savedLoan.setBookCopy(availableCopy);
 
@@ -221,21 +256,4 @@ public class LoanService {
                 .map(a -> new AuthorDto(a.getId(), a.getFirstName(), a.getLastName()))
                 .collect(Collectors.toList());
     }
-    private void updateOverdueIfNeeded(List<Loan> loans) {
-        if (loans == null || loans.isEmpty()) return;
-        LocalDateTime now = LocalDateTime.now();
-        boolean changed = false;
-        for (Loan loan : loans) {
-            if (loan == null) continue;
-            if (loan.getStatus() == LoanStatus.ACTIVE
-                    && loan.getDueDate() != null
-                    && loan.getDueDate().isBefore(now)) {
-                loan.setStatus(LoanStatus.OVERDUE);
-                changed = true;
-            }
-        }
-        if (changed) {
-            loanRepository.saveAll(loans);
-        }
-    }
 }
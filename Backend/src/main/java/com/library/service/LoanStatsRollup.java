@@ -0,0 +1,99 @@
+package com.library.service;
+
+import com.library.repository.LoanDailyStatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Utrzymuje agregat loan_daily_stats (dzień x książka): przyrostowo w transakcjach wypożyczeń
+ * i zwrotów, a hurtowo przez backfill po miesiącach. Statystyki dzienne to suma po książkach
+ * z agregatu – osobny wiersz "na dzień" byłby blokowany przez każde wypożyczenie w systemie.
+ * Cykliczna kontrola porównuje ostatnie dni z tabelą loan i przelicza je przy rozbieżności.
+ */
+@Slf4j
+@Component
+public class LoanStatsRollup {
+
+    private final LoanDailyStatRepository loanDailyStatRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnly;
+    private final int checkDays;
+
+    public LoanStatsRollup(LoanDailyStatRepository loanDailyStatRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.stats.rollup.check-days:7}") int checkDays) {
+        this.loanDailyStatRepository = loanDailyStatRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.checkDays = checkDays;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordLoan(LocalDateTime loanDate, Long bookId, int delta) {
+        if (loanDate == null || bookId == null) return;
+        loanDailyStatRepository.increment(loanDate.toLocalDate(), bookId, delta, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReturn(LocalDateTime returnDate, Long bookId, int delta) {
+        if (returnDate == null || bookId == null) return;
+        loanDailyStatRepository.increment(returnDate.toLocalDate(), bookId, 0, delta);
+    }
+
+    /**
+     * Przelicza agregat dla dni [from, to) na podstawie tabeli loan, miesiąc po miesiącu
+     * (każdy miesiąc w osobnej transakcji). Zwraca liczbę zapisanych wierszy.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        int written = 0;
+        LocalDate chunkFrom = from;
+        while (chunkFrom.isBefore(to)) {
+            LocalDate chunkTo = chunkFrom.plusMonths(1).withDayOfMonth(1);
+            if (chunkTo.isAfter(to)) chunkTo = to;
+            LocalDate f = chunkFrom;
+            LocalDate t = chunkTo;
+            Integer rows = transactionTemplate.execute(status -> {
+                loanDailyStatRepository.deleteRange(f, t);
+                return loanDailyStatRepository.backfillLoans(f.atStartOfDay(), t.atStartOfDay())
+                        + loanDailyStatRepository.backfillReturns(f.atStartOfDay(), t.atStartOfDay());
+            });
+            written += rows == null ? 0 : rows;
+            chunkFrom = chunkTo;
+        }
+        return written;
+    }
+
+    @Transactional(readOnly = true)
+    public List<LoanDailyStatRepository.MismatchRow> check(LocalDate from, LocalDate to) {
+        return loanDailyStatRepository.findMismatches(from.atStartOfDay(), to.atStartOfDay());
+    }
+
+    /**
+     * Wywołanie z tego samego obiektu omija proxy, więc kontrola idzie przez {@link #readOnly}
+     * zamiast {@link #check}; przeliczenie otwiera własne transakcje miesięczne.
+     */
+    @Scheduled(initialDelayString = "${app.stats.rollup.check-initial-delay:PT2M}",
+               fixedDelayString = "${app.stats.rollup.check-interval:PT24H}")
+    public void verifyRecent() {
+        LocalDate to = LocalDate.now().plusDays(1);
+        LocalDate from = to.minusDays(checkDays + 1L);
+        List<LoanDailyStatRepository.MismatchRow> mismatches = readOnly.execute(status ->
+                loanDailyStatRepository.findMismatches(from.atStartOfDay(), to.atStartOfDay()));
+        if (mismatches != null && !mismatches.isEmpty()) {
+            log.warn("Agregat loan_daily_stats niespójny dla {} wierszy (dni {} - {}), przeliczam",
+                    mismatches.size(), from, to.minusDays(1));
+            rebuild(from, to);
+        }
+    }
+}
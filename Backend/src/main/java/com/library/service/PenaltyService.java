@@ -1,5 +1,6 @@
 package com.library.service;
 
+import com.library.dto.CursorSliceDto;
 import com.library.dto.PenaltyDto;
 import com.library.dto.request.AdminCreatePenaltyRequest;
 import com.library.model.entity.AppUser;
@@ -13,11 +14,13 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +40,18 @@ public class PenaltyService {
                 .map(this::toDto);
     }
 
+    public CursorSliceDto<PenaltyDto> getPenaltiesAfter(PenaltyStatus status, Long userId, String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+
+        List<Penalty> rows = penaltyRepository.findPenaltiesWithFiltersAfter(status, userId,
+                cursor == null ? KeysetCursor.MAX_DATE : cursor.keyAsDateTime(),
+                cursor == null ? Long.MAX_VALUE : cursor.id(),
+                PageRequest.of(0, limit + 1));
+
+        return KeysetCursor.slice(rows, limit, this::toDto, p -> KeysetCursor.of(p.getCreatedAt(), p.getId()));
+    }
+
     @Transactional
     public PenaltyDto markAsPaid(Long penaltyId) {
         Penalty penalty = penaltyRepository.findById(penaltyId)
@@ -52,15 +67,17 @@ public class PenaltyService {
         PenaltyDto dto = new PenaltyDto();
         dto.setId(p.getId());
 
+        // użytkownik przychodzi z JOIN FETCH w zapytaniach listy; wypożyczenia nie dotykamy –
+        // wystarczy kolumna loan_id, bez ładowania encji Loan
         PenaltyDto.UserSummaryDto user = new PenaltyDto.UserSummaryDto(
-                p.getUser().getId(),
+                p.getUserId(),
                 p.getUser().getFirstName(),
                 p.getUser().getLastName()
         );
 
         dto.setUser(user);
-        dto.setUserId(p.getUser().getId());
-        dto.setLoanId(p.getLoan() != null ? p.getLoan().getId() : null);
+        dto.setUserId(p.getUserId());
+        dto.setLoanId(p.getLoanId());
 
         dto.setAmount(p.getAmount());
         dto.setReason(p.getReason());
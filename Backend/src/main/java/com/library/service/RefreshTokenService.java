@@ -0,0 +1,141 @@
+package com.library.service;
+
+import com.library.event.UserAccessRevokedEvent;
+import com.library.exception.AuthenticationException;
+import com.library.model.entity.RefreshToken;
+import com.library.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Rotowane refresh tokeny. Każde odświeżenie zużywa token i wydaje następny; ponowne użycie
+ * już zużytego tokenu oznacza wyciek, więc unieważniamy całą rodzinę (wszystkie sesje z tego logowania).
+ * Wyjątek: token zrotowany przed chwilą ({@code app.jwt.refresh-reuse-grace}) przy wciąż żywej
+ * rodzinie – to druga karta przeglądarki odświeżająca tym samym tokenem z localStorage.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    public record Rotated(Long userId, String refreshToken) {
+    }
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTtl;
+    private final Duration reuseGrace;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.jwt.refresh-ttl:P30D}") Duration refreshTtl,
+                               @Value("${app.jwt.refresh-reuse-grace:PT5S}") Duration reuseGrace) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTtl = refreshTtl;
+        this.reuseGrace = reuseGrace;
+    }
+
+    /** Nowa rodzina tokenów – po zalogowaniu. */
+    @Transactional
+    public String issue(Long userId) {
+        return save(userId, UUID.randomUUID().toString());
+    }
+
+    // wyjątek nie może wycofać unieważnienia rodziny przy wykrytym ponownym użyciu
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public Rotated rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new AuthenticationException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null) {
+            if (isConcurrentRotation(current, now)) {
+                // równoległy następnik w tej samej rodzinie; wyloguje go dopiero wylogowanie rodziny
+                return new Rotated(current.getUserId(), save(current.getUserId(), current.getFamilyId()));
+            }
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            log.warn("Ponowne użycie refresh tokenu użytkownika {} – unieważniono {} tokenów rodziny",
+                    current.getUserId(), revoked);
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new AuthenticationException("Refresh token expired");
+        }
+
+        current.setRevokedAt(now);
+        return new Rotated(current.getUserId(), save(current.getUserId(), current.getFamilyId()));
+    }
+
+    /** Wylogowanie: unieważnia rodzinę, do której należy token. Nieznany token ignorujemy. */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId(), LocalDateTime.now()));
+    }
+
+    // synchronicznie, w transakcji zmiany użytkownika (blokada / hasło)
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUserAccessRevoked(UserAccessRevokedEvent event) {
+        refreshTokenRepository.revokeAllForUser(event.userId(), LocalDateTime.now());
+    }
+
+    @Scheduled(initialDelayString = "${app.jwt.refresh-cleanup.initial-delay:PT10M}",
+               fixedDelayString = "${app.jwt.refresh-cleanup.interval:PT6H}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Usunięto {} wygasłych refresh tokenów", deleted);
+        }
+    }
+
+    // ----------------- helpers -----------------
+
+    // wylogowanie i blokada unieważniają całą rodzinę, więc żywy token w rodzinie oznacza rotację
+    private boolean isConcurrentRotation(RefreshToken token, LocalDateTime now) {
+        return !token.getRevokedAt().isBefore(now.minus(reuseGrace))
+                && refreshTokenRepository.existsActiveInFamily(token.getFamilyId(), now);
+    }
+
+    private String save(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = new RefreshToken();
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setTokenHash(hash(raw));
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(refreshTtl));
+        refreshTokenRepository.save(token);
+        return raw;
+    }
+
+    private static String hash(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
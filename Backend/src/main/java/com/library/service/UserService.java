@@ -1,26 +1,30 @@
 package com.library.service;
 
 import com.library.dto.UserDto;
+import com.library.dto.admin.AdminUserRowDto;
+import com.library.dto.admin.UserPickerDto;
 import com.library.dto.request.ChangePasswordRequest;
-import com.library.dto.request.UpdateProfileRequest;
 import com.library.dto.request.UpdateUserRequest;
+import com.library.event.UserAccessRevokedEvent;
+import com.library.event.UserChangedEvent;
 import com.library.exception.ResourceNotFoundException;
 import com.library.model.entity.AppUser;
+import com.library.model.enums.UserStatus;
 import com.library.repository.AppUserRepository;
+import com.library.search.UserPickerIndex;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.RequestBody;
 
-import java.lang.reflect.Field;
-import java.time.LocalDateTime;
-import java.time.chrono.ChronoLocalDateTime;
-import java.util.*;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -28,42 +32,19 @@ public class UserService {
 
     private final AppUserRepository appUserRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserPickerIndex userPickerIndex;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> list(int page, int size) {
-        // UI i tak woła ?page=0&size=200 – zwracamy listę, bez Page wrappera
-        var pr = PageRequest.of(
-                Math.max(page, 0),
-                Math.max(size, 1),
-                Sort.by(Sort.Direction.DESC, "id")
-        );
-
-        return appUserRepository.findAll(pr)
-                .getContent()
-                .stream()
-                .map(this::toAdminUserMap)
-                .toList();
+    public List<AdminUserRowDto> list(int page, int size) {
+        // UI i tak woła ?page=0&size=200 – zwracamy listę, bez Page wrappera; kolejność w zapytaniu
+        return appUserRepository.findAdminRows(PageRequest.of(Math.max(page, 0), Math.max(size, 1)));
     }
 
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> picker() {
-        // prosta lista do select/autocomplete: id + label
-        return appUserRepository.findAll(Sort.by(Sort.Direction.ASC, "lastName", "firstName", "id"))
-                .stream()
-                .map(u -> {
-                    String fn = safeString(getFieldValue(u, "firstName"));
-                    String ln = safeString(getFieldValue(u, "lastName"));
-                    String email = safeString(getFieldValue(u, "email"));
-                    String label = (fn + " " + ln).trim();
-                    if (label.isBlank()) label = email;
-
-                    Map<String, Object> m = new LinkedHashMap<>();
-                    m.put("id", u.getId());
-                    m.put("label", label);
-                    m.put("email", email);
-                    return m;
-                })
-                .toList();
+    // select/autocomplete: id + label, z indeksu w pamięci – bez zapytania do bazy
+    public List<UserPickerDto> picker(String query, int limit) {
+        return userPickerIndex.search(query, Math.min(Math.max(limit, 1), 50));
     }
 
     @Transactional
@@ -71,6 +52,9 @@ public class UserService {
         AppUser u = appUserRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found: " + id));
 
+        var oldRole = u.getRole();
+        var oldStatus = u.getStatus();
+
         if (req.getEmail() != null) u.setEmail(req.getEmail().trim());
         if (req.getFirstName() != null) u.setFirstName(req.getFirstName().trim());
         if (req.getLastName() != null) u.setLastName(req.getLastName().trim());
@@ -84,127 +68,64 @@ public class UserService {
         }
 
         AppUser saved = appUserRepository.save(u);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId()));
+
+        // rola jest w claimach tokenu, blokada ma działać od razu – stare tokeny do unieważnienia
+        if (saved.getRole() != oldRole
+                || (saved.getStatus() == UserStatus.BLOCKED && oldStatus != UserStatus.BLOCKED)) {
+            eventPublisher.publishEvent(new UserAccessRevokedEvent(saved.getId()));
+        }
 
         // return userMapper.toDto(saved);
         return toDto(saved); // <- podmień na swój mapper
     }
-    @Transactional
+    // BCrypt (sprawdzenie i nowy hash) przed transakcją – czekanie w kolejce nie trzyma połączenia z puli
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(Long userId, ChangePasswordRequest request) {
-        AppUser user = appUserRepository.findById(userId)
+        String currentHash = appUserRepository.findById(userId)
+                .map(AppUser::getPasswordHash)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPasswordHash())) {
+        if (!passwordEncoder.matches(request.getCurrentPassword(), currentHash)) {
             throw new IllegalArgumentException("Current password is incorrect");
         }
 
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
-        appUserRepository.save(user);
+        String newHash = passwordEncoder.encode(request.getNewPassword());
+        transactionTemplate.executeWithoutResult(status -> setPasswordHash(userId, newHash, currentHash));
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void adminSetPassword(Long userId, String newPassword) {
+        String newHash = passwordEncoder.encode(newPassword);
+        transactionTemplate.executeWithoutResult(status -> setPasswordHash(userId, newHash, null));
+    }
+
+    // expectedHash != null: hasło nie mogło się zmienić od sprawdzenia bieżącego (równoległa zmiana)
+    private void setPasswordHash(Long userId, String newHash, String expectedHash) {
         AppUser user = appUserRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (expectedHash != null && !expectedHash.equals(user.getPasswordHash())) {
+            throw new IllegalArgumentException("Current password is incorrect");
+        }
 
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        user.setPasswordHash(newHash);
         appUserRepository.save(user);
+        eventPublisher.publishEvent(new UserAccessRevokedEvent(userId));
     }
     @Transactional
     public void deleteUser(Long id) {
         AppUser user = appUserRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found: " + id));
+        eventPublisher.publishEvent(new UserAccessRevokedEvent(id));
+        eventPublisher.publishEvent(new UserChangedEvent(id));
 
-        // Prefer soft delete: status = "DELETED" jeśli istnieje pole status
-        boolean softDeleted = setEnumByName(user, "status", "DELETED");
-        if (softDeleted) {
-            appUserRepository.save(user);
-            return;
-        }
-
-        // Fallback hard delete
-        appUserRepository.delete(user);
+        // miękkie usunięcie – wypożyczenia i kary trzymają klucz do użytkownika (ON DELETE RESTRICT)
+        user.setStatus(UserStatus.DELETED);
+        appUserRepository.save(user);
     }
 
     // ----------------- helpers -----------------
 
-    private Map<String, Object> toAdminUserMap(AppUser u) {
-        Map<String, Object> m = new LinkedHashMap<>();
-        m.put("id", u.getId());
-        m.put("email", getFieldValue(u, "email"));
-        m.put("firstName", getFieldValue(u, "firstName"));
-        m.put("lastName", getFieldValue(u, "lastName"));
-        m.put("role", enumName(getFieldValue(u, "role")));
-        m.put("status", enumName(getFieldValue(u, "status")));
-        m.put("blockedReason", getFieldValue(u, "blockedReason"));
-        m.put("blockedUntil", stringifyDate(getFieldValue(u, "blockedUntil")));
-        m.put("createdAt", stringifyDate(getFieldValue(u, "createdAt")));
-        return m;
-    }
-
-    private static String stringifyDate(Object v) {
-        return v == null ? null : String.valueOf(v);
-    }
-
-    private static String enumName(Object v) {
-        if (v == null) return null;
-        if (v instanceof Enum<?> e) return e.name();
-        return String.valueOf(v);
-    }
-
-    private static String safeString(Object v) {
-        return v == null ? "" : String.valueOf(v);
-    }
-
-    private static Object getFieldValue(Object target, String fieldName) {
-        try {
-            Field f = findField(target.getClass(), fieldName);
-            if (f == null) return null;
-            f.setAccessible(true);
-            return f.get(target);
-        } catch (Exception ignored) {
-            return null;
-        }
-    }
-
-    private static void setIfPresent(Object target, String fieldName, Object value) {
-        try {
-            Field f = findField(target.getClass(), fieldName);
-            if (f == null) return;
-            f.setAccessible(true);
-            f.set(target, value);
-        } catch (Exception ignored) {
-        }
-    }
-
-    @SuppressWarnings({"rawtypes","unchecked"})
-    private static boolean setEnumByName(Object target, String fieldName, String enumName) {
-        try {
-            Field f = findField(target.getClass(), fieldName);
-            if (f == null) return false;
-
-            Class<?> t = f.getType();
-            if (!t.isEnum()) return false;
-
-            Object enumValue = Enum.valueOf((Class<? extends Enum>) t, enumName);
-            f.setAccessible(true);
-            f.set(target, enumValue);
-            return true;
-        } catch (Exception ignored) {
-            return false;
-        }
-    }
-
-    private static Field findField(Class<?> cls, String name) {
-        Class<?> c = cls;
-        while (c != null && c != Object.class) {
-            try {
-                return c.getDeclaredField(name);
-            } catch (NoSuchFieldException ignored) {
-                c = c.getSuperclass();
-            }
-        }
-        return null;
-    }
     private UserDto toDto(AppUser user) {
         return new UserDto(
                 user.getId(),
@@ -2,21 +2,29 @@ package com.library.service.admin;
 
 import com.library.dto.AuthorDto;
 import com.library.dto.admin.AdminAuthorRequest;
+import com.library.event.AuthorChangedEvent;
+import com.library.event.BookChangedEvent;
 import com.library.model.entity.Author;
 import com.library.repository.AuthorRepository;
+import com.library.repository.BookRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class AdminAuthorService {
 
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<AuthorDto> list(Pageable pageable) {
@@ -30,6 +38,7 @@ public class AdminAuthorService {
         a.setFirstName(req.getFirstName());
         a.setLastName(req.getLastName());
         Author saved = authorRepository.save(a);
+        eventPublisher.publishEvent(new AuthorChangedEvent(saved.getId()));
         return new AuthorDto(saved.getId(), saved.getFirstName(), saved.getLastName());
     }
 
@@ -40,6 +49,10 @@ public class AdminAuthorService {
         a.setFirstName(req.getFirstName());
         a.setLastName(req.getLastName());
         Author saved = authorRepository.save(a);
+        eventPublisher.publishEvent(new AuthorChangedEvent(saved.getId()));
+        // nazwisko autora jest częścią dokumentu książki w indeksie katalogu
+        bookRepository.findIdsByAuthorId(id)
+                .forEach(bookId -> eventPublisher.publishEvent(new BookChangedEvent(bookId)));
         return new AuthorDto(saved.getId(), saved.getFirstName(), saved.getLastName());
     }
 
@@ -48,6 +61,10 @@ public class AdminAuthorService {
         if (!authorRepository.existsById(id)) {
             throw new EntityNotFoundException("Author not found");
         }
+        // książki autora zbieramy przed usunięciem – potem powiązań już nie ma
+        List<Long> bookIds = bookRepository.findIdsByAuthorId(id);
         authorRepository.deleteById(id);
+        eventPublisher.publishEvent(new AuthorChangedEvent(id));
+        bookIds.forEach(bookId -> eventPublisher.publishEvent(new BookChangedEvent(bookId)));
     }
 }
@@ -1,10 +1,11 @@
 package com.library.service.admin;
 
+import com.library.cache.CatalogCache;
 import com.library.dto.AuthorDto;
 import com.library.dto.BookDto;
-import com.library.dto.CategoryDto;
 import com.library.dto.admin.AdminCreateBookRequest;
 import com.library.dto.admin.AdminUpdateBookRequest;
+import com.library.event.BookChangedEvent;
 import com.library.model.entity.Author;
 import com.library.model.entity.Book;
 import com.library.model.entity.BookCopy;
@@ -13,13 +14,17 @@ import com.library.repository.AuthorRepository;
 import com.library.repository.BookCopyRepository;
 import com.library.repository.BookRepository;
 import com.library.repository.CategoryRepository;
+import com.library.service.InventoryCodeAllocator;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,14 +39,29 @@ public class AdminBookService {
     private final CategoryRepository categoryRepository;
     private final AuthorRepository authorRepository;
     private final BookCopyRepository bookCopyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCache catalogCache;
+    private final InventoryCodeAllocator inventoryCodeAllocator;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional(readOnly = true)
     public Page<BookDto> list(Pageable pageable) {
-        return bookRepository.findAll(pageable).map(this::toDto);
+        Page<Book> books = bookRepository.findAll(pageable);
+        bookRepository.fetchRelations(books.getContent());
+        catalogCache.preloadCategories(books.getContent().stream().map(Book::getCategoryId).toList());
+        return books.map(this::toDto);
     }
 
-    @Transactional
+    // kody egzemplarzy rezerwowane przed transakcją – InventoryCodeAllocator nie może brać
+    // drugiego połączenia z puli, gdy to żądanie już trzyma pierwsze
+    @Transactional(propagation = Propagation.NEVER)
     public BookDto create(@Valid AdminCreateBookRequest req) {
+        int copies = req.getInitialCopies() == null ? 1 : Math.max(1, req.getInitialCopies());
+        List<String> codes = inventoryCodeAllocator.allocate(copies);
+        return transactionTemplate.execute(status -> insert(req, codes));
+    }
+
+    private BookDto insert(AdminCreateBookRequest req, List<String> codes) {
         Book book = new Book();
         book.setTitle(req.getTitle());
         book.setIsbn(req.getIsbn());
@@ -66,18 +86,23 @@ public class AdminBookService {
 
         Book saved = bookRepository.save(book);
 
-        int copies = req.getInitialCopies() == null ? 1 : Math.max(1, req.getInitialCopies());
-        int start = bookCopyRepository.countByBookId(saved.getId());
-        for (int i = 0; i < copies; i++) {
+        int copies = codes.size();
+        List<BookCopy> newCopies = new ArrayList<>(copies);
+        for (String code : codes) {
             BookCopy copy = new BookCopy();
             copy.setBookId(saved.getId());
             copy.setStatus(BookCopyStatus.AVAILABLE);
-            copy.setInventoryCode(generateInventoryCode(saved.getId(), start + i + 1));
-            bookCopyRepository.save(copy);
+            copy.setInventoryCode(code);
+            newCopies.add(copy);
         }
+        bookCopyRepository.saveAll(newCopies);
+        bookRepository.adjustCopyCounters(saved.getId(), copies, copies);
 
         // reload relations for DTO
         Book reloaded = bookRepository.findById(saved.getId()).orElseThrow();
+        reloaded.setTotalCopies(copies);
+        reloaded.setAvailableCopies(copies);
+        eventPublisher.publishEvent(new BookChangedEvent(reloaded.getId()));
         return toDto(reloaded);
     }
 
@@ -107,6 +132,7 @@ public class AdminBookService {
         }
 
         Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(saved.getId()));
         return toDto(saved);
     }
 
@@ -117,50 +143,27 @@ public class AdminBookService {
 
         book.setIsActive(false);
         bookRepository.save(book);
-    }
-
-    private String generateInventoryCode(Long bookId, int seq) {
-        // deterministic + unique enough; ensure not used
-        String code = "B" + bookId + "-" + seq;
-        int guard = 0;
-        while (bookCopyRepository.existsByInventoryCode(code)) {
-            guard++;
-            code = "B" + bookId + "-" + seq + "-" + guard;
-        }
-        return code;
+        eventPublisher.publishEvent(new BookChangedEvent(book.getId()));
     }
 
     private BookDto toDto(Book book) {
-        CategoryDto categoryDto = null;
-        if (book.getCategory() != null) {
-            categoryDto = new CategoryDto(
-                    book.getCategory().getId(),
-                    book.getCategory().getName(),
-                    book.getCategory().getParentId(),
-                    null
-            );
-        }
-
         List<AuthorDto> authorDtos = (book.getAuthors() == null ? List.<Author>of() : book.getAuthors())
                 .stream()
                 .filter(Objects::nonNull)
                 .map(a -> new AuthorDto(a.getId(), a.getFirstName(), a.getLastName()))
                 .collect(Collectors.toList());
 
-        int totalCopies = bookCopyRepository.countByBookId(book.getId());
-        int availableCopies = bookCopyRepository.countByBookIdAndStatus(book.getId(), BookCopyStatus.AVAILABLE);
-
         return new BookDto(
                 book.getId(),
                 book.getTitle(),
                 book.getDescription(),
                 book.getPublicationYear(),
                 book.getIsbn(),
-                categoryDto,
+                catalogCache.category(book.getCategoryId()),
                 authorDtos,
                 book.getIsActive(),
-                totalCopies,
-                availableCopies
+                book.getTotalCopies(),
+                book.getAvailableCopies()
         );
     }
     private Short toShort(Integer v) {
@@ -1,7 +1,10 @@
 package com.library.service.admin;
 
 import com.library.dto.AuthorDto;
+import com.library.dto.CursorSliceDto;
 import com.library.dto.LoanDto;
+import com.library.event.BookChangedEvent;
+import com.library.metrics.LibraryMetrics;
 import com.library.model.entity.AppUser;
 import com.library.model.entity.Author;
 import com.library.model.entity.Book;
@@ -10,15 +13,23 @@ import com.library.model.entity.Loan;
 import com.library.model.enums.LoanStatus;
 import com.library.repository.LoanRepository;
 import com.library.repository.BookCopyRepository;
+import com.library.repository.BookRepository;
 import com.library.repository.AppUserRepository;
+import com.library.service.KeysetCursor;
+import com.library.service.LoanDtoAssembler;
+import com.library.service.LoanStatsRollup;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -27,61 +38,63 @@ public class AdminLoanService {
     private final LoanRepository loanRepository;
     private final BookCopyRepository bookCopyRepository;
     private final AppUserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanDtoAssembler loanDtoAssembler;
+    private final LoanStatsRollup loanStatsRollup;
+    private final LibraryMetrics libraryMetrics;
 
     @Transactional(readOnly = true)
     public Page<LoanDto> list(Pageable pageable) {
-        Page<Loan> page = loanRepository.findAll(pageable);
-        updateOverdueIfNeeded(page.getContent());
-        return page.map(this::toDto);
+        Page<LoanRepository.LoanRow> rows = loanRepository.findAllRows(pageable);
+        return new PageImpl<>(loanDtoAssembler.toDtos(rows.getContent()), pageable, rows.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSliceDto<LoanDto> listAfter(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+
+        java.util.List<LoanRepository.LoanRow> rows = loanRepository.findAllRowsAfter(
+                cursor == null ? KeysetCursor.MAX_DATE : cursor.keyAsDateTime(),
+                cursor == null ? Long.MAX_VALUE : cursor.id(),
+                PageRequest.of(0, limit + 1));
+        return KeysetCursor.slice(loanDtoAssembler.toDtos(rows), limit, Function.identity(),
+                l -> KeysetCursor.of(l.getLoanDate(), l.getId()));
     }
 
     @Transactional(readOnly = true)
     public LoanDto get(Long id) {
         Loan loan = loanRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Loan not found"));
-        updateOverdueIfNeeded(java.util.List.of(loan));
         return toDto(loan);
     }
 
-    private void updateOverdueIfNeeded(java.util.List<Loan> loans) {
-        if (loans == null || loans.isEmpty()) return;
-        LocalDateTime now = LocalDateTime.now();
-        boolean changed = false;
-        for (Loan loan : loans) {
-            if (loan == null) continue;
-            if (loan.getStatus() == LoanStatus.ACTIVE
-                    && loan.getDueDate() != null
-                    && loan.getDueDate().isBefore(now)) {
-                loan.setStatus(LoanStatus.OVERDUE);
-                changed = true;
-            }
-        }
-        if (changed) {
-            loanRepository.saveAll(loans);
-        }
-    }
-
     @Transactional
     public LoanDto create(Long userId, Long bookCopyId, LocalDateTime dueDate) {
         var user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        BookCopy copy = bookCopyRepository.findById(bookCopyId)
+        BookCopy copy = bookCopyRepository.findByIdForUpdate(bookCopyId)
                 .orElseThrow(() -> new EntityNotFoundException("Copy not found"));
 
         if (!copy.isAvailable()) {
             throw new IllegalStateException("Book copy not available");
         }
 
+        // kolumny user_id / book_copy_id zapisują pola id – relacje są tylko do odczytu
         Loan loan = new Loan();
+        loan.setUserId(user.getId());
         loan.setUser(user);
+        loan.setBookCopyId(copy.getId());
         loan.setBookCopy(copy);
         loan.setStatus(LoanStatus.ACTIVE);
         loan.setLoanDate(LocalDateTime.now());
         loan.setDueDate(dueDate != null ? dueDate : LocalDateTime.now().plusDays(14));
 
-        copy.setAvailable(false);
-        bookCopyRepository.save(copy);
+        setCopyAvailable(copy, false);
+        loanStatsRollup.recordLoan(loan.getLoanDate(), copy.getBookId(), 1);
+        libraryMetrics.loanCreated(LibraryMetrics.CHANNEL_ADMIN);
 
         return toDto(loanRepository.save(loan));
     }
@@ -90,6 +103,8 @@ public class AdminLoanService {
     public LoanDto update(Long id, LoanStatus status, LocalDateTime dueDate, LocalDateTime returnDate) {
         Loan loan = loanRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Loan not found"));
+        LoanStatus oldStatus = loan.getStatus();
+        LocalDateTime oldReturnDate = loan.getReturnDate();
 
         if (status != null) {
             loan.setStatus(status);
@@ -102,9 +117,16 @@ public class AdminLoanService {
         }
 
         if (status == LoanStatus.RETURNED) {
-            BookCopy copy = loan.getBookCopy();
-            copy.setAvailable(true);
-            bookCopyRepository.save(copy);
+            setCopyAvailable(loan.getBookCopy(), true);
+        }
+
+        // zwrot w agregacie liczy się w dniu return_date – przenosimy go, jeśli status/data się zmieniły
+        Long bookId = loan.getBookCopy().getBookId();
+        if (oldStatus == LoanStatus.RETURNED) {
+            loanStatsRollup.recordReturn(oldReturnDate, bookId, -1);
+        }
+        if (loan.getStatus() == LoanStatus.RETURNED) {
+            loanStatsRollup.recordReturn(loan.getReturnDate(), bookId, 1);
         }
 
         return toDto(loanRepository.save(loan));
@@ -124,9 +146,9 @@ public class AdminLoanService {
             loan.setReturnDate(LocalDateTime.now());
         }
 
-        BookCopy copy = loan.getBookCopy();
-        copy.setAvailable(true);
-        bookCopyRepository.save(copy);
+        setCopyAvailable(loan.getBookCopy(), true);
+        loanStatsRollup.recordReturn(loan.getReturnDate(), loan.getBookCopy().getBookId(), 1);
+        libraryMetrics.returnAccepted();
 
         return toDto(loanRepository.save(loan));
     }
@@ -152,14 +174,29 @@ public class AdminLoanService {
                 .orElseThrow(() -> new EntityNotFoundException("Loan not found"));
 
         if (loan.getStatus() == LoanStatus.ACTIVE) {
-            BookCopy copy = loan.getBookCopy();
-            copy.setAvailable(true);
-            bookCopyRepository.save(copy);
+            setCopyAvailable(loan.getBookCopy(), true);
+        }
+
+        Long bookId = loan.getBookCopy().getBookId();
+        loanStatsRollup.recordLoan(loan.getLoanDate(), bookId, -1);
+        if (loan.getStatus() == LoanStatus.RETURNED) {
+            loanStatsRollup.recordReturn(loan.getReturnDate(), bookId, -1);
         }
 
         loanRepository.delete(loan);
     }
 
+    // Zmiana dostępności egzemplarza + licznik available_copies w book
+    private void setCopyAvailable(BookCopy copy, boolean available) {
+        boolean wasAvailable = copy.isAvailable();
+        copy.setAvailable(available);
+        bookCopyRepository.save(copy);
+        if (wasAvailable != copy.isAvailable()) {
+            bookRepository.adjustCopyCounters(copy.getBookId(), 0, copy.isAvailable() ? 1 : -1);
+            eventPublisher.publishEvent(new BookChangedEvent(copy.getBookId()));
+        }
+    }
+
     private LoanDto toDto(Loan loan) {
         LoanDto.UserSummaryDto userDto = null;
         AppUser user = loan.getUser();
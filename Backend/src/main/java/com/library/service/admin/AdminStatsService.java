@@ -3,6 +3,7 @@ package com.library.service;
 import com.library.dto.admin.AdminLoansPerDayDto;
 import com.library.dto.admin.AdminSummaryDto;
 import com.library.repository.AppUserRepository;
+import com.library.repository.LoanDailyStatRepository;
 import com.library.repository.LoanRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,19 +19,21 @@ public class AdminStatsService {
 
     private final LoanRepository loanRepository;
     private final AppUserRepository userRepository;
+    private final LoanDailyStatRepository loanDailyStatRepository;
 
     @Transactional(readOnly = true)
     public AdminSummaryDto getSummary(LocalDate from, LocalDate to) {
         LocalDateTime fromDt = from.atStartOfDay();
         LocalDateTime toDt = to.plusDays(1).atStartOfDay();
 
-        long totalLoans = loanRepository.countLoansBetween(fromDt, toDt);
+        // wypożyczenia z agregatu loan_daily_stats zamiast skanu tabeli loan
+        long totalLoans = loanDailyStatRepository.sumLoansBetween(from, to.plusDays(1));
         long overdueLoans = loanRepository.countOverdueLoans(LocalDateTime.now());
 
         long newUsers = userRepository.countNewUsersBetween(fromDt, toDt);
         long activeUsers = userRepository.countActiveUsers();
 
-        List<AdminSummaryDto.MostPopularBookDto> popular = loanRepository.findMostPopularBooks(fromDt, toDt)
+        List<AdminSummaryDto.MostPopularBookDto> popular = loanDailyStatRepository.findMostPopularBooks(from, to.plusDays(1))
                 .stream()
                 .map(x -> new AdminSummaryDto.MostPopularBookDto(x.getBookId(), x.getTitle(), x.getLoansCount()))
                 .toList();
@@ -40,10 +43,9 @@ public class AdminStatsService {
 
     @Transactional(readOnly = true)
     public List<AdminLoansPerDayDto> getLoansPerDay(LocalDate from, LocalDate to) {
-        LocalDateTime fromDt = from.atStartOfDay();
-        LocalDateTime toDt = to.plusDays(1).atStartOfDay(); // <--- UWAGA: to jest EXCLUSIVE
+        LocalDate toExclusive = to.plusDays(1); // <--- UWAGA: to jest EXCLUSIVE
 
-        return loanRepository.findLoansPerDay(fromDt, toDt).stream()
+        return loanDailyStatRepository.findLoansPerDay(from, toExclusive).stream()
                 .map(r -> new AdminLoansPerDayDto(r.getDay().toLocalDate(), r.getLoansCount()))
                 .toList();
     }
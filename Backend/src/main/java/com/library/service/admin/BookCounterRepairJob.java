@@ -0,0 +1,52 @@
+package com.library.service.admin;
+
+import com.library.cache.CatalogCache;
+import com.library.repository.BookRepository;
+import com.library.search.CatalogIndexSynchronizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Odbudowuje liczniki book.total_copies / book.available_copies na podstawie book_copy.
+ * Liczniki są utrzymywane na bieżąco przez serwisy wypożyczeń i katalogu – to zadanie
+ * tylko naprawia ewentualny dryf (np. po ręcznych zmianach w bazie).
+ * <p>
+ * Transakcja obejmuje tylko odczyt rozjechanych książek i UPDATE ich wierszy. Indeks katalogu
+ * i cache szczegółów są odświeżane po commicie i tylko dla poprawionych książek – blokady na
+ * wierszach book nie czekają na przeindeksowanie, a wypożyczenia nie stoją.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookCounterRepairJob {
+
+    private final BookRepository bookRepository;
+    private final CatalogIndexSynchronizer catalogIndexSynchronizer;
+    private final CatalogCache catalogCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(initialDelayString = "${app.catalog.counter-repair.initial-delay:PT1M}",
+               fixedDelayString = "${app.catalog.counter-repair.interval:PT6H}")
+    public int rebuild() {
+        List<Long> drifted = transactionTemplate.execute(status -> {
+            List<Long> ids = bookRepository.findIdsWithCounterDrift();
+            if (!ids.isEmpty()) {
+                bookRepository.recountCopyCounters(ids);
+            }
+            return ids;
+        });
+        if (drifted == null || drifted.isEmpty()) {
+            return 0;
+        }
+        log.warn("Naprawiono liczniki egzemplarzy dla {} książek", drifted.size());
+        // dostępność jest też w indeksie katalogu
+        catalogIndexSynchronizer.reindexBooks(drifted);
+        catalogCache.invalidateBooks(drifted);
+        return drifted.size();
+    }
+}
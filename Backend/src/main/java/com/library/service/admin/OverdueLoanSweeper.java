@@ -0,0 +1,75 @@
+package com.library.service.admin;
+
+import com.library.metrics.LibraryMetrics;
+import com.library.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Oznacza przeterminowane wypożyczenia (ACTIVE -> OVERDUE) zbiorczym UPDATE-em w porcjach.
+ * Odczyty wypożyczeń nie zmieniają już statusów – status OVERDUE może się pojawić
+ * z opóźnieniem co najwyżej jednego interwału.
+ */
+@Slf4j
+@Component
+public class OverdueLoanSweeper {
+
+    public record SweepResult(int rowsTouched, int chunks, long durationMs, LocalDateTime finishedAt) {
+    }
+
+    private final LoanRepository loanRepository;
+    private final LibraryMetrics libraryMetrics;
+    private final int chunkSize;
+
+    private final AtomicReference<SweepResult> lastRun = new AtomicReference<>();
+    private final AtomicLong totalRowsTouched = new AtomicLong();
+
+    public OverdueLoanSweeper(LoanRepository loanRepository,
+                              LibraryMetrics libraryMetrics,
+                              @Value("${app.loans.overdue-sweep.chunk-size:1000}") int chunkSize) {
+        this.loanRepository = loanRepository;
+        this.libraryMetrics = libraryMetrics;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.loans.overdue-sweep.initial-delay:PT30S}",
+               fixedDelayString = "${app.loans.overdue-sweep.interval:PT5M}")
+    public SweepResult sweep() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int touched = 0;
+        int chunks = 0;
+        int updated;
+        do {
+            // każda porcja to osobna transakcja – blokady wierszy trzymane krótko
+            updated = loanRepository.markOverdueChunk(now, chunkSize);
+            touched += updated;
+            chunks++;
+        } while (updated == chunkSize);
+
+        long elapsed = System.nanoTime() - started;
+        SweepResult result = new SweepResult(touched, chunks, elapsed / 1_000_000, LocalDateTime.now());
+        lastRun.set(result);
+        totalRowsTouched.addAndGet(touched);
+        libraryMetrics.overdueSweep(touched, elapsed);
+        if (touched > 0) {
+            log.info("Oznaczono {} wypożyczeń jako OVERDUE ({} porcji, {} ms)",
+                    touched, chunks, result.durationMs());
+        }
+        return result;
+    }
+
+    public SweepResult lastRun() {
+        return lastRun.get();
+    }
+
+    public long totalRowsTouched() {
+        return totalRowsTouched.get();
+    }
+}
@@ -0,0 +1,67 @@
+package com.library.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadThroughCacheTest {
+
+    @Test
+    void invalidatingAnotherKeyKeepsInFlightLoad() {
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 100, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        // zwrot innej książki w trakcie ładowania – wynik dla 1 ma trafić do cache
+        cache.get(1L, key -> {
+            loads.incrementAndGet();
+            cache.invalidate(2L);
+            return "książka 1";
+        });
+        cache.get(1L, key -> "nie powinno się wczytać " + loads.incrementAndGet());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidatingSameKeyDropsInFlightLoad() {
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 100, Duration.ofMinutes(5));
+
+        cache.get(1L, key -> {
+            cache.invalidate(1L);
+            return "stara";
+        });
+
+        assertEquals("nowa", cache.get(1L, key -> "nowa"));
+        cache.invalidateAll();
+        cache.getAll(List.of(1L, 2L), keys -> {
+            cache.invalidate(2L);
+            return Map.of(1L, "jeden", 2L, "dwa (stara)");
+        });
+        assertEquals("jeden", cache.get(1L, key -> "jeden (ponownie)"));
+        assertEquals("dwa", cache.get(2L, key -> "dwa"));
+    }
+
+    @Test
+    void evictsLeastRecentlyReadBeyondLimit() throws Exception {
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 10, Duration.ofMinutes(5));
+        for (long id = 1; id <= 10; id++) {
+            cache.get(id, key -> "książka " + key);
+        }
+        Thread.sleep(1);
+        cache.get(1L, key -> "ponownie wczytana");   // najświeższy odczyt
+
+        cache.get(11L, key -> "książka 11");
+
+        ReadThroughCache.Stats stats = cache.stats();
+        assertTrue(stats.size() <= 10, () -> "rozmiar " + stats.size());
+        assertEquals("książka 1", cache.get(1L, key -> "ponownie wczytana"));
+        assertEquals("książka 11", cache.get(11L, key -> "ponownie wczytana"));
+        assertEquals("ponownie wczytana", cache.get(2L, key -> "ponownie wczytana"));
+    }
+}
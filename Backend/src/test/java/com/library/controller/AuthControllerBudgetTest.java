@@ -0,0 +1,78 @@
+package com.library.controller;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void register() throws Exception {
+        withinBudget(json(post("/api/auth/register"), Map.of(
+                "email", "nowy@test.local", "password", PASSWORD,
+                "firstName", "Nowy", "lastName", "Czytelnik")));
+    }
+
+    @Test
+    void login() throws Exception {
+        var auth = read(withinBudget(json(post("/api/auth/login"), Map.of("email", READER, "password", PASSWORD))));
+        assertFalse(auth.path("token").asText().isEmpty());
+    }
+
+    @Test
+    void refreshAndLogout() throws Exception {
+        var auth = read(withinBudget(json(post("/api/auth/login"), Map.of("email", READER, "password", PASSWORD))));
+        var refreshed = read(withinBudget(json(post("/api/auth/refresh"),
+                Map.of("refreshToken", auth.path("refreshToken").asText()))));
+        withinBudget(json(post("/api/auth/logout"), Map.of("refreshToken", refreshed.path("refreshToken").asText())));
+    }
+
+    @Test
+    void refreshFromTwoTabsKeepsTheSession() throws Exception {
+        var auth = read(withinBudget(json(post("/api/auth/login"), Map.of("email", READER, "password", PASSWORD))));
+        var token = Map.of("refreshToken", auth.path("refreshToken").asText());
+        var first = read(withinBudget(json(post("/api/auth/refresh"), token)));
+        // druga karta z tym samym tokenem chwilę później – bez unieważnienia rodziny
+        var second = read(withinBudget(json(post("/api/auth/refresh"), token)));
+        assertNotEquals(first.path("refreshToken").asText(), second.path("refreshToken").asText());
+        withinBudget(json(post("/api/auth/refresh"), Map.of("refreshToken", first.path("refreshToken").asText())));
+
+        // po wylogowaniu rodzina jest martwa – zużyty token to już ponowne użycie
+        withinBudget(json(post("/api/auth/logout"), Map.of("refreshToken", second.path("refreshToken").asText())));
+        mockMvc.perform(json(post("/api/auth/refresh"), token)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void missingTokenIsUnauthorizedAndMissingRoleForbidden() throws Exception {
+        mockMvc.perform(get("/api/auth/me")).andExpect(status().isUnauthorized());
+        mockMvc.perform(as(READER, get("/api/admin/users"))).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void me() throws Exception {
+        var user = read(withinBudget(as(READER, get("/api/auth/me"))));
+        assertEquals(READER, user.path("email").asText());
+    }
+
+    @Test
+    void changePassword() throws Exception {
+        withinBudget(json(as("change.password@test.local", patch("/api/auth/change-password")),
+                Map.of("currentPassword", PASSWORD, "newPassword", "Nowe!hasło123")));
+    }
+
+    @Test
+    void updateProfile() throws Exception {
+        var user = read(withinBudget(json(as("profile@test.local", patch("/api/auth/me/profile")),
+                Map.of("firstName", "Paulina"))));
+        assertEquals("Paulina", user.path("firstName").asText());
+    }
+}
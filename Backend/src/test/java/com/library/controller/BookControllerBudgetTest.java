@@ -0,0 +1,58 @@
+package com.library.controller;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class BookControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void listPage() throws Exception {
+        var page = read(withinBudget(get("/api/books").param("size", "30").param("sort", "title")));
+        assertEquals(30, page.path("content").size());
+    }
+
+    @Test
+    void listPageWithFilters() throws Exception {
+        withinBudget(get("/api/books")
+                .param("author", "Nazwisko1")
+                .param("categoryId", "1")
+                .param("publicationYearFrom", "1950")
+                .param("availableOnly", "true")
+                .param("size", "20"));
+    }
+
+    @Test
+    void listAfterCursor() throws Exception {
+        var first = read(withinBudget(get("/api/books").param("after", "").param("size", "10")));
+        assertTrue(first.path("hasNext").asBoolean());
+        withinBudget(get("/api/books").param("after", first.path("nextCursor").asText()).param("size", "10"));
+    }
+
+    @Test
+    void search() throws Exception {
+        var result = read(withinBudget(get("/api/books/search").param("q", "książka testowa").param("size", "20")));
+        assertTrue(result.path("content").size() > 0);
+    }
+
+    @Test
+    void listWithSearch() throws Exception {
+        var page = read(withinBudget(get("/api/books").param("search", "ksiazka testowa").param("size", "20")));
+        assertEquals(20, page.path("content").size());
+        assertTrue(page.path("totalElements").asLong() >= 30);
+    }
+
+    @Test
+    void suggest() throws Exception {
+        withinBudget(get("/api/books/suggest").param("q", "ksi").param("limit", "10"));
+    }
+
+    @Test
+    void getById() throws Exception {
+        var book = read(withinBudget(get("/api/books/{id}", 3)));
+        assertEquals(2, book.path("authors").size());
+    }
+}
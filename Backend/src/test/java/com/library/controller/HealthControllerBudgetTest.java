@@ -0,0 +1,14 @@
+package com.library.controller;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class HealthControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void health() throws Exception {
+        withinBudget(get("/health"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.library.controller;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class LoanControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void myLoans() throws Exception {
+        var page = read(withinBudget(as(READER, get("/api/me/loans")).param("size", "20")));
+        assertEquals(14, page.path("content").size());
+    }
+
+    @Test
+    void myLoansAfterCursor() throws Exception {
+        var first = read(withinBudget(as(READER, get("/api/me/loans")).param("after", "").param("size", "2")));
+        assertTrue(first.path("hasNext").asBoolean());
+        withinBudget(as(READER, get("/api/me/loans")).param("after", first.path("nextCursor").asText()).param("size", "2"));
+    }
+
+    @Test
+    void history() throws Exception {
+        var page = read(withinBudget(as(READER, get("/api/me/loans/history")).param("size", "20")));
+        assertEquals(10, page.path("content").size());
+    }
+
+    @Test
+    void historyAfterCursor() throws Exception {
+        var first = read(withinBudget(as(READER, get("/api/me/loans/history")).param("after", "").param("size", "4")));
+        assertTrue(first.path("hasNext").asBoolean());
+        withinBudget(as(READER, get("/api/me/loans/history"))
+                .param("after", first.path("nextCursor").asText()).param("size", "4"));
+    }
+
+    @Test
+    void createLoan() throws Exception {
+        withinBudget(json(as("reader2@test.local", post("/api/loans")), Map.of("bookId", 12)));
+    }
+
+    @Test
+    void extend() throws Exception {
+        withinBudget(json(as(READER, post("/api/loans/{id}/extend", 1)), Map.of("additionalDays", 7)));
+    }
+
+    @Test
+    void requestReturn() throws Exception {
+        var loan = read(withinBudget(as(READER, post("/api/loans/{id}/return", 2))));
+        assertEquals("RETURN_REQUESTED", loan.path("status").asText());
+    }
+}
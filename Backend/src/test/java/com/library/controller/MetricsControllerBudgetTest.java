@@ -0,0 +1,45 @@
+package com.library.controller;
+
+import com.library.metrics.MetricsRegistry;
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MetricsControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Autowired
+    private MetricsRegistry registry;
+
+    @Test
+    void scrape() throws Exception {
+        String body = withinBudget(get("/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer test-scrape-token"))
+                .getResponse().getContentAsString();
+        assertTrue(body.contains("hibernate_statements_total"));
+        assertTrue(body.contains("library_catalog_suggest_bytes"));
+        assertTrue(body.contains("auth_password_hash_queue_depth"));
+        assertTrue(body.contains("catalog_cache_requests_total{cache=\"bookDetail\",result=\"hit\"}"));
+        assertTrue(body.contains("auth_password_hash_seconds_bucket{phase=\"hash\""));
+    }
+
+    @Test
+    void scrapeWithoutTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer zly-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // bez app.metrics.scrape-token endpoint jest zamknięty, nawet dla żądania z nagłówkiem
+    @Test
+    void closedWhileTokenUnset() {
+        MetricsController controller = new MetricsController(registry, "");
+        assertEquals(HttpStatus.FORBIDDEN, controller.scrape(null).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.scrape("Bearer ").getStatusCode());
+    }
+}
@@ -0,0 +1,34 @@
+package com.library.controller.admin;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class AdminAuthorControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void list() throws Exception {
+        withinBudget(as(ADMIN, get("/api/admin/authors")));
+    }
+
+    @Test
+    void createAndUpdate() throws Exception {
+        var author = read(withinBudget(json(as(ADMIN, post("/api/admin/authors")),
+                Map.of("firstName", "Nowa", "lastName", "Autorka"))));
+        var updated = read(withinBudget(json(as(ADMIN, put("/api/admin/authors/{id}", author.path("id").asLong())),
+                Map.of("firstName", "Nowa", "lastName", "Poprawiona"))));
+        assertEquals("Poprawiona", updated.path("lastName").asText());
+    }
+
+    @Test
+    void deleteAuthor() throws Exception {
+        withinBudget(as(ADMIN, delete("/api/admin/authors/{id}", 11)));
+    }
+}
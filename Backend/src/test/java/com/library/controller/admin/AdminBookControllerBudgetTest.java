@@ -0,0 +1,51 @@
+package com.library.controller.admin;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class AdminBookControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void list() throws Exception {
+        var page = read(withinBudget(as(ADMIN, get("/api/admin/books")).param("size", "30")));
+        assertEquals(30, page.path("content").size());
+    }
+
+    // PUT i DELETE na książce utworzonej w teście – tytuły z data-h2.sql sprawdzają inne testy
+    @Test
+    void createUpdateAndDeactivate() throws Exception {
+        var book = read(withinBudget(json(as(ADMIN, post("/api/admin/books")), Map.of(
+                "title", "Nowa książka", "publicationYear", 2020, "isbn", "9780000009901",
+                "categoryId", 1, "authorIds", List.of(1, 2), "initialCopies", 10))));
+        long id = book.path("id").asLong();
+
+        var updated = read(withinBudget(json(as(ADMIN, put("/api/admin/books/{id}", id)), Map.of(
+                "title", "Nowa książka, wyd. 2", "publicationYear", 2021, "isbn", "9780000009901",
+                "categoryId", 2, "authorIds", List.of(3)))));
+        assertEquals(1, updated.path("authors").size());
+
+        withinBudget(as(ADMIN, delete("/api/admin/books/{id}", id)));
+    }
+
+    // dryf wprowadzony z pominięciem Hibernate – naprawa przechodzi pełną ścieżkę (UPDATE + indeks)
+    @Test
+    void rebuildCounters() throws Exception {
+        jdbcTemplate.update("update book set available_copies = 0 where id = 30");
+        var result = read(withinBudget(as(ADMIN, post("/api/admin/books/counters/rebuild"))));
+        assertEquals(1, result.path("fixedBooks").asInt());
+    }
+}
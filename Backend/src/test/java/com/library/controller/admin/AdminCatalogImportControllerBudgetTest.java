@@ -0,0 +1,106 @@
+package com.library.controller.admin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.library.service.InventoryCodeAllocator;
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// import działa w tle (osobny wątek) – budżet obejmuje tylko samo żądanie
+class AdminCatalogImportControllerBudgetTest extends StatementBudgetTestSupport {
+
+    private static final String CSV = """
+            title,isbn,year,authors,category,copies
+            Import testowy 1,,2001,Jan Importowy,Fantastyka,1
+            ,,2002,Bez Tytułu,,1
+            Import testowy 2,,2003,Jan Importowy,Klasyka,2
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryCodeAllocator inventoryCodeAllocator;
+
+    @Test
+    void startStatusListErrorsCancel() throws Exception {
+        String id = start(CSV).path("id").asText();
+        JsonNode job = await(id, "COMPLETED");
+        assertEquals(1, job.path("failed").asLong());
+
+        withinBudget(as(ADMIN, get("/api/admin/books/import")));
+        assertEquals(1, read(withinBudget(as(ADMIN, get("/api/admin/books/import/{id}/errors", id)))).size());
+        withinBudget(as(ADMIN, post("/api/admin/books/import/{id}/cancel", id)));
+    }
+
+    // plik bez kolumny title – import kończy się FAILED i plik zostaje do wznowienia
+    @Test
+    void resume() throws Exception {
+        String id = start("isbn\n9780000009902\n").path("id").asText();
+        await(id, "FAILED");
+        withinBudget(as(ADMIN, post("/api/admin/books/import/{id}/resume", id)));
+        await(id, "FAILED");
+    }
+
+    // kod inwentarzowy, który alokator wyda jako następny, jest już zajęty – INSERT paczki
+    // łamie unikalność, import kończy się FAILED bez przesunięcia recordsCommitted i bez
+    // wpisów w raporcie; po zwolnieniu kodu wznowienie zapisuje tę samą paczkę
+    @Test
+    void batchFailureStopsImportUntilResumed() throws Exception {
+        String taken = nextInventoryCode();
+        jdbcTemplate.update("INSERT INTO book (title, total_copies, available_copies) VALUES ('Kolizja kodu', 1, 1)");
+        Long bookId = jdbcTemplate.queryForObject("SELECT id FROM book WHERE title = 'Kolizja kodu'", Long.class);
+        jdbcTemplate.update("INSERT INTO book_copy (book_id, inventory_code) VALUES (?, ?)", bookId, taken);
+
+        String id = start("""
+                title,isbn,year,authors,category,copies
+                Import po awarii,,2005,Jan Importowy,,1
+                ,,2006,Bez Tytułu,,1
+                """).path("id").asText();
+        JsonNode job = await(id, "FAILED");
+        assertEquals(0, job.path("recordsCommitted").asLong());
+        assertEquals(0, job.path("imported").asLong());
+        assertEquals(0, job.path("failed").asLong());
+        assertTrue(job.path("message").asText().contains("nie powiódł się"), job.path("message").asText());
+        assertEquals(0, read(withinBudget(as(ADMIN, get("/api/admin/books/import/{id}/errors", id)))).size());
+
+        jdbcTemplate.update("UPDATE book_copy SET inventory_code = 'KOLIZJA' WHERE inventory_code = ?", taken);
+        withinBudget(as(ADMIN, post("/api/admin/books/import/{id}/resume", id)));
+        job = await(id, "COMPLETED");
+        assertEquals(2, job.path("recordsCommitted").asLong());
+        assertEquals(1, job.path("imported").asLong());
+        assertEquals(1, job.path("failed").asLong());
+    }
+
+    // alokator wydaje kolejne numery z bloku w pamięci – następny kod to ten po właśnie pobranym
+    private String nextInventoryCode() {
+        String code = inventoryCodeAllocator.next();
+        int digits = code.length() - 3;
+        return String.format("INV%0" + digits + "d", Long.parseLong(code.substring(3)) + 1);
+    }
+
+    private JsonNode start(String csv) throws Exception {
+        return read(withinBudget(as(ADMIN, post("/api/admin/books/import"))
+                .contentType(MediaType.TEXT_PLAIN)
+                .content(csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private JsonNode await(String id, String status) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            JsonNode job = read(withinBudget(as(ADMIN, get("/api/admin/books/import/{id}", id))));
+            if (status.equals(job.path("status").asText())) return job;
+            Thread.sleep(50);
+        }
+        return fail("Import " + id + " nie osiągnął statusu " + status);
+    }
+}
@@ -0,0 +1,26 @@
+package com.library.controller.admin;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class AdminExportControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void exportBooks() throws Exception {
+        String csv = withinBudget(as(ADMIN, get("/api/admin/books/export"))).getResponse().getContentAsString();
+        assertTrue(csv.lines().count() > 30);
+    }
+
+    @Test
+    void exportLoans() throws Exception {
+        String ndjson = withinBudget(as(ADMIN, get("/api/admin/loans/export")).param("format", "ndjson")
+                .param("from", LocalDate.now().minusDays(90).toString())
+                .param("to", LocalDate.now().plusDays(1).toString())).getResponse().getContentAsString();
+        assertTrue(ndjson.lines().count() >= 19);
+    }
+}
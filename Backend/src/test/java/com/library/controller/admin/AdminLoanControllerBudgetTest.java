@@ -0,0 +1,62 @@
+package com.library.controller.admin;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class AdminLoanControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void list() throws Exception {
+        var page = read(withinBudget(as(ADMIN, get("/api/admin/loans")).param("size", "20")));
+        assertTrue(page.path("content").size() >= 15);
+    }
+
+    @Test
+    void listAfterCursor() throws Exception {
+        var first = read(withinBudget(as(ADMIN, get("/api/admin/loans")).param("after", "").param("size", "5")));
+        assertTrue(first.path("hasNext").asBoolean());
+        withinBudget(as(ADMIN, get("/api/admin/loans")).param("after", first.path("nextCursor").asText()).param("size", "5"));
+    }
+
+    @Test
+    void getById() throws Exception {
+        assertEquals(3, read(withinBudget(as(ADMIN, get("/api/admin/loans/{id}", 3)))).path("id").asLong());
+    }
+
+    @Test
+    void create() throws Exception {
+        withinBudget(as(ADMIN, post("/api/admin/loans")).param("userId", "3").param("bookCopyId", "40"));
+    }
+
+    @Test
+    void update() throws Exception {
+        withinBudget(as(ADMIN, put("/api/admin/loans/{id}", 17))
+                .param("dueDate", LocalDateTime.now().plusDays(40).withNano(0).toString()));
+    }
+
+    @Test
+    void acceptReturn() throws Exception {
+        assertEquals("RETURNED", read(withinBudget(as(ADMIN, post("/api/admin/loans/{id}/return/accept", 15))))
+                .path("status").asText());
+    }
+
+    @Test
+    void rejectReturn() throws Exception {
+        assertEquals("RETURN_REJECTED", read(withinBudget(as(ADMIN, post("/api/admin/loans/{id}/return/reject", 16))))
+                .path("status").asText());
+    }
+
+    @Test
+    void deleteLoan() throws Exception {
+        withinBudget(as(ADMIN, delete("/api/admin/loans/{id}", 18)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.library.controller.admin;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class AdminPenaltyControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void list() throws Exception {
+        var page = read(withinBudget(as(ADMIN, get("/api/admin/penalties")).param("userId", "2")));
+        assertTrue(page.path("content").size() >= 3);
+    }
+
+    @Test
+    void listAfterCursor() throws Exception {
+        var first = read(withinBudget(as(ADMIN, get("/api/admin/penalties")).param("after", "").param("size", "2")));
+        assertTrue(first.path("hasNext").asBoolean());
+        withinBudget(as(ADMIN, get("/api/admin/penalties"))
+                .param("after", first.path("nextCursor").asText()).param("size", "2"));
+    }
+
+    @Test
+    void create() throws Exception {
+        withinBudget(json(as(ADMIN, post("/api/admin/penalties")),
+                Map.of("userId", 3, "loanId", 19, "amount", 4.5, "reason", "Zalanie")));
+    }
+
+    @Test
+    void markPaid() throws Exception {
+        assertEquals("PAID", read(withinBudget(as(ADMIN, post("/api/admin/penalties/{id}/paid", 1))))
+                .path("status").asText());
+    }
+}
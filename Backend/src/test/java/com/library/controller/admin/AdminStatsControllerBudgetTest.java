@@ -0,0 +1,57 @@
+package com.library.controller.admin;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class AdminStatsControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void summary() throws Exception {
+        withinBudget(lastQuarter(get("/api/admin/stats/summary")));
+    }
+
+    @Test
+    void loansPerDay() throws Exception {
+        withinBudget(lastQuarter(get("/api/admin/stats/loans-per-day")));
+    }
+
+    // przebudowa idzie miesiąc po miesiącu – limit jest na zakres w obrębie dwóch miesięcy
+    @Test
+    void rebuildRollup() throws Exception {
+        withinBudget(as(ADMIN, post("/api/admin/stats/rollup/rebuild"))
+                .param("from", LocalDate.now().withDayOfMonth(1).toString())
+                .param("to", LocalDate.now().toString()));
+    }
+
+    @Test
+    void checkRollup() throws Exception {
+        withinBudget(lastQuarter(get("/api/admin/stats/rollup/check")));
+    }
+
+    @Test
+    void passwordHashing() throws Exception {
+        withinBudget(as(ADMIN, get("/api/admin/stats/password-hashing")));
+    }
+
+    @Test
+    void caches() throws Exception {
+        withinBudget(as(ADMIN, get("/api/admin/stats/caches")));
+    }
+
+    @Test
+    void overdueSweeper() throws Exception {
+        withinBudget(as(ADMIN, get("/api/admin/stats/overdue-sweeper")));
+    }
+
+    private MockHttpServletRequestBuilder lastQuarter(MockHttpServletRequestBuilder request) {
+        return as(ADMIN, request)
+                .param("from", LocalDate.now().minusDays(90).toString())
+                .param("to", LocalDate.now().toString());
+    }
+}
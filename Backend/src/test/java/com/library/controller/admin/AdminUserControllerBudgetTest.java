@@ -0,0 +1,45 @@
+package com.library.controller.admin;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class AdminUserControllerBudgetTest extends StatementBudgetTestSupport {
+
+    @Test
+    void list() throws Exception {
+        var users = read(withinBudget(as(ADMIN, get("/api/admin/users")).param("size", "50")));
+        assertTrue(users.size() >= 8);
+    }
+
+    @Test
+    void picker() throws Exception {
+        var users = read(withinBudget(as(ADMIN, get("/api/admin/users/picker")).param("q", "czyt")));
+        assertTrue(users.size() >= 2);
+    }
+
+    @Test
+    void update() throws Exception {
+        var user = read(withinBudget(json(as(ADMIN, put("/api/admin/users/{id}", 4)),
+                Map.of("firstName", "Edmund", "status", "BLOCKED", "blockedReason", "Test"))));
+        assertEquals("Edmund", user.path("firstName").asText());
+    }
+
+    @Test
+    void setPassword() throws Exception {
+        withinBudget(json(as(ADMIN, patch("/api/admin/users/{id}/password", 5)), Map.of("newPassword", "Inne!hasło99")));
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        withinBudget(as(ADMIN, delete("/api/admin/users/{id}", 6)));
+    }
+}
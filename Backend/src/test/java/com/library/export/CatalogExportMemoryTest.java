@@ -0,0 +1,115 @@
+package com.library.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.model.enums.LoanStatus;
+import com.library.repository.LoanRepository;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eksport wypożyczeń nie trzyma wierszy w pamięci: {@link CatalogExportService#exportLoans} przepuszcza
+ * 5 mln wygenerowanych wierszy przez {@link RowWriter} w osobnej JVM z {@code -Xmx64m}. Gdyby eksport
+ * zbierał wiersze (lista, bufor całej odpowiedzi), zabrakłoby pamięci już po kilkuset tysiącach.
+ * Strumień wierszy zastępuje bazę – strumieniowanie wyniku przez Connector/J (fetch size
+ * {@code Integer.MIN_VALUE}) sprawdza się tylko na MySQL.
+ */
+class CatalogExportMemoryTest {
+
+    private static final long ROWS = 5_000_000;
+    private static final String HEAP = "-Xmx64m";
+
+    @ParameterizedTest
+    @EnumSource(ExportFormat.class)
+    void exportsFiveMillionLoansInSmallHeap(ExportFormat format, @TempDir Path dir) throws Exception {
+        Path log = dir.resolve("export.log");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, HEAP, "-XX:+UseSerialGC",
+                "-cp", System.getProperty("java.class.path"),
+                CatalogExportMemoryTest.class.getName(), format.name(), Long.toString(ROWS))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            assertTrue(process.waitFor(5, TimeUnit.MINUTES), "Eksport nie skończył się w 5 minut");
+        } finally {
+            process.destroyForcibly();
+        }
+        String output = Files.readString(log).trim();
+
+        assertEquals(0, process.exitValue(), output);
+        long header = format == ExportFormat.CSV ? 1 : 0;
+        assertTrue(output.endsWith("lines=" + (ROWS + header)), output);
+    }
+
+    /** Proces potomny: {@code <format> <liczba wierszy>}, wypisuje liczbę bajtów i linii. */
+    public static void main(String[] args) throws Exception {
+        ExportFormat format = ExportFormat.valueOf(args[0]);
+        long rows = Long.parseLong(args[1]);
+        LoanRepository loans = (LoanRepository) Proxy.newProxyInstance(LoanRepository.class.getClassLoader(),
+                new Class<?>[]{LoanRepository.class}, (proxy, method, arguments) -> {
+                    if (method.getName().equals("streamAllRows")) {
+                        return LongStream.rangeClosed(1, rows).mapToObj(GeneratedLoan::new);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        CatalogExportService service = new CatalogExportService(null, loans, new ObjectMapper());
+
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        long exported = service.exportLoans(format, null, null, out);
+        System.out.printf("%s: %d wierszy w %.1f s, bytes=%d lines=%d%n", format, exported,
+                (System.nanoTime() - start) / 1e9, out.bytes, out.lines);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+        }
+    }
+
+    private record GeneratedLoan(long id) implements LoanRepository.LoanRow {
+        private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 10, 0);
+        private static final List<LoanStatus> STATUSES = List.of(LoanStatus.values());
+
+        @Override public Long getId() { return id; }
+        @Override public Long getUserId() { return id % 50_000 + 1; }
+        @Override public String getUserFirstName() { return "Czytelnik"; }
+        @Override public String getUserLastName() { return "Nazwisko, \"" + id % 1000 + "\""; }
+        @Override public Long getCopyId() { return id % 200_000 + 1; }
+        @Override public String getInventoryCode() { return "INV-" + (id % 200_000 + 1); }
+        @Override public Long getBookId() { return id % 60_000 + 1; }
+        @Override public String getBookTitle() { return "Tytuł książki " + id % 60_000; }
+        @Override public LocalDateTime getLoanDate() { return START.plusMinutes(id); }
+        @Override public LocalDateTime getDueDate() { return START.plusMinutes(id).plusDays(30); }
+        @Override public LocalDateTime getReturnDate() { return id % 3 == 0 ? null : START.plusMinutes(id).plusDays(12); }
+        @Override public LoanStatus getStatus() { return STATUSES.get((int) (id % STATUSES.size())); }
+        @Override public Short getExtensionsCount() { return (short) (id % 3); }
+    }
+}
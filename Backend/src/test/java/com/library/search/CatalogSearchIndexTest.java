@@ -0,0 +1,67 @@
+package com.library.search;
+
+import com.library.model.entity.Author;
+import com.library.model.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogSearchIndexTest {
+
+    private static final CatalogSearchIndex.Filter ALL = new CatalogSearchIndex.Filter(null, null, null, false, false);
+
+    @Test
+    void typoFindsWordThroughBigramCandidates() {
+        CatalogSearchIndex index = index(
+                book(1, "Władca Pierścieni", "J.R.R.", "Tolkien"),
+                book(2, "Hobbit", "J.R.R.", "Tolkien"),
+                book(3, "Diuna", "Frank", "Herbert"));
+
+        assertEquals(List.of(1L, 2L), index.search("tolkein", ALL).bookIds());   // przestawienie
+        assertEquals(List.of(3L), index.search("hrebert", ALL).bookIds());
+        assertEquals(List.of(1L), index.search("pierscieniw", ALL).bookIds());  // dopisana litera
+        assertEquals(List.of(), index.search("xyzzy", ALL).bookIds());
+    }
+
+    @Test
+    void exactHitSkipsFuzzyExpansion() {
+        CatalogSearchIndex index = index(
+                book(1, "Lalka", "Bolesław", "Prus"),
+                book(2, "Lalki", "Anna", "Nowak"));
+
+        // "lalka" jest w słowniku – "lalki" (1 edycja) nie dokłada wyników
+        assertEquals(List.of(1L), index.search("lalka", ALL).bookIds());
+        // bez dokładnego trafienia obie pasują z literówką
+        assertEquals(List.of(1L, 2L), index.search("lalke", ALL).bookIds());
+    }
+
+    @Test
+    void removedWordsLeaveBigramIndex() {
+        CatalogSearchIndex index = index(book(1, "Solaris", "Stanisław", "Lem"));
+        index.put(book(1, "Cyberiada", "Stanisław", "Lem"));
+
+        assertEquals(List.of(), index.search("solarsi", ALL).bookIds());
+        assertEquals(List.of(1L), index.search("cyberaida", ALL).bookIds());
+        index.remove(1L);
+        assertEquals(List.of(), index.search("cyberaida", ALL).bookIds());
+    }
+
+    private static CatalogSearchIndex index(Book... books) {
+        CatalogSearchIndex index = new CatalogSearchIndex();
+        for (Book book : books) index.put(book);
+        return index;
+    }
+
+    private static Book book(long id, String title, String firstName, String lastName) {
+        Author author = new Author();
+        author.setFirstName(firstName);
+        author.setLastName(lastName);
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthors(List.of(author));
+        return book;
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.service;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static com.library.support.StatementAssertions.recordStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Strona katalogu kosztuje stałą liczbę zapytań niezależnie od rozmiaru strony – relacje całej
+ * strony idą jednym zapytaniem, nie jednym na wiersz. Każdy pomiar przy zimnym cache.
+ */
+class BookServiceStatementCountTest extends StatementBudgetTestSupport {
+
+    private static final int[] PAGE_SIZES = {5, 10, 25};
+
+    @Autowired
+    private BookService bookService;
+
+    @Test
+    void pageCostDoesNotDependOnPageSize() {
+        assertSameCountForEverySize(size -> bookService.getBooks(null, null, null, null, null, null, null,
+                PageRequest.of(0, size, Sort.by("title"))));
+    }
+
+    @Test
+    void cursorPageCostDoesNotDependOnPageSize() {
+        assertSameCountForEverySize(size -> bookService.getBooksAfter(null, null, null, null, null, null, null,
+                null, size));
+    }
+
+    @Test
+    void searchPageCostDoesNotDependOnPageSize() {
+        assertSameCountForEverySize(size -> bookService.searchBooks("książka testowa", null, null, null, null, null,
+                PageRequest.of(0, size)));
+    }
+
+    private void assertSameCountForEverySize(PageLoader loader) {
+        List<String> smallest = null;
+        for (int size : PAGE_SIZES) {
+            evictCaches();
+            List<String> statements = recordStatements(() -> loader.load(size));
+            if (smallest == null) {
+                smallest = statements;
+            } else {
+                assertEquals(smallest.size(), statements.size(),
+                        "strona " + size + ": " + statements + ", strona " + PAGE_SIZES[0] + ": " + smallest);
+            }
+        }
+    }
+
+    private interface PageLoader {
+        void load(int size) throws Exception;
+    }
+}
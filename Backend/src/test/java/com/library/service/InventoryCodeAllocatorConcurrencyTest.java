@@ -0,0 +1,108 @@
+package com.library.service;
+
+import com.library.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kody inwentarzowe z wielu wątków i wielu alokatorów naraz (jak kilka instancji aplikacji na
+ * jednej bazie) – żaden kod nie może się powtórzyć. Mały blok wymusza częste rezerwacje
+ * w {@code inventory_sequence}.
+ */
+@IntegrationTest
+class InventoryCodeAllocatorConcurrencyTest {
+
+    private static final int INSTANCES = 3;
+    private static final int THREADS_PER_INSTANCE = 4;
+    private static final int CALLS_PER_THREAD = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void parallelCreatorsNeverShareACode() throws Exception {
+        List<InventoryCodeAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            allocators.add(new InventoryCodeAllocator(jdbcTemplate, transactionManager, 7));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(INSTANCES * THREADS_PER_INSTANCE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (InventoryCodeAllocator allocator : allocators) {
+                for (int t = 0; t < THREADS_PER_INSTANCE; t++) {
+                    int seed = t;
+                    results.add(pool.submit((Callable<List<String>>) () -> {
+                        start.await();
+                        List<String> codes = new ArrayList<>();
+                        for (int call = 0; call < CALLS_PER_THREAD; call++) {
+                            // jak tworzenie książki z 1–12 egzemplarzami – część wywołań przekracza blok
+                            codes.addAll(allocator.allocate(1 + (seed + call) % 12));
+                        }
+                        return codes;
+                    }));
+                }
+            }
+            start.countDown();
+
+            Set<String> unique = new HashSet<>();
+            int total = 0;
+            for (Future<List<String>> result : results) {
+                for (String code : result.get(60, TimeUnit.SECONDS)) {
+                    assertTrue(code.matches("INV\\d{8}"), code);
+                    assertTrue(unique.add(code), () -> "Powtórzony kod " + code);
+                    total++;
+                }
+            }
+            assertEquals(total, unique.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void missingSequenceRowStartsAfterHighestExistingCode() {
+        Long bookId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM book", Long.class);
+        jdbcTemplate.update("INSERT INTO book_copy (book_id, inventory_code, status) VALUES (?, 'INV90000000', 'WITHDRAWN')",
+                bookId);
+        try {
+            jdbcTemplate.update("DELETE FROM inventory_sequence WHERE name = 'book_copy'");
+            InventoryCodeAllocator allocator = new InventoryCodeAllocator(jdbcTemplate, transactionManager, 7);
+            assertEquals("INV90000001", allocator.next());
+        } finally {
+            jdbcTemplate.update("DELETE FROM book_copy WHERE inventory_code = 'INV90000000'");
+        }
+    }
+
+    @Test
+    void refusesToRunInsideATransaction() {
+        InventoryCodeAllocator allocator = new InventoryCodeAllocator(jdbcTemplate, transactionManager, 7);
+        assertThrows(IllegalStateException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> allocator.allocate(1)));
+    }
+}
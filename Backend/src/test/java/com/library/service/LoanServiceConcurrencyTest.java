@@ -0,0 +1,145 @@
+package com.library.service;
+
+import com.library.dto.LoanDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Równoległe wypożyczenia jednego tytułu: każdy wolny egzemplarz trafia do dokładnie jednego
+ * czytelnika, nadmiarowe żądania dostają 409, licznik dostępnych egzemplarzy spada do zera.
+ * <p>
+ * Tylko MySQL – uruchamiany, gdy podano {@code -Dmysql.url=jdbc:mysql://...} (baza testowa ze schematem
+ * z BataBase/DBSchema.sql; test dopisuje własną książkę i czytelników i ich nie usuwa). H2 przy skanie
+ * indeksem {@code (book_id, status)} stosuje {@code LIMIT 1} przed pominięciem zablokowanych wierszy,
+ * więc {@code FOR UPDATE SKIP LOCKED} z {@link com.library.repository.BookCopyRepository#claimAvailableCopy}
+ * zwraca tam pusty wynik każdemu poza pierwszą transakcją. Wypisuje przepustowość (wypożyczenia/s).
+ * <pre>
+ * mvn test -Dtest=LoanServiceConcurrencyTest -Dmysql.url=jdbc:mysql://localhost:3306/library_test \
+ *          -Dmysql.user=library -Dmysql.password=library
+ * </pre>
+ */
+@SpringBootTest(properties = {
+        "app.catalog.counter-repair.initial-delay=PT24H",
+        "app.loans.overdue-sweep.initial-delay=PT24H",
+        "app.stats.rollup.check-initial-delay=PT24H",
+        "app.jwt.refresh-cleanup.initial-delay=PT24H",
+        "app.access-log.enabled=false",
+        "app.access-log.dir=target/logs"
+})
+@EnabledIfSystemProperty(named = "mysql.url", matches = "jdbc:mysql:.+")
+class LoanServiceConcurrencyTest {
+
+    private static final int COPIES = 20;
+    private static final int READERS = 32;
+
+    @DynamicPropertySource
+    static void mysql(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("mysql.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("mysql.user", "library"));
+        registry.add("spring.datasource.password", () -> System.getProperty("mysql.password", "library"));
+        // pula co najmniej tak duża jak liczba wątków – inaczej mierzymy czekanie na połączenie
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> READERS);
+    }
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelCheckoutsNeverShareACopy() throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        long bookId = createBookWithCopies(run);
+        List<Long> readers = createReaders(run);
+
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LoanDto>> results = new ArrayList<>();
+        try {
+            for (Long reader : readers) {
+                results.add(pool.submit((Callable<LoanDto>) () -> {
+                    start.await();
+                    return loanService.createLoan(reader, bookId);
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+
+            Set<Long> copies = new HashSet<>();
+            int rejected = 0;
+            for (Future<LoanDto> result : results) {
+                try {
+                    Long copyId = result.get(60, TimeUnit.SECONDS).getBookCopy().getId();
+                    assertTrue(copies.add(copyId), () -> "Egzemplarz " + copyId + " wypożyczony dwa razy");
+                } catch (ExecutionException e) {
+                    ResponseStatusException error = assertInstanceOf(ResponseStatusException.class, e.getCause());
+                    assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+                    rejected++;
+                }
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("Równoległe wypożyczenia: %d wątków, %d wypożyczeń, %d odmów, %.3f s, %.0f wypożyczeń/s%n",
+                    READERS, copies.size(), rejected, seconds, copies.size() / seconds);
+
+            assertEquals(COPIES, copies.size());
+            assertEquals(READERS - COPIES, rejected);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(COPIES, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM book_copy WHERE book_id = ? AND status = 'BORROWED'", Integer.class, bookId));
+        assertEquals(COPIES, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM loan l JOIN book_copy c ON c.id = l.book_copy_id WHERE c.book_id = ?",
+                Integer.class, bookId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT available_copies FROM book WHERE id = ?", Integer.class, bookId));
+    }
+
+    private long createBookWithCopies(String run) {
+        String isbn = "CONC-" + run;
+        jdbcTemplate.update("INSERT INTO book (title, isbn, publication_year, total_copies, available_copies) " +
+                "VALUES (?, ?, 2024, ?, ?)", "Test równoległych wypożyczeń " + run, isbn, COPIES, COPIES);
+        long bookId = jdbcTemplate.queryForObject("SELECT id FROM book WHERE isbn = ?", Long.class, isbn);
+        for (int i = 1; i <= COPIES; i++) {
+            jdbcTemplate.update("INSERT INTO book_copy (book_id, inventory_code, status) VALUES (?, ?, 'AVAILABLE')",
+                    bookId, "CONC-" + run + "-" + i);
+        }
+        return bookId;
+    }
+
+    private List<Long> createReaders(String run) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= READERS; i++) {
+            String email = "concurrent" + i + "-" + run + "@test.local";
+            jdbcTemplate.update("INSERT INTO app_user (email, password_hash, first_name, last_name, role, status) " +
+                    "VALUES (?, 'x', 'Czytelnik', ?, 'READER', 'ACTIVE')", email, "Równoległy " + i);
+            ids.add(jdbcTemplate.queryForObject("SELECT id FROM app_user WHERE email = ?", Long.class, email));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,33 @@
+package com.library.service;
+
+import com.library.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static com.library.support.StatementAssertions.recordStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Filtrowana lista wypożyczeń kosztuje tyle samo zapytań niezależnie od rozmiaru strony –
+ * wiersz, egzemplarz i książka idą w jednym SELECT, autorzy jednym zapytaniem na stronę.
+ * Obie strony niepełne, więc obie liczą COUNT.
+ */
+class LoanServiceStatementCountTest extends StatementBudgetTestSupport {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Test
+    void filteredPageCostDoesNotDependOnPageSize() {
+        List<String> small = recordStatements(() -> loanService.getLoans(null, null, null, null, null,
+                PageRequest.of(0, 1, Sort.by("loanDate"))));
+        List<String> large = recordStatements(() -> loanService.getLoans(null, null, null, null, null,
+                PageRequest.of(0, 6, Sort.by("loanDate"))));
+
+        assertEquals(small.size(), large.size(), "strona 6: " + large + ", strona 1: " + small);
+    }
+}
@@ -0,0 +1,83 @@
+package com.library.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Sterownik H2 dla profilu test, który pomija ujemny fetch size. Zapytania eksportu mają
+ * podpowiedź {@code fetch_size = Integer.MIN_VALUE} – przełącznik strumieniowania Connector/J,
+ * który H2 odrzuca jako niepoprawną wartość. H2 i tak czyta wynik porcjami, więc pominięcie
+ * niczego nie zmienia w zachowaniu zapytania.
+ */
+public class H2StreamingTolerantDriver implements Driver {
+
+    private final Driver delegate = new org.h2.Driver();
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        Connection connection = delegate.connect(url, info);
+        return connection == null ? null : proxy(Connection.class, connection);
+    }
+
+    // połączenie: opakowuje zwracane instrukcje; instrukcja: pomija setFetchSize(< 0)
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (p, method, args) -> {
+            if (method.getName().equals("setFetchSize") && (int) args[0] < 0) {
+                return null;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof CallableStatement statement) return proxy(CallableStatement.class, statement);
+            if (result instanceof PreparedStatement statement) return proxy(PreparedStatement.class, statement);
+            if (result instanceof Statement statement) return proxy(Statement.class, statement);
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) throws SQLException {
+        return delegate.acceptsURL(url);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return delegate.getPropertyInfo(url, info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return delegate.getMajorVersion();
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return delegate.getMinorVersion();
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return delegate.jdbcCompliant();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+}
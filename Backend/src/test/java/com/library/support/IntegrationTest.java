@@ -0,0 +1,23 @@
+package com.library.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pełna aplikacja na H2 (profil test). Wszystkie testy integracyjne używają tej samej konfiguracji,
+ * więc dzielą jeden kontekst Springa i jedną bazę – inna kombinacja adnotacji oznacza drugi
+ * kontekst, który przy starcie przeładowałby schemat i dane pod działającym pierwszym.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public @interface IntegrationTest {
+}
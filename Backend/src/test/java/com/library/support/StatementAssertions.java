@@ -0,0 +1,71 @@
+package com.library.support;
+
+import com.library.metrics.StatementCounter;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.List;
+
+/**
+ * Asercje liczby zapytań SQL wokół fragmentu kodu – okno {@link StatementCounter} (inspektor
+ * Hibernate z MetricsConfig) otwarte na czas akcji w bieżącym wątku. Okna się zagnieżdżają,
+ * więc żądanie MockMvc liczy się tu i w RequestMetricsFilter jednocześnie. Zapytania wysłane
+ * z pominięciem Hibernate (JdbcTemplate) nie są widoczne. Komunikat błędu wypisuje wszystkie
+ * zapytania z okna – N+1 widać od razu.
+ */
+public final class StatementAssertions {
+
+    /** Zapytania wysłane w trakcie akcji, w kolejności. */
+    public static List<String> recordStatements(Executable action) {
+        StatementCounter.beginRecording();
+        try {
+            action.execute();
+        } catch (Throwable e) {
+            StatementCounter.endRecording();
+            throw rethrow(e);
+        }
+        return StatementCounter.endRecording();
+    }
+
+    public static void assertMaxStatements(int max, Executable action) {
+        assertMaxStatements(max, null, () -> {
+            action.execute();
+            return null;
+        });
+    }
+
+    /**
+     * Wykonuje akcję i sprawdza, że wysłała najwyżej {@code max} zapytań.
+     *
+     * @param description dopisywany do komunikatu błędu (np. endpoint), może być null
+     */
+    public static <T> T assertMaxStatements(int max, String description, ThrowingSupplier<T> action) {
+        Object[] result = new Object[1];
+        List<String> statements = recordStatements(() -> result[0] = action.get());
+        assertWithin(max, description, statements);
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    static void assertWithin(int max, String description, List<String> statements) {
+        if (statements.size() <= max) return;
+        StringBuilder message = new StringBuilder();
+        if (description != null) message.append(description).append(": ");
+        message.append("wysłano ").append(statements.size()).append(" zapytań SQL, limit ").append(max);
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(statements.get(i));
+        }
+        throw new AssertionFailedError(message.toString(), max, statements.size());
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof Error error) throw error;
+        if (e instanceof RuntimeException runtime) return runtime;
+        return new IllegalStateException(e);
+    }
+
+    private StatementAssertions() {
+    }
+}
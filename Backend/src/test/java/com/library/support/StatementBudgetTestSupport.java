@@ -0,0 +1,111 @@
+package com.library.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.cache.CatalogCache;
+import com.library.metrics.StatementBudget;
+import com.library.metrics.StatementBudgetGuard;
+import com.library.repository.AppUserRepository;
+import com.library.security.JwtTokenProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Baza testów budżetów zapytań: pełna aplikacja na H2 (profil test), żądania przez MockMvc
+ * z całym łańcuchem filtrów. {@link #withinBudget} wykonuje żądanie, wymaga odpowiedzi 2xx
+ * i porównuje liczbę zapytań SQL z {@link StatementBudget} metody kontrolera, która je obsłużyła –
+ * limit jest w jednym miejscu, przy endpoincie.
+ * <p>
+ * Przed każdym testem cache drugiego poziomu Hibernate i CatalogCache (książki, kategorie) są
+ * czyszczone – limit musi wystarczyć przy zimnym cache, a N+1 nie schowa się za rozgrzanym regionem.
+ */
+@IntegrationTest
+public abstract class StatementBudgetTestSupport {
+
+    protected static final String ADMIN = "admin@test.local";
+    protected static final String READER = "reader@test.local";
+    protected static final String PASSWORD = "Test!2345";
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    protected void evictCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        catalogCache.invalidateAllBooks();
+        catalogCache.invalidateAllCategories();
+    }
+
+    /** Żądanie z tokenem dostępu użytkownika z data-h2.sql. */
+    protected MockHttpServletRequestBuilder as(String email, MockHttpServletRequestBuilder request) {
+        String token = tokenProvider.generateToken(userRepository.findByEmail(email).orElseThrow());
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    protected MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+    }
+
+    /**
+     * Wykonuje żądanie i sprawdza: status 2xx, metoda kontrolera ma {@link StatementBudget},
+     * liczba zapytań SQL nie przekracza limitu.
+     */
+    protected MvcResult withinBudget(MockHttpServletRequestBuilder request) {
+        MvcResult[] result = new MvcResult[1];
+        List<String> statements = StatementAssertions.recordStatements(
+                () -> result[0] = mockMvc.perform(request).andReturn());
+        MvcResult mvc = result[0];
+        String call = mvc.getRequest().getMethod() + " " + mvc.getRequest().getRequestURI();
+
+        int status = mvc.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, () -> call + ": HTTP " + status + " " + body(mvc));
+
+        HandlerMethod handler = assertInstanceOf(HandlerMethod.class, mvc.getHandler(), call);
+        int budget = StatementBudgetGuard.budgetOf(handler.getBeanType(), handler.getMethod());
+        assertNotEquals(StatementBudgetGuard.NO_BUDGET, budget, () -> call + ": brak @StatementBudget");
+        StatementAssertions.assertWithin(budget, call + " (" + handler.getBeanType().getSimpleName() + "."
+                + handler.getMethod().getName() + ")", statements);
+        return mvc;
+    }
+
+    protected JsonNode read(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static String body(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+-- ============================================================
+-- data-h2.sql – dane testowe (profil test)
+-- ============================================================
+-- Hasło wszystkich kont: Test!2345 (BCrypt, koszt 4 – szybkie logowanie w testach).
+-- Wiersze zmieniane przez testy są osobne dla każdego testu (opis przy wierszu), bo baza
+-- jest wspólna dla całego przebiegu i kolejność klas testów nie jest ustalona.
+
+INSERT INTO app_user (id, email, password_hash, first_name, last_name, role, status) VALUES
+  (1, 'admin@test.local',           '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Ada',     'Admin',     'ADMIN',  'ACTIVE'),
+  (2, 'reader@test.local',          '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Roman',   'Czytelnik', 'READER', 'ACTIVE'),
+  (3, 'reader2@test.local',         '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Renata',  'Czytelnik', 'READER', 'ACTIVE'),
+  -- PUT /api/admin/users/{id}
+  (4, 'edit.me@test.local',         '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Edward',  'Edytowany', 'READER', 'ACTIVE'),
+  -- PATCH /api/admin/users/{id}/password
+  (5, 'password.me@test.local',     '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Paweł',   'Hasło',     'READER', 'ACTIVE'),
+  -- DELETE /api/admin/users/{id}
+  (6, 'delete.me@test.local',       '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Daria',   'Usuwana',   'READER', 'ACTIVE'),
+  -- PATCH /api/auth/change-password
+  (7, 'change.password@test.local', '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Cezary',  'Zmiana',    'READER', 'ACTIVE'),
+  -- PATCH /api/auth/me/profile
+  (8, 'profile@test.local',         '$2a$04$LAWooURmwRDeJDu5fnpTYemcFjYX.hf7/UDAxC7OWGTVDFW25Y6ky', 'Patrycja','Profil',    'READER', 'ACTIVE');
+ALTER TABLE app_user ALTER COLUMN id RESTART WITH 100;
+
+INSERT INTO category (id, name) VALUES (1, 'Fantastyka'), (2, 'Klasyka'), (3, 'Reportaż');
+ALTER TABLE category ALTER COLUMN id RESTART WITH 100;
+
+-- autorzy 1–10 mają książki; 11 bez książek (DELETE /api/admin/authors/{id})
+INSERT INTO author (id, first_name, last_name)
+SELECT x, 'Imię' || x, 'Nazwisko' || x FROM SYSTEM_RANGE(1, 10) AS r(x);
+INSERT INTO author (id, first_name, last_name) VALUES (11, 'Bez', 'Książek');
+ALTER TABLE author ALTER COLUMN id RESTART WITH 100;
+
+-- 30 tytułów po 3 egzemplarze (egzemplarz c należy do książki (c - 1) / 3 + 1), po dwóch autorów
+INSERT INTO book (id, title, description, publication_year, isbn, category_id, is_active, total_copies, available_copies)
+SELECT x, 'Książka testowa ' || x, 'Opis książki ' || x, 1950 + x, '978000000' || LPAD(x, 4, '0'),
+       MOD(x - 1, 3) + 1, TRUE, 3, 3
+FROM SYSTEM_RANGE(1, 30) AS r(x);
+ALTER TABLE book ALTER COLUMN id RESTART WITH 100;
+
+INSERT INTO book_author (book_id, author_id)
+SELECT x, MOD(x - 1, 10) + 1 FROM SYSTEM_RANGE(1, 30) AS r(x)
+UNION ALL
+SELECT x, MOD(x, 10) + 1 FROM SYSTEM_RANGE(1, 30) AS r(x);
+
+INSERT INTO book_copy (id, book_id, inventory_code, status, shelf_location)
+SELECT x, (x - 1) / 3 + 1, 'TST' || LPAD(x, 5, '0'), 'AVAILABLE', 'R' || MOD(x, 7)
+FROM SYSTEM_RANGE(1, 90) AS r(x);
+ALTER TABLE book_copy ALTER COLUMN id RESTART WITH 1000;
+
+-- Wypożyczenia
+INSERT INTO loan (id, user_id, book_copy_id, loan_date, due_date, return_date, status, extensions_count, created_by) VALUES
+  -- reader@test.local
+  (1, 2, 1,  DATEADD('DAY', -10, LOCALTIMESTAMP), DATEADD('DAY', 20, LOCALTIMESTAMP), NULL, 'ACTIVE', 0, NULL),   -- POST /api/loans/{id}/extend
+  (2, 2, 4,  DATEADD('DAY', -9, LOCALTIMESTAMP),  DATEADD('DAY', 21, LOCALTIMESTAMP), NULL, 'ACTIVE', 0, NULL),   -- POST /api/loans/{id}/return
+  (3, 2, 7,  DATEADD('DAY', -8, LOCALTIMESTAMP),  DATEADD('DAY', 22, LOCALTIMESTAMP), NULL, 'ACTIVE', 0, NULL),
+  (4, 2, 10, DATEADD('DAY', -40, LOCALTIMESTAMP), DATEADD('DAY', -10, LOCALTIMESTAMP), NULL, 'OVERDUE', 0, NULL),
+  (5, 2, 2, DATEADD('DAY', -60, LOCALTIMESTAMP), DATEADD('DAY', -30, LOCALTIMESTAMP), DATEADD('DAY', -46, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (6, 2, 5, DATEADD('DAY', -56, LOCALTIMESTAMP), DATEADD('DAY', -26, LOCALTIMESTAMP), DATEADD('DAY', -42, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (7, 2, 8, DATEADD('DAY', -52, LOCALTIMESTAMP), DATEADD('DAY', -22, LOCALTIMESTAMP), DATEADD('DAY', -38, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (8, 2, 11, DATEADD('DAY', -48, LOCALTIMESTAMP), DATEADD('DAY', -18, LOCALTIMESTAMP), DATEADD('DAY', -34, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (9, 2, 14, DATEADD('DAY', -44, LOCALTIMESTAMP), DATEADD('DAY', -14, LOCALTIMESTAMP), DATEADD('DAY', -30, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (10, 2, 17, DATEADD('DAY', -40, LOCALTIMESTAMP), DATEADD('DAY', -10, LOCALTIMESTAMP), DATEADD('DAY', -26, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (11, 2, 20, DATEADD('DAY', -36, LOCALTIMESTAMP), DATEADD('DAY', -6, LOCALTIMESTAMP), DATEADD('DAY', -22, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (12, 2, 23, DATEADD('DAY', -32, LOCALTIMESTAMP), DATEADD('DAY', -2, LOCALTIMESTAMP), DATEADD('DAY', -18, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (13, 2, 26, DATEADD('DAY', -28, LOCALTIMESTAMP), DATEADD('DAY', 2, LOCALTIMESTAMP), DATEADD('DAY', -14, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  (14, 2, 29, DATEADD('DAY', -24, LOCALTIMESTAMP), DATEADD('DAY', 6, LOCALTIMESTAMP), DATEADD('DAY', -10, LOCALTIMESTAMP), 'RETURNED', 0, NULL),
+  -- reader2@test.local
+  (15, 3, 13, DATEADD('DAY', -7, LOCALTIMESTAMP), DATEADD('DAY', 23, LOCALTIMESTAMP), LOCALTIMESTAMP, 'RETURN_REQUESTED', 0, NULL), -- POST /api/admin/loans/{id}/return/accept
+  (16, 3, 16, DATEADD('DAY', -6, LOCALTIMESTAMP), DATEADD('DAY', 24, LOCALTIMESTAMP), LOCALTIMESTAMP, 'RETURN_REQUESTED', 0, NULL), -- POST /api/admin/loans/{id}/return/reject
+  (17, 3, 19, DATEADD('DAY', -5, LOCALTIMESTAMP), DATEADD('DAY', 25, LOCALTIMESTAMP), NULL, 'ACTIVE', 0, 1),                        -- PUT /api/admin/loans/{id}
+  (18, 3, 24, DATEADD('DAY', -30, LOCALTIMESTAMP), DATEADD('DAY', 0, LOCALTIMESTAMP), DATEADD('DAY', -20, LOCALTIMESTAMP), 'RETURNED', 0, 1), -- DELETE /api/admin/loans/{id}
+  (19, 3, 25, DATEADD('DAY', -4, LOCALTIMESTAMP), DATEADD('DAY', 26, LOCALTIMESTAMP), NULL, 'ACTIVE', 0, 1);
+ALTER TABLE loan ALTER COLUMN id RESTART WITH 1000;
+
+-- egzemplarze wypożyczonych (niezwróconych) i liczniki książek
+UPDATE book_copy SET status = 'BORROWED' WHERE id IN (SELECT book_copy_id FROM loan WHERE return_date IS NULL OR status = 'RETURN_REQUESTED');
+UPDATE book b SET available_copies = (SELECT COUNT(*) FROM book_copy c WHERE c.book_id = b.id AND c.status = 'AVAILABLE');
+
+-- agregat dzienny zgodny z wypożyczeniami
+INSERT INTO loan_daily_stats (day, book_id, loans_count, returns_count)
+SELECT CAST(l.loan_date AS DATE), c.book_id, COUNT(*), 0
+FROM loan l JOIN book_copy c ON c.id = l.book_copy_id
+GROUP BY CAST(l.loan_date AS DATE), c.book_id;
+MERGE INTO loan_daily_stats s
+USING (SELECT CAST(l.return_date AS DATE) AS day, c.book_id, COUNT(*) AS returns_count
+       FROM loan l JOIN book_copy c ON c.id = l.book_copy_id
+       WHERE l.status = 'RETURNED'
+       GROUP BY CAST(l.return_date AS DATE), c.book_id) r
+ON s.day = r.day AND s.book_id = r.book_id
+WHEN MATCHED THEN UPDATE SET s.returns_count = r.returns_count
+WHEN NOT MATCHED THEN INSERT (day, book_id, loans_count, returns_count) VALUES (r.day, r.book_id, 0, r.returns_count);
+
+-- Kary; 1 – POST /api/admin/penalties/{id}/paid
+INSERT INTO penalty (id, user_id, loan_id, amount, reason, status, created_at) VALUES
+  (1, 2, 4,    12.50, 'Przetrzymanie',       'OPEN', DATEADD('DAY', -3, LOCALTIMESTAMP)),
+  (2, 2, 5,     5.00, 'Przetrzymanie',       'PAID', DATEADD('DAY', -40, LOCALTIMESTAMP)),
+  (3, 2, NULL, 20.00, 'Zniszczona okładka',  'OPEN', DATEADD('DAY', -2, LOCALTIMESTAMP)),
+  (4, 3, 18,    3.00, 'Przetrzymanie',       'OPEN', DATEADD('DAY', -19, LOCALTIMESTAMP)),
+  (5, 3, NULL,  8.00, 'Zagubiona zakładka',  'CANCELLED', DATEADD('DAY', -1, LOCALTIMESTAMP));
+ALTER TABLE penalty ALTER COLUMN id RESTART WITH 100;
@@ -0,0 +1,161 @@
+-- ============================================================
+-- schema-h2.sql – schemat BataBase/DBSchema.sql dla H2 (testy, MODE=MySQL)
+-- ============================================================
+-- Te same tabele, kolumny, ograniczenia i indeksy co w MySQL; różnice tylko w składni H2:
+-- kolumny generowane (GENERATED ALWAYS AS), BOOLEAN zamiast TINYINT(1), brak ENGINE/COLLATE
+-- i widoków statystycznych (aplikacja ich nie czyta). Zmiana DBSchema.sql = zmiana tutaj.
+
+DROP ALL OBJECTS;
+
+CREATE TABLE app_user (
+    id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email          VARCHAR(255) NOT NULL UNIQUE,
+    password_hash  VARCHAR(255) NOT NULL,
+    first_name     VARCHAR(100) NOT NULL,
+    last_name      VARCHAR(100) NOT NULL,
+    role           ENUM('READER', 'ADMIN') NOT NULL,
+    status         ENUM('ACTIVE', 'BLOCKED', 'DELETED') NOT NULL DEFAULT 'ACTIVE',
+    blocked_reason VARCHAR(500),
+    blocked_until  TIMESTAMP NULL,
+    created_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE category (
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name       VARCHAR(100) NOT NULL UNIQUE,
+    parent_id  BIGINT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_category_parent FOREIGN KEY (parent_id) REFERENCES category(id) ON DELETE SET NULL
+);
+
+CREATE TABLE author (
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(100),
+    last_name  VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE book (
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title            VARCHAR(255) NOT NULL,
+    description      CLOB,
+    publication_year SMALLINT,
+    isbn             VARCHAR(20) UNIQUE,
+    category_id      BIGINT NULL,
+    is_active        BOOLEAN NOT NULL DEFAULT TRUE,
+    total_copies     INT NOT NULL DEFAULT 0,
+    available_copies INT NOT NULL DEFAULT 0,
+    created_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_book_category FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE SET NULL
+);
+
+CREATE TABLE book_author (
+    book_id   BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    PRIMARY KEY (book_id, author_id),
+    CONSTRAINT fk_book_author_book FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE CASCADE,
+    CONSTRAINT fk_book_author_author FOREIGN KEY (author_id) REFERENCES author(id) ON DELETE RESTRICT
+);
+
+CREATE TABLE book_copy (
+    id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    book_id        BIGINT NOT NULL,
+    inventory_code VARCHAR(50) NOT NULL UNIQUE,
+    status         ENUM('AVAILABLE', 'BORROWED', 'LOST', 'DAMAGED', 'WITHDRAWN') NOT NULL DEFAULT 'AVAILABLE',
+    shelf_location VARCHAR(50),
+    created_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_book_copy_book FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE RESTRICT
+);
+
+CREATE TABLE loan (
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id          BIGINT NOT NULL,
+    book_copy_id     BIGINT NOT NULL,
+    loan_date        TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    due_date         TIMESTAMP NOT NULL,
+    return_date      TIMESTAMP NULL,
+    status           ENUM('ACTIVE', 'OVERDUE', 'RETURN_REQUESTED', 'RETURN_REJECTED', 'RETURNED', 'LOST') NOT NULL DEFAULT 'ACTIVE',
+    extensions_count SMALLINT NOT NULL DEFAULT 0,
+    created_by       BIGINT NULL,
+    created_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    open_loan        TINYINT GENERATED ALWAYS AS (CASE WHEN return_date IS NULL THEN 1 ELSE NULL END),
+    CONSTRAINT fk_loan_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_loan_copy FOREIGN KEY (book_copy_id) REFERENCES book_copy(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_loan_created_by FOREIGN KEY (created_by) REFERENCES app_user(id) ON DELETE SET NULL
+);
+
+CREATE UNIQUE INDEX uq_loan_active_copy ON loan (book_copy_id, open_loan);
+
+CREATE TABLE reservation (
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id      BIGINT NOT NULL,
+    book_id      BIGINT NOT NULL,
+    created_at   TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    status       ENUM('ACTIVE', 'CANCELLED', 'FULFILLED', 'EXPIRED') NOT NULL DEFAULT 'ACTIVE',
+    cancelled_at TIMESTAMP NULL,
+    fulfilled_at TIMESTAMP NULL,
+    expires_at   TIMESTAMP NULL,
+    active_reservation TINYINT GENERATED ALWAYS AS (CASE WHEN status = 'ACTIVE' THEN 1 ELSE NULL END),
+    CONSTRAINT fk_reservation_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_reservation_book FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE RESTRICT
+);
+
+CREATE UNIQUE INDEX uq_reservation_active_user_book ON reservation (user_id, book_id, active_reservation);
+
+CREATE TABLE penalty (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT NOT NULL,
+    loan_id     BIGINT NULL,
+    amount      DECIMAL(10,2) NOT NULL DEFAULT 0,
+    reason      CLOB NOT NULL,
+    status      ENUM('OPEN', 'PAID', 'CANCELLED') NOT NULL DEFAULT 'OPEN',
+    created_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    resolved_at TIMESTAMP NULL,
+    CONSTRAINT fk_penalty_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_penalty_loan FOREIGN KEY (loan_id) REFERENCES loan(id) ON DELETE SET NULL
+);
+
+CREATE TABLE loan_daily_stats (
+    day           DATE   NOT NULL,
+    book_id       BIGINT NOT NULL,
+    loans_count   INT    NOT NULL DEFAULT 0,
+    returns_count INT    NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, book_id),
+    CONSTRAINT fk_loan_daily_stats_book FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE CASCADE
+);
+
+CREATE TABLE refresh_token (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT   NOT NULL,
+    family_id   CHAR(36) NOT NULL,
+    token_hash  CHAR(44) NOT NULL UNIQUE,
+    expires_at  TIMESTAMP NOT NULL,
+    created_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at  TIMESTAMP NULL,
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
+);
+
+CREATE TABLE inventory_sequence (
+    name        VARCHAR(50) PRIMARY KEY,
+    next_value  BIGINT NOT NULL
+);
+
+INSERT INTO inventory_sequence (name, next_value) VALUES ('book_copy', 1);
+
+CREATE INDEX idx_book_title ON book (title);
+CREATE INDEX idx_book_category ON book (category_id);
+CREATE INDEX idx_book_active_available ON book (is_active, available_copies);
+CREATE INDEX idx_book_copy_book_status ON book_copy (book_id, status);
+CREATE INDEX idx_loan_user_date ON loan (user_id, loan_date);
+CREATE INDEX idx_loan_date ON loan (loan_date);
+CREATE INDEX idx_loan_status_due ON loan (status, due_date);
+CREATE INDEX idx_penalty_created ON penalty (created_at);
+CREATE INDEX idx_penalty_user_created ON penalty (user_id, created_at);
+CREATE INDEX idx_reservation_user_status ON reservation (user_id, status);
+CREATE INDEX idx_reservation_book_status ON reservation (book_id, status);
+CREATE INDEX idx_refresh_token_user ON refresh_token (user_id, revoked_at);
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+CREATE INDEX idx_refresh_token_expires ON refresh_token (expires_at);
@@ -9,6 +9,9 @@ SET FOREIGN_KEY_CHECKS = 0;
 DROP VIEW IF EXISTS v_loans_per_day;
 DROP VIEW IF EXISTS v_book_popularity_monthly;
 
+DROP TABLE IF EXISTS inventory_sequence;
+DROP TABLE IF EXISTS refresh_token;
+DROP TABLE IF EXISTS loan_daily_stats;
 DROP TABLE IF EXISTS penalty;
 DROP TABLE IF EXISTS reservation;
 DROP TABLE IF EXISTS loan;
@@ -31,7 +34,7 @@ CREATE TABLE app_user (
     first_name     VARCHAR(100) NOT NULL,
     last_name      VARCHAR(100) NOT NULL,
     role           ENUM('READER', 'ADMIN') NOT NULL,
-    status         ENUM('ACTIVE', 'BLOCKED') NOT NULL DEFAULT 'ACTIVE',
+    status         ENUM('ACTIVE', 'BLOCKED', 'DELETED') NOT NULL DEFAULT 'ACTIVE',
     blocked_reason VARCHAR(500),
     blocked_until  DATETIME NULL,
     created_at     DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -70,6 +73,9 @@ CREATE TABLE book (
     isbn             VARCHAR(20) UNIQUE,
     category_id      BIGINT NULL,
     is_active        TINYINT(1) NOT NULL DEFAULT 1,
+    -- Liczniki zdenormalizowane z book_copy (utrzymywane przez aplikację, naprawiane zadaniem okresowym)
+    total_copies     INT NOT NULL DEFAULT 0,
+    available_copies INT NOT NULL DEFAULT 0,
     created_at       DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at       DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     CONSTRAINT fk_book_category FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE SET NULL
@@ -115,8 +121,9 @@ CREATE TABLE loan (
     created_by       BIGINT NULL,
     created_at       DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
-    -- Generated flag: 1 gdy wypożyczenie jest aktywne (brak zwrotu)
-    open_loan        TINYINT(1) AS (CASE WHEN return_date IS NULL THEN 1 ELSE 0 END) STORED,
+    -- Generated flag: 1 gdy wypożyczenie jest aktywne (brak zwrotu), NULL po zwrocie –
+    -- NULL-e nie kolidują w indeksie unikalnym, więc egzemplarz może mieć wiele zwróconych wypożyczeń
+    open_loan        TINYINT(1) AS (CASE WHEN return_date IS NULL THEN 1 ELSE NULL END) STORED,
 
     CONSTRAINT fk_loan_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE RESTRICT,
     CONSTRAINT fk_loan_copy FOREIGN KEY (book_copy_id) REFERENCES book_copy(id) ON DELETE RESTRICT,
@@ -139,8 +146,8 @@ CREATE TABLE reservation (
     fulfilled_at DATETIME NULL,
     expires_at   DATETIME NULL,
 
-    -- Generated flag: 1 tylko dla ACTIVE
-    active_reservation TINYINT(1) AS (CASE WHEN status = 'ACTIVE' THEN 1 ELSE 0 END) STORED,
+    -- Generated flag: 1 tylko dla ACTIVE, NULL dla pozostałych (jak open_loan w loan)
+    active_reservation TINYINT(1) AS (CASE WHEN status = 'ACTIVE' THEN 1 ELSE NULL END) STORED,
 
     CONSTRAINT fk_reservation_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE RESTRICT,
     CONSTRAINT fk_reservation_book FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE RESTRICT
@@ -165,15 +172,61 @@ CREATE TABLE penalty (
     CONSTRAINT fk_penalty_loan FOREIGN KEY (loan_id) REFERENCES loan(id) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
+-- ----------------------------------------
+-- 2.10 Agregat dzienny wypożyczeń (statystyki admina)
+-- ----------------------------------------
+-- Utrzymywany przyrostowo przy wypożyczeniu / zwrocie, przeliczany przez
+-- POST /api/admin/stats/rollup/rebuild. Zwrot liczy się w dniu return_date.
+CREATE TABLE loan_daily_stats (
+    day           DATE   NOT NULL,
+    book_id       BIGINT NOT NULL,
+    loans_count   INT    NOT NULL DEFAULT 0,
+    returns_count INT    NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, book_id),
+    CONSTRAINT fk_loan_daily_stats_book FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- ----------------------------------------
+-- 2.11 Refresh tokeny (tylko skrót SHA-256, rotowane w obrębie rodziny)
+-- ----------------------------------------
+CREATE TABLE refresh_token (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT   NOT NULL,
+    family_id   CHAR(36) NOT NULL,
+    token_hash  CHAR(44) NOT NULL UNIQUE,
+    expires_at  DATETIME NOT NULL,
+    created_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at  DATETIME NULL,
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- ----------------------------------------
+-- 2.12 Sekwencja kodów inwentarzowych (bloki rezerwowane jednym UPDATE)
+-- ----------------------------------------
+CREATE TABLE inventory_sequence (
+    name        VARCHAR(50) PRIMARY KEY,
+    next_value  BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO inventory_sequence (name, next_value) VALUES ('book_copy', 1);
+
 -- ============================================================
 -- Indeksy pod wydajność
 -- ============================================================
 CREATE INDEX idx_book_title ON book (title);
 CREATE INDEX idx_book_category ON book (category_id);
-CREATE INDEX idx_loan_user ON loan (user_id);
+CREATE INDEX idx_book_active_available ON book (is_active, available_copies);
+CREATE INDEX idx_book_copy_book_status ON book_copy (book_id, status);
+CREATE INDEX idx_loan_user_date ON loan (user_id, loan_date);
 CREATE INDEX idx_loan_date ON loan (loan_date);
+CREATE INDEX idx_loan_status_due ON loan (status, due_date);
+CREATE INDEX idx_penalty_created ON penalty (created_at);
+CREATE INDEX idx_penalty_user_created ON penalty (user_id, created_at);
 CREATE INDEX idx_reservation_user_status ON reservation (user_id, status);
 CREATE INDEX idx_reservation_book_status ON reservation (book_id, status);
+CREATE INDEX idx_refresh_token_user ON refresh_token (user_id, revoked_at);
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+CREATE INDEX idx_refresh_token_expires ON refresh_token (expires_at);
 
 -- ============================================================
 -- Widoki statystyczne (do wykresów)
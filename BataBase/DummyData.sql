@@ -476,6 +476,37 @@ VALUES (
   '2024-10-28 12:00:00+01'
 );
 
+-- ============================================================
+-- Liczniki egzemplarzy w book (total_copies / available_copies)
+-- ============================================================
+
+UPDATE book b
+LEFT JOIN (
+    SELECT book_id,
+           COUNT(*)                   AS total,
+           SUM(status = 'AVAILABLE')  AS available
+    FROM book_copy
+    GROUP BY book_id
+) c ON c.book_id = b.id
+SET b.total_copies     = COALESCE(c.total, 0),
+    b.available_copies = COALESCE(c.available, 0);
+
+-- Agregat dzienny wypożyczeń (loan_daily_stats)
+DELETE FROM loan_daily_stats;
+INSERT INTO loan_daily_stats (day, book_id, loans_count, returns_count)
+SELECT DATE(l.loan_date), bc.book_id, COUNT(*), 0
+FROM loan l
+JOIN book_copy bc ON bc.id = l.book_copy_id
+GROUP BY DATE(l.loan_date), bc.book_id;
+
+INSERT INTO loan_daily_stats (day, book_id, loans_count, returns_count)
+SELECT DATE(l.return_date), bc.book_id, 0, COUNT(*)
+FROM loan l
+JOIN book_copy bc ON bc.id = l.book_copy_id
+WHERE l.status = 'RETURNED' AND l.return_date IS NOT NULL
+GROUP BY DATE(l.return_date), bc.book_id
+ON DUPLICATE KEY UPDATE returns_count = VALUES(returns_count);
+
 -- ==============================================
 -- KONIEC sample_data.sql
 -- ==============================================
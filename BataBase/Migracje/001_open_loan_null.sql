@@ -0,0 +1,20 @@
+-- ============================================================
+-- 001 – loan.open_loan / reservation.active_reservation: NULL dla zamkniętych rekordów
+-- ============================================================
+-- Dla baz założonych ze starszego DBSchema.sql (nowe instalacje mają to już w schemacie).
+--
+-- Kolumny miały wartość 0 dla zamkniętych rekordów, więc indeksy unikalne
+-- uq_loan_active_copy (book_copy_id, open_loan) i
+-- uq_reservation_active_user_book (user_id, book_id, active_reservation)
+-- dopuszczały tylko jedno zwrócone wypożyczenie na egzemplarz i jedną zamkniętą rezerwację
+-- użytkownika na książkę – kolejny zwrot / anulowanie kończył się błędem duplikatu.
+-- NULL-e nie kolidują w indeksie unikalnym.
+--
+-- Zmiana wyrażenia kolumny STORED przebudowuje tabelę (ALGORITHM=COPY) – uruchamiać poza
+-- godzinami pracy wypożyczalni. Indeksy zostają, MySQL przelicza je razem z kolumną.
+
+ALTER TABLE loan
+    MODIFY open_loan TINYINT(1) AS (CASE WHEN return_date IS NULL THEN 1 ELSE NULL END) STORED;
+
+ALTER TABLE reservation
+    MODIFY active_reservation TINYINT(1) AS (CASE WHEN status = 'ACTIVE' THEN 1 ELSE NULL END) STORED;
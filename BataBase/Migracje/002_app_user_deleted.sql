@@ -0,0 +1,9 @@
+-- ============================================================
+-- 002 – app_user.status: wartość DELETED
+-- ============================================================
+-- DELETE /api/admin/users/{id} usuwa konto miękko (status = DELETED) – wypożyczenia i kary
+-- wskazują na użytkownika z ON DELETE RESTRICT. Starszy schemat nie znał tej wartości
+-- i zapis kończył się błędem.
+
+ALTER TABLE app_user
+    MODIFY status ENUM('ACTIVE', 'BLOCKED', 'DELETED') NOT NULL DEFAULT 'ACTIVE';
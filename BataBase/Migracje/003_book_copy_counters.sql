@@ -0,0 +1,27 @@
+-- ============================================================
+-- 003 – book.total_copies / book.available_copies
+-- ============================================================
+-- Liczniki egzemplarzy zdenormalizowane z book_copy: lista katalogu filtruje availableOnly
+-- po available_copies zamiast liczyć egzemplarze przy każdym zapytaniu. Aplikacja utrzymuje
+-- je przy każdej zmianie egzemplarza, BookCounterRepairJob naprawia rozjazdy.
+--
+-- Kolumny trzeba od razu wypełnić – z samym DEFAULT 0 każda książka pokazuje 0 egzemplarzy,
+-- a availableOnly=true ukrywa cały katalog do pierwszego przebiegu zadania naprawczego.
+-- Aplikację uruchamiać dopiero po tym skrypcie (encja Book mapuje obie kolumny).
+
+ALTER TABLE book
+    ADD COLUMN total_copies     INT NOT NULL DEFAULT 0 AFTER is_active,
+    ADD COLUMN available_copies INT NOT NULL DEFAULT 0 AFTER total_copies;
+
+UPDATE book b
+LEFT JOIN (
+    SELECT book_id,
+           COUNT(*)                   AS total,
+           SUM(status = 'AVAILABLE')  AS available
+    FROM book_copy
+    GROUP BY book_id
+) c ON c.book_id = b.id
+SET b.total_copies     = COALESCE(c.total, 0),
+    b.available_copies = COALESCE(c.available, 0);
+
+CREATE INDEX idx_book_active_available ON book (is_active, available_copies);
@@ -0,0 +1,13 @@
+-- ============================================================
+-- 004 – indeksy pod stronicowanie kursorem (keyset)
+-- ============================================================
+-- Listy wypożyczeń i kar czytają kolejną stronę po (data, id) zamiast OFFSET.
+-- idx_loan_user_date zastępuje idx_loan_user – ma ten sam prefiks (user_id), więc obsługuje też
+-- klucz obcy fk_loan_user. Nowy indeks zakładamy przed usunięciem starego, inaczej MySQL
+-- odmówi DROP INDEX (indeks wymagany przez klucz obcy).
+
+CREATE INDEX idx_loan_user_date ON loan (user_id, loan_date);
+DROP INDEX idx_loan_user ON loan;
+
+CREATE INDEX idx_penalty_created ON penalty (created_at);
+CREATE INDEX idx_penalty_user_created ON penalty (user_id, created_at);
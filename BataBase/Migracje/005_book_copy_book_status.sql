@@ -0,0 +1,8 @@
+-- ============================================================
+-- 005 – book_copy (book_id, status)
+-- ============================================================
+-- Wypożyczenie wybiera wolny egzemplarz przez SELECT ... FOR UPDATE SKIP LOCKED po
+-- (book_id, status = 'AVAILABLE'). Bez tego indeksu InnoDB skanuje i blokuje wszystkie
+-- egzemplarze tytułu, a równoległe wypożyczenia czekają na siebie zamiast brać kolejne wolne.
+
+CREATE INDEX idx_book_copy_book_status ON book_copy (book_id, status);
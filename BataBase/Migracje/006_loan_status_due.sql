@@ -0,0 +1,7 @@
+-- ============================================================
+-- 006 – loan (status, due_date)
+-- ============================================================
+-- Okresowe oznaczanie przeterminowanych wypożyczeń jednym UPDATE ... WHERE status = 'ACTIVE'
+-- AND due_date < now. Bez indeksu każdy przebieg skanuje całą tabelę loan.
+
+CREATE INDEX idx_loan_status_due ON loan (status, due_date);
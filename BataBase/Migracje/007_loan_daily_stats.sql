@@ -0,0 +1,30 @@
+-- ============================================================
+-- 007 – loan_daily_stats: agregat dzienny wypożyczeń
+-- ============================================================
+-- Podsumowanie i statystyki dzienne admina czytają agregat (dzień x książka) zamiast liczyć
+-- tabelę loan. Aplikacja dopisuje do niego przyrostowo tylko nowe wypożyczenia i zwroty, więc
+-- historię trzeba przeliczyć tutaj – pusty agregat to zera w panelu admina. Zwrot liczy się
+-- w dniu return_date. To samo robi POST /api/admin/stats/rollup/rebuild dla wybranego zakresu.
+
+CREATE TABLE loan_daily_stats (
+    day           DATE   NOT NULL,
+    book_id       BIGINT NOT NULL,
+    loans_count   INT    NOT NULL DEFAULT 0,
+    returns_count INT    NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, book_id),
+    CONSTRAINT fk_loan_daily_stats_book FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO loan_daily_stats (day, book_id, loans_count, returns_count)
+SELECT DATE(l.loan_date), bc.book_id, COUNT(*), 0
+FROM loan l
+JOIN book_copy bc ON bc.id = l.book_copy_id
+GROUP BY DATE(l.loan_date), bc.book_id;
+
+INSERT INTO loan_daily_stats (day, book_id, loans_count, returns_count)
+SELECT DATE(l.return_date), bc.book_id, 0, COUNT(*)
+FROM loan l
+JOIN book_copy bc ON bc.id = l.book_copy_id
+WHERE l.status = 'RETURNED' AND l.return_date IS NOT NULL
+GROUP BY DATE(l.return_date), bc.book_id
+ON DUPLICATE KEY UPDATE returns_count = VALUES(returns_count);
@@ -0,0 +1,21 @@
+-- ============================================================
+-- 008 – refresh_token: rotowane refresh tokeny
+-- ============================================================
+-- Krótki access token odnawiany przez POST /api/auth/refresh. Trzymamy tylko skrót SHA-256
+-- tokenu; każde odnowienie unieważnia poprzedni token i wydaje nowy w tej samej rodzinie
+-- (family_id). Tabela startuje pusta – użytkownicy logują się ponownie po wdrożeniu.
+
+CREATE TABLE refresh_token (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT   NOT NULL,
+    family_id   CHAR(36) NOT NULL,
+    token_hash  CHAR(44) NOT NULL UNIQUE,
+    expires_at  DATETIME NOT NULL,
+    created_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at  DATETIME NULL,
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE INDEX idx_refresh_token_user ON refresh_token (user_id, revoked_at);
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+CREATE INDEX idx_refresh_token_expires ON refresh_token (expires_at);
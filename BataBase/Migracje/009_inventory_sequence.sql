@@ -0,0 +1,17 @@
+-- ============================================================
+-- 009 – inventory_sequence: sekwencja kodów inwentarzowych
+-- ============================================================
+-- InventoryCodeAllocator rezerwuje bloki numerów jednym UPDATE tej tabeli i formatuje je jako
+-- "INV" + 8 cyfr. Sekwencja startuje za najwyższym kodem tej postaci już obecnym w book_copy –
+-- start od 1 wydałby kody, które egzemplarze już mają (UNIQUE na inventory_code odrzuci zapis
+-- książki / importu). Kody w innym formacie (np. INV-0001) nie kolidują z generowanymi.
+
+CREATE TABLE inventory_sequence (
+    name        VARCHAR(50) PRIMARY KEY,
+    next_value  BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO inventory_sequence (name, next_value)
+SELECT 'book_copy', COALESCE(MAX(CAST(SUBSTRING(inventory_code, 4) AS UNSIGNED)), 0) + 1
+FROM book_copy
+WHERE inventory_code REGEXP '^INV[0-9]+$';
@@ -14,6 +14,7 @@ import MenuIcon from '@mui/icons-material/Menu'
 import LogoutRoundedIcon from '@mui/icons-material/LogoutRounded'
 import type { RouteKey } from '../routes'
 import { auth, getDisplayName } from '../lib/auth'
+import { logout } from '../lib/api'
 
 const titles: Partial<Record<RouteKey, string>> = {
   dashboard: 'Dashboard',
@@ -69,6 +70,7 @@ export function Topbar(props: { current: RouteKey; onMenuClick?: () => void }) {
               size="small"
               startIcon={<LogoutRoundedIcon />}
               onClick={() => {
+                logout()
                 auth.clear()
                 window.location.hash = '#/login'
               }}
@@ -9,6 +9,7 @@ const API_BASE_URL =
   (import.meta as any).env?.VITE_API_URL?.toString() || "http://localhost:8080/api";
 
 const ACCESS_TOKEN_KEY = "library.jwt";
+const REFRESH_TOKEN_KEY = "library.refresh";
 
 export const tokenStore = {
   get(): string | null {
@@ -18,8 +19,16 @@ export const tokenStore = {
   set(token: string) {
     localStorage.setItem(ACCESS_TOKEN_KEY, token);
   },
+  getRefresh(): string | null {
+    const t = localStorage.getItem(REFRESH_TOKEN_KEY);
+    return t && t.trim() ? t : null;
+  },
+  setRefresh(token: string) {
+    localStorage.setItem(REFRESH_TOKEN_KEY, token);
+  },
   clear() {
     localStorage.removeItem(ACCESS_TOKEN_KEY);
+    localStorage.removeItem(REFRESH_TOKEN_KEY);
   },
 };
 
@@ -40,7 +49,7 @@ function shouldAttachAuth(config: AxiosRequestConfig): boolean {
   const url = String(config.url || "");
   if (url.startsWith("/auth/login")) return false;
   if (url.startsWith("/auth/register")) return false;
-  if (url.startsWith("/auth/refresh-token")) return false;
+  if (url.startsWith("/auth/refresh")) return false;
   return true;
 }
 
@@ -55,10 +64,43 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// jedno odświeżenie naraz – równoległe żądania czekają na ten sam wynik
+let refreshing: Promise<string | null> | null = null;
+
+async function refreshAccessToken(): Promise<string | null> {
+  const refreshToken = tokenStore.getRefresh();
+  if (!refreshToken) return null;
+  try {
+    const res = await authApi.post("/auth/refresh", { refreshToken });
+    const data: any = res.data;
+    if (!data?.token) return null;
+    tokenStore.set(data.token);
+    if (data.refreshToken) tokenStore.setRefresh(data.refreshToken);
+    return data.token;
+  } catch {
+    // inna karta zdążyła zrotować token (localStorage jest wspólny) – bierzemy jej wynik
+    if (tokenStore.getRefresh() !== refreshToken) return tokenStore.get();
+    return null;
+  }
+}
+
 api.interceptors.response.use(
   (r) => r,
-  (err: AxiosError) => {
-    // 401 = brak tokenu / zły token / brak roli
+  async (err: AxiosError) => {
+    // 401 = brak tokenu / zły lub wygasły token; 403 = brak roli – odświeżenie nic nie zmieni
+    // access token żyje krótko – przy 401 próbujemy raz odświeżyć i powtórzyć żądanie
+    const config: any = err.config;
+    const status = err.response?.status;
+    if (config && !config._retried && status === 401
+        && shouldAttachAuth(config) && tokenStore.getRefresh()) {
+      config._retried = true;
+      refreshing = refreshing || refreshAccessToken().finally(() => { refreshing = null; });
+      const token = await refreshing;
+      if (token) {
+        config.headers = { ...(config.headers || {}), Authorization: `Bearer ${token}` };
+        return api.request(config);
+      }
+    }
     return Promise.reject(err);
   }
 );
@@ -75,10 +117,13 @@ export async function login(email: string, password: string) {
   if (!token) throw new Error("Brak tokenu w odpowiedzi /auth/login.");
 
   tokenStore.set(token);
+  if (data?.refreshToken) tokenStore.setRefresh(data.refreshToken);
   return data;
 }
 
 export function logout() {
+  const refreshToken = tokenStore.getRefresh();
+  if (refreshToken) authApi.post("/auth/logout", { refreshToken }).catch(() => {});
   tokenStore.clear();
 }
 
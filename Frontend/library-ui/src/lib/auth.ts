@@ -1,5 +1,6 @@
 const TOKEN_KEY = 'library.jwt'
 const USER_KEY = 'library.user'
+const REFRESH_KEY = 'library.refresh'
 
 export type SessionUser = {
   id?: number
@@ -77,13 +78,15 @@ export const auth = {
     }
     return null
   },
-  setSession(token: string, user?: SessionUser | null) {
+  setSession(token: string, user?: SessionUser | null, refreshToken?: string | null) {
     localStorage.setItem(TOKEN_KEY, token)
     if (user) localStorage.setItem(USER_KEY, JSON.stringify(user))
+    if (refreshToken) localStorage.setItem(REFRESH_KEY, refreshToken)
   },
   clear() {
     localStorage.removeItem(TOKEN_KEY)
     localStorage.removeItem(USER_KEY)
+    localStorage.removeItem(REFRESH_KEY)
   },
 
   // legacy alias used around the app
@@ -52,7 +52,7 @@ export function LoginPage(props: { onSuccess?: () => void }) {
       throw new Error('Brak tokenu w odpowiedzi /auth/login.')
     }
 
-    auth.setSession(token, res?.user)
+    auth.setSession(token, res?.user, res?.refreshToken)
     props.onSuccess?.()
   }
 
@@ -33,8 +33,7 @@ type PenaltyRow = {
 
 type UserOption = {
     id: number;
-    firstName?: string | null;
-    lastName?: string | null;
+    label: string;
     email?: string | null;
 };
 
@@ -54,6 +53,8 @@ export default function AdminPenalties() {
 
     const [openCreate, setOpenCreate] = useState(false);
     const [users, setUsers] = useState<UserOption[]>([]);
+    const [userQuery, setUserQuery] = useState<string>("");
+    const [selectedUser, setSelectedUser] = useState<UserOption | null>(null);
     const [loansForUser, setLoansForUser] = useState<LoanOption[]>([]);
     const [loanTitles, setLoanTitles] = useState<Record<number, string>>({});
     const [userId, setUserId] = useState<number | "">("");
@@ -64,8 +65,7 @@ export default function AdminPenalties() {
     const userLabelById = useMemo(() => {
         const map: Record<number, string> = {};
         for (const u of users) {
-            const full = `${u.firstName ?? ""} ${u.lastName ?? ""}`.trim();
-            map[u.id] = full || u.email || `#${u.id}`;
+            map[u.id] = u.label || u.email || `#${u.id}`;
         }
         return map;
     }, [users]);
@@ -84,12 +84,11 @@ export default function AdminPenalties() {
         }
     };
 
-    const loadUsers = async () => {
+    // wyszukiwanie po stronie serwera – nie pobieramy całej tabeli użytkowników
+    const searchUsers = async (q: string) => {
         try {
-            const res = await api.get<PageResponse<UserOption> | UserOption[]>("/admin/users?page=0&size=1000");
-            const data: any = res.data;
-            const arr: UserOption[] = Array.isArray(data) ? data : data?.content ?? [];
-            setUsers(arr);
+            const res = await api.get<UserOption[]>("/admin/users/picker", { params: { q, limit: 20 } });
+            setUsers(Array.isArray(res.data) ? res.data : []);
         } catch {
             setUsers([]);
         }
@@ -133,10 +132,15 @@ export default function AdminPenalties() {
 
     useEffect(() => {
         void load();
-        void loadUsers();
         void loadLoanTitles();
     }, []);
 
+    useEffect(() => {
+        if (!openCreate) return;
+        const t = setTimeout(() => void searchUsers(userQuery), 250);
+        return () => clearTimeout(t);
+    }, [userQuery, openCreate]);
+
     useEffect(() => {
         if (userId === "" || userId == null) {
             setLoansForUser([]);
@@ -171,6 +175,7 @@ export default function AdminPenalties() {
             setToast("Dodano kare");
             setOpenCreate(false);
             setUserId("");
+            setSelectedUser(null);
             setLoanId("");
             setAmount("10.00");
             setReason("");
@@ -305,12 +310,16 @@ export default function AdminPenalties() {
                     <Stack spacing={2} sx={{ mt: 1 }}>
                         <Autocomplete
                             options={users}
-                            value={users.find((u) => u.id === userId) ?? null}
+                            value={selectedUser}
+                            filterOptions={(x) => x}
+                            isOptionEqualToValue={(o, v) => o.id === v.id}
+                            onInputChange={(_, val) => setUserQuery(val)}
                             onChange={(_, val) => {
+                                setSelectedUser(val);
                                 setUserId(val?.id ?? "");
                                 setLoanId("");
                             }}
-                            getOptionLabel={(o) => `${o.firstName ?? ""} ${o.lastName ?? ""}${o.email ? ` (${o.email})` : ""}`}
+                            getOptionLabel={(o) => `${o.label}${o.email && o.email !== o.label ? ` (${o.email})` : ""}`}
                             renderInput={(params) => <TextField {...params} label="Uzytkownik" placeholder="Zacznij pisac imie/nazwisko/email" />}
                         />
 
@@ -13,6 +13,25 @@ READER_PASSWORD = "reader123" # J.W.
 
 TIMEOUT = 5
 
+# Token scrapowania metryk (app.metrics.scrape-token); None gdy /metrics jest otwarte
+METRICS_TOKEN = None
+
+# Serie, które /metrics musi zawierać po przejściu testów powyżej
+METRICS_SERIES = [
+    "http_server_requests_seconds_count",
+    "db_statements_per_request_count",
+    "spring_data_repository_invocations_seconds_count",
+    "hibernate_entities_total",
+    "hibernate_second_level_cache_requests_total",
+    "hibernate_query_plan_cache_requests_total",
+    "hikaricp_connections_active",
+    "hikaricp_connections_pending",
+    "hikaricp_connections_acquire_seconds_count",
+    "library_loans_created_total",
+    "library_returns_accepted_total",
+    "library_overdue_sweeps_total",
+]
+
 
 def full_url(path: str) -> str:
     if not path.startswith("/"):
@@ -77,6 +96,25 @@ def login(session: requests.Session, email: str, password: str, label: str) -> s
     return token
 
 
+def check_metrics() -> None:
+    headers = {"Authorization": f"Bearer {METRICS_TOKEN}"} if METRICS_TOKEN else {}
+    try:
+        resp = requests.get(f"{BASE_ROOT}/metrics", headers=headers, timeout=TIMEOUT)
+    except Exception as e:
+        print(f"[ERR]  GET /metrics: {e}")
+        return
+    check_status(resp, "GET /metrics")
+    if resp.status_code != 200:
+        return
+    names = {line.split("{")[0].split(" ")[0] for line in resp.text.splitlines()
+             if line and not line.startswith("#")}
+    missing = [s for s in METRICS_SERIES if s not in names]
+    if missing:
+        print(f"[FAIL] /metrics: missing series {', '.join(missing)}")
+    else:
+        print(f"[OK]   /metrics: {len(METRICS_SERIES)} required series present")
+
+
 def main():
     public_s = requests.Session()
     admin_s = requests.Session()
@@ -364,6 +402,9 @@ def main():
     else:
         print("[WARN] Skipping ADMIN tests – login failed.")
 
+    print("\n=== METRICS ===")
+    check_metrics()
+
     print("\n=== DONE ===")
 
 
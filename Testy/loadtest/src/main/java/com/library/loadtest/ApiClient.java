@@ -0,0 +1,129 @@
+package com.library.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cienka warstwa nad {@link HttpClient}: budowanie żądań z tokenem oraz blokujące wywołania
+ * fazy przygotowania (rejestracja, logowanie, odświeżanie tokenów, pobranie katalogu).
+ */
+final class ApiClient implements AutoCloseable {
+
+    static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    final HttpClient http;
+
+    ApiClient(String baseUrl, Duration timeout, int threads) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "http-client");
+            t.setDaemon(true);
+            return t;
+        });
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(executor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    HttpRequest.Builder request(String path, Session session) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (session != null && session.accessToken() != null) {
+            b.header("Authorization", "Bearer " + session.accessToken());
+        }
+        return b;
+    }
+
+    static HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Rejestracja; istniejące konto (4xx) nie jest błędem – ten sam zestaw kont przy kolejnych przebiegach. */
+    void registerIfMissing(String email, String password, String firstName, String lastName)
+            throws IOException, InterruptedException {
+        HttpResponse<String> resp = send(request("/api/auth/register", null)
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("email", email, "password", password,
+                        "firstName", firstName, "lastName", lastName)))
+                .build());
+        if (resp.statusCode() >= 500) {
+            throw new IOException("Rejestracja " + email + ": HTTP " + resp.statusCode());
+        }
+    }
+
+    /** Logowanie z poszanowaniem 429 + Retry-After (limit prób na e-mail i IP po stronie backendu). */
+    void login(Session session, String password) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> resp = send(request("/api/auth/login", null)
+                    .header("Content-Type", "application/json")
+                    .POST(json(Map.of("email", session.email, "password", password)))
+                    .build());
+            if (resp.statusCode() == 429 && attempt < 20) {
+                long wait = resp.headers().firstValueAsLong("Retry-After").orElse(5);
+                System.out.printf("  429 przy logowaniu %s – czekam %d s%n", session.email, wait);
+                Thread.sleep(wait * 1000);
+                continue;
+            }
+            if (resp.statusCode() != 200) {
+                throw new IOException("Logowanie " + session.email + ": HTTP " + resp.statusCode() + " " + resp.body());
+            }
+            applyTokens(session, resp.body());
+            return;
+        }
+    }
+
+    void refresh(Session session) throws IOException, InterruptedException {
+        HttpResponse<String> resp = send(request("/api/auth/refresh", null)
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("refreshToken", session.refreshToken())))
+                .build());
+        if (resp.statusCode() != 200) {
+            throw new IOException("Odświeżenie tokenu " + session.email + ": HTTP " + resp.statusCode());
+        }
+        applyTokens(session, resp.body());
+    }
+
+    JsonNode getJson(String path, Session session) throws IOException, InterruptedException {
+        HttpResponse<String> resp = send(request(path, session).GET().build());
+        if (resp.statusCode() != 200) {
+            throw new IOException("GET " + path + ": HTTP " + resp.statusCode());
+        }
+        return JSON.readTree(resp.body());
+    }
+
+    private static void applyTokens(Session session, String body) throws IOException {
+        JsonNode node = JSON.readTree(body);
+        session.update(node.path("token").asText(null), node.path("refreshToken").asText(null),
+                node.path("expiresIn").asLong(900));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
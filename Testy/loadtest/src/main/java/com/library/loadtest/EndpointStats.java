@@ -0,0 +1,66 @@
+package com.library.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wyniki jednej operacji: histogram opóźnień (od zaplanowanej chwili wysłania) i liczniki wyników.
+ * 4xx to odrzucenia biznesowe (brak egzemplarzy, limit przedłużeń) – liczone osobno od błędów
+ * (5xx, timeout, zerwane połączenie).
+ */
+final class EndpointStats {
+
+    final String name;
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LongAdder ok = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyMicros, int status) {
+        latency.record(latencyMicros);
+        if (status >= 200 && status < 400) ok.increment();
+        else if (status >= 400 && status < 500) rejected.increment();
+        else errors.increment();
+        byStatus.computeIfAbsent(status == 0 ? "io" : String.valueOf(status), k -> new LongAdder()).increment();
+    }
+
+    long total() {
+        return ok.sum() + rejected.sum() + errors.sum();
+    }
+
+    Map<String, Object> toJson(double durationSeconds) {
+        long total = total();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("endpoint", name);
+        m.put("requests", total);
+        m.put("throughput", total / durationSeconds);
+        m.put("ok", ok.sum());
+        m.put("rejected", rejected.sum());
+        m.put("errors", errors.sum());
+        m.put("errorRate", total == 0 ? 0.0 : (double) errors.sum() / total);
+        m.put("rejectRate", total == 0 ? 0.0 : (double) rejected.sum() / total);
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        byStatus.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(e -> statuses.put(e.getKey(), e.getValue().sum()));
+        m.put("statuses", statuses);
+        Map<String, Double> pct = new LinkedHashMap<>();
+        pct.put("mean", latency.mean() / 1000.0);
+        for (double p : LoadTest.PERCENTILES) {
+            pct.put("p" + format(p), latency.percentile(p) / 1000.0);
+        }
+        pct.put("max", latency.max() / 1000.0);
+        m.put("latencyMs", pct);
+        return m;
+    }
+
+    static String format(double p) {
+        return p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p);
+    }
+}
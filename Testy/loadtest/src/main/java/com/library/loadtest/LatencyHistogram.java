@@ -0,0 +1,80 @@
+package com.library.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram opóźnień w mikrosekundach o układzie log-liniowym (jak HdrHistogram): dokładnie do
+ * 127 µs, dalej każda potęga dwójki dzielona na 64 kubełki – błąd względny percentyla poniżej 1,6%.
+ * Zapis bez blokad (AtomicLongArray), pamięć stała niezależnie od liczby próbek.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;          // 64
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;              // 128
+    private static final int SIZE = index(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+    private final AtomicLongArray totals = new AtomicLongArray(2); // [0] = liczba, [1] = maks.
+
+    void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(index(v));
+        totals.incrementAndGet(0);
+        long max;
+        while (v > (max = totals.get(1)) && !totals.compareAndSet(1, max, v)) {
+            // ponów przy wyścigu
+        }
+    }
+
+    long count() {
+        return totals.get(0);
+    }
+
+    long max() {
+        return totals.get(1);
+    }
+
+    /** Najwyższa wartość równoważna kubełkowi, w którym leży percentyl (jak HdrHistogram). */
+    long percentile(double percentile) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < SIZE; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highestEquivalent(i), max());
+        }
+        return max();
+    }
+
+    double mean() {
+        long total = count();
+        if (total == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            long c = counts.get(i);
+            if (c != 0) sum += c * (double) (lowestEquivalent(i) + highestEquivalent(i)) / 2;
+        }
+        return sum / total;
+    }
+
+    private static int index(long v) {
+        if (v < LINEAR_LIMIT) return (int) v;
+        int shift = (63 - Long.numberOfLeadingZeros(v)) - SUB_BUCKET_BITS;   // v >> shift w [64, 128)
+        return (shift << SUB_BUCKET_BITS) + (int) (v >>> shift);
+    }
+
+    private static long lowestEquivalent(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long mantissa = index - ((long) shift << SUB_BUCKET_BITS);
+        return mantissa << shift;
+    }
+
+    private static long highestEquivalent(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        return lowestEquivalent(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,274 @@
+package com.library.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generator obciążenia w modelie otwartym: żądania wychodzą w stałym tempie ({@code --rate})
+ * niezależnie od tego, czy poprzednie już wróciły. Opóźnienie liczone jest od zaplanowanej chwili
+ * wysłania, więc zator po stronie serwera nie ukrywa się w wolniejszym tempie generatora
+ * (brak "coordinated omission").
+ * <p>
+ * Przebieg: rejestracja/logowanie czytelników i adminów, pobranie katalogu (id książek i słowa
+ * z tytułów do wyszukiwania), rozgrzewka, pomiar, raport z percentylami na operację + JSON.
+ */
+public final class LoadTest {
+
+    static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.has("help")) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+
+        try (ApiClient client = new ApiClient(options.baseUrl(), options.timeout(),
+                Math.max(4, Runtime.getRuntime().availableProcessors()))) {
+            List<Session> readers = loginReaders(client, options);
+            List<Session> admins = loginAdmins(client, options);
+            Scenario scenario = bootstrapCatalog(client, options, readers, admins);
+
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "token-refresh");
+                t.setDaemon(true);
+                return t;
+            });
+            List<Session> all = new ArrayList<>(readers);
+            all.addAll(admins);
+            refresher.scheduleWithFixedDelay(() -> refreshTokens(client, all), 30, 30, TimeUnit.SECONDS);
+
+            Map<String, Object> result = run(client, scenario, options);
+            refresher.shutdownNow();
+
+            Path out = options.out();
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            ApiClient.JSON.writer(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), result);
+            System.out.println("Wyniki: " + out.toAbsolutePath());
+
+            if (options.has("baseline")) {
+                Map<String, Object> baseline = ApiClient.JSON.readValue(
+                        Path.of(options.get("baseline", null)).toFile(), new TypeReference<>() {
+                        });
+                compare(baseline, result);
+            }
+        }
+    }
+
+    private static List<Session> loginReaders(ApiClient client, LoadTestOptions options) throws Exception {
+        if (options.readers() < 1) throw new IllegalArgumentException("--readers musi być >= 1");
+        String prefix = options.get("reader-prefix", "lt.reader");
+        String password = options.get("reader-password", "LoadTest!2345");
+        System.out.printf("Logowanie %d czytelników...%n", options.readers());
+
+        // kilka naraz – BCrypt po stronie serwera i tak ogranicza tempo logowań
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Session>> futures = new ArrayList<>();
+            for (int i = 1; i <= options.readers(); i++) {
+                int n = i;
+                futures.add(pool.submit(() -> {
+                    Session s = new Session(Session.Role.READER, prefix + n + "@loadtest.local");
+                    client.registerIfMissing(s.email, password, "Czytelnik", "Testowy " + n);
+                    client.login(s, password);
+                    return s;
+                }));
+            }
+            List<Session> sessions = new ArrayList<>();
+            for (Future<Session> f : futures) sessions.add(f.get());
+            return sessions;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<Session> loginAdmins(ApiClient client, LoadTestOptions options) throws Exception {
+        List<Session> admins = new ArrayList<>();
+        if (options.admins() <= 0) return admins;
+        if (!options.has("admin-email") || !options.has("admin-password")) {
+            System.out.println("Brak --admin-email/--admin-password – operacje admina pominięte");
+            return admins;
+        }
+        for (int i = 0; i < options.admins(); i++) {
+            Session s = new Session(Session.Role.ADMIN, options.get("admin-email", null));
+            client.login(s, options.get("admin-password", null));
+            admins.add(s);
+        }
+        return admins;
+    }
+
+    private static Scenario bootstrapCatalog(ApiClient client, LoadTestOptions options,
+                                             List<Session> readers, List<Session> admins) throws Exception {
+        JsonNode page = client.getJson("/api/books?page=0&size=500&activeOnly=true", null);
+        List<Long> ids = new ArrayList<>();
+        Set<String> words = new LinkedHashSet<>();
+        for (JsonNode book : page.path("content")) {
+            ids.add(book.path("id").asLong());
+            for (String w : book.path("title").asText("").split("[^\\p{L}\\p{N}]+")) {
+                if (w.length() >= 4) words.add(w.toLowerCase(Locale.ROOT));
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Katalog jest pusty – zasil bazę danymi przed testem");
+        }
+        System.out.printf("Katalog: %d książek, %d słów do wyszukiwania%n", ids.size(), words.size());
+        return new Scenario(client, options.mix(), readers, admins,
+                ids.stream().mapToLong(Long::longValue).toArray(), words.toArray(String[]::new));
+    }
+
+    private static void refreshTokens(ApiClient client, List<Session> sessions) {
+        for (Session s : sessions) {
+            if (!s.expiresWithin(120)) continue;
+            try {
+                client.refresh(s);
+            } catch (Exception e) {
+                System.out.println("  odświeżenie tokenu nieudane: " + s.email + " (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    private static Map<String, Object> run(ApiClient client, Scenario scenario, LoadTestOptions options)
+            throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) stats.put(op, new EndpointStats(op.key));
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder dropped = new LongAdder();
+        LongAdder sent = new LongAdder();
+
+        SplittableRandom rnd = new SplittableRandom(options.seed());
+        long periodNanos = (long) (1_000_000_000L / options.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        long nextReport = start + TimeUnit.SECONDS.toNanos(10);
+        Instant startedAt = Instant.now();
+
+        System.out.printf(Locale.ROOT, "Start: %.1f żądań/s, rozgrzewka %s, pomiar %s%n",
+                options.rate(), options.warmup(), options.duration());
+        for (long i = 0; ; i++) {
+            long intended = start + i * periodNanos;
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            if (System.nanoTime() >= nextReport) {
+                nextReport += TimeUnit.SECONDS.toNanos(10);
+                System.out.printf(Locale.ROOT, "  %4ds: wysłane %d, w locie %d, pominięte %d%n",
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), sent.sum(), inFlight.get(),
+                        dropped.sum());
+            }
+            if (inFlight.get() >= options.maxInFlight()) {
+                if (intended >= measureFrom) dropped.increment();
+                continue;
+            }
+
+            Scenario.Call call = scenario.next(rnd);
+            boolean measured = intended >= measureFrom;
+            inFlight.incrementAndGet();
+            sent.increment();
+            client.http.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((resp, error) -> {
+                        long latencyMicros = (System.nanoTime() - intended) / 1_000;
+                        inFlight.decrementAndGet();
+                        int status = error == null ? resp.statusCode() : 0;
+                        if (measured) stats.get(call.op()).record(latencyMicros, status);
+                        scenario.completed(call, status, error == null ? resp.body() : null);
+                    });
+        }
+
+        // dokończenie żądań w locie (najwyżej timeout klienta)
+        long drainUntil = System.nanoTime() + options.timeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+
+        double seconds = options.duration().toNanos() / 1e9;
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (EndpointStats s : stats.values()) {
+            if (s.total() == 0) continue;
+            endpoints.add(s.toJson(seconds));
+        }
+        printTable(stats, seconds, dropped.sum());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", startedAt.toString());
+        result.put("settings", options.settings());
+        result.put("dropped", dropped.sum());
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    private static void printTable(Map<Operation, EndpointStats> stats, double seconds, long dropped) {
+        System.out.printf(Locale.ROOT, "%n%-11s %8s %8s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operacja", "żądania", "żąd/s", "błędy%", "4xx%", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats s : stats.values()) {
+            long n = s.total();
+            if (n == 0) continue;
+            System.out.printf(Locale.ROOT, "%-11s %8d %8.1f %7.2f %7.2f", s.name, n, n / seconds,
+                    100.0 * s.errors.sum() / n, 100.0 * s.rejected.sum() / n);
+            for (double p : PERCENTILES) {
+                System.out.printf(Locale.ROOT, " %9.1f", s.latency.percentile(p) / 1000.0);
+            }
+            System.out.printf(Locale.ROOT, " %9.1f%n", s.latency.max() / 1000.0);
+        }
+        if (dropped > 0) {
+            System.out.printf("Pominięte (limit --max-in-flight): %d – generator nie nadążył albo serwer stoi%n", dropped);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void compare(Map<String, Object> baseline, Map<String, Object> current) {
+        Map<String, Map<String, Object>> before = new LinkedHashMap<>();
+        for (Object o : (List<Object>) baseline.getOrDefault("endpoints", List.of())) {
+            Map<String, Object> e = (Map<String, Object>) o;
+            before.put((String) e.get("endpoint"), e);
+        }
+        if (!baseline.getOrDefault("settings", Map.of()).equals(current.get("settings"))) {
+            System.out.println("Uwaga: ustawienia przebiegów różnią się – porównanie orientacyjne");
+        }
+        System.out.printf(Locale.ROOT, "%n%-11s %19s %19s %17s%n", "operacja", "p50 ms (zmiana)", "p99 ms (zmiana)", "błędy% przed/po");
+        for (Object o : (List<Object>) current.get("endpoints")) {
+            Map<String, Object> now = (Map<String, Object>) o;
+            Map<String, Object> old = before.get((String) now.get("endpoint"));
+            if (old == null) continue;
+            System.out.printf(Locale.ROOT, "%-11s %19s %19s %8.2f/%-8.2f%n", now.get("endpoint"),
+                    delta(old, now, "p50"), delta(old, now, "p99"),
+                    100 * ((Number) old.get("errorRate")).doubleValue(),
+                    100 * ((Number) now.get("errorRate")).doubleValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String delta(Map<String, Object> old, Map<String, Object> now, String key) {
+        double a = ((Number) ((Map<String, Object>) old.get("latencyMs")).get(key)).doubleValue();
+        double b = ((Number) ((Map<String, Object>) now.get("latencyMs")).get(key)).doubleValue();
+        double pct = a == 0 ? 0 : (b - a) / a * 100;
+        return String.format(Locale.ROOT, "%.1f (%+.0f%%)", b, pct);
+    }
+
+    private LoadTest() {
+    }
+}
@@ -0,0 +1,118 @@
+package com.library.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parametry uruchomienia w postaci {@code --klucz=wartość}.
+ */
+final class LoadTestOptions {
+
+    static final String USAGE = """
+            Użycie: java -jar library-loadtest.jar [--opcja=wartość ...]
+              --base-url=http://localhost:8080
+              --rate=50                      żądań na sekundę (model otwarty – stałe tempo przybywania)
+              --duration=PT2M --warmup=PT15S wyniki z rozgrzewki nie wchodzą do raportu
+              --readers=50                   czytelnicy syntetyczni (rejestrowani przy pierwszym uruchomieniu)
+              --reader-prefix=lt.reader --reader-password=LoadTest!2345
+              --admins=2 --admin-email=... --admin-password=...
+              --mix=search:35,detail:30,checkout:10,extend:5,return:8,myLoans:7,adminStats:5
+              --max-in-flight=1000           powyżej – żądanie liczone jako pominięte (dropped)
+              --timeout=PT10S
+              --seed=42
+              --out=target/loadtest/result.json
+              --baseline=<plik.json>         porównanie percentyli i błędów z wcześniejszym przebiegiem
+            """;
+
+    static final String DEFAULT_MIX = "search:35,detail:30,checkout:10,extend:5,return:8,myLoans:7,adminStats:5";
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private LoadTestOptions() {
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions o = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Nieznany argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                o.values.put(arg.substring(2), "true");
+            } else {
+                o.values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return o;
+    }
+
+    boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    String get(String key, String def) {
+        return values.getOrDefault(key, def);
+    }
+
+    String baseUrl() {
+        String url = get("base-url", "http://localhost:8080");
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    double rate() {
+        return Double.parseDouble(get("rate", "50"));
+    }
+
+    Duration duration() {
+        return Duration.parse(get("duration", "PT2M"));
+    }
+
+    Duration warmup() {
+        return Duration.parse(get("warmup", "PT15S"));
+    }
+
+    Duration timeout() {
+        return Duration.parse(get("timeout", "PT10S"));
+    }
+
+    int readers() {
+        return Integer.parseInt(get("readers", "50"));
+    }
+
+    int admins() {
+        return Integer.parseInt(get("admins", "2"));
+    }
+
+    int maxInFlight() {
+        return Integer.parseInt(get("max-in-flight", "1000"));
+    }
+
+    long seed() {
+        return Long.parseLong(get("seed", "42"));
+    }
+
+    String mix() {
+        return get("mix", DEFAULT_MIX);
+    }
+
+    Path out() {
+        return Path.of(get("out", "target/loadtest/result.json"));
+    }
+
+    /** Ustawienia zapisywane w wyniku – porównywać tylko przebiegi z tymi samymi. */
+    Map<String, Object> settings() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("baseUrl", baseUrl());
+        m.put("rate", rate());
+        m.put("duration", duration().toString());
+        m.put("warmup", warmup().toString());
+        m.put("readers", readers());
+        m.put("admins", admins());
+        m.put("mix", mix());
+        m.put("seed", seed());
+        return m;
+    }
+}
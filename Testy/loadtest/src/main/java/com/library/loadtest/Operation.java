@@ -0,0 +1,31 @@
+package com.library.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Operacje mieszanki ruchu; klucz to nazwa w {@code --mix} i w raporcie.
+ */
+enum Operation {
+    SEARCH("search", Session.Role.READER),
+    DETAIL("detail", Session.Role.READER),
+    CHECKOUT("checkout", Session.Role.READER),
+    EXTEND("extend", Session.Role.READER),
+    RETURN("return", Session.Role.READER),
+    MY_LOANS("myLoans", Session.Role.READER),
+    ADMIN_STATS("adminStats", Session.Role.ADMIN);
+
+    final String key;
+    final Session.Role role;
+
+    Operation(String key, Session.Role role) {
+        this.key = key;
+        this.role = role;
+    }
+
+    static Operation byKey(String key) {
+        return Arrays.stream(values())
+                .filter(o -> o.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Nieznana operacja w --mix: " + key));
+    }
+}
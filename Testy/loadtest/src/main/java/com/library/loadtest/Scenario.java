@@ -0,0 +1,127 @@
+package com.library.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mieszanka ruchu: losowanie operacji według wag i budowa żądań. Przedłużenie i zwrot działają
+ * na wypożyczeniach, które sesja sama utworzyła; gdy jeszcze żadnego nie ma, w ich miejsce
+ * idzie wypożyczenie (raportowane jako checkout).
+ */
+final class Scenario {
+
+    record Call(Operation op, Session session, HttpRequest request, Long loanId) {
+    }
+
+    private final ApiClient client;
+    private final Operation[] table;                 // operacje rozpisane proporcjonalnie do wag
+    private final List<Session> readers;
+    private final List<Session> admins;
+    private final long[] bookIds;
+    private final String[] words;
+
+    Scenario(ApiClient client, String mix, List<Session> readers, List<Session> admins,
+             long[] bookIds, String[] words) {
+        this.client = client;
+        this.readers = readers;
+        this.admins = admins;
+        this.bookIds = bookIds;
+        this.words = words;
+
+        Map<Operation, Integer> weights = parseMix(mix);
+        if (admins.isEmpty()) weights.remove(Operation.ADMIN_STATS);
+        List<Operation> ops = new ArrayList<>();
+        weights.forEach((op, w) -> {
+            for (int i = 0; i < w; i++) ops.add(op);
+        });
+        if (ops.isEmpty()) throw new IllegalArgumentException("Pusta mieszanka ruchu: " + mix);
+        this.table = ops.toArray(Operation[]::new);
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) weights.put(Operation.byKey(kv[0].trim()), weight);
+        }
+        return weights;
+    }
+
+    Call next(SplittableRandom rnd) {
+        Operation op = table[rnd.nextInt(table.length)];
+        Session s = op.role == Session.Role.ADMIN
+                ? admins.get(rnd.nextInt(admins.size()))
+                : readers.get(rnd.nextInt(readers.size()));
+
+        switch (op) {
+            case SEARCH -> {
+                String q = URLEncoder.encode(words[rnd.nextInt(words.length)], StandardCharsets.UTF_8);
+                return get(op, s, "/api/books/search?q=" + q + "&page=0&size=20");
+            }
+            case DETAIL -> {
+                return get(op, s, "/api/books/" + bookIds[rnd.nextInt(bookIds.length)]);
+            }
+            case MY_LOANS -> {
+                return get(op, s, "/api/me/loans?page=0&size=20");
+            }
+            case ADMIN_STATS -> {
+                LocalDate to = LocalDate.now();
+                return get(op, s, "/api/admin/stats/summary?from=" + to.minusDays(30) + "&to=" + to);
+            }
+            case EXTEND -> {
+                Long loanId = s.loans.peekLast();
+                if (loanId != null) {
+                    return new Call(op, s, client.request("/api/loans/" + loanId + "/extend", s)
+                            .header("Content-Type", "application/json")
+                            .POST(ApiClient.json(Map.of("additionalDays", 7)))
+                            .build(), loanId);
+                }
+            }
+            case RETURN -> {
+                Long loanId = s.loans.pollFirst();
+                if (loanId != null) {
+                    return new Call(op, s, client.request("/api/loans/" + loanId + "/return", s)
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build(), loanId);
+                }
+            }
+            default -> {
+            }
+        }
+        // CHECKOUT albo przedłużenie/zwrot bez wypożyczenia w sesji
+        long bookId = bookIds[rnd.nextInt(bookIds.length)];
+        return new Call(Operation.CHECKOUT, s, client.request("/api/loans", s)
+                .header("Content-Type", "application/json")
+                .POST(ApiClient.json(Map.of("bookId", bookId)))
+                .build(), null);
+    }
+
+    void completed(Call call, int status, String body) {
+        if (call.op() == Operation.CHECKOUT && status == 201 && body != null) {
+            try {
+                JsonNode loan = ApiClient.JSON.readTree(body);
+                if (loan.hasNonNull("id")) call.session().loans.addLast(loan.get("id").asLong());
+            } catch (IOException ignored) {
+                // treść nieistotna dla pomiaru
+            }
+        } else if (call.op() == Operation.EXTEND && status >= 400 && status < 500) {
+            // limit przedłużeń – wypożyczenie przesuwamy na początek kolejki do zwrotu
+            if (call.session().loans.remove(call.loanId())) call.session().loans.addFirst(call.loanId());
+        }
+    }
+
+    private Call get(Operation op, Session s, String path) {
+        return new Call(op, s, client.request(path, s).GET().build(), null);
+    }
+}
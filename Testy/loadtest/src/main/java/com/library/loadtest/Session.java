@@ -0,0 +1,44 @@
+package com.library.loadtest;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Zalogowany użytkownik syntetyczny: bieżący access token, refresh token i wypożyczenia,
+ * które sam utworzył (do przedłużeń i zwrotów).
+ */
+final class Session {
+
+    enum Role { READER, ADMIN }
+
+    final Role role;
+    final String email;
+    final ConcurrentLinkedDeque<Long> loans = new ConcurrentLinkedDeque<>();
+
+    private volatile String accessToken;
+    private volatile String refreshToken;
+    private volatile Instant expiresAt;
+
+    Session(Role role, String email) {
+        this.role = role;
+        this.email = email;
+    }
+
+    String accessToken() {
+        return accessToken;
+    }
+
+    String refreshToken() {
+        return refreshToken;
+    }
+
+    void update(String accessToken, String refreshToken, long expiresInSeconds) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresAt = Instant.now().plusSeconds(expiresInSeconds);
+    }
+
+    boolean expiresWithin(long seconds) {
+        return expiresAt == null || Instant.now().plusSeconds(seconds).isAfter(expiresAt);
+    }
+}